@@ -1,9 +1,12 @@
 package com.daypulse.api_gateway;
 
+import com.daypulse.api_gateway.configuration.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class ApiGatewayApplication {
 
 	public static void main(String[] args) {
@@ -3,6 +3,7 @@ package com.daypulse.api_gateway.client;
 import com.daypulse.api_gateway.dto.ApiBaseResponse;
 import com.daypulse.api_gateway.dto.IntrospectRequest;
 import com.daypulse.api_gateway.dto.IntrospectResponse;
+import com.daypulse.api_gateway.dto.PermissionRegistryResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,6 +11,7 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
 import java.time.Duration;
 
@@ -17,20 +19,47 @@ import java.time.Duration;
 @Component
 @RequiredArgsConstructor
 public class AuthServiceClient {
+    /**
+     * Reactor context key that overrides {@code auth-service.url} for the requests of one exchange.
+     */
+    public static final String BASE_URL_CONTEXT_KEY = AuthServiceClient.class.getName() + ".baseUrl";
+
+    private static final Duration RPC_TIMEOUT = Duration.ofSeconds(5);
+
     private final WebClient.Builder webClientBuilder;
+    private final AuthServiceRpcClient rpcClient;
 
     @Value("${auth-service.url}")
     private String authServiceUrl;
 
+    /**
+     * Checks the token over the RSocket connection when it is enabled, falling back to the JSON
+     * endpoint when the call fails. Requests whose base URL is overridden always use the JSON endpoint.
+     */
     public Mono<IntrospectResponse> introspectToken(String token) {
+        return Mono.deferContextual(context -> {
+            if (!rpcClient.isEnabled() || context.hasKey(BASE_URL_CONTEXT_KEY)) {
+                return introspectOverHttp(token);
+            }
+            return rpcClient.introspect(token)
+                    .timeout(RPC_TIMEOUT)
+                    .map(valid -> IntrospectResponse.builder().valid(valid).build())
+                    .onErrorResume(error -> {
+                        log.warn("RPC introspection failed, falling back to HTTP: {}", error.getMessage());
+                        return introspectOverHttp(token);
+                    });
+        });
+    }
+
+    private Mono<IntrospectResponse> introspectOverHttp(String token) {
         IntrospectRequest request = IntrospectRequest.builder().token(token).build();
-        return webClientBuilder.build()
-                .post()
-                .uri(authServiceUrl + "/auth/introspect")
-                .header("Content-Type", "application/json")
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<ApiBaseResponse<IntrospectResponse>>() {})
+        return Mono.deferContextual(context -> webClientBuilder.build()
+                        .post()
+                        .uri(baseUrl(context) + "/auth/introspect")
+                        .header("Content-Type", "application/json")
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<ApiBaseResponse<IntrospectResponse>>() {}))
                 .timeout(Duration.ofSeconds(15))  // Add 5 second timeout
                 .map(response -> {
                     IntrospectResponse result = response.getResult();
@@ -44,4 +73,20 @@ public class AuthServiceClient {
                 .doOnError(error -> log.error("Error calling introspect endpoint: {}", error.getMessage()))
                 .onErrorReturn(IntrospectResponse.builder().valid(false).build());
     }
+
+    public Mono<PermissionRegistryResponse> fetchPermissionRegistry() {
+        return Mono.deferContextual(context -> webClientBuilder.build()
+                        .get()
+                        .uri(baseUrl(context) + "/auth/permission-registry")
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<ApiBaseResponse<PermissionRegistryResponse>>() {}))
+                .timeout(Duration.ofSeconds(15))
+                .flatMap(response -> Mono.justOrEmpty(response.getResult()))
+                .doOnNext(response -> log.info("Fetched permission registry version {}", response.getVersion()))
+                .doOnError(error -> log.error("Error fetching permission registry: {}", error.getMessage()));
+    }
+
+    private String baseUrl(ContextView context) {
+        return context.getOrDefault(BASE_URL_CONTEXT_KEY, authServiceUrl);
+    }
 }
@@ -0,0 +1,69 @@
+package com.daypulse.api_gateway.client;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Client of auth-service's internal RSocket token check.
+ * <p>
+ * Tokens go out as ASCII bytes and come back as one verdict byte. The requester connects lazily
+ * over TCP, multiplexes every call over that one connection and reconnects on the next call once
+ * it is lost. Disabled when {@code auth-service.rpc.port} is 0.
+ */
+@Slf4j
+@Component
+public class AuthServiceRpcClient {
+    static final String INTROSPECT_ROUTE = "auth.introspect";
+    static final String INTROSPECT_STREAM_ROUTE = "auth.introspect.stream";
+    private static final byte VALID = 1;
+
+    private final RSocketRequester requester;
+
+    public AuthServiceRpcClient(RSocketRequester.Builder requesterBuilder,
+                                @Value("${auth-service.rpc.host}") String host,
+                                @Value("${auth-service.rpc.port}") int port) {
+        this.requester = port > 0
+                ? requesterBuilder.dataMimeType(MimeTypeUtils.APPLICATION_OCTET_STREAM).tcp(host, port)
+                : null;
+    }
+
+    public boolean isEnabled() {
+        return requester != null;
+    }
+
+    public Mono<Boolean> introspect(String token) {
+        return requester.route(INTROSPECT_ROUTE)
+                .data(token.getBytes(StandardCharsets.US_ASCII))
+                .retrieveMono(byte[].class)
+                .map(AuthServiceRpcClient::isValid);
+    }
+
+    /**
+     * Checks a stream of tokens over one call; verdicts arrive in the order of the tokens.
+     */
+    public Flux<Boolean> introspect(Flux<String> tokens) {
+        return requester.route(INTROSPECT_STREAM_ROUTE)
+                .data(tokens.map(token -> token.getBytes(StandardCharsets.US_ASCII)), byte[].class)
+                .retrieveFlux(byte[].class)
+                .map(AuthServiceRpcClient::isValid);
+    }
+
+    @PreDestroy
+    void close() {
+        if (requester != null) {
+            requester.dispose();
+        }
+    }
+
+    private static boolean isValid(byte[] verdict) {
+        return verdict.length == 1 && verdict[0] == VALID;
+    }
+}
@@ -31,6 +31,7 @@ public class SecurityConfig {
                         .pathMatchers("/genzf/swagger-ui/**").permitAll()
                         .pathMatchers("/genzf/api-docs/**").permitAll()
                         .pathMatchers("/genzf/swagger-ui.html").permitAll()
+                        .pathMatchers("/actuator/health/**").permitAll()
                         // All other requests require authentication
                         .anyExchange().authenticated()
                 )
@@ -0,0 +1,18 @@
+package com.daypulse.api_gateway.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PermissionRegistryResponse {
+    private int version;
+    // Authority names indexed by bit position
+    private List<String> authorities;
+}
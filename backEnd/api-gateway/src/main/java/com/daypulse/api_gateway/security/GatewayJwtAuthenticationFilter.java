@@ -4,10 +4,11 @@ import com.daypulse.api_gateway.client.AuthServiceClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.stereotype.Component;
@@ -17,10 +18,6 @@ import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
-
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -28,8 +25,13 @@ public class GatewayJwtAuthenticationFilter implements WebFilter {
 
     private final ReactiveJwtDecoder jwtDecoder;
     private final AuthServiceClient authServiceClient;
+    private final PermissionBitsetDecoder permissionBitsetDecoder;
 
     private static final String BEARER_PREFIX = "Bearer ";
+    // Browsers cannot set headers on a WebSocket handshake or an EventSource
+    private static final String ACCESS_TOKEN_PARAMETER = "access_token";
+    // The only event stream; a token in the query string elsewhere would end up in access logs for nothing
+    private static final String EVENT_STREAM_PATH = "/main-service/notifications/stream";
 
     @Override
     @NonNull
@@ -52,20 +54,18 @@ public class GatewayJwtAuthenticationFilter implements WebFilter {
                                     return chain.filter(exchange);
                                 }
 
-                                // Step 3: Extract authorities from JWT scope claim
-                                String scope = jwt.getClaimAsString("scope");
-                                List<SimpleGrantedAuthority> authorities = Arrays.stream(scope.split(" "))
-                                        .map(SimpleGrantedAuthority::new)
-                                        .collect(Collectors.toList());
-
-                                // Step 4: Create authentication object
-                                String username = jwt.getSubject();
-                                UsernamePasswordAuthenticationToken authentication =
-                                        new UsernamePasswordAuthenticationToken(username, null, authorities);
+                                // Step 3: Map the permission bitset claim to authorities
+                                return permissionBitsetDecoder.decode(jwt)
+                                        .flatMap(authorities -> {
+                                            // Step 4: Create authentication object
+                                            String username = jwt.getSubject();
+                                            UsernamePasswordAuthenticationToken authentication =
+                                                    new UsernamePasswordAuthenticationToken(username, null, authorities);
 
-                                // Step 5: Set authentication in security context and continue
-                                return chain.filter(exchange)
-                                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+                                            // Step 5: Set authentication in security context and continue
+                                            return chain.filter(exchange)
+                                                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+                                        });
                             });
                 })
                 .onErrorResume(error -> {
@@ -79,6 +79,18 @@ public class GatewayJwtAuthenticationFilter implements WebFilter {
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(BEARER_PREFIX)) {
             return bearerToken.substring(BEARER_PREFIX.length());
         }
+        if ("websocket".equalsIgnoreCase(request.getHeaders().getUpgrade()) || isEventStream(request)) {
+            String accessToken = request.getQueryParams().getFirst(ACCESS_TOKEN_PARAMETER);
+            if (StringUtils.hasText(accessToken)) {
+                return accessToken;
+            }
+        }
         return null;
     }
+
+    private static boolean isEventStream(ServerHttpRequest request) {
+        return request.getMethod() == HttpMethod.GET
+                && EVENT_STREAM_PATH.equals(request.getPath().pathWithinApplication().value())
+                && request.getHeaders().getAccept().contains(MediaType.TEXT_EVENT_STREAM);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package com.daypulse.api_gateway.security;
+
+import com.daypulse.api_gateway.client.AuthServiceClient;
+import com.daypulse.api_gateway.dto.PermissionRegistryResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Turns the permission bitset claim issued by auth-service into granted authorities.
+ * <p>
+ * The bit-to-name table is fetched from auth-service and only refreshed when a token was issued
+ * against a newer registry version. Positions are never reused, so the authorities for a given
+ * claim value are computed once and served from a map afterwards.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionBitsetDecoder {
+    static final String PERMISSIONS_CLAIM = "perms";
+    static final String VERSION_CLAIM = "perms_ver";
+
+    private static final int MAX_CACHED_COMBINATIONS = 4096;
+
+    private final AuthServiceClient authServiceClient;
+
+    private final AtomicReference<List<String>> table = new AtomicReference<>(List.of());
+    private final Map<String, List<GrantedAuthority>> authoritiesByClaim = new ConcurrentHashMap<>();
+    private final AtomicReference<Mono<List<String>>> pendingRefresh = new AtomicReference<>();
+
+    public Mono<List<GrantedAuthority>> decode(Jwt jwt) {
+        String permissions = jwt.getClaimAsString(PERMISSIONS_CLAIM);
+        if (permissions == null) {
+            return Mono.just(fromScope(jwt));
+        }
+
+        List<GrantedAuthority> cached = authoritiesByClaim.get(permissions);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        BitSet bits = BitSet.valueOf(Base64.getUrlDecoder().decode(permissions));
+        Number version = jwt.getClaim(VERSION_CLAIM);
+        int required = Math.max(bits.length(), version == null ? 0 : version.intValue());
+
+        List<String> names = table.get();
+        Mono<List<String>> resolvedTable = names.size() >= required ? Mono.just(names) : refreshTable();
+        return resolvedTable.map(resolved -> toAuthorities(permissions, bits, resolved));
+    }
+
+    private List<GrantedAuthority> toAuthorities(String permissions, BitSet bits, List<String> names) {
+        List<GrantedAuthority> authorities = new ArrayList<>(bits.cardinality());
+        boolean complete = true;
+        for (int position = bits.nextSetBit(0); position >= 0; position = bits.nextSetBit(position + 1)) {
+            if (position < names.size()) {
+                authorities.add(new SimpleGrantedAuthority(names.get(position)));
+            } else {
+                complete = false;
+            }
+        }
+        authorities = List.copyOf(authorities);
+
+        // Only cache complete decodings so a failed registry refresh is retried on the next request
+        if (complete) {
+            if (authoritiesByClaim.size() >= MAX_CACHED_COMBINATIONS) {
+                authoritiesByClaim.clear();
+            }
+            authoritiesByClaim.put(permissions, authorities);
+        } else {
+            log.warn("Permission registry version {} does not cover all bits of the token", names.size());
+        }
+        return authorities;
+    }
+
+    /**
+     * Fetches the registry table; concurrent callers share the same in-flight request.
+     */
+    private Mono<List<String>> refreshTable() {
+        Mono<List<String>> refresh = authServiceClient.fetchPermissionRegistry()
+                .map(PermissionRegistryResponse::getAuthorities)
+                .map(List::copyOf)
+                .doOnNext(table::set)
+                .onErrorResume(error -> Mono.empty())
+                .defaultIfEmpty(table.get())
+                .doFinally(signal -> pendingRefresh.set(null))
+                .cache();
+        // A refresh can finish between a failed exchange and reading the winner, so retry until one sticks
+        while (true) {
+            Mono<List<String>> pending = pendingRefresh.get();
+            if (pending != null) {
+                return pending;
+            }
+            if (pendingRefresh.compareAndSet(null, refresh)) {
+                return refresh;
+            }
+        }
+    }
+
+    /**
+     * Tokens issued before the bitset claim existed carry a space-joined scope string.
+     */
+    private static List<GrantedAuthority> fromScope(Jwt jwt) {
+        String scope = jwt.getClaimAsString("scope");
+        if (!StringUtils.hasText(scope)) {
+            return List.of();
+        }
+        return Arrays.stream(scope.split(" "))
+                .filter(StringUtils::hasText)
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+}
@@ -0,0 +1,41 @@
+package com.daypulse.api_gateway.warmup;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+/**
+ * Points the routed URL of a warm-up request at the stub backend, after the route has resolved it.
+ */
+@Component
+public class WarmUpBackendFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        URI stub = exchange.getAttribute(WarmUpRouting.STUB_URI_ATTRIBUTE);
+        URI target = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (stub != null && target != null) {
+            exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, UriComponentsBuilder.fromUri(target)
+                    .scheme(stub.getScheme())
+                    .host(stub.getHost())
+                    .port(stub.getPort())
+                    .build(true)
+                    .toUri());
+        }
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 1;
+    }
+}
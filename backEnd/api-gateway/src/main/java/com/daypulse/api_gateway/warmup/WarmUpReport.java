@@ -0,0 +1,80 @@
+package com.daypulse.api_gateway.warmup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Latencies of the warm-up operations: the mean of the first calls, made against cold code, and
+ * of the last calls, made after the JIT had the whole warm-up to compile them. Their ratio is what
+ * the warm-up saved the first real requests.
+ */
+@Slf4j
+class WarmUpReport {
+    static final int WINDOW = 20;
+
+    private final Map<String, Samples> operations = new LinkedHashMap<>();
+
+    <T> T time(String operation, Callable<T> call) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return call.call();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            operations.computeIfAbsent(operation, name -> new Samples()).add(elapsed);
+        }
+    }
+
+    /**
+     * Logs the report and publishes it as {@code warmup.latency{operation, phase=cold|warm}} gauges in milliseconds.
+     */
+    void publish(Duration elapsed, int cycles, MeterRegistry meterRegistry) {
+        log.info("Warm-up ran {} cycles in {} ms", cycles, elapsed.toMillis());
+        operations.forEach((operation, samples) -> {
+            double coldMs = samples.coldMeanNanos() / 1e6;
+            double warmMs = samples.warmMeanNanos() / 1e6;
+            log.info("  {}: {} calls, mean of first {} {} ms, of last {} {} ms ({}x faster)", operation,
+                    samples.count, WINDOW, String.format("%.3f", coldMs), WINDOW, String.format("%.3f", warmMs),
+                    String.format("%.1f", warmMs > 0 ? coldMs / warmMs : 0));
+            Gauge.builder("warmup.latency", () -> coldMs)
+                    .tags("operation", operation, "phase", "cold")
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("warmup.latency", () -> warmMs)
+                    .tags("operation", operation, "phase", "warm")
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        });
+    }
+
+    private static class Samples {
+        private final long[] last = new long[WINDOW];
+        private long coldTotal;
+        private int count;
+
+        void add(long nanos) {
+            if (count < WINDOW) {
+                coldTotal += nanos;
+            }
+            last[count % WINDOW] = nanos;
+            count++;
+        }
+
+        double coldMeanNanos() {
+            return (double) coldTotal / Math.min(WINDOW, count);
+        }
+
+        double warmMeanNanos() {
+            long total = 0;
+            for (int i = 0; i < Math.min(WINDOW, count); i++) {
+                total += last[i];
+            }
+            return (double) total / Math.min(WINDOW, count);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.daypulse.api_gateway.warmup;
+
+import com.daypulse.api_gateway.client.AuthServiceClient;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Marks the requests of a running warm-up so that they reach the in-process stub backends instead
+ * of the configured services. A warm-up request carries the secret handed out by {@link #activate};
+ * outside a warm-up there is no secret and every request is routed normally.
+ * <p>
+ * Introspection calls made for a marked request go to the stub through the Reactor context, and
+ * {@link WarmUpBackendFilter} rewrites the routed URL.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class WarmUpRouting implements WebFilter {
+    static final String HEADER = "X-Warm-Up";
+    static final String STUB_URI_ATTRIBUTE = WarmUpRouting.class.getName() + ".stubUri";
+
+    private volatile URI stubUri;
+    private volatile String secret;
+
+    String activate(URI stubUri) {
+        this.stubUri = stubUri;
+        this.secret = UUID.randomUUID().toString();
+        return secret;
+    }
+
+    void deactivate() {
+        secret = null;
+        stubUri = null;
+    }
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        String expected = secret;
+        URI stub = stubUri;
+        if (expected == null || stub == null || !expected.equals(exchange.getRequest().getHeaders().getFirst(HEADER))) {
+            return chain.filter(exchange);
+        }
+        exchange.getAttributes().put(STUB_URI_ATTRIBUTE, stub);
+        return chain.filter(exchange)
+                .contextWrite(Context.of(AuthServiceClient.BASE_URL_CONTEXT_KEY, stub.toString()));
+    }
+}
@@ -0,0 +1,141 @@
+package com.daypulse.api_gateway.warmup;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Drives a representative route mix through the gateway before it reports ready.
+ * <p>
+ * Application runners finish before the readiness state turns to ACCEPTING_TRAFFIC, so the first
+ * real requests after a rollout hit compiled code instead of the interpreter. Requests go over
+ * loopback through the security chain, JWT decoding, introspection and the routes, with
+ * {@link WarmUpRouting} sending every backend call to a {@link WarmUpStubServer}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WarmUpRunner implements ApplicationRunner {
+    private static final String SUBJECT = "warm-up";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    private final WarmUpRouting warmUpRouting;
+    private final ReactiveJwtDecoder jwtDecoder;
+    private final WebClient.Builder webClientBuilder;
+    private final ApplicationContext applicationContext;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${warm-up.duration}")
+    private Duration warmUpDuration;
+
+    @Value("${jwt.signing-key}")
+    private String signingKey;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (warmUpDuration.isZero() || warmUpDuration.isNegative()) {
+            return;
+        }
+        MACSigner signer = new MACSigner(Base64.getDecoder().decode(signingKey));
+        WarmUpReport report = new WarmUpReport();
+        long start = System.nanoTime();
+        long deadline = start + warmUpDuration.toNanos();
+        int cycles = 0;
+
+        try (WarmUpStubServer stub = WarmUpStubServer.start()) {
+            WebClient client = loopbackClient(warmUpRouting.activate(stub.uri()));
+            if (client == null) {
+                log.info("No web server running, warm-up skips the HTTP requests");
+            }
+            while (System.nanoTime() < deadline) {
+                cycle(report, sign(signer), client);
+                cycles++;
+            }
+        } catch (Exception e) {
+            log.warn("Warm-up stopped after {} cycles: {}", cycles, e.getMessage());
+        } finally {
+            warmUpRouting.deactivate();
+        }
+        report.publish(Duration.ofNanos(System.nanoTime() - start), cycles, meterRegistry);
+    }
+
+    private void cycle(WarmUpReport report, String token, WebClient client) throws Exception {
+        report.time("decode", () -> jwtDecoder.decode(token).block(REQUEST_TIMEOUT));
+        if (client == null) {
+            return;
+        }
+
+        report.time("feed", () -> client.get()
+                .uri("/main-service/feed")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchangeToMono(ClientResponse::releaseBody)
+                .block(REQUEST_TIMEOUT));
+        report.time("my-info", () -> client.get()
+                .uri("/auth-service/users/my-info")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchangeToMono(ClientResponse::releaseBody)
+                .block(REQUEST_TIMEOUT));
+        report.time("login", () -> client.post()
+                .uri("/auth-service/auth/token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("username", SUBJECT, "password", SUBJECT))
+                .exchangeToMono(ClientResponse::releaseBody)
+                .block(REQUEST_TIMEOUT));
+        report.time("unauthenticated", () -> client.get()
+                .uri("/main-service/feed")
+                .exchangeToMono(ClientResponse::releaseBody)
+                .block(REQUEST_TIMEOUT));
+    }
+
+    /**
+     * A token shaped like auth-service's, with an empty permission bitset so the registry is not consulted.
+     */
+    private static String sign(MACSigner signer) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(SUBJECT)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(Duration.ofMinutes(5))))
+                .jwtID(UUID.randomUUID().toString())
+                .claim("perms", "")
+                .claim("perms_ver", 0)
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS512), claims);
+        jwt.sign(signer);
+        return jwt.serialize();
+    }
+
+    private WebClient loopbackClient(String secret) {
+        if (!(applicationContext instanceof WebServerApplicationContext webContext) || webContext.getWebServer() == null) {
+            return null;
+        }
+        return webClientBuilder.clone()
+                .baseUrl("http://localhost:" + webContext.getWebServer().getPort())
+                .defaultHeader(WarmUpRouting.HEADER, secret)
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.daypulse.api_gateway.warmup;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.net.URI;
+
+/**
+ * Loopback HTTP server standing in for auth-service and main-service during the warm-up. It
+ * accepts every introspected token and answers any other request with an empty result.
+ */
+class WarmUpStubServer implements AutoCloseable {
+    private static final String INTROSPECT_RESPONSE = "{\"code\":1000,\"result\":{\"valid\":true}}";
+    private static final String EMPTY_RESPONSE = "{\"code\":1000,\"result\":{}}";
+
+    private final DisposableServer server;
+
+    private WarmUpStubServer(DisposableServer server) {
+        this.server = server;
+    }
+
+    static WarmUpStubServer start() {
+        return new WarmUpStubServer(HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes
+                        .post("/auth/introspect", (request, response) -> respond(request, response, INTROSPECT_RESPONSE))
+                        .route(request -> true, (request, response) -> respond(request, response, EMPTY_RESPONSE)))
+                .bindNow());
+    }
+
+    URI uri() {
+        return URI.create("http://localhost:" + server.port());
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private static Mono<Void> respond(HttpServerRequest request, HttpServerResponse response, String body) {
+        return request.receive()
+                .then(response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .sendString(Mono.just(body))
+                        .then());
+    }
+}
@@ -0,0 +1,105 @@
+package com.daypulse.auth_serivce.outbox.codec;
+
+import com.daypulse.auth_serivce.outbox.AuthEventType;
+import com.daypulse.auth_serivce.outbox.UserEventPayload;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of an {@code auth.user.updated} event: the binary envelope against the
+ * JSON line the file sink writes. The sizes are printed at setup.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args=EventCodecBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventCodecBenchmark {
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final WireWriter writer = new WireWriter(256);
+
+    private JsonEnvelope event;
+    private byte[] binary;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        String userId = UUID.randomUUID().toString();
+        UserEventPayload payload = new UserEventPayload(userId, "alice.nguyen", "Alice", "Nguyen",
+                LocalDate.of(1994, 3, 17), List.of("USER"));
+        event = new JsonEnvelope(1_284_113L, AuthEventType.USER_UPDATED.getTopic(), userId, payload, Instant.now());
+        binary = encodeBinary();
+        json = encodeJson();
+        System.out.printf("%nbinary %d bytes, json %d bytes%n", binary.length, json.length);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        EventEnvelopeCodec.encode(event.id(), AuthEventType.USER_UPDATED, event.key(), event.createdAt(), event.payload(),
+                writer.reset());
+        return writer.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    /**
+     * Reading what a router needs, type and key, without touching the payload.
+     */
+    @Benchmark
+    public String routeBinary() {
+        EventEnvelope envelope = EventEnvelope.wrap(ByteBuffer.wrap(binary));
+        return envelope.type() == AuthEventType.USER_UPDATED ? envelope.aggregateId() : null;
+    }
+
+    @Benchmark
+    public String routeJson() throws IOException {
+        JsonNode node = objectMapper.readTree(json);
+        return AuthEventType.USER_UPDATED.getTopic().equals(node.get("topic").asText()) ? node.get("key").asText() : null;
+    }
+
+    @Benchmark
+    public Object decodeBinary() {
+        return EventEnvelopeCodec.decodePayload(EventEnvelope.wrap(ByteBuffer.wrap(binary)));
+    }
+
+    @Benchmark
+    public Object decodeJson() throws IOException {
+        return objectMapper.readValue(json, JsonEnvelope.class).payload();
+    }
+
+    /**
+     * The JSON line of {@code FileOutboxSink}, with the payload typed for decoding.
+     */
+    public record JsonEnvelope(long id, String topic, String key, UserEventPayload payload, Instant createdAt) {
+    }
+}
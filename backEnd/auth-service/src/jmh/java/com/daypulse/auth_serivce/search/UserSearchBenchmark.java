@@ -0,0 +1,72 @@
+package com.daypulse.auth_serivce.search;
+
+import com.daypulse.auth_serivce.dto.response.UserProfileResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of an autocomplete lookup in a segment of a million users with Vietnamese names, for
+ * prefixes from one letter, where ranked lists answer, to a full family name and given name.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args=UserSearchBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UserSearchBenchmark {
+    private static final int USERS = 1_000_000;
+    private static final String[] FAMILY_NAMES = {"Nguyễn", "Trần", "Lê", "Phạm", "Hoàng", "Huỳnh", "Phan", "Vũ",
+            "Võ", "Đặng", "Bùi", "Đỗ", "Hồ", "Ngô", "Dương", "Lý"};
+    private static final String[] MIDDLE_NAMES = {"Văn", "Thị", "Hữu", "Đức", "Minh", "Ngọc", "Thanh", "Quốc"};
+    private static final String[] GIVEN_NAMES = {"An", "Anh", "Bảo", "Châu", "Dũng", "Giang", "Hà", "Hải", "Hiếu",
+            "Hoa", "Hùng", "Khánh", "Linh", "Long", "Mai", "Nam", "Nga", "Ngân", "Phúc", "Quang", "Sơn", "Tâm",
+            "Thảo", "Trang", "Trung", "Tuấn", "Uyên", "Việt", "Xuân", "Yến"};
+
+    @Param({"n", "ng", "ngu", "nguy", "nguyen van h", "tuan"})
+    private String query;
+
+    private UserSearchSegment segment;
+    private byte[] prefix;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        UserSearchSegment.Builder builder = new UserSearchSegment.Builder();
+        for (int i = 0; i < USERS; i++) {
+            String given = GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)];
+            String username = SearchTerms.normalize(given) + Integer.toString(random.nextInt(USERS * 4), 36);
+            builder.add(new UserProfileResponse(UUID.randomUUID().toString(), username,
+                    MIDDLE_NAMES[random.nextInt(MIDDLE_NAMES.length)] + " " + given,
+                    FAMILY_NAMES[random.nextInt(FAMILY_NAMES.length)]));
+        }
+        long started = System.nanoTime();
+        segment = builder.build(40);
+        System.out.printf("%nBuilt %d users in %d ms, %d MiB%n", segment.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), segment.footprint() >> 20);
+        prefix = SearchTerms.bytes(query);
+    }
+
+    @Benchmark
+    public List<UserSearchSegment.Match> search() {
+        return segment.search(prefix, 10, Set.of());
+    }
+}
@@ -0,0 +1,103 @@
+package com.daypulse.auth_serivce.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-call cost of a method authorization check: the SpEL {@code @PreAuthorize} manager against
+ * {@link AccessRuleAuthorizationManager}, for the same rules and the same caller.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args=AuthorizationBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorizationBenchmark {
+    private final PreAuthorizeAuthorizationManager spelManager = new PreAuthorizeAuthorizationManager();
+    private final AccessRuleAuthorizationManager ruleManager = new AccessRuleAuthorizationManager();
+
+    private Supplier<Authentication> user;
+    private Supplier<Authentication> admin;
+    private MethodInvocation updateUser;
+    private MethodInvocation deleteUser;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        user = caller("alice", "ROLE_USER", "READ_DATA", "CREATE_POST");
+        admin = caller("root", "ROLE_ADMIN", "APPROVE_DATA", "READ_DATA");
+
+        Guarded target = new Guarded();
+        updateUser = new SimpleMethodInvocation(target, Guarded.class.getMethod("updateUser", String.class), "some-user-id");
+        deleteUser = new SimpleMethodInvocation(target, Guarded.class.getMethod("deleteUser", String.class), "some-user-id");
+        // Compile the rules the way proxy creation does at startup.
+        ruleManager.pointcut().getMethodMatcher().matches(updateUser.getMethod(), Guarded.class);
+        ruleManager.pointcut().getMethodMatcher().matches(deleteUser.getMethod(), Guarded.class);
+    }
+
+    @Benchmark
+    public AuthorizationDecision spelAdminOrSelfDenied() {
+        return spelManager.check(user, updateUser);
+    }
+
+    @Benchmark
+    public AuthorizationDecision ruleAdminOrSelfDenied() {
+        return ruleManager.check(user, updateUser);
+    }
+
+    @Benchmark
+    public AuthorizationDecision spelAdminGranted() {
+        return spelManager.check(admin, deleteUser);
+    }
+
+    @Benchmark
+    public AuthorizationDecision ruleAdminGranted() {
+        return ruleManager.check(admin, deleteUser);
+    }
+
+    private static Supplier<Authentication> caller(String subject, String... authorities) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "HS512")
+                .subject(subject)
+                .build();
+        List<GrantedAuthority> granted = AuthorityUtils.createAuthorityList(authorities);
+        Authentication authentication = new BitsetJwtAuthenticationToken(jwt, granted, AccessRule.authorityMask(granted));
+        return () -> authentication;
+    }
+
+    public static class Guarded {
+        @PreAuthorize("hasRole('ADMIN') or #userId == authentication.principal")
+        @Authorize(value = AccessRule.ADMIN_OR_SELF, subject = "userId")
+        public void updateUser(String userId) {
+        }
+
+        @PreAuthorize("hasRole('ADMIN')")
+        @Authorize(AccessRule.ADMIN)
+        public void deleteUser(String userId) {
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.daypulse.auth_serivce;
 
+import com.daypulse.auth_serivce.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
+@EnableScheduling
 public class AuthSerivceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,10 @@
+package com.daypulse.auth_serivce.cache;
+
+import java.time.Instant;
+
+/**
+ * A change broadcast by one auth-service instance. {@code sequence} counts the changes published
+ * by {@code nodeId} since it started, without gaps.
+ */
+public record CacheInvalidation(String nodeId, long sequence, InvalidationKind kind, String key, Instant expiresAt) {
+}
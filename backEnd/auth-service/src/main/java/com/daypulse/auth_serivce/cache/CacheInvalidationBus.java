@@ -0,0 +1,384 @@
+package com.daypulse.auth_serivce.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Broadcasts cache invalidations between auth-service instances through the shared database.
+ * <p>
+ * Every change is appended to {@code cache_invalidations} after the change has committed. On
+ * PostgreSQL it is also sent with {@code NOTIFY} to the instances that {@code LISTEN} on a
+ * dedicated connection, which apply it within milliseconds. The table is polled as a fallback:
+ * every {@code poll-interval} while notifications are unavailable, and every
+ * {@code safety-poll-interval} while they work.
+ * <p>
+ * Each instance numbers its changes without gaps. Concurrent changes may commit, and so arrive, out
+ * of order; invalidations do not depend on their order, so each is applied when it arrives. A
+ * receiver that still misses a skipped number after {@link #GAP_GRACE} has lost a change, so it
+ * resyncs all local caches. Changes seen twice, once by notification and once by polling, are
+ * dropped by the same numbering.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+    static final String CHANNEL = "cache_invalidations";
+
+    // Rows are numbered when inserted but become visible when committed, so a poll re-reads a
+    // few rows behind its cursor to pick up inserts from other instances that committed late.
+    private static final int POLL_OVERLAP = 100;
+    private static final int POLL_LIMIT = 1000;
+    private static final int LISTEN_TIMEOUT_MILLIS = 1000;
+    private static final char SEPARATOR = '|';
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+    private static final Duration GAP_GRACE = Duration.ofSeconds(5);
+    // More skipped numbers than this are not waited for
+    private static final int MAX_GAP = 100;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final TransactionTemplate requiresNew;
+    private final List<CacheInvalidationListener> listeners;
+    private final Duration pollInterval;
+    private final Duration safetyPollInterval;
+    private final Duration retention;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Long> lastSequenceByNode = new HashMap<>();
+    // Per node, the numbers skipped over and when each was found missing
+    private final Map<String, Map<Long, Long>> missingByNode = new HashMap<>();
+    private long cursor;
+    private volatile boolean started;
+    private volatile boolean notifying;
+    private volatile boolean listening;
+    private volatile boolean pollDue = true;
+    private volatile long lastPollNanos;
+    private volatile Thread listenerThread;
+
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate,
+                                DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                List<CacheInvalidationListener> listeners,
+                                @Value("${cache-invalidation.poll-interval}") Duration pollInterval,
+                                @Value("${cache-invalidation.safety-poll-interval}") Duration safetyPollInterval,
+                                @Value("${cache-invalidation.retention}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.listeners = listeners;
+        this.pollInterval = pollInterval;
+        this.safetyPollInterval = safetyPollInterval;
+        this.retention = retention;
+    }
+
+    /**
+     * Broadcasts a change to the other instances once the current transaction commits, or right
+     * away outside a transaction. Failures are logged, not thrown: the change itself is already
+     * committed, and the receivers notice the missing number with this instance's next change.
+     */
+    public void publish(InvalidationKind kind, String key, Instant expiresAt) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(kind, key, expiresAt);
+                }
+            });
+        } else {
+            append(kind, key, expiresAt);
+        }
+    }
+
+    public void publish(InvalidationKind kind, String key) {
+        publish(kind, key, null);
+    }
+
+    /**
+     * Position of the latest change recorded. A copy read from the database after taking it
+     * reflects every change up to it; later ones are listed by {@link #keysChangedAfter}.
+     */
+    public long position() {
+        return jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + CHANNEL, Long.class);
+    }
+
+    /**
+     * Keys of the changes of {@code kind} recorded after {@code position}, taken at
+     * {@code positionTakenAt}. Empty when some of them may have been purged already, or the
+     * position is from another database.
+     */
+    public Optional<Set<String>> keysChangedAfter(InvalidationKind kind, long position, Instant positionTakenAt) {
+        // Rows are stamped by the clocks of all instances, so allow for some skew
+        if (positionTakenAt.isBefore(Instant.now().minus(retention).plus(CLOCK_SKEW)) || position > position()) {
+            return Optional.empty();
+        }
+        return Optional.of(new HashSet<>(jdbcTemplate.queryForList("select cache_key from " + CHANNEL
+                + " where id > ? and kind = ?", String.class, position, kind.name())));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        synchronized (this) {
+            cursor = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + CHANNEL, Long.class);
+        }
+        // Changes made before this instance started are only in the database
+        resync("startup");
+        started = true;
+        if (isPostgres()) {
+            notifying = true;
+            listenerThread = Thread.ofPlatform().daemon().name("cache-invalidation-listener").start(this::listen);
+        } else {
+            log.info("Database notifications unavailable, polling cache invalidations every {}", pollInterval);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        started = false;
+        Thread thread = listenerThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cache-invalidation.poll-interval}")
+    public void poll() {
+        if (!started) {
+            return;
+        }
+        resyncStaleGaps();
+        Duration interval = listening ? safetyPollInterval : pollInterval;
+        if (!pollDue && System.nanoTime() - lastPollNanos < interval.toNanos()) {
+            return;
+        }
+        pollDue = false;
+        lastPollNanos = System.nanoTime();
+
+        long from;
+        synchronized (this) {
+            from = Math.max(0, cursor - POLL_OVERLAP);
+        }
+        List<Row> rows;
+        try {
+            rows = jdbcTemplate.query("select id, node_id, node_seq, kind, cache_key, expires_at from " + CHANNEL
+                    + " where id > ? order by id limit " + POLL_LIMIT, ROW_MAPPER, from);
+        } catch (DataAccessException e) {
+            log.warn("Polling cache invalidations failed: {}", e.getMessage());
+            return;
+        }
+        for (Row row : rows) {
+            receive(row.invalidation());
+        }
+        if (!rows.isEmpty()) {
+            synchronized (this) {
+                cursor = Math.max(cursor, rows.getLast().id());
+            }
+        }
+        if (rows.size() == POLL_LIMIT) {
+            // Too far behind to replay; skip to the end
+            synchronized (this) {
+                cursor = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + CHANNEL, Long.class);
+            }
+            resync("backlog over " + POLL_LIMIT + " changes");
+        }
+    }
+
+    @Scheduled(initialDelayString = "${cache-invalidation.retention}", fixedDelayString = "${cache-invalidation.retention}")
+    public void purgeExpired() {
+        int deleted = jdbcTemplate.update("delete from " + CHANNEL + " where created_at < ?",
+                Timestamp.from(Instant.now().minus(retention)));
+        if (deleted > 0) {
+            log.info("Purged {} cache invalidations older than {}", deleted, retention);
+        }
+    }
+
+    private void append(InvalidationKind kind, String key, Instant expiresAt) {
+        // Concurrent appends may commit out of order; receivers wait for the skipped numbers
+        long next = sequence.incrementAndGet();
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                jdbcTemplate.update("insert into " + CHANNEL
+                                + " (node_id, node_seq, kind, cache_key, expires_at, created_at) values (?, ?, ?, ?, ?, ?)",
+                        nodeId, next, kind.name(), key, expiresAt == null ? null : Timestamp.from(expiresAt),
+                        Timestamp.from(Instant.now()));
+                if (notifying) {
+                    jdbcTemplate.queryForList("select pg_notify(?, ?)", CHANNEL,
+                            encode(new CacheInvalidation(nodeId, next, kind, key, expiresAt)));
+                }
+            });
+        } catch (DataAccessException e) {
+            log.error("Could not broadcast {} {}: {}", kind, key, e.getMessage());
+        }
+    }
+
+    private synchronized void receive(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.nodeId())) {
+            return;
+        }
+        String node = invalidation.nodeId();
+        long number = invalidation.sequence();
+        Long last = lastSequenceByNode.get(node);
+        if (last != null && number <= last) {
+            // Either seen already or one that committed late
+            Map<Long, Long> missing = missingByNode.get(node);
+            if (missing == null || missing.remove(number) == null) {
+                return;
+            }
+            if (missing.isEmpty()) {
+                missingByNode.remove(node);
+            }
+        } else {
+            lastSequenceByNode.put(node, number);
+            if (last != null && number != last + 1) {
+                if (number - last - 1 > MAX_GAP) {
+                    resync("changes " + (last + 1) + " to " + (number - 1) + " of " + node + " missed");
+                    return;
+                }
+                Map<Long, Long> missing = missingByNode.computeIfAbsent(node, key -> new HashMap<>());
+                long now = System.nanoTime();
+                for (long skipped = last + 1; skipped < number; skipped++) {
+                    missing.put(skipped, now);
+                }
+                // Late commits are picked up by the poll's overlap
+                pollDue = true;
+            }
+        }
+        for (CacheInvalidationListener listener : listeners) {
+            try {
+                listener.onInvalidation(invalidation);
+            } catch (RuntimeException e) {
+                log.error("Applying {} failed, resyncing", invalidation, e);
+                resync("failed invalidation");
+                return;
+            }
+        }
+    }
+
+    private synchronized void resyncStaleGaps() {
+        long now = System.nanoTime();
+        String stale = missingByNode.entrySet().stream()
+                .filter(entry -> entry.getValue().values().stream().anyMatch(since -> now - since > GAP_GRACE.toNanos()))
+                .map(entry -> entry.getValue().size() + " changes of " + entry.getKey())
+                .collect(Collectors.joining(", "));
+        if (!stale.isEmpty()) {
+            resync(stale + " missed");
+        }
+    }
+
+    private synchronized void resync(String reason) {
+        log.info("Resyncing local caches: {}", reason);
+        // Reloading covers every change committed so far, including the ones still missing
+        missingByNode.clear();
+        for (CacheInvalidationListener listener : listeners) {
+            listener.resync();
+        }
+    }
+
+    private void listen() {
+        while (started) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                listening = true;
+                log.info("Listening for cache invalidations");
+                // Changes published while the connection was down are only in the table
+                pollDue = true;
+                while (started) {
+                    PGNotification[] notifications = pgConnection.getNotifications(LISTEN_TIMEOUT_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        receive(decode(notification.getParameter()));
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (started) {
+                    log.warn("Cache invalidation listener failed, polling until it reconnects: {}", e.getMessage());
+                }
+            } finally {
+                listening = false;
+            }
+            try {
+                Thread.sleep(pollInterval.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private boolean isPostgres() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(product);
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not determine the database product: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    static String encode(CacheInvalidation invalidation) {
+        // The key goes last so it may contain the separator
+        return invalidation.nodeId() + SEPARATOR + invalidation.sequence() + SEPARATOR + invalidation.kind()
+                + SEPARATOR + (invalidation.expiresAt() == null ? "" : invalidation.expiresAt().toEpochMilli())
+                + SEPARATOR + (invalidation.key() == null ? "" : invalidation.key());
+    }
+
+    static CacheInvalidation decode(String payload) {
+        String[] fields = payload.split("\\" + SEPARATOR, 5);
+        return new CacheInvalidation(fields[0], Long.parseLong(fields[1]), InvalidationKind.valueOf(fields[2]),
+                fields[4].isEmpty() ? null : fields[4],
+                fields[3].isEmpty() ? null : Instant.ofEpochMilli(Long.parseLong(fields[3])));
+    }
+
+    private record Row(long id, CacheInvalidation invalidation) {
+    }
+
+    private static final RowMapper<Row> ROW_MAPPER = (resultSet, rowNum) -> {
+        Timestamp expiresAt = resultSet.getTimestamp("expires_at");
+        return new Row(resultSet.getLong("id"), new CacheInvalidation(
+                resultSet.getString("node_id"),
+                resultSet.getLong("node_seq"),
+                InvalidationKind.valueOf(resultSet.getString("kind")),
+                resultSet.getString("cache_key"),
+                expiresAt == null ? null : expiresAt.toInstant()));
+    };
+}
@@ -0,0 +1,15 @@
+package com.daypulse.auth_serivce.cache;
+
+/**
+ * A local cache kept coherent by the {@link CacheInvalidationBus}. Only changes made on other
+ * instances are delivered; the instance making a change updates its own caches directly.
+ */
+public interface CacheInvalidationListener {
+
+    void onInvalidation(CacheInvalidation invalidation);
+
+    /**
+     * Drops or reloads everything, after changes may have been missed.
+     */
+    void resync();
+}
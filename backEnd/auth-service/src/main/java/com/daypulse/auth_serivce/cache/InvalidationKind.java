@@ -0,0 +1,14 @@
+package com.daypulse.auth_serivce.cache;
+
+/**
+ * What a {@link CacheInvalidation} is about; the key is the id of the changed entity.
+ */
+public enum InvalidationKind {
+    USER,
+    ROLE,
+    PERMISSION,
+    /**
+     * Key is the token id, expiry is the token's expiry.
+     */
+    TOKEN_REVOKED
+}
@@ -0,0 +1,28 @@
+package com.daypulse.auth_serivce.config;
+
+import com.daypulse.auth_serivce.security.BitsetJwtAuthenticationToken;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the request's authentication from a decoded JWT, attaching the cached authority mask
+ * used by {@link com.daypulse.auth_serivce.security.AccessRuleAuthorizationManager}.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BitsetJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+    PermissionBitsetAuthoritiesConverter authoritiesConverter;
+
+    @Override
+    public AbstractAuthenticationToken convert(@NonNull Jwt jwt) {
+        PermissionBitsetAuthoritiesConverter.Grant grant = authoritiesConverter.grant(jwt);
+        return new BitsetJwtAuthenticationToken(jwt, grant.authorities(), grant.authorityMask());
+    }
+}
@@ -1,34 +1,46 @@
 package com.daypulse.auth_serivce.config;
 
+import com.daypulse.auth_serivce.security.DecodedJwtCache;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.stereotype.Component;
 
 import javax.crypto.spec.SecretKeySpec;
 import java.util.Base64;
-import java.util.Objects;
 
+@Component
 public class CustomJwtDecoder implements JwtDecoder {
 
-    @Value("${jwt.signing-key}")
-    private String SIGNING_KEY;
+    private final NimbusJwtDecoder nimbusJwtDecoder;
+    private final DecodedJwtCache decodedJwtCache;
 
-    private NimbusJwtDecoder nimbusJwtDecoder = null;
+    public CustomJwtDecoder(@Value("${jwt.signing-key}") String signingKey, DecodedJwtCache decodedJwtCache) {
+        byte[] keyBytes = Base64.getDecoder().decode(signingKey);
+        SecretKeySpec secretKey = new SecretKeySpec(keyBytes, "HmacSHA512");
+        this.nimbusJwtDecoder = NimbusJwtDecoder
+                .withSecretKey(secretKey)
+                .macAlgorithm(MacAlgorithm.HS512)
+                .build();
+        this.decodedJwtCache = decodedJwtCache;
+    }
 
     @Override
     public Jwt decode(String token) throws JwtException {
-        if (Objects.isNull(nimbusJwtDecoder)) {
-            byte[] keyBytes = Base64.getDecoder().decode(SIGNING_KEY);
-            SecretKeySpec secretKey = new SecretKeySpec(keyBytes, "HmacSHA512");
-            nimbusJwtDecoder = NimbusJwtDecoder
-                    .withSecretKey(secretKey)
-                    .macAlgorithm(MacAlgorithm.HS512)
-                    .build();
+        Jwt cached = decodedJwtCache.get(token);
+        if (cached != null) {
+            return cached;
         }
 
-        return nimbusJwtDecoder.decode(token);
+        Jwt jwt = nimbusJwtDecoder.decode(token);
+        if (decodedJwtCache.isRevoked(jwt)) {
+            throw new BadJwtException("Token has been revoked");
+        }
+        decodedJwtCache.put(token, jwt);
+        return jwt;
     }
 }
@@ -0,0 +1,65 @@
+package com.daypulse.auth_serivce.config;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stops the migration that adds the unique index on usernames when a database baselined from the
+ * old generated schema, which never enforced it, holds duplicates. The index creation would fail
+ * either way; this names the usernames to resolve before restarting.
+ */
+@Component
+public class DuplicateUsernameCheck implements Callback {
+    private static final MigrationVersion USERNAME_INDEX_VERSION = MigrationVersion.fromVersion("2");
+    private static final int SHOWN_DUPLICATES = 20;
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.BEFORE_EACH_MIGRATE && context.getMigrationInfo() != null
+                && USERNAME_INDEX_VERSION.equals(context.getMigrationInfo().getVersion());
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        List<String> duplicates = new ArrayList<>();
+        try (Statement statement = context.getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery("select username, count(*) from users group by username "
+                     + "having count(*) > 1 order by username")) {
+            while (resultSet.next()) {
+                if (duplicates.size() < SHOWN_DUPLICATES) {
+                    duplicates.add(resultSet.getString(1) + " (" + resultSet.getLong(2) + " users)");
+                } else {
+                    duplicates.add("...");
+                    break;
+                }
+            }
+        } catch (SQLException e) {
+            throw new FlywayException("Could not check users for duplicate usernames", e);
+        }
+        if (!duplicates.isEmpty()) {
+            throw new FlywayException("Cannot add the unique index ux_users_username: these usernames belong to more "
+                    + "than one user: " + String.join(", ", duplicates) + ". Rename or merge those users, then "
+                    + "restart to continue the migration.");
+        }
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "duplicate-username-check";
+    }
+}
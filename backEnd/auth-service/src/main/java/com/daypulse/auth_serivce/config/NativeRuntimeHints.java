@@ -0,0 +1,51 @@
+package com.daypulse.auth_serivce.config;
+
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Reflection hints for the native image. Jackson binds the Lombok DTOs, including the generic
+ * payloads of {@code ApiBaseResponse} that AOT cannot infer from controller signatures; Hibernate
+ * instantiates and populates the entities; the Nimbus JOSE signing classes are reached through
+ * the JCA.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+    private static final String DTO_PACKAGE = "com.daypulse.auth_serivce.dto";
+    private static final String ENTITY_PACKAGE = "com.daypulse.auth_serivce.entity";
+
+    private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> dto : classesIn(DTO_PACKAGE, classLoader)) {
+            bindingHints.registerReflectionHints(hints.reflection(), dto);
+        }
+        for (Class<?> entity : classesIn(ENTITY_PACKAGE, classLoader)) {
+            hints.reflection().registerType(entity, MemberCategory.values());
+        }
+        for (Class<?> jose : new Class<?>[]{SignedJWT.class, JWSHeader.class, JWTClaimsSet.class, MACSigner.class, MACVerifier.class}) {
+            hints.reflection().registerType(jose, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+
+    private static Iterable<Class<?>> classesIn(String basePackage, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+        return scanner.findCandidateComponents(basePackage).stream()
+                .map(BeanDefinition::getBeanClassName)
+                .<Class<?>>map(name -> ClassUtils.resolveClassName(name, classLoader))
+                .toList();
+    }
+}
@@ -0,0 +1,80 @@
+package com.daypulse.auth_serivce.config;
+
+import com.daypulse.auth_serivce.security.AccessRule;
+import com.daypulse.auth_serivce.security.AuthorityBitset;
+import com.daypulse.auth_serivce.security.PermissionRegistry;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps the permission bitset claim to granted authorities. Bit positions never change, so the
+ * authority list and its {@link AccessRule#authorityMask(Collection) access rule mask} for a given
+ * claim value are computed once and shared by every token carrying it, as long as every bit of it
+ * could be resolved.
+ * Tokens issued before the bitset claim existed still carry {@code scope} and are read the old way.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PermissionBitsetAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+    private static final int MAX_CACHED_COMBINATIONS = 4096;
+
+    PermissionRegistry permissionRegistry;
+    Map<String, Grant> grantsByClaim = new ConcurrentHashMap<>();
+    JwtGrantedAuthoritiesConverter scopeConverter = scopeConverter();
+
+    @Override
+    public Collection<GrantedAuthority> convert(@NonNull Jwt jwt) {
+        return grant(jwt).authorities();
+    }
+
+    public Grant grant(Jwt jwt) {
+        String permissions = jwt.getClaimAsString(PermissionRegistry.PERMISSIONS_CLAIM);
+        if (permissions == null) {
+            return Grant.of(List.copyOf(scopeConverter.convert(jwt)));
+        }
+
+        Grant grant = grantsByClaim.get(permissions);
+        if (grant != null) {
+            return grant;
+        }
+
+        List<String> names = permissionRegistry.decode(permissions);
+        grant = Grant.of(names.stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList());
+        // Only cache complete decodings so bits the registry cannot resolve yet are retried on the next request
+        if (names.size() == AuthorityBitset.decode(permissions).cardinality()) {
+            if (grantsByClaim.size() >= MAX_CACHED_COMBINATIONS) {
+                grantsByClaim.clear();
+            }
+            grantsByClaim.put(permissions, grant);
+        }
+        return grant;
+    }
+
+    private static JwtGrantedAuthoritiesConverter scopeConverter() {
+        JwtGrantedAuthoritiesConverter converter = new JwtGrantedAuthoritiesConverter();
+        converter.setAuthorityPrefix("");
+        return converter;
+    }
+
+    public record Grant(List<GrantedAuthority> authorities, long authorityMask) {
+        static Grant of(List<GrantedAuthority> authorities) {
+            return new Grant(authorities, AccessRule.authorityMask(authorities));
+        }
+    }
+}
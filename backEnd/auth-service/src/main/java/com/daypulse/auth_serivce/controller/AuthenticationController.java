@@ -7,10 +7,13 @@ import com.daypulse.auth_serivce.dto.request.RefreshTokenRequest;
 import com.daypulse.auth_serivce.dto.response.ApiBaseResponse;
 import com.daypulse.auth_serivce.dto.response.AuthenticationResponse;
 import com.daypulse.auth_serivce.dto.response.IntrospectResponse;
+import com.daypulse.auth_serivce.dto.response.PermissionRegistryResponse;
 import com.daypulse.auth_serivce.service.AuthenticationService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -24,8 +27,10 @@ public class AuthenticationController {
     AuthenticationService authenticationService;
 
     @PostMapping("/token")
-    public ApiBaseResponse<AuthenticationResponse> login(@RequestBody AuthenticationRequest authenticationRequest) {
-        var result = authenticationService.authenticate(authenticationRequest);
+    public ApiBaseResponse<AuthenticationResponse> login(@RequestBody AuthenticationRequest authenticationRequest,
+                                                         HttpServletRequest httpRequest) {
+        // Tomcat resolves X-Forwarded-For into the remote address only for requests from trusted proxies
+        var result = authenticationService.authenticate(authenticationRequest, httpRequest.getRemoteAddr());
         return ApiBaseResponse.<AuthenticationResponse>builder()
                 .result(AuthenticationResponse.builder()
                         .authenticated(result.isAuthenticated())
@@ -56,4 +61,11 @@ public class AuthenticationController {
                 .result(result)
                 .build();
     }
+
+    @GetMapping("/permission-registry")
+    ApiBaseResponse<PermissionRegistryResponse> permissionRegistry() {
+        return ApiBaseResponse.<PermissionRegistryResponse>builder()
+                .result(authenticationService.getPermissionRegistry())
+                .build();
+    }
 }
@@ -0,0 +1,55 @@
+package com.daypulse.auth_serivce.controller;
+
+import com.daypulse.auth_serivce.dto.request.IntrospectRequest;
+import com.daypulse.auth_serivce.service.AuthenticationService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Internal RSocket endpoint for the gateway's token check, served on {@code spring.rsocket.server.port}.
+ * <p>
+ * The request payload is the serialized token as ASCII bytes and the response is one byte,
+ * {@link #VALID} or {@link #INVALID}. Connections are persistent and multiplexed, so the gateway
+ * keeps one open. The stream route answers a stream of tokens in order. The JSON
+ * {@code /auth/introspect} stays for external callers.
+ */
+@Controller
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class AuthenticationRpcController {
+    public static final String INTROSPECT_ROUTE = "auth.introspect";
+    public static final String INTROSPECT_STREAM_ROUTE = "auth.introspect.stream";
+    public static final byte VALID = 1;
+    public static final byte INVALID = 0;
+
+    static final int STREAM_CONCURRENCY = 16;
+
+    AuthenticationService authenticationService;
+
+    @MessageMapping(INTROSPECT_ROUTE)
+    public Mono<byte[]> introspect(byte[] token) {
+        // Verification reads the revocation table, so it runs off the transport threads
+        return Mono.fromCallable(() -> verdict(token))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @MessageMapping(INTROSPECT_STREAM_ROUTE)
+    public Flux<byte[]> introspectStream(Flux<byte[]> tokens) {
+        return tokens.flatMapSequential(this::introspect, STREAM_CONCURRENCY);
+    }
+
+    private byte[] verdict(byte[] token) {
+        var result = authenticationService.introspect(IntrospectRequest.builder()
+                .token(new String(token, StandardCharsets.US_ASCII))
+                .build());
+        return new byte[]{result.isValid() ? VALID : INVALID};
+    }
+}
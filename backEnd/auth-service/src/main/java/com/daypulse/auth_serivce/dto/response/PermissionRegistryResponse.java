@@ -0,0 +1,19 @@
+package com.daypulse.auth_serivce.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PermissionRegistryResponse {
+    int version;
+    // Authority names indexed by bit position
+    List<String> authorities;
+}
@@ -0,0 +1,20 @@
+package com.daypulse.auth_serivce.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class UserBatchResponse {
+    // In request order, without duplicates
+    List<UserProfileResponse> users;
+    // Requested ids with no user
+    List<String> missing;
+}
@@ -0,0 +1,21 @@
+package com.daypulse.auth_serivce.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The public part of a user, as shown next to posts, messages and reactions.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserProfileResponse {
+    String id;
+    String username;
+    String firstName;
+    String lastName;
+}
@@ -0,0 +1,23 @@
+package com.daypulse.auth_serivce.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "authority_indexes")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AuthorityIndex {
+    // Authority name as granted, e.g. ROLE_ADMIN or APPROVE_DATA
+    @Id
+    String name;
+
+    // Bit position in the token permission bitset; never reused
+    @Column(unique = true, nullable = false)
+    int position;
+}
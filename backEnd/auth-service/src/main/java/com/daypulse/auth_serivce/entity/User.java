@@ -17,12 +17,16 @@ public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     String id;
+    @Column(unique = true, nullable = false)
     String username;
     String password;
     String firstName;
     String lastName;
     LocalDate dob;
 
+    @Version
+    Long version;
+
     @ManyToMany
     Set<Role> roles;
 
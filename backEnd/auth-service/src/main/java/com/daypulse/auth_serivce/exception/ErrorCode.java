@@ -14,7 +14,10 @@ public enum ErrorCode {
     USER_NOT_FOUND(105, "User not found", HttpStatus.NOT_FOUND),
     UNAUTHENTICATED(106, "Unauthenticated user", HttpStatus.UNAUTHORIZED),
     UNAUTHORIZED(107, "Unauthorized user", HttpStatus.FORBIDDEN),
-    INVALID_DOB(108, "Date of birth must be at least {min} years old", HttpStatus.BAD_REQUEST)
+    INVALID_DOB(108, "Date of birth must be at least {min} years old", HttpStatus.BAD_REQUEST),
+    TOO_MANY_ATTEMPTS(109, "Too many login attempts, try again later", HttpStatus.TOO_MANY_REQUESTS),
+    BATCH_TOO_LARGE(110, "Too many ids in one request", HttpStatus.BAD_REQUEST),
+    USER_MODIFIED(111, "User was modified concurrently, reload and retry", HttpStatus.CONFLICT)
     ;
 
     ErrorCode(int code, String message, HttpStatusCode statusCode) {
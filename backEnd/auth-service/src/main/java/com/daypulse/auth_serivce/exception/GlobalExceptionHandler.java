@@ -37,6 +37,10 @@ public class GlobalExceptionHandler {
         ApiBaseResponse.setCode(errorCode.getCode());
         ApiBaseResponse.setMessage(errorCode.getMessage());
 
+        // Clients rely on 400 for every other code; a throttled login must be told apart to back off
+        if (errorCode == ErrorCode.TOO_MANY_ATTEMPTS) {
+            return ResponseEntity.status(errorCode.getStatusCode()).body(ApiBaseResponse);
+        }
         return ResponseEntity.badRequest().body(ApiBaseResponse);
     }
 
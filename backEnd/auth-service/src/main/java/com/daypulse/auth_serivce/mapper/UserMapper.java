@@ -3,15 +3,24 @@ package com.daypulse.auth_serivce.mapper;
 import com.daypulse.auth_serivce.dto.request.UserCreationRequest;
 import com.daypulse.auth_serivce.dto.request.UserUpdateRequest;
 import com.daypulse.auth_serivce.dto.response.UserResponse;
+import com.daypulse.auth_serivce.entity.Role;
 import com.daypulse.auth_serivce.entity.User;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
+import java.util.Set;
+
 @Mapper(componentModel = "spring")
 public interface UserMapper {
+    @Mapping(target = "version", ignore = true)
     User toUser(UserCreationRequest request);
 
     UserResponse toUserResponse(User user);
 
+    @Mapping(target = "roles", source = "roles")
+    UserResponse toUserResponse(User user, Set<Role> roles);
+
+    @Mapping(target = "version", ignore = true)
     void updateUser(@MappingTarget User user, UserUpdateRequest request);
 }
@@ -0,0 +1,48 @@
+package com.daypulse.auth_serivce.outbox;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Auth domain events. {@code code} identifies the type in the binary envelope; codes are never
+ * reused, so a retired type keeps its code.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum AuthEventType {
+    USER_REGISTERED(1, "auth.user.registered"),
+    USER_UPDATED(2, "auth.user.updated"),
+    USER_DELETED(3, "auth.user.deleted"),
+    TOKEN_REVOKED(4, "auth.token.revoked");
+
+    private static final Map<String, AuthEventType> BY_TOPIC = Arrays.stream(values())
+            .collect(Collectors.toMap(AuthEventType::getTopic, Function.identity()));
+
+    private final int code;
+    private final String topic;
+
+    /**
+     * The type with this code, or null for a code added by a newer producer.
+     */
+    public static AuthEventType ofCode(int code) {
+        for (AuthEventType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    public static AuthEventType ofTopic(String topic) {
+        AuthEventType type = BY_TOPIC.get(topic);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown event topic " + topic);
+        }
+        return type;
+    }
+}
@@ -0,0 +1,93 @@
+package com.daypulse.auth_serivce.outbox;
+
+import com.daypulse.auth_serivce.outbox.codec.EventEnvelopeCodec;
+import com.daypulse.auth_serivce.outbox.codec.WireWriter;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * File-backed broker stand-in: appends events to {@code outbox.file.path}, as JSON lines or, with
+ * {@code outbox.file.format=binary}, as binary envelopes each preceded by its varint length.
+ * A batch is written with one call and forced to disk before the relay deletes it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+    private final ObjectMapper objectMapper;
+    private final EventEnvelopeCodec codec;
+    private final boolean binary;
+    private final FileChannel channel;
+
+    public FileOutboxSink(ObjectMapper objectMapper,
+                          EventEnvelopeCodec codec,
+                          @Value("${outbox.file.path}") Path path,
+                          @Value("${outbox.file.format}") String format) throws IOException {
+        this.objectMapper = objectMapper;
+        this.codec = codec;
+        this.binary = switch (format) {
+            case "json" -> false;
+            case "binary" -> true;
+            default -> throw new IllegalArgumentException("outbox.file.format must be json or binary, not " + format);
+        };
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        log.info("Appending outbox events to {} as {}", path.toAbsolutePath(), format);
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) throws IOException {
+        ByteBuffer buffer = binary ? encodeBinary(events) : encodeJson(events);
+        synchronized (channel) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    private ByteBuffer encodeJson(List<OutboxEvent> events) throws IOException {
+        ByteArrayOutputStream batch = new ByteArrayOutputStream(events.size() * 256);
+        for (OutboxEvent event : events) {
+            objectMapper.writeValue(batch, new Line(event.id(), event.topic(), event.aggregateId(), event.payload(), event.createdAt()));
+            batch.write('\n');
+        }
+        return ByteBuffer.wrap(batch.toByteArray());
+    }
+
+    private ByteBuffer encodeBinary(List<OutboxEvent> events) {
+        WireWriter batch = new WireWriter(events.size() * 96);
+        WireWriter envelope = new WireWriter(256);
+        for (OutboxEvent event : events) {
+            codec.encode(event, envelope.reset());
+            batch.writeVarint(envelope.size());
+            batch.writeRawBytes(envelope.view());
+        }
+        return batch.view();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private record Line(long id, String topic, String key, @JsonRawValue String payload, Instant createdAt) {
+    }
+}
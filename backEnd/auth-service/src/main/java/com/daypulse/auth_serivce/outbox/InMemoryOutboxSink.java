@@ -0,0 +1,63 @@
+package com.daypulse.auth_serivce.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process broker stand-in: hands events to subscribers registered in this JVM and keeps the
+ * latest {@code outbox.memory.capacity} of them for inspection. Used until a real broker is
+ * configured, and by tests.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOutboxSink implements OutboxSink {
+    private final int capacity;
+    private final ArrayDeque<OutboxEvent> retained;
+    private final List<Consumer<OutboxEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+    public InMemoryOutboxSink(@Value("${outbox.memory.capacity}") int capacity) {
+        this.capacity = capacity;
+        this.retained = new ArrayDeque<>(capacity);
+    }
+
+    public void subscribe(Consumer<OutboxEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * The retained events, oldest first.
+     */
+    public synchronized List<OutboxEvent> events() {
+        return List.copyOf(retained);
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        synchronized (this) {
+            for (OutboxEvent event : events) {
+                if (retained.size() == capacity) {
+                    retained.removeFirst();
+                }
+                retained.addLast(event);
+            }
+        }
+        for (Consumer<OutboxEvent> subscriber : subscribers) {
+            for (OutboxEvent event : events) {
+                try {
+                    subscriber.accept(event);
+                } catch (RuntimeException e) {
+                    // One broken subscriber must not hold back the outbox for the others
+                    log.error("Outbox subscriber failed on event {}", event.id(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.daypulse.auth_serivce.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Records domain events in the {@code outbox_events} table inside the transaction that makes the
+ * change, so an event exists exactly when its change committed. The {@link OutboxRelay} publishes
+ * them afterwards; the request only pays for one insert.
+ * <p>
+ * Append after the change has been flushed: the row lock taken by the change then orders the
+ * events of one aggregate by id.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class Outbox {
+    static final String TABLE = "outbox_events";
+
+    JdbcTemplate jdbcTemplate;
+    ObjectMapper objectMapper;
+    OutboxRelay outboxRelay;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(AuthEventType type, String aggregateId, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + type + " payload", e);
+        }
+        jdbcTemplate.update("insert into " + TABLE + " (topic, aggregate_id, payload, created_at) values (?, ?, ?, ?)",
+                type.getTopic(), aggregateId, json, Timestamp.from(Instant.now()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxRelay.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,10 @@
+package com.daypulse.auth_serivce.outbox;
+
+import java.time.Instant;
+
+/**
+ * An event read from the outbox. {@code id} increases with insertion, so sinks may use it to
+ * drop the duplicates that at-least-once delivery produces; {@code payload} is JSON.
+ */
+public record OutboxEvent(long id, String topic, String aggregateId, String payload, Instant createdAt) {
+}
@@ -0,0 +1,144 @@
+package com.daypulse.auth_serivce.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves events from the outbox to the {@link OutboxSink} in batches of {@code outbox.batch-size},
+ * on a thread of its own. Each batch is read, published and deleted in one transaction; a failed
+ * batch is rolled back and retried after {@code outbox.retry-delay}, so delivery is at least once.
+ * <p>
+ * The relay sleeps for up to {@code outbox.poll-interval} when the outbox is empty and is woken
+ * by every commit that appended an event. Full batches are relayed back to back. Instances take
+ * the row of {@code outbox_relay} for update before reading, so only one relays at a time and
+ * events leave in id order.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxSink sink;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration retryDelay;
+    private final Counter published;
+
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       OutboxSink sink,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.batch-size}") int batchSize,
+                       @Value("${outbox.poll-interval}") Duration pollInterval,
+                       @Value("${outbox.retry-delay}") Duration retryDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.retryDelay = retryDelay;
+        this.published = Counter.builder("outbox.published")
+                .description("Events handed to the outbox sink")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform().daemon().name("outbox-relay").start(this::run);
+        log.info("Relaying outbox events to {}", sink.getClass().getSimpleName());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+            current.join(retryDelay.toMillis() + pollInterval.toMillis());
+        }
+    }
+
+    /**
+     * Called after a commit that appended events, so they leave without waiting for the next poll.
+     */
+    public void wakeUp() {
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+    }
+
+    /**
+     * Relays one batch and returns its size.
+     */
+    int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("select id from outbox_relay where id = 1 for update", Integer.class);
+            List<OutboxEvent> events = jdbcTemplate.query("select id, topic, aggregate_id, payload, created_at from "
+                    + Outbox.TABLE + " order by id limit " + batchSize, ROW_MAPPER);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            try {
+                sink.publish(events);
+            } catch (Exception e) {
+                throw new IllegalStateException("Publishing " + events.size() + " outbox events failed", e);
+            }
+            String placeholders = String.join(",", Collections.nCopies(events.size(), "?"));
+            jdbcTemplate.update("delete from " + Outbox.TABLE + " where id in (" + placeholders + ")",
+                    events.stream().map(OutboxEvent::id).toArray());
+            return events.size();
+        });
+        int count = relayed == null ? 0 : relayed;
+        published.increment(count);
+        return count;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (relayBatch() < batchSize) {
+                    // Caught up; a commit wakes the relay before the interval ends
+                    LockSupport.parkNanos(pollInterval.toNanos());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Outbox relay failed, retrying in {}: {}", retryDelay, e.getMessage());
+                sleep(retryDelay);
+            }
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final RowMapper<OutboxEvent> ROW_MAPPER = (resultSet, rowNum) -> new OutboxEvent(
+            resultSet.getLong("id"),
+            resultSet.getString("topic"),
+            resultSet.getString("aggregate_id"),
+            resultSet.getString("payload"),
+            resultSet.getTimestamp("created_at").toInstant());
+}
@@ -0,0 +1,15 @@
+package com.daypulse.auth_serivce.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of the {@link OutboxRelay}. A batch is deleted from the outbox only after
+ * {@link #publish} returns, so a failed or interrupted batch is published again.
+ */
+public interface OutboxSink {
+
+    /**
+     * Publishes the events in order; returns once they are durable at the destination.
+     */
+    void publish(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,9 @@
+package com.daypulse.auth_serivce.outbox;
+
+import java.time.Instant;
+
+/**
+ * A token revoked by logout or refresh; consumers reject it until {@code expiresAt}.
+ */
+public record TokenRevokedPayload(String tokenId, Instant expiresAt) {
+}
@@ -0,0 +1,26 @@
+package com.daypulse.auth_serivce.outbox;
+
+import com.daypulse.auth_serivce.entity.Role;
+import com.daypulse.auth_serivce.entity.User;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Public state of a user as carried by the user events; deletions carry the id only.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserEventPayload(String id, String username, String firstName, String lastName, LocalDate dob,
+                               List<String> roles) {
+
+    public static UserEventPayload of(User user, Collection<Role> roles) {
+        return new UserEventPayload(user.getId(), user.getUsername(), user.getFirstName(), user.getLastName(),
+                user.getDob(), roles == null ? null : roles.stream().map(Role::getName).sorted().toList());
+    }
+
+    public static UserEventPayload deleted(String id) {
+        return new UserEventPayload(id, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,132 @@
+package com.daypulse.auth_serivce.outbox.codec;
+
+import com.daypulse.auth_serivce.outbox.AuthEventType;
+import com.daypulse.auth_serivce.outbox.TokenRevokedPayload;
+import com.daypulse.auth_serivce.outbox.UserEventPayload;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary payloads of the auth events, in the field encoding of {@link EventEnvelope}.
+ * <pre>
+ * user (version 1)           token revoked (version 1)
+ * 1 id            16 bytes   1 token id    16 bytes
+ * 2 id            UTF-8      2 token id    UTF-8
+ * 3 username      UTF-8      3 expires at  zigzag varint, epoch seconds
+ * 4 first name    UTF-8
+ * 5 last name     UTF-8
+ * 6 date of birth zigzag varint, epoch day
+ * 7 role          UTF-8, repeated
+ * </pre>
+ */
+public final class AuthPayloadCodec {
+    public static final int USER_VERSION = 1;
+    public static final int TOKEN_REVOKED_VERSION = 1;
+
+    private AuthPayloadCodec() {
+    }
+
+    public static int version(AuthEventType type) {
+        return switch (type) {
+            case USER_REGISTERED, USER_UPDATED, USER_DELETED -> USER_VERSION;
+            case TOKEN_REVOKED -> TOKEN_REVOKED_VERSION;
+        };
+    }
+
+    public static Class<?> payloadClass(AuthEventType type) {
+        return switch (type) {
+            case USER_REGISTERED, USER_UPDATED, USER_DELETED -> UserEventPayload.class;
+            case TOKEN_REVOKED -> TokenRevokedPayload.class;
+        };
+    }
+
+    public static void encode(Object payload, WireWriter out) {
+        switch (payload) {
+            case UserEventPayload user -> encodeUser(user, out);
+            case TokenRevokedPayload token -> encodeTokenRevoked(token, out);
+            default -> throw new IllegalArgumentException("No binary encoding for " + payload.getClass().getName());
+        }
+    }
+
+    /**
+     * Decodes a payload of {@code type} written with {@code version} or an older version.
+     */
+    public static Object decode(AuthEventType type, int version, ByteBuffer payload) {
+        if (version > version(type)) {
+            throw new CodecException(type + " payload version " + version + " is newer than " + version(type));
+        }
+        return switch (type) {
+            case USER_REGISTERED, USER_UPDATED, USER_DELETED -> decodeUser(payload);
+            case TOKEN_REVOKED -> decodeTokenRevoked(payload);
+        };
+    }
+
+    static void encodeUser(UserEventPayload user, WireWriter out) {
+        out.idField(1, 2, user.id());
+        out.stringField(3, user.username());
+        out.stringField(4, user.firstName());
+        out.stringField(5, user.lastName());
+        if (user.dob() != null) {
+            out.signedField(6, user.dob().toEpochDay());
+        }
+        if (user.roles() != null) {
+            for (String role : user.roles()) {
+                out.stringField(7, role);
+            }
+        }
+    }
+
+    static UserEventPayload decodeUser(ByteBuffer payload) {
+        WireReader reader = new WireReader(payload);
+        String id = null;
+        String username = null;
+        String firstName = null;
+        String lastName = null;
+        LocalDate dob = null;
+        List<String> roles = null;
+        while (reader.next()) {
+            switch (reader.field()) {
+                case 1 -> id = reader.readUuid().toString();
+                case 2 -> id = reader.readString();
+                case 3 -> username = reader.readString();
+                case 4 -> firstName = reader.readString();
+                case 5 -> lastName = reader.readString();
+                case 6 -> dob = LocalDate.ofEpochDay(reader.readSigned());
+                case 7 -> {
+                    if (roles == null) {
+                        roles = new ArrayList<>(4);
+                    }
+                    roles.add(reader.readString());
+                }
+                default -> reader.skip();
+            }
+        }
+        return new UserEventPayload(id, username, firstName, lastName, dob, roles == null ? null : List.copyOf(roles));
+    }
+
+    static void encodeTokenRevoked(TokenRevokedPayload token, WireWriter out) {
+        out.idField(1, 2, token.tokenId());
+        if (token.expiresAt() != null) {
+            out.signedField(3, token.expiresAt().getEpochSecond());
+        }
+    }
+
+    static TokenRevokedPayload decodeTokenRevoked(ByteBuffer payload) {
+        WireReader reader = new WireReader(payload);
+        String tokenId = null;
+        Instant expiresAt = null;
+        while (reader.next()) {
+            switch (reader.field()) {
+                case 1 -> tokenId = reader.readUuid().toString();
+                case 2 -> tokenId = reader.readString();
+                case 3 -> expiresAt = Instant.ofEpochSecond(reader.readSigned());
+                default -> reader.skip();
+            }
+        }
+        return new TokenRevokedPayload(tokenId, expiresAt);
+    }
+}
@@ -0,0 +1,10 @@
+package com.daypulse.auth_serivce.outbox.codec;
+
+/**
+ * Input that is not a valid envelope or payload.
+ */
+public class CodecException extends RuntimeException {
+    public CodecException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,127 @@
+package com.daypulse.auth_serivce.outbox.codec;
+
+import com.daypulse.auth_serivce.outbox.AuthEventType;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * A decoded envelope that still points into the buffer it was read from: the aggregate id is
+ * decoded on first use and {@link #payload()} is a slice, so routing on type or id touches no
+ * payload bytes. Valid only while the source buffer is not reused.
+ * <p>
+ * Layout: a magic byte, the format version, then fields
+ * <pre>
+ * 1 event id         varint
+ * 2 type code        varint, {@link AuthEventType#getCode()}
+ * 3 aggregate id     16 bytes, when it is a UUID
+ * 4 aggregate id     UTF-8, otherwise
+ * 5 created at       varint, microseconds since the epoch
+ * 6 payload version  varint
+ * 7 payload          bytes
+ * </pre>
+ * Fields may be added under new numbers: readers skip numbers they do not know and treat missing
+ * ones as absent. The format version and a type's payload version only change for edits that old
+ * readers cannot survive that way, and readers reject versions newer than their own.
+ */
+public final class EventEnvelope {
+    public static final int MAGIC = 0xA7;
+    public static final int FORMAT_VERSION = 1;
+
+    static final int EVENT_ID = 1;
+    static final int TYPE_CODE = 2;
+    static final int AGGREGATE_UUID = 3;
+    static final int AGGREGATE_ID = 4;
+    static final int CREATED_AT = 5;
+    static final int PAYLOAD_VERSION = 6;
+    static final int PAYLOAD = 7;
+
+    private final int formatVersion;
+    private long eventId;
+    private int typeCode;
+    private UUID aggregateUuid;
+    private ByteBuffer aggregateIdBytes;
+    private String aggregateId;
+    private long createdAtMicros;
+    private int payloadVersion;
+    private ByteBuffer payload;
+
+    private EventEnvelope(int formatVersion) {
+        this.formatVersion = formatVersion;
+    }
+
+    /**
+     * Reads the envelope at the buffer's position up to its limit.
+     */
+    public static EventEnvelope wrap(ByteBuffer buffer) {
+        WireReader reader = new WireReader(buffer);
+        if (reader.readRawByte() != MAGIC) {
+            throw new CodecException("Not an event envelope");
+        }
+        int formatVersion = reader.readRawByte();
+        if (formatVersion > FORMAT_VERSION) {
+            throw new CodecException("Envelope format " + formatVersion + " is newer than " + FORMAT_VERSION);
+        }
+        EventEnvelope envelope = new EventEnvelope(formatVersion);
+        while (reader.next()) {
+            switch (reader.field()) {
+                case EVENT_ID -> envelope.eventId = reader.readVarint();
+                case TYPE_CODE -> envelope.typeCode = (int) reader.readVarint();
+                case AGGREGATE_UUID -> envelope.aggregateUuid = reader.readUuid();
+                case AGGREGATE_ID -> envelope.aggregateIdBytes = reader.readBytes();
+                case CREATED_AT -> envelope.createdAtMicros = reader.readVarint();
+                case PAYLOAD_VERSION -> envelope.payloadVersion = (int) reader.readVarint();
+                case PAYLOAD -> envelope.payload = reader.readBytes();
+                default -> reader.skip();
+            }
+        }
+        return envelope;
+    }
+
+    public int formatVersion() {
+        return formatVersion;
+    }
+
+    public long eventId() {
+        return eventId;
+    }
+
+    public int typeCode() {
+        return typeCode;
+    }
+
+    /**
+     * The event type, or null for a type added by a newer producer.
+     */
+    public AuthEventType type() {
+        return AuthEventType.ofCode(typeCode);
+    }
+
+    public String aggregateId() {
+        if (aggregateId == null) {
+            if (aggregateUuid != null) {
+                aggregateId = aggregateUuid.toString();
+            } else if (aggregateIdBytes != null) {
+                aggregateId = WireReader.utf8(aggregateIdBytes);
+            }
+        }
+        return aggregateId;
+    }
+
+    public Instant createdAt() {
+        return Instant.EPOCH.plus(createdAtMicros, ChronoUnit.MICROS);
+    }
+
+    public int payloadVersion() {
+        return payloadVersion;
+    }
+
+    /**
+     * The encoded payload, as a slice of the source buffer.
+     */
+    public ByteBuffer payload() {
+        return payload == null ? ByteBuffer.allocate(0) : payload.duplicate();
+    }
+}
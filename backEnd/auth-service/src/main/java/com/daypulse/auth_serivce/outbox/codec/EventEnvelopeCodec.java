@@ -0,0 +1,119 @@
+package com.daypulse.auth_serivce.outbox.codec;
+
+import com.daypulse.auth_serivce.outbox.AuthEventType;
+import com.daypulse.auth_serivce.outbox.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Encodes auth events as binary {@link EventEnvelope}s and renders them as JSON for debugging.
+ * <p>
+ * Type and aggregate id take a few bytes instead of repeated topic and UUID strings, and payload
+ * fields are numbered rather than named. A user event is about a third of its JSON size.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventEnvelopeCodec {
+    private static final Set<Integer> ENVELOPE_FIELDS = Set.of(EventEnvelope.EVENT_ID, EventEnvelope.TYPE_CODE,
+            EventEnvelope.AGGREGATE_UUID, EventEnvelope.AGGREGATE_ID, EventEnvelope.CREATED_AT,
+            EventEnvelope.PAYLOAD_VERSION, EventEnvelope.PAYLOAD);
+    private static final ThreadLocal<WireWriter> PAYLOAD_WRITER = ThreadLocal.withInitial(() -> new WireWriter(256));
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Encodes an outbox row, converting its JSON payload to the binary payload of its type.
+     */
+    public void encode(OutboxEvent event, WireWriter out) {
+        AuthEventType type = AuthEventType.ofTopic(event.topic());
+        Object payload;
+        try {
+            payload = objectMapper.readValue(event.payload(), AuthPayloadCodec.payloadClass(type));
+        } catch (JsonProcessingException e) {
+            throw new CodecException("Unreadable " + type + " payload of event " + event.id() + ": " + e.getOriginalMessage());
+        }
+        encode(event.id(), type, event.aggregateId(), event.createdAt(), payload, out);
+    }
+
+    public static void encode(long eventId, AuthEventType type, String aggregateId, Instant createdAt, Object payload,
+                              WireWriter out) {
+        out.writeRawByte(EventEnvelope.MAGIC);
+        out.writeRawByte(EventEnvelope.FORMAT_VERSION);
+        out.varintField(EventEnvelope.EVENT_ID, eventId);
+        out.varintField(EventEnvelope.TYPE_CODE, type.getCode());
+        out.idField(EventEnvelope.AGGREGATE_UUID, EventEnvelope.AGGREGATE_ID, aggregateId);
+        out.varintField(EventEnvelope.CREATED_AT, ChronoUnit.MICROS.between(Instant.EPOCH, createdAt));
+        out.varintField(EventEnvelope.PAYLOAD_VERSION, AuthPayloadCodec.version(type));
+        WireWriter payloadWriter = PAYLOAD_WRITER.get().reset();
+        AuthPayloadCodec.encode(payload, payloadWriter);
+        out.bytesField(EventEnvelope.PAYLOAD, payloadWriter.view());
+    }
+
+    /**
+     * The envelope's payload decoded for its type; null if the type is newer than this reader.
+     */
+    public static Object decodePayload(EventEnvelope envelope) {
+        AuthEventType type = envelope.type();
+        return type == null ? null : AuthPayloadCodec.decode(type, envelope.payloadVersion(), envelope.payload());
+    }
+
+    /**
+     * Renders an encoded envelope as JSON with named fields. Fields this reader does not know are
+     * listed under {@code unknownFields} by number, and so is the payload of an unknown type.
+     */
+    public ObjectNode toDebugJson(ByteBuffer encoded) {
+        EventEnvelope envelope = EventEnvelope.wrap(encoded);
+        ObjectNode json = objectMapper.createObjectNode();
+        json.put("formatVersion", envelope.formatVersion());
+        json.put("eventId", envelope.eventId());
+        AuthEventType type = envelope.type();
+        json.put("type", type == null ? "unknown:" + envelope.typeCode() : type.getTopic());
+        json.put("aggregateId", envelope.aggregateId());
+        json.put("createdAt", envelope.createdAt().toString());
+        json.put("payloadVersion", envelope.payloadVersion());
+        if (type != null) {
+            json.set("payload", objectMapper.valueToTree(decodePayload(envelope)));
+        }
+        ObjectNode unknown = unknownFields(encoded.duplicate().position(encoded.position() + 2), ENVELOPE_FIELDS);
+        if (type == null) {
+            unknown.set("payload", unknownFields(envelope.payload(), Set.of()));
+        }
+        if (!unknown.isEmpty()) {
+            json.set("unknownFields", unknown);
+        }
+        return json;
+    }
+
+    private ObjectNode unknownFields(ByteBuffer encoded, Set<Integer> known) {
+        ObjectNode fields = objectMapper.createObjectNode();
+        WireReader reader = new WireReader(encoded);
+        while (reader.next()) {
+            if (known.contains(reader.field())) {
+                reader.skip();
+                continue;
+            }
+            String name = "#" + reader.field();
+            switch (reader.wireType()) {
+                case WireType.VARINT -> fields.put(name, reader.readVarint());
+                case WireType.FIXED64 -> fields.put(name, reader.readFixed64());
+                case WireType.LENGTH_DELIMITED -> {
+                    ByteBuffer bytes = reader.readBytes();
+                    byte[] copy = new byte[bytes.remaining()];
+                    bytes.get(copy);
+                    fields.put(name, Base64.getEncoder().encodeToString(copy));
+                }
+                default -> reader.skip();
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,44 @@
+package com.daypulse.auth_serivce.outbox.codec;
+
+import java.util.UUID;
+
+final class Ids {
+    private Ids() {
+    }
+
+    /**
+     * Parses {@code id} if it is a UUID in the lowercase form {@link UUID#toString()} produces, so
+     * that decoding gives back the same string; returns null otherwise.
+     */
+    static UUID parseUuid(String id) {
+        if (id == null || id.length() != 36) {
+            return null;
+        }
+        long most = 0;
+        long least = 0;
+        int digits = 0;
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return null;
+                }
+                continue;
+            }
+            int value;
+            if (c >= '0' && c <= '9') {
+                value = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                value = c - 'a' + 10;
+            } else {
+                return null;
+            }
+            if (digits++ < 16) {
+                most = (most << 4) | value;
+            } else {
+                least = (least << 4) | value;
+            }
+        }
+        return new UUID(most, least);
+    }
+}
@@ -0,0 +1,152 @@
+package com.daypulse.auth_serivce.outbox.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Reads tag-length-value fields from a buffer without copying it: length-delimited values are
+ * returned as slices of the source, and only {@link #readString()} materializes anything. The
+ * source buffer's position is left untouched.
+ * <pre>
+ * while (reader.next()) {
+ *     switch (reader.field()) {
+ *         case 1 -> id = reader.readVarint();
+ *         default -> reader.skip();
+ *     }
+ * }
+ * </pre>
+ */
+public final class WireReader {
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position;
+    private int field;
+    private int wireType;
+
+    public WireReader(ByteBuffer buffer) {
+        this(buffer, buffer.position(), buffer.limit());
+    }
+
+    WireReader(ByteBuffer buffer, int position, int limit) {
+        this.buffer = buffer;
+        this.position = position;
+        this.limit = limit;
+    }
+
+    int position() {
+        return position;
+    }
+
+    int readRawByte() {
+        if (position >= limit) {
+            throw new CodecException("Truncated input at " + position);
+        }
+        return buffer.get(position++) & 0xFF;
+    }
+
+    /**
+     * Advances to the next field; false at the end of the input.
+     */
+    public boolean next() {
+        if (position >= limit) {
+            return false;
+        }
+        long key = readVarint();
+        field = (int) (key >>> 3);
+        wireType = (int) (key & 0x7);
+        if (field == 0) {
+            throw new CodecException("Invalid field number 0 at " + position);
+        }
+        return true;
+    }
+
+    public int field() {
+        return field;
+    }
+
+    public int wireType() {
+        return wireType;
+    }
+
+    public long readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readRawByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new CodecException("Malformed varint at " + position);
+    }
+
+    public long readSigned() {
+        long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public long readFixed64() {
+        if (limit - position < 8) {
+            throw new CodecException("Truncated input at " + position);
+        }
+        long value = buffer.getLong(position);
+        position += 8;
+        return value;
+    }
+
+    /**
+     * The value of a length-delimited field as a slice of the source.
+     */
+    public ByteBuffer readBytes() {
+        int length = readLength();
+        ByteBuffer slice = buffer.slice(position, length);
+        position += length;
+        return slice;
+    }
+
+    public String readString() {
+        return utf8(readBytes());
+    }
+
+    static String utf8(ByteBuffer bytes) {
+        if (bytes.hasArray()) {
+            return new String(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining(), StandardCharsets.UTF_8);
+        }
+        return StandardCharsets.UTF_8.decode(bytes.duplicate()).toString();
+    }
+
+    public UUID readUuid() {
+        int length = readLength();
+        if (length != 16) {
+            throw new CodecException("UUID of " + length + " bytes at " + position);
+        }
+        UUID value = new UUID(buffer.getLong(position), buffer.getLong(position + 8));
+        position += 16;
+        return value;
+    }
+
+    /**
+     * Skips the current field's value; how unknown fields from newer writers are ignored.
+     */
+    public void skip() {
+        switch (wireType) {
+            case WireType.VARINT -> readVarint();
+            case WireType.FIXED64 -> readFixed64();
+            case WireType.LENGTH_DELIMITED -> {
+                // Not "position += readLength()", which would add to the position before the length
+                int length = readLength();
+                position += length;
+            }
+            default -> throw new CodecException("Unknown wire type " + wireType + " at " + position);
+        }
+    }
+
+    private int readLength() {
+        long length = readVarint();
+        if (length < 0 || length > limit - position) {
+            throw new CodecException("Length " + length + " exceeds input at " + position);
+        }
+        return (int) length;
+    }
+}
@@ -0,0 +1,15 @@
+package com.daypulse.auth_serivce.outbox.codec;
+
+/**
+ * Wire types of the tag-length-value encoding shared by the envelope and the payloads. A field is
+ * a varint key {@code field << 3 | wireType} followed by its value, so a reader can skip fields it
+ * does not know.
+ */
+final class WireType {
+    static final int VARINT = 0;
+    static final int FIXED64 = 1;
+    static final int LENGTH_DELIMITED = 2;
+
+    private WireType() {
+    }
+}
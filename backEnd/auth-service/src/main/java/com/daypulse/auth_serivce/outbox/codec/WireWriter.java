@@ -0,0 +1,168 @@
+package com.daypulse.auth_serivce.outbox.codec;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Growable buffer that writes tag-length-value fields. Null references and empty strings are not
+ * written, which readers see as absent. Reuse one writer per thread with
+ * {@link #reset()} to encode without allocating.
+ */
+public final class WireWriter {
+    private byte[] buffer;
+    private int position;
+
+    public WireWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public WireWriter reset() {
+        position = 0;
+        return this;
+    }
+
+    public int size() {
+        return position;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    /**
+     * The written bytes without copying; valid until the writer is written to or reset.
+     */
+    public ByteBuffer view() {
+        return ByteBuffer.wrap(buffer, 0, position);
+    }
+
+    public void writeRawByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    public void varintField(int field, long value) {
+        writeTag(field, WireType.VARINT);
+        writeVarint(value);
+    }
+
+    /**
+     * Signed values, zigzag encoded so small negative numbers stay short.
+     */
+    public void signedField(int field, long value) {
+        varintField(field, (value << 1) ^ (value >> 63));
+    }
+
+    public void stringField(int field, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        int length = utf8Length(value);
+        writeTag(field, WireType.LENGTH_DELIMITED);
+        writeVarint(length);
+        ensureCapacity(length);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Lone surrogates become '?', as String.getBytes does
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    public void uuidField(int field, UUID value) {
+        if (value == null) {
+            return;
+        }
+        writeTag(field, WireType.LENGTH_DELIMITED);
+        writeVarint(16);
+        writeLong(value.getMostSignificantBits());
+        writeLong(value.getLeastSignificantBits());
+    }
+
+    /**
+     * Writes an id as 16 raw bytes in {@code uuidField} when it is a canonical UUID, otherwise as
+     * a string in {@code stringField}.
+     */
+    public void idField(int uuidField, int stringField, String id) {
+        UUID uuid = Ids.parseUuid(id);
+        if (uuid != null) {
+            uuidField(uuidField, uuid);
+        } else {
+            stringField(stringField, id);
+        }
+    }
+
+    public void bytesField(int field, ByteBuffer value) {
+        writeTag(field, WireType.LENGTH_DELIMITED);
+        writeVarint(value.remaining());
+        writeRawBytes(value);
+    }
+
+    public void writeRawBytes(ByteBuffer value) {
+        ensureCapacity(value.remaining());
+        value.duplicate().get(buffer, position, value.remaining());
+        position += value.remaining();
+    }
+
+    private void writeTag(int field, int wireType) {
+        writeVarint(((long) field << 3) | wireType);
+    }
+
+    private void writeLong(long value) {
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+
+    private static int utf8Length(String value) {
+        int length = value.length();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x800) {
+                if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    // Two chars, four bytes
+                    length += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    length += 2;
+                }
+            } else if (c >= 0x80) {
+                length += 1;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,12 @@
+package com.daypulse.auth_serivce.repository;
+
+import com.daypulse.auth_serivce.entity.AuthorityIndex;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AuthorityIndexRepository extends JpaRepository<AuthorityIndex, String> {
+    List<AuthorityIndex> findAllByOrderByPositionAsc();
+}
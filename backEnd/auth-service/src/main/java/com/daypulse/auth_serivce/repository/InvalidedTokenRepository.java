@@ -2,8 +2,21 @@ package com.daypulse.auth_serivce.repository;
 
 import com.daypulse.auth_serivce.entity.InvalidedToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
 
 @Repository
 public interface InvalidedTokenRepository extends JpaRepository<InvalidedToken, String> {
+    List<InvalidedToken> findByExpiredTimeAfter(Date now);
+
+    @Modifying
+    @Transactional
+    @Query("delete from invalided_tokens t where t.expiredTime < :cutoff")
+    int deleteAllExpiredBefore(@Param("cutoff") Date cutoff);
 }
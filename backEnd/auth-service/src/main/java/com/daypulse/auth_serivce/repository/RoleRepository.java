@@ -1,10 +1,20 @@
 package com.daypulse.auth_serivce.repository;
 
 import com.daypulse.auth_serivce.entity.Role;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface RoleRepository extends JpaRepository<Role, String> {
+    @EntityGraph(attributePaths = "permissions")
+    Optional<Role> findWithPermissionsByName(String name);
+
+    @Query("select r.name, r.description, p.name, p.description from roles r left join r.permissions p")
+    List<Object[]> findCatalog();
 }
 
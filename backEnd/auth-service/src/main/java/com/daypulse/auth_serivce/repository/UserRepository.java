@@ -1,14 +1,58 @@
 package com.daypulse.auth_serivce.repository;
 
+import com.daypulse.auth_serivce.dto.response.UserProfileResponse;
 import com.daypulse.auth_serivce.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
     boolean existsByUsername(String username);
     Optional<User> findByUsername(String username);
-}
 
+    @Query("select u.id as id, u.version as version from users u where u.id = :id")
+    Optional<UserVersion> findVersionById(@Param("id") String id);
+
+    @Query("select u.id as id, u.version as version from users u where u.username = :username")
+    Optional<UserVersion> findVersionByUsername(@Param("username") String username);
+
+    @Query("select new com.daypulse.auth_serivce.dto.response.UserProfileResponse(u.id, u.username, u.firstName, u.lastName)"
+            + " from users u where u.id in :ids")
+    List<UserProfileResponse> findProfilesByIdIn(@Param("ids") Collection<String> ids);
+
+    @Query("select new com.daypulse.auth_serivce.dto.response.UserProfileResponse(u.id, u.username, u.firstName, u.lastName)"
+            + " from users u where u.id > :afterId order by u.id")
+    List<UserProfileResponse> findProfilesAfter(@Param("afterId") String afterId, Limit limit);
+
+    /**
+     * Users whose username or a name starts with {@code prefix}, given in lower case with the
+     * LIKE wildcards escaped by a backslash. Only for searches the in-memory index cannot answer yet.
+     */
+    @Query("select new com.daypulse.auth_serivce.dto.response.UserProfileResponse(u.id, u.username, u.firstName, u.lastName)"
+            + " from users u where lower(u.username) like concat(:prefix, '%') escape '\\'"
+            + " or lower(u.firstName) like concat(:prefix, '%') escape '\\'"
+            + " or lower(u.lastName) like concat(:prefix, '%') escape '\\' order by u.username")
+    List<UserProfileResponse> findProfilesByPrefix(@Param("prefix") String prefix, Limit limit);
+
+    /**
+     * Links the user to every named role in one statement, however many there are.
+     */
+    @Modifying
+    @Query(value = "insert into users_roles (users_id, roles_name)"
+            + " select :userId, r.name from roles r where r.name in (:roleNames)", nativeQuery = true)
+    void addRoles(@Param("userId") String userId, @Param("roleNames") Collection<String> roleNames);
+
+    interface UserVersion {
+        String getId();
+
+        long getVersion();
+    }
+}
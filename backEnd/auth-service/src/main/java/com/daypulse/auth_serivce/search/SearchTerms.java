@@ -0,0 +1,95 @@
+package com.daypulse.auth_serivce.search;
+
+import com.daypulse.auth_serivce.dto.response.UserProfileResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Arrays;
+
+/**
+ * How users are matched: case, accents and runs of white space do not count, so
+ * "Nguyễn  Văn Đức" is found as "nguyen van duc". Every user is found under up to three terms:
+ * the username, "first last" and "last first", which covers the start of either name and the
+ * full name in both orders.
+ */
+final class SearchTerms {
+    static final int USERNAME = 0;
+    static final int FIRST_LAST = 1;
+    static final int LAST_FIRST = 2;
+
+    private SearchTerms() {
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean space = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            int type = Character.getType(c);
+            if (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK
+                    || type == Character.COMBINING_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                space = !normalized.isEmpty();
+                continue;
+            }
+            if (space) {
+                normalized.append(' ');
+                space = false;
+            }
+            // The Vietnamese d with stroke has no decomposition
+            normalized.append(c == 'đ' || c == 'Đ' ? 'd' : Character.toLowerCase(c));
+        }
+        return normalized.toString();
+    }
+
+    static byte[] bytes(String text) {
+        return normalize(text).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The normalized terms of a user by kind; kinds the user has no term for are null.
+     */
+    static byte[][] terms(UserProfileResponse profile) {
+        byte[] username = bytes(profile.getUsername());
+        byte[] first = bytes(profile.getFirstName());
+        byte[] last = bytes(profile.getLastName());
+        byte[][] terms = new byte[3][];
+        if (username.length > 0) {
+            terms[USERNAME] = username;
+        }
+        if (first.length == 0 || last.length == 0) {
+            byte[] name = first.length == 0 ? last : first;
+            terms[FIRST_LAST] = name.length == 0 ? null : name;
+        } else {
+            terms[FIRST_LAST] = join(first, last);
+            terms[LAST_FIRST] = join(last, first);
+        }
+        return terms;
+    }
+
+    /**
+     * Position of a term among the matches of a query: shorter terms first, as the query covers
+     * more of them, and usernames before names of the same length.
+     */
+    static int rank(int length, int kind) {
+        return length << 2 | kind;
+    }
+
+    static boolean startsWith(byte[] term, byte[] prefix) {
+        return term.length >= prefix.length && Arrays.equals(term, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    private static byte[] join(byte[] first, byte[] second) {
+        byte[] joined = new byte[first.length + 1 + second.length];
+        System.arraycopy(first, 0, joined, 0, first.length);
+        joined[first.length] = ' ';
+        System.arraycopy(second, 0, joined, first.length + 1, second.length);
+        return joined;
+    }
+}
@@ -0,0 +1,384 @@
+package com.daypulse.auth_serivce.search;
+
+import com.daypulse.auth_serivce.cache.CacheInvalidation;
+import com.daypulse.auth_serivce.cache.CacheInvalidationBus;
+import com.daypulse.auth_serivce.cache.CacheInvalidationListener;
+import com.daypulse.auth_serivce.cache.InvalidationKind;
+import com.daypulse.auth_serivce.dto.response.UserProfileResponse;
+import com.daypulse.auth_serivce.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Search-as-you-type over usernames and names, answered from memory.
+ * <p>
+ * Users live in a {@link UserSearchSegment}, built in bulk and never changed. Users created,
+ * updated or deleted since are reloaded by id and kept beside it, and hide their old entries.
+ * Once {@code user-search.max-pending-changes} have piled up the two are merged into a new
+ * segment, in memory. Every {@code user-search.rebuild-interval} the segment is built again from
+ * the table, which also repairs anything a lost change notification left behind.
+ * <p>
+ * The index hears of changes made here from {@link #refresh(String)} once they commit, and of
+ * those made on other instances from the cache invalidation bus. The bus resyncs every listener
+ * when it starts; the first resync loads the index, from the snapshot in
+ * {@code user-search.snapshot-path} when there is a recent one, replaying the user changes the
+ * bus recorded after it. Until it is loaded, searches go to the database.
+ * <p>
+ * All loading and merging is done by a thread of its own; searches read whatever was last published.
+ */
+@Slf4j
+@Component
+public class UserSearchIndex implements CacheInvalidationListener {
+    private static final Duration IDLE_CHECK = Duration.ofMinutes(1);
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+    private static final Comparator<UserSearchSegment.Match> MATCH_ORDER =
+            Comparator.comparingInt(UserSearchSegment.Match::rank)
+                    .thenComparing(UserSearchSegment.Match::term, Arrays::compareUnsigned)
+                    .thenComparing(match -> match.profile().getId());
+
+    /**
+     * A user that changed since the segment was built, with its terms by kind.
+     */
+    private record Change(UserProfileResponse profile, byte[][] terms) {
+    }
+
+    /**
+     * What searches read: the segment, the users changed since keyed by id, and the ordinals in
+     * the segment those changes hide. Deleted users are only hidden.
+     */
+    private record State(UserSearchSnapshot base, Map<String, Change> changes, Set<Integer> hidden) {
+        int pending() {
+            return changes.size() + hidden.size();
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final int maxResults;
+    private final int maxPendingChanges;
+    private final Duration rebuildInterval;
+    private final Path snapshotPath;
+    private final int loadBatchSize;
+    private final Timer searches;
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    private volatile State state;
+    private volatile boolean rebuildRequested;
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    // The bus is handed every listener, this one included, so it is resolved on first use
+    public UserSearchIndex(UserRepository userRepository,
+                           @Lazy CacheInvalidationBus cacheInvalidationBus,
+                           MeterRegistry meterRegistry,
+                           @Value("${user-search.max-results}") int maxResults,
+                           @Value("${user-search.max-pending-changes}") int maxPendingChanges,
+                           @Value("${user-search.rebuild-interval}") Duration rebuildInterval,
+                           @Value("${user-search.snapshot-path:}") String snapshotPath,
+                           @Value("${user-search.load-batch-size}") int loadBatchSize,
+                           @Value("${cache-invalidation.retention}") Duration retention) {
+        if (rebuildInterval.compareTo(retention) >= 0) {
+            // Older snapshots cannot be caught up, the changes after them are purged
+            throw new IllegalArgumentException("user-search.rebuild-interval must be shorter than cache-invalidation.retention");
+        }
+        this.userRepository = userRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.maxResults = maxResults;
+        this.maxPendingChanges = maxPendingChanges;
+        this.rebuildInterval = rebuildInterval;
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        this.loadBatchSize = loadBatchSize;
+        this.searches = Timer.builder("users.search")
+                .description("Time to answer a user search from the index")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+        Gauge.builder("users.search.indexed", this, index -> {
+                    State current = index.state;
+                    return current == null ? 0 : current.base().segment().size() - current.hidden().size()
+                            + current.changes().size();
+                })
+                .description("Users in the search index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Up to {@code limit} users whose username or names start with {@code query}, closest matches
+     * first. {@code limit} is capped at {@code user-search.max-results}.
+     */
+    public List<UserProfileResponse> search(String query, int limit) {
+        int wanted = Math.clamp(limit, 1, maxResults);
+        String normalized = SearchTerms.normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        State current = state;
+        if (current == null) {
+            String prefix = query.strip().toLowerCase(Locale.ROOT).replaceAll("([\\\\%_])", "\\\\$1");
+            return userRepository.findProfilesByPrefix(prefix, Limit.of(wanted));
+        }
+        long start = System.nanoTime();
+        byte[] prefix = SearchTerms.bytes(normalized);
+        List<UserSearchSegment.Match> matches = new ArrayList<>(
+                current.base().segment().search(prefix, wanted, current.hidden()));
+        for (Change change : current.changes().values()) {
+            UserSearchSegment.Match best = null;
+            for (int kind = 0; kind < change.terms().length; kind++) {
+                byte[] term = change.terms()[kind];
+                if (term != null && SearchTerms.startsWith(term, prefix)) {
+                    UserSearchSegment.Match match = new UserSearchSegment.Match(SearchTerms.rank(term.length, kind),
+                            term, change.profile());
+                    if (best == null || MATCH_ORDER.compare(match, best) < 0) {
+                        best = match;
+                    }
+                }
+            }
+            if (best != null) {
+                matches.add(best);
+            }
+        }
+        List<UserProfileResponse> users = matches.stream()
+                .sorted(MATCH_ORDER)
+                .limit(wanted)
+                .map(UserSearchSegment.Match::profile)
+                .toList();
+        searches.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return users;
+    }
+
+    /**
+     * Reloads a user created, updated or deleted here, once the current transaction commits.
+     */
+    public void refresh(String userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markDirty(userId);
+                }
+            });
+        } else {
+            markDirty(userId);
+        }
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.kind() == InvalidationKind.USER) {
+            markDirty(invalidation.key());
+        }
+    }
+
+    @Override
+    public synchronized void resync() {
+        if (thread == null) {
+            running = true;
+            thread = Thread.ofPlatform().daemon().name("user-search-index").start(this::run);
+        } else {
+            rebuildRequested = true;
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+            current.join(RETRY_DELAY.toMillis());
+        }
+    }
+
+    private void markDirty(String userId) {
+        dirty.add(userId);
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                State current = state;
+                if (current == null) {
+                    Optional<State> snapshot = loadSnapshot();
+                    state = snapshot.orElseGet(this::loadDatabase);
+                    if (snapshot.isEmpty()) {
+                        writeSnapshot();
+                    }
+                } else if (rebuildRequested || current.base().loadedAt().plus(rebuildInterval).isBefore(Instant.now())) {
+                    rebuildRequested = false;
+                    state = loadDatabase();
+                    writeSnapshot();
+                } else if (!dirty.isEmpty()) {
+                    applyChanges();
+                    if (state.pending() >= maxPendingChanges) {
+                        merge();
+                        writeSnapshot();
+                    }
+                } else {
+                    LockSupport.parkNanos(this, IDLE_CHECK.toNanos());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Updating the user search index failed, retrying in {}: {}", RETRY_DELAY, e.getMessage());
+                LockSupport.parkNanos(this, RETRY_DELAY.toNanos());
+            }
+        }
+    }
+
+    private Optional<State> loadSnapshot() {
+        if (snapshotPath == null) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        UserSearchSnapshot snapshot;
+        try {
+            Optional<UserSearchSnapshot> read = UserSearchSnapshot.read(snapshotPath);
+            if (read.isEmpty()) {
+                return Optional.empty();
+            }
+            snapshot = read.get();
+        } catch (IOException e) {
+            log.warn("Ignoring the user search snapshot: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (snapshot.loadedAt().plus(rebuildInterval).isBefore(Instant.now())
+                || snapshot.segment().rankedLength() < rankedLength()) {
+            log.info("User search snapshot from {} is out of date", snapshot.loadedAt());
+            return Optional.empty();
+        }
+        Optional<Set<String>> changed = cacheInvalidationBus.keysChangedAfter(InvalidationKind.USER,
+                snapshot.position(), snapshot.loadedAt());
+        if (changed.isEmpty()) {
+            log.info("User search snapshot from {} cannot be caught up", snapshot.loadedAt());
+            return Optional.empty();
+        }
+        dirty.addAll(changed.get());
+        log.info("Loaded {} users for search from {} in {} ms, {} changed since", snapshot.segment().size(),
+                snapshotPath, Duration.ofNanos(System.nanoTime() - start).toMillis(), changed.get().size());
+        return Optional.of(new State(snapshot, Map.of(), Set.of()));
+    }
+
+    private State loadDatabase() {
+        long start = System.nanoTime();
+        long position = cacheInvalidationBus.position();
+        Instant loadedAt = Instant.now();
+        UserSearchSegment.Builder builder = new UserSearchSegment.Builder();
+        String afterId = "";
+        List<UserProfileResponse> page;
+        do {
+            page = userRepository.findProfilesAfter(afterId, Limit.of(loadBatchSize));
+            page.forEach(builder::add);
+            if (!page.isEmpty()) {
+                afterId = page.getLast().getId();
+            }
+        } while (page.size() == loadBatchSize);
+        UserSearchSegment segment = builder.build(rankedLength());
+        log.info("Indexed {} users for search in {} ms, {} MiB", segment.size(),
+                Duration.ofNanos(System.nanoTime() - start).toMillis(), segment.footprint() >> 20);
+        return new State(new UserSearchSnapshot(segment, position, loadedAt), Map.of(), Set.of());
+    }
+
+    /**
+     * Reloads a batch of changed users. One changed again while this runs is marked again and
+     * reloaded next time.
+     */
+    private void applyChanges() {
+        List<String> ids = new ArrayList<>(Math.min(dirty.size(), loadBatchSize));
+        for (Iterator<String> iterator = dirty.iterator(); iterator.hasNext() && ids.size() < loadBatchSize; ) {
+            ids.add(iterator.next());
+            iterator.remove();
+        }
+        Map<String, UserProfileResponse> found;
+        try {
+            found = userRepository.findProfilesByIdIn(ids).stream()
+                    .collect(Collectors.toMap(UserProfileResponse::getId, Function.identity()));
+        } catch (RuntimeException e) {
+            dirty.addAll(ids);
+            throw e;
+        }
+        State current = state;
+        UserSearchSegment segment = current.base().segment();
+        Map<String, Change> changes = new HashMap<>(current.changes());
+        Set<Integer> hidden = new HashSet<>(current.hidden());
+        for (String id : ids) {
+            int ordinal = segment.find(id);
+            if (ordinal >= 0) {
+                hidden.add(ordinal);
+            }
+            UserProfileResponse profile = found.get(id);
+            if (profile == null) {
+                changes.remove(id);
+            } else {
+                changes.put(id, new Change(profile, SearchTerms.terms(profile)));
+            }
+        }
+        state = new State(current.base(), Map.copyOf(changes), Set.copyOf(hidden));
+    }
+
+    private void merge() {
+        long start = System.nanoTime();
+        State current = state;
+        UserSearchSegment segment = current.base().segment();
+        UserSearchSegment.Builder builder = new UserSearchSegment.Builder();
+        for (int user = 0; user < segment.size(); user++) {
+            if (!current.hidden().contains(user)) {
+                builder.add(segment.profile(user));
+            }
+        }
+        current.changes().values().forEach(change -> builder.add(change.profile()));
+        UserSearchSegment merged = builder.build(rankedLength());
+        // Still as of the same position: changes replayed after loading it are reloaded, whatever they were
+        state = new State(new UserSearchSnapshot(merged, current.base().position(), current.base().loadedAt()),
+                Map.of(), Set.of());
+        log.debug("Merged {} changes into the user search index in {} ms", current.pending(),
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private void writeSnapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+        try {
+            state.base().write(snapshotPath);
+        } catch (IOException e) {
+            log.warn("Could not write the user search snapshot to {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    // Room for hidden users among the best of a short prefix before a search has to scan its range
+    private int rankedLength() {
+        return maxResults * 2;
+    }
+}
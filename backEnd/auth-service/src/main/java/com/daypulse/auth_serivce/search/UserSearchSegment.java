@@ -0,0 +1,611 @@
+package com.daypulse.auth_serivce.search;
+
+import com.daypulse.auth_serivce.dto.response.UserProfileResponse;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An immutable index of users by the prefixes of their {@link SearchTerms terms}.
+ * <p>
+ * Terms are not stored as strings. Each user's normalized username, first and last name are packed
+ * into one byte array, and {@code entries} holds an int per term, the user's ordinal and the kind
+ * of term, sorted by the term's bytes. The terms starting with a prefix are then one range of
+ * {@code entries}, found by binary search. A range of up to {@link #SCAN_LIMIT} entries is ranked
+ * when queried. Longer ranges belong to short prefixes, the upper nodes of a trie over the terms;
+ * for each of them the best users were ranked when the segment was built.
+ * <p>
+ * Profiles are packed as UTF-8 as well and only decoded for results.
+ */
+final class UserSearchSegment {
+    static final int SCAN_LIMIT = 256;
+
+    private static final int NULL_LENGTH = 0xFFFF;
+    private static final int INSERTION_SORT_LIMIT = 12;
+
+    /**
+     * A user found under {@code term}, ranked by {@link SearchTerms#rank(int, int)}.
+     */
+    record Match(int rank, byte[] term, UserProfileResponse profile) {
+    }
+
+    /**
+     * Byte {@code depth} of the key of {@code value}, or -1 past its end.
+     */
+    @FunctionalInterface
+    private interface ByteKey {
+        int at(int value, int depth);
+    }
+
+    private final int size;
+    private final int rankedLength;
+    private final byte[] keys;
+    private final int[] keyStart;
+    private final char[] usernameLength;
+    private final char[] firstNameLength;
+    private final byte[] profiles;
+    private final int[] profileStart;
+    // Ordinals by id, for finding a user that changed
+    private final int[] byId;
+    private final int[] entries;
+    // Positions in entries, best first, by prefix as ISO-8859-1 so that a char is a byte
+    private final Map<String, int[]> ranked = new HashMap<>();
+
+    private UserSearchSegment(int size, int rankedLength, byte[] keys, int[] keyStart, char[] usernameLength,
+                              char[] firstNameLength, byte[] profiles, int[] profileStart, int[] byId, int[] entries) {
+        this.size = size;
+        this.rankedLength = rankedLength;
+        this.keys = keys;
+        this.keyStart = keyStart;
+        this.usernameLength = usernameLength;
+        this.firstNameLength = firstNameLength;
+        this.profiles = profiles;
+        this.profileStart = profileStart;
+        this.byId = byId;
+        this.entries = entries;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * How many users were ranked for each short prefix; queries asking for more are scanned.
+     */
+    int rankedLength() {
+        return rankedLength;
+    }
+
+    /**
+     * Rough heap size of the segment in bytes.
+     */
+    long footprint() {
+        long bytes = keys.length + profiles.length + 4L * (keyStart.length + profileStart.length + byId.length
+                + entries.length) + 2L * (usernameLength.length + firstNameLength.length);
+        for (Map.Entry<String, int[]> node : ranked.entrySet()) {
+            bytes += 64 + node.getKey().length() + 4L * node.getValue().length;
+        }
+        return bytes;
+    }
+
+    UserProfileResponse profile(int user) {
+        int at = profileStart[user];
+        String id = string(at);
+        at = next(at);
+        String username = string(at);
+        at = next(at);
+        String firstName = string(at);
+        at = next(at);
+        return new UserProfileResponse(id, username, firstName, string(at));
+    }
+
+    /**
+     * Ordinal of the user with {@code id}, or -1.
+     */
+    int find(String id) {
+        byte[] wanted = id.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int at = profileStart[byId[middle]];
+            int comparison = Arrays.compareUnsigned(profiles, at + 2, at + 2 + length(at), wanted, 0, wanted.length);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return byId[middle];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The best {@code limit} users with a term starting with {@code prefix}, a normalized query,
+     * leaving out the ordinals in {@code excluded}.
+     */
+    List<Match> search(byte[] prefix, int limit, Set<Integer> excluded) {
+        int from = bound(prefix, false);
+        int to = bound(prefix, true);
+        if (from == to) {
+            return List.of();
+        }
+        Ranking ranking = new Ranking(limit);
+        int[] best = to - from > SCAN_LIMIT ? ranked.get(new String(prefix, StandardCharsets.ISO_8859_1)) : null;
+        if (best != null && limit <= rankedLength) {
+            for (int position : best) {
+                if (excluded.isEmpty() || !excluded.contains(entries[position] >>> 2)) {
+                    ranking.offer(position);
+                }
+            }
+            // Too many of the best have changed since the segment was built
+            if (ranking.size < limit && best.length == rankedLength) {
+                ranking = new Ranking(limit);
+                scan(from, to, ranking, excluded);
+            }
+        } else {
+            scan(from, to, ranking, excluded);
+        }
+        List<Match> matches = new ArrayList<>(ranking.size);
+        for (int i = 0; i < ranking.size; i++) {
+            int entry = entries[ranking.position(i)];
+            matches.add(new Match(rank(entry), term(entry), profile(entry >>> 2)));
+        }
+        return matches;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        out.writeInt(rankedLength);
+        writeBytes(out, keys);
+        writeInts(out, keyStart);
+        writeChars(out, usernameLength);
+        writeChars(out, firstNameLength);
+        writeBytes(out, profiles);
+        writeInts(out, profileStart);
+        writeInts(out, byId);
+        writeInts(out, entries);
+        out.writeInt(ranked.size());
+        for (Map.Entry<String, int[]> node : ranked.entrySet()) {
+            out.writeShort(node.getKey().length());
+            out.writeBytes(node.getKey());
+            writeInts(out, node.getValue());
+        }
+    }
+
+    static UserSearchSegment read(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        int rankedLength = in.readInt();
+        UserSearchSegment segment = new UserSearchSegment(size, rankedLength, readBytes(in), readInts(in),
+                readChars(in), readChars(in), readBytes(in), readInts(in), readInts(in), readInts(in));
+        if (segment.keyStart.length != size + 1 || segment.profileStart.length != size + 1
+                || segment.byId.length != size) {
+            throw new IOException("Inconsistent user search segment of " + size + " users");
+        }
+        int nodes = in.readInt();
+        for (int i = 0; i < nodes; i++) {
+            byte[] prefix = new byte[in.readUnsignedShort()];
+            in.readFully(prefix);
+            segment.ranked.put(new String(prefix, StandardCharsets.ISO_8859_1), readInts(in));
+        }
+        return segment;
+    }
+
+    private void prepare() {
+        sort(byId, 0, size, 0, this::idByte);
+        sort(entries, 0, entries.length, 0, this::termByte);
+        if (entries.length > SCAN_LIMIT) {
+            rankRange(0, entries.length, 0);
+        }
+    }
+
+    /**
+     * Ranks the entries from {@code from} to {@code to}, which share their first {@code depth}
+     * bytes, keeping the result for that prefix. Each group sharing one more byte is either ranked
+     * the same way or, when short, scanned.
+     */
+    private int[] rankRange(int from, int to, int depth) {
+        Ranking ranking = new Ranking(rankedLength);
+        int start = from;
+        while (start < to) {
+            int b = termByte(entries[start], depth);
+            int end = start + 1;
+            while (end < to && termByte(entries[end], depth) == b) {
+                end++;
+            }
+            if (b >= 0 && end - start > SCAN_LIMIT) {
+                for (int position : rankRange(start, end, depth + 1)) {
+                    ranking.offer(position);
+                }
+            } else {
+                for (int position = start; position < end; position++) {
+                    ranking.offer(position);
+                }
+            }
+            start = end;
+        }
+        int[] best = ranking.positions();
+        if (depth > 0) {
+            byte[] prefix = new byte[depth];
+            for (int i = 0; i < depth; i++) {
+                prefix[i] = (byte) termByte(entries[from], i);
+            }
+            ranked.put(new String(prefix, StandardCharsets.ISO_8859_1), best);
+        }
+        return best;
+    }
+
+    private void scan(int from, int to, Ranking ranking, Set<Integer> excluded) {
+        for (int position = from; position < to; position++) {
+            if (excluded.isEmpty() || !excluded.contains(entries[position] >>> 2)) {
+                ranking.offer(position);
+            }
+        }
+    }
+
+    /**
+     * First position whose term starts with {@code prefix}, or with {@code after} the first one
+     * past them.
+     */
+    private int bound(byte[] prefix, boolean after) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = comparePrefix(entries[middle], prefix);
+            if (comparison < 0 || (after && comparison == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int comparePrefix(int entry, byte[] prefix) {
+        for (int depth = 0; depth < prefix.length; depth++) {
+            int b = termByte(entry, depth);
+            int wanted = prefix[depth] & 0xFF;
+            if (b != wanted) {
+                return b < wanted ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    private int rank(int entry) {
+        return SearchTerms.rank(termLength(entry), entry & 3);
+    }
+
+    private byte[] term(int entry) {
+        byte[] term = new byte[termLength(entry)];
+        for (int i = 0; i < term.length; i++) {
+            term[i] = (byte) termByte(entry, i);
+        }
+        return term;
+    }
+
+    private int termLength(int entry) {
+        int user = entry >>> 2;
+        if ((entry & 3) == SearchTerms.USERNAME) {
+            return usernameLength[user];
+        }
+        int first = firstNameLength[user];
+        int last = keyStart[user + 1] - keyStart[user] - usernameLength[user] - first;
+        return first == 0 || last == 0 ? first + last : first + 1 + last;
+    }
+
+    private int termByte(int entry, int depth) {
+        int user = entry >>> 2;
+        int usernameAt = keyStart[user];
+        int username = usernameLength[user];
+        if ((entry & 3) == SearchTerms.USERNAME) {
+            return depth < username ? keys[usernameAt + depth] & 0xFF : -1;
+        }
+        int firstAt = usernameAt + username;
+        int first = firstNameLength[user];
+        int lastAt = firstAt + first;
+        int last = keyStart[user + 1] - lastAt;
+        return (entry & 3) == SearchTerms.FIRST_LAST
+                ? joinedByte(firstAt, first, lastAt, last, depth)
+                : joinedByte(lastAt, last, firstAt, first, depth);
+    }
+
+    // Byte of "a b", or of whichever of the two is not empty
+    private int joinedByte(int aAt, int a, int bAt, int b, int depth) {
+        if (a == 0) {
+            return depth < b ? keys[bAt + depth] & 0xFF : -1;
+        }
+        if (depth < a) {
+            return keys[aAt + depth] & 0xFF;
+        }
+        if (b == 0) {
+            return -1;
+        }
+        if (depth == a) {
+            return ' ';
+        }
+        depth -= a + 1;
+        return depth < b ? keys[bAt + depth] & 0xFF : -1;
+    }
+
+    private int idByte(int user, int depth) {
+        int at = profileStart[user];
+        return depth < length(at) ? profiles[at + 2 + depth] & 0xFF : -1;
+    }
+
+    private int length(int at) {
+        return (profiles[at] & 0xFF) << 8 | profiles[at + 1] & 0xFF;
+    }
+
+    private int next(int at) {
+        int length = length(at);
+        return at + 2 + (length == NULL_LENGTH ? 0 : length);
+    }
+
+    private String string(int at) {
+        int length = length(at);
+        return length == NULL_LENGTH ? null : new String(profiles, at + 2, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Multikey quicksort: orders values by the bytes of their keys, and values with equal keys by
+     * value. Strings sharing long prefixes are compared byte by byte only once.
+     */
+    private static void sort(int[] values, int from, int to, int depth, ByteKey key) {
+        while (to - from > INSERTION_SORT_LIMIT) {
+            int pivot = key.at(values[from + ThreadLocalRandom.current().nextInt(to - from)], depth);
+            int less = from;
+            int greater = to - 1;
+            int i = from;
+            while (i <= greater) {
+                int b = key.at(values[i], depth);
+                if (b < pivot) {
+                    swap(values, less++, i++);
+                } else if (b > pivot) {
+                    swap(values, i, greater--);
+                } else {
+                    i++;
+                }
+            }
+            sort(values, from, less, depth, key);
+            sort(values, greater + 1, to, depth, key);
+            if (pivot < 0) {
+                Arrays.sort(values, less, greater + 1);
+                return;
+            }
+            from = less;
+            to = greater + 1;
+            depth++;
+        }
+        for (int i = from + 1; i < to; i++) {
+            for (int j = i; j > from && compare(values[j - 1], values[j], depth, key) > 0; j--) {
+                swap(values, j - 1, j);
+            }
+        }
+    }
+
+    private static int compare(int a, int b, int depth, ByteKey key) {
+        while (true) {
+            int x = key.at(a, depth);
+            int y = key.at(b, depth);
+            if (x != y) {
+                return x < y ? -1 : 1;
+            }
+            if (x < 0) {
+                return Integer.compare(a, b);
+            }
+            depth++;
+        }
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] values) throws IOException {
+        out.writeInt(values.length);
+        out.write(values);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeChars(DataOutputStream out, char[] values) throws IOException {
+        out.writeInt(values.length);
+        for (char value : values) {
+            out.writeChar(value);
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] values = new byte[in.readInt()];
+        in.readFully(values);
+        return values;
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private static char[] readChars(DataInputStream in) throws IOException {
+        char[] values = new char[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readChar();
+        }
+        return values;
+    }
+
+    /**
+     * The best entries of distinct users offered so far, by rank and then position, which is
+     * alphabetical.
+     */
+    private final class Ranking {
+        private final long[] keys;
+        private int size;
+
+        private Ranking(int capacity) {
+            this.keys = new long[capacity];
+        }
+
+        void offer(int position) {
+            int entry = entries[position];
+            long key = (long) rank(entry) << 32 | position;
+            if (size == keys.length && key >= keys[size - 1]) {
+                return;
+            }
+            int user = entry >>> 2;
+            for (int i = 0; i < size; i++) {
+                if (entries[position(i)] >>> 2 == user) {
+                    if (keys[i] <= key) {
+                        return;
+                    }
+                    System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+                    size--;
+                    break;
+                }
+            }
+            int at = Math.min(size, keys.length - 1);
+            while (at > 0 && keys[at - 1] > key) {
+                keys[at] = keys[at - 1];
+                at--;
+            }
+            keys[at] = key;
+            size = Math.min(size + 1, keys.length);
+        }
+
+        int position(int i) {
+            return (int) keys[i];
+        }
+
+        int[] positions() {
+            int[] positions = new int[size];
+            for (int i = 0; i < size; i++) {
+                positions[i] = position(i);
+            }
+            return positions;
+        }
+    }
+
+    /**
+     * Packs users one at a time, in any order, into a segment.
+     */
+    static final class Builder {
+        private byte[] keys = new byte[1 << 12];
+        private int keysSize;
+        private byte[] profiles = new byte[1 << 12];
+        private int profilesSize;
+        private int[] keyStart = new int[1 << 8];
+        private int[] profileStart = new int[1 << 8];
+        private char[] usernameLength = new char[1 << 8];
+        private char[] firstNameLength = new char[1 << 8];
+        private int size;
+        private int entryCount;
+
+        Builder add(UserProfileResponse profile) {
+            if (size + 1 >= keyStart.length) {
+                int capacity = keyStart.length * 2;
+                keyStart = Arrays.copyOf(keyStart, capacity);
+                profileStart = Arrays.copyOf(profileStart, capacity);
+                usernameLength = Arrays.copyOf(usernameLength, capacity);
+                firstNameLength = Arrays.copyOf(firstNameLength, capacity);
+            }
+            byte[] username = SearchTerms.bytes(profile.getUsername());
+            byte[] first = SearchTerms.bytes(profile.getFirstName());
+            byte[] last = SearchTerms.bytes(profile.getLastName());
+            keyStart[size] = keysSize;
+            appendKey(username);
+            appendKey(first);
+            appendKey(last);
+            usernameLength[size] = (char) username.length;
+            firstNameLength[size] = (char) first.length;
+
+            profileStart[size] = profilesSize;
+            appendProfile(profile.getId());
+            appendProfile(profile.getUsername());
+            appendProfile(profile.getFirstName());
+            appendProfile(profile.getLastName());
+
+            entryCount += (username.length > 0 ? 1 : 0) + (first.length + last.length > 0 ? 1 : 0)
+                    + (first.length > 0 && last.length > 0 ? 1 : 0);
+            size++;
+            return this;
+        }
+
+        UserSearchSegment build(int rankedLength) {
+            keyStart[size] = keysSize;
+            profileStart[size] = profilesSize;
+            int[] entries = new int[entryCount];
+            int count = 0;
+            for (int user = 0; user < size; user++) {
+                int first = firstNameLength[user];
+                int last = keyStart[user + 1] - keyStart[user] - usernameLength[user] - first;
+                if (usernameLength[user] > 0) {
+                    entries[count++] = user << 2 | SearchTerms.USERNAME;
+                }
+                if (first + last > 0) {
+                    entries[count++] = user << 2 | SearchTerms.FIRST_LAST;
+                }
+                if (first > 0 && last > 0) {
+                    entries[count++] = user << 2 | SearchTerms.LAST_FIRST;
+                }
+            }
+            int[] byId = new int[size];
+            for (int user = 0; user < size; user++) {
+                byId[user] = user;
+            }
+            UserSearchSegment segment = new UserSearchSegment(size, rankedLength, Arrays.copyOf(keys, keysSize),
+                    Arrays.copyOf(keyStart, size + 1), Arrays.copyOf(usernameLength, size),
+                    Arrays.copyOf(firstNameLength, size), Arrays.copyOf(profiles, profilesSize),
+                    Arrays.copyOf(profileStart, size + 1), byId, entries);
+            segment.prepare();
+            return segment;
+        }
+
+        private void appendKey(byte[] key) {
+            if (key.length >= NULL_LENGTH) {
+                throw new IllegalArgumentException("Name too long to index: " + key.length + " bytes");
+            }
+            if (keysSize + key.length > keys.length) {
+                keys = Arrays.copyOf(keys, Math.max(keys.length * 2, keysSize + key.length));
+            }
+            System.arraycopy(key, 0, keys, keysSize, key.length);
+            keysSize += key.length;
+        }
+
+        private void appendProfile(String value) {
+            byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length >= NULL_LENGTH) {
+                throw new IllegalArgumentException("Profile field too long to index: " + bytes.length + " bytes");
+            }
+            if (profilesSize + 2 + bytes.length > profiles.length) {
+                profiles = Arrays.copyOf(profiles, Math.max(profiles.length * 2, profilesSize + 2 + bytes.length));
+            }
+            int length = value == null ? NULL_LENGTH : bytes.length;
+            profiles[profilesSize] = (byte) (length >>> 8);
+            profiles[profilesSize + 1] = (byte) length;
+            System.arraycopy(bytes, 0, profiles, profilesSize + 2, bytes.length);
+            profilesSize += 2 + bytes.length;
+        }
+    }
+}
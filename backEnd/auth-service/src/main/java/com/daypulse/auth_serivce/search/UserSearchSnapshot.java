@@ -0,0 +1,81 @@
+package com.daypulse.auth_serivce.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A segment on disk, with the position of the cache invalidation bus taken before its users were
+ * read from the database at {@code loadedAt}. Changes recorded after that position are not
+ * reflected and are replayed after loading it.
+ * <p>
+ * The file is written next to its final name and moved over it, and ends with a CRC32C of what
+ * precedes it, so a crash while writing leaves the previous snapshot.
+ */
+record UserSearchSnapshot(UserSearchSegment segment, long position, Instant loadedAt) {
+    private static final int MAGIC = 0x55534958;
+    private static final int VERSION = 1;
+    private static final String WRITING_SUFFIX = ".writing";
+
+    void write(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + WRITING_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            BufferedOutputStream buffered = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+            CRC32C checksum = new CRC32C();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(buffered, checksum));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(position);
+            out.writeLong(loadedAt.toEpochMilli());
+            segment.write(out);
+            new DataOutputStream(buffered).writeLong(checksum.getValue());
+            buffered.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * The snapshot in {@code file}, or empty if there is none.
+     *
+     * @throws IOException if it cannot be read or is damaged
+     */
+    static Optional<UserSearchSnapshot> read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try (InputStream buffered = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            CRC32C checksum = new CRC32C();
+            DataInputStream in = new DataInputStream(new CheckedInputStream(buffered, checksum));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(file + " is not a user search snapshot of version " + VERSION);
+            }
+            long position = in.readLong();
+            Instant loadedAt = Instant.ofEpochMilli(in.readLong());
+            UserSearchSegment segment = UserSearchSegment.read(in);
+            if (new DataInputStream(buffered).readLong() != checksum.getValue()) {
+                throw new IOException(file + " is damaged, its checksum does not match");
+            }
+            return Optional.of(new UserSearchSnapshot(segment, position, loadedAt));
+        }
+    }
+}
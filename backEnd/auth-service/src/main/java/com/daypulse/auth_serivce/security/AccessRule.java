@@ -0,0 +1,87 @@
+package com.daypulse.auth_serivce.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Authorization rules applied through {@link Authorize}. Each rule lists its alternatives; an
+ * alternative names one or more space-separated authorities that must all be held.
+ * <p>
+ * Every authority named by a rule gets a bit in a {@code long}, so a rule is checked with a few
+ * mask comparisons against the caller's {@link #authorityMask(Collection) authority mask}.
+ */
+public enum AccessRule {
+    /** Any authenticated caller. */
+    AUTHENTICATED(false),
+    ADMIN(false, "ROLE_ADMIN"),
+    /** Administrators, or a caller whose principal equals the {@link Authorize#subject() subject} argument. */
+    ADMIN_OR_SELF(true, "ROLE_ADMIN"),
+    ADMIN_WITH_APPROVE_DATA(false, "ROLE_ADMIN APPROVE_DATA");
+
+    private static final Map<String, Long> AUTHORITY_BITS;
+
+    static {
+        Map<String, Long> bits = new HashMap<>();
+        for (AccessRule rule : values()) {
+            rule.requiredMasks = Arrays.stream(rule.alternatives)
+                    .mapToLong(alternative -> {
+                        long mask = 0;
+                        for (String authority : alternative.split(" ")) {
+                            mask |= bits.computeIfAbsent(authority, ignored -> 1L << bits.size());
+                        }
+                        return mask;
+                    })
+                    .toArray();
+        }
+        if (bits.size() > Long.SIZE) {
+            throw new IllegalStateException("Access rules name more than " + Long.SIZE + " authorities");
+        }
+        AUTHORITY_BITS = Map.copyOf(bits);
+    }
+
+    private final boolean allowsSubject;
+    private final String[] alternatives;
+    private long[] requiredMasks;
+
+    AccessRule(boolean allowsSubject, String... alternatives) {
+        this.allowsSubject = allowsSubject;
+        this.alternatives = alternatives;
+    }
+
+    public boolean allowsSubject() {
+        return allowsSubject;
+    }
+
+    /**
+     * Whether an authenticated caller holding {@code authorityMask} passes the rule on authorities alone.
+     */
+    public boolean permits(long authorityMask) {
+        if (requiredMasks.length == 0) {
+            return !allowsSubject;
+        }
+        for (long required : requiredMasks) {
+            if ((authorityMask & required) == required) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Folds the authorities the rules care about into a mask; all others are ignored.
+     */
+    public static long authorityMask(Collection<? extends GrantedAuthority> authorities) {
+        long mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            Long bit = AUTHORITY_BITS.get(authority.getAuthority());
+            if (bit != null) {
+                mask |= bit;
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,103 @@
+package com.daypulse.auth_serivce.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Enforces {@link Authorize} rules. Each annotated method is compiled once, when its bean is
+ * proxied at startup, into the rule and the index of its subject parameter; a check then reads the
+ * caller's authority mask and at most one argument.
+ */
+public class AccessRuleAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final Map<Method, CompiledRule> rules = new ConcurrentHashMap<>();
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+    /**
+     * Matches the methods carrying {@link Authorize}, compiling their rule as they are matched.
+     */
+    public Pointcut pointcut() {
+        return new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(@NonNull Method method, @NonNull Class<?> targetClass) {
+                return compile(method, targetClass) != null;
+            }
+        };
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        CompiledRule compiled = compile(invocation.getMethod(), AopUtils.getTargetClass(invocation.getThis()));
+        if (compiled == null) {
+            return null;
+        }
+
+        Authentication caller = authentication.get();
+        if (!trustResolver.isAuthenticated(caller)) {
+            return DENIED;
+        }
+        long mask = caller instanceof BitsetJwtAuthenticationToken token
+                ? token.getAuthorityMask()
+                : AccessRule.authorityMask(caller.getAuthorities());
+        if (compiled.rule().permits(mask)) {
+            return GRANTED;
+        }
+        if (compiled.subjectIndex() >= 0
+                && Objects.equals(invocation.getArguments()[compiled.subjectIndex()], caller.getPrincipal())) {
+            return GRANTED;
+        }
+        return DENIED;
+    }
+
+    private CompiledRule compile(Method method, Class<?> targetClass) {
+        CompiledRule compiled = rules.get(method);
+        if (compiled != null) {
+            return compiled;
+        }
+        Method specific = AopUtils.getMostSpecificMethod(method, targetClass);
+        Authorize authorize = AnnotationUtils.findAnnotation(specific, Authorize.class);
+        if (authorize == null) {
+            return null;
+        }
+        compiled = new CompiledRule(authorize.value(), subjectIndex(specific, authorize));
+        rules.put(method, compiled);
+        return compiled;
+    }
+
+    private int subjectIndex(Method method, Authorize authorize) {
+        if (!authorize.value().allowsSubject()) {
+            return -1;
+        }
+        String[] names = parameterNames.getParameterNames(method);
+        int index = names == null ? -1 : Arrays.asList(names).indexOf(authorize.subject());
+        if (index < 0) {
+            throw new IllegalStateException("@Authorize(" + authorize.value() + ") on " + method
+                    + " names no parameter '" + authorize.subject() + "'");
+        }
+        return index;
+    }
+
+    private record CompiledRule(AccessRule rule, int subjectIndex) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.daypulse.auth_serivce.security;
+
+import java.util.Base64;
+import java.util.BitSet;
+
+/**
+ * Wire format of the permission bitset claim: little-endian bytes of the bitset, base64url without padding.
+ */
+public final class AuthorityBitset {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private AuthorityBitset() {
+    }
+
+    public static String encode(BitSet bits) {
+        return ENCODER.encodeToString(bits.toByteArray());
+    }
+
+    public static BitSet decode(String encoded) {
+        return BitSet.valueOf(DECODER.decode(encoded));
+    }
+}
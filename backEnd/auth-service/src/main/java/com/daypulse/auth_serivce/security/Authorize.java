@@ -0,0 +1,23 @@
+package com.daypulse.auth_serivce.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Guards a method with an {@link AccessRule}. Checked by {@link AccessRuleAuthorizationManager}
+ * before the method runs, in place of a {@code @PreAuthorize} expression.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Authorize {
+    AccessRule value();
+
+    /**
+     * Parameter compared with the caller's principal by rules that {@link AccessRule#allowsSubject() allow the subject}.
+     */
+    String subject() default "";
+}
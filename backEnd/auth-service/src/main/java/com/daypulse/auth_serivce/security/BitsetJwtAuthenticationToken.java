@@ -0,0 +1,22 @@
+package com.daypulse.auth_serivce.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.Collection;
+
+/**
+ * JWT authentication that also carries its {@link AccessRule#authorityMask(Collection) authority mask},
+ * computed once per distinct permission claim rather than on every authorization check.
+ */
+@Getter
+public class BitsetJwtAuthenticationToken extends JwtAuthenticationToken {
+    private final long authorityMask;
+
+    public BitsetJwtAuthenticationToken(Jwt jwt, Collection<? extends GrantedAuthority> authorities, long authorityMask) {
+        super(jwt, authorities, jwt.getSubject());
+        this.authorityMask = authorityMask;
+    }
+}
@@ -0,0 +1,159 @@
+package com.daypulse.auth_serivce.security;
+
+import com.daypulse.auth_serivce.cache.CacheInvalidation;
+import com.daypulse.auth_serivce.cache.CacheInvalidationListener;
+import com.daypulse.auth_serivce.cache.InvalidationKind;
+import com.daypulse.auth_serivce.entity.InvalidedToken;
+import com.daypulse.auth_serivce.repository.InvalidedTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Bounded cache of verified tokens keyed by the SHA-256 digest of the serialized token, so a
+ * session's repeat requests skip signature verification and claim parsing. Entries live until the
+ * token expires.
+ * <p>
+ * Revoked token ids are kept as tombstones until their expiry, however many there are: evicting one
+ * early would let its token through again. Revocation drops the token's entry
+ * when the raw token is known; otherwise the tombstone rejects the entry on its next lookup.
+ * Revocations made on other instances arrive through the cache invalidation bus; a resync reloads
+ * the latest unexpired ones from the database.
+ */
+@Slf4j
+@Component
+public class DecodedJwtCache implements CacheInvalidationListener {
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Cache<TokenDigest, Jwt> decoded;
+    private final Cache<String, Instant> revokedIds;
+    private final InvalidedTokenRepository invalidedTokenRepository;
+
+    public DecodedJwtCache(@Value("${jwt.decoded-cache.max-size:10000}") int maxSize,
+                           InvalidedTokenRepository invalidedTokenRepository) {
+        this.invalidedTokenRepository = invalidedTokenRepository;
+        this.decoded = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(untilExpiry((TokenDigest key, Jwt jwt) -> jwt.getExpiresAt()))
+                .build();
+        this.revokedIds = Caffeine.newBuilder()
+                .expireAfter(untilExpiry((String id, Instant expiresAt) -> expiresAt))
+                .build();
+    }
+
+    /**
+     * Returns the cached decoding of {@code token}, or null if it has to be decoded.
+     */
+    public Jwt get(String token) {
+        TokenDigest digest = TokenDigest.of(token);
+        Jwt jwt = decoded.getIfPresent(digest);
+        if (jwt != null && isRevoked(jwt)) {
+            decoded.invalidate(digest);
+            return null;
+        }
+        return jwt;
+    }
+
+    public void put(String token, Jwt jwt) {
+        if (jwt.getExpiresAt() != null && !isRevoked(jwt)) {
+            decoded.put(TokenDigest.of(token), jwt);
+        }
+    }
+
+    public boolean isRevoked(Jwt jwt) {
+        return jwt.getId() != null && revokedIds.getIfPresent(jwt.getId()) != null;
+    }
+
+    /**
+     * Records {@code jwtId} as revoked until {@code expiresAt} and drops the cached decoding of
+     * {@code token} if given.
+     */
+    public void revoke(String token, String jwtId, Instant expiresAt) {
+        if (jwtId != null && expiresAt != null) {
+            revokedIds.put(jwtId, expiresAt);
+        }
+        if (token != null) {
+            decoded.invalidate(TokenDigest.of(token));
+        }
+        log.debug("Revoked token {} in decoded JWT cache", jwtId);
+    }
+
+    /**
+     * Drops every cached decoding. Revocations are kept.
+     */
+    public void clear() {
+        decoded.invalidateAll();
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.kind() == InvalidationKind.TOKEN_REVOKED) {
+            revoke(null, invalidation.key(), invalidation.expiresAt());
+        }
+    }
+
+    @Override
+    public void resync() {
+        // Cached decodings need not be dropped: every lookup checks the tombstones
+        var revoked = invalidedTokenRepository.findByExpiredTimeAfter(new Date());
+        for (InvalidedToken token : revoked) {
+            revokedIds.put(token.getId(), token.getExpiredTime().toInstant());
+        }
+        log.info("Reloaded {} revoked tokens", revoked.size());
+    }
+
+    private static <K, V> Expiry<K, V> untilExpiry(ExpiryExtractor<K, V> expiresAt) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(K key, V value, long currentTime) {
+                Instant expiry = expiresAt.apply(key, value);
+                if (expiry == null) {
+                    return 0;
+                }
+                return Math.max(0, Duration.between(Instant.now(), expiry).toNanos());
+            }
+
+            @Override
+            public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, value, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface ExpiryExtractor<K, V> {
+        Instant apply(K key, V value);
+    }
+
+    private record TokenDigest(long a, long b, long c, long d) {
+        static TokenDigest of(String token) {
+            MessageDigest sha256 = SHA_256.get();
+            ByteBuffer digest = ByteBuffer.wrap(sha256.digest(Objects.requireNonNull(token).getBytes(StandardCharsets.US_ASCII)));
+            return new TokenDigest(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.daypulse.auth_serivce.security;
+
+import com.daypulse.auth_serivce.exception.AppException;
+import com.daypulse.auth_serivce.exception.ErrorCode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Sliding-window limiter for login attempts, checked before the user is loaded and the password
+ * hash compared, so rejected attempts cost a few atomic operations instead of a BCrypt round.
+ * <p>
+ * Every attempt is counted against its username and client address when it starts and taken back
+ * if it succeeds, so the windows hold failures plus attempts still in flight. A successful login
+ * marks the username and address pair as trusted for a while; trusted pairs skip the username
+ * limit, so a user keeps logging in from a known address while their name is being attacked
+ * from elsewhere.
+ */
+@Slf4j
+@Component
+public class LoginAttemptLimiter {
+    private static final int BUCKETS = 12;
+    private static final int MAX_TRACKED_KEYS = 100_000;
+
+    private final int maxPerUsername;
+    private final int maxPerAddress;
+    private final long bucketNanos;
+    private final Cache<String, SlidingWindowCounter> byUsername;
+    private final Cache<String, SlidingWindowCounter> byAddress;
+    private final Cache<String, Boolean> trustedLogins;
+
+    private final Counter allowed;
+    private final Counter limitedByUsername;
+    private final Counter limitedByAddress;
+
+    public LoginAttemptLimiter(@Value("${login-limiter.window:1m}") Duration window,
+                               @Value("${login-limiter.max-per-username:10}") int maxPerUsername,
+                               @Value("${login-limiter.max-per-address:200}") int maxPerAddress,
+                               @Value("${login-limiter.trusted-login-duration:24h}") Duration trustedLoginDuration,
+                               MeterRegistry meterRegistry) {
+        this.maxPerUsername = maxPerUsername;
+        this.maxPerAddress = maxPerAddress;
+        this.bucketNanos = Math.max(1, window.toNanos() / BUCKETS);
+        this.byUsername = windows(window);
+        this.byAddress = windows(window);
+        this.trustedLogins = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_KEYS)
+                .expireAfterWrite(trustedLoginDuration)
+                .build();
+
+        this.allowed = attempts(meterRegistry, "allowed");
+        this.limitedByUsername = attempts(meterRegistry, "limited_username");
+        this.limitedByAddress = attempts(meterRegistry, "limited_address");
+        Gauge.builder("auth.login.limiter.tracked", byUsername, Cache::estimatedSize)
+                .tag("key", "username")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.limiter.tracked", byAddress, Cache::estimatedSize)
+                .tag("key", "address")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts a login attempt, or throws {@link ErrorCode#TOO_MANY_ATTEMPTS} if either window is full.
+     */
+    public void acquire(String username, String address) {
+        long now = System.nanoTime();
+        SlidingWindowCounter addressWindow = byAddress.get(address, ignored -> newWindow());
+        if (addressWindow.incrementAndSum(now) > maxPerAddress) {
+            addressWindow.decrement(now);
+            limitedByAddress.increment();
+            log.debug("Login attempts from {} are over the limit", address);
+            throw new AppException(ErrorCode.TOO_MANY_ATTEMPTS);
+        }
+
+        if (trustedLogins.getIfPresent(trustKey(username, address)) == null) {
+            SlidingWindowCounter usernameWindow = byUsername.get(username, ignored -> newWindow());
+            if (usernameWindow.incrementAndSum(now) > maxPerUsername) {
+                usernameWindow.decrement(now);
+                addressWindow.decrement(now);
+                limitedByUsername.increment();
+                log.debug("Login attempts for {} are over the limit", username);
+                throw new AppException(ErrorCode.TOO_MANY_ATTEMPTS);
+            }
+        }
+        allowed.increment();
+    }
+
+    /**
+     * Takes back a successful attempt and trusts the username and address pair.
+     */
+    public void succeeded(String username, String address) {
+        long now = System.nanoTime();
+        SlidingWindowCounter addressWindow = byAddress.getIfPresent(address);
+        if (addressWindow != null) {
+            addressWindow.decrement(now);
+        }
+        String trustKey = trustKey(username, address);
+        // A trusted pair was not counted against the username; failures from elsewhere stay counted
+        if (trustedLogins.getIfPresent(trustKey) == null) {
+            SlidingWindowCounter usernameWindow = byUsername.getIfPresent(username);
+            if (usernameWindow != null) {
+                usernameWindow.decrement(now);
+            }
+        }
+        trustedLogins.put(trustKey, Boolean.TRUE);
+    }
+
+    private SlidingWindowCounter newWindow() {
+        return new SlidingWindowCounter(BUCKETS, bucketNanos);
+    }
+
+    private static Cache<String, SlidingWindowCounter> windows(Duration window) {
+        return Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_KEYS)
+                .expireAfterAccess(window)
+                .build();
+    }
+
+    private static Counter attempts(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.login.attempts")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String trustKey(String username, String address) {
+        return username + '\n' + address;
+    }
+}
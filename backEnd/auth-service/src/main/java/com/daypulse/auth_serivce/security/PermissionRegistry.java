@@ -0,0 +1,147 @@
+package com.daypulse.auth_serivce.security;
+
+import com.daypulse.auth_serivce.cache.CacheInvalidation;
+import com.daypulse.auth_serivce.cache.CacheInvalidationListener;
+import com.daypulse.auth_serivce.cache.InvalidationKind;
+import com.daypulse.auth_serivce.entity.AuthorityIndex;
+import com.daypulse.auth_serivce.repository.AuthorityIndexRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Append-only registry that assigns every authority (ROLE_* and permission names) a fixed bit
+ * position. Tokens carry the granted authorities as a bitset over these positions instead of a
+ * space-joined scope string.
+ * <p>
+ * Positions are never reused, so the registry version is simply the number of registered
+ * authorities and any table of version N decodes every token issued at version N or lower.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PermissionRegistry implements CacheInvalidationListener {
+    public static final String PERMISSIONS_CLAIM = "perms";
+    public static final String VERSION_CLAIM = "perms_ver";
+
+    private static final int MAX_REGISTER_ATTEMPTS = 5;
+
+    AuthorityIndexRepository authorityIndexRepository;
+
+    @NonFinal
+    volatile Table table = Table.EMPTY;
+
+    @PostConstruct
+    public void load() {
+        List<AuthorityIndex> indexes = authorityIndexRepository.findAllByOrderByPositionAsc();
+        String[] names = new String[indexes.size()];
+        Map<String, Integer> positions = new HashMap<>();
+        for (AuthorityIndex index : indexes) {
+            if (index.getPosition() >= names.length) {
+                throw new IllegalStateException("Authority positions are not contiguous at " + index.getName());
+            }
+            names[index.getPosition()] = index.getName();
+            positions.put(index.getName(), index.getPosition());
+        }
+        table = new Table(names, positions);
+        log.info("Loaded permission registry version {}", names.length);
+    }
+
+    public int version() {
+        return table.names.length;
+    }
+
+    public List<String> authorities() {
+        return List.of(table.names);
+    }
+
+    /**
+     * Encodes authorities as a base64url bitset, registering names that have no position yet.
+     */
+    public String encode(Collection<String> authorities) {
+        BitSet bits = new BitSet();
+        for (String authority : authorities) {
+            bits.set(register(authority));
+        }
+        return AuthorityBitset.encode(bits);
+    }
+
+    /**
+     * Decodes a bitset claim back to authority names. Bits beyond the local table were registered
+     * by another instance, so the table is reloaded once before giving up on them.
+     */
+    public List<String> decode(String encoded) {
+        BitSet bits = AuthorityBitset.decode(encoded);
+        if (bits.length() > table.names.length) {
+            reload();
+        }
+        String[] names = table.names;
+        List<String> authorities = new ArrayList<>(bits.cardinality());
+        for (int position = bits.nextSetBit(0); position >= 0; position = bits.nextSetBit(position + 1)) {
+            if (position < names.length) {
+                authorities.add(names[position]);
+            } else {
+                log.warn("Unknown authority bit {} in token (registry version {})", position, names.length);
+            }
+        }
+        return authorities;
+    }
+
+    public int register(String authority) {
+        Integer position = table.positions.get(authority);
+        return position != null ? position : registerSlow(authority);
+    }
+
+    private synchronized int registerSlow(String authority) {
+        for (int attempt = 0; attempt < MAX_REGISTER_ATTEMPTS; attempt++) {
+            Integer position = table.positions.get(authority);
+            if (position != null) {
+                return position;
+            }
+            int next = table.names.length;
+            try {
+                authorityIndexRepository.saveAndFlush(AuthorityIndex.builder()
+                        .name(authority)
+                        .position(next)
+                        .build());
+                log.info("Registered authority {} at position {}", authority, next);
+            } catch (DataIntegrityViolationException e) {
+                // Another instance registered this name or took this position first
+                log.debug("Concurrent registration of {}: {}", authority, e.getMessage());
+            }
+            load();
+        }
+        throw new IllegalStateException("Could not register authority " + authority);
+    }
+
+    private synchronized void reload() {
+        load();
+    }
+
+    /**
+     * Roles and permissions created on another instance registered their names there.
+     */
+    @Override
+    public void onInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.kind() == InvalidationKind.ROLE || invalidation.kind() == InvalidationKind.PERMISSION) {
+            reload();
+        }
+    }
+
+    @Override
+    public void resync() {
+        reload();
+    }
+
+    private record Table(String[] names, Map<String, Integer> positions) {
+        static final Table EMPTY = new Table(new String[0], Map.of());
+    }
+}
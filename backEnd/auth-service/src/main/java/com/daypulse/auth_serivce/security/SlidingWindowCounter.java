@@ -0,0 +1,79 @@
+package com.daypulse.auth_serivce.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free counter over a sliding window split into fixed buckets. Each slot packs the bucket's
+ * sequence number (high 32 bits) with its count (low 32 bits), so a slot left over from an earlier
+ * lap of the ring is recognised and restarted instead of needing a reset.
+ */
+final class SlidingWindowCounter {
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+    private final AtomicLongArray slots;
+    private final long bucketNanos;
+
+    SlidingWindowCounter(int buckets, long bucketNanos) {
+        this.slots = new AtomicLongArray(buckets);
+        this.bucketNanos = bucketNanos;
+    }
+
+    /**
+     * Counts one event now and returns the total within the window, including it.
+     */
+    int incrementAndSum(long nowNanos) {
+        int bucket = bucket(nowNanos);
+        int index = Math.floorMod(bucket, slots.length());
+        while (true) {
+            long slot = slots.get(index);
+            long next = sequence(slot) == bucket ? slot + 1 : pack(bucket, 1);
+            if (slots.compareAndSet(index, slot, next)) {
+                break;
+            }
+        }
+        return sum(nowNanos);
+    }
+
+    /**
+     * Takes back one event counted within the window, newest bucket first.
+     */
+    void decrement(long nowNanos) {
+        int bucket = bucket(nowNanos);
+        for (int age = 0; age < slots.length(); age++) {
+            int index = Math.floorMod(bucket - age, slots.length());
+            while (true) {
+                long slot = slots.get(index);
+                if (sequence(slot) != bucket - age || (slot & COUNT_MASK) == 0) {
+                    break;
+                }
+                if (slots.compareAndSet(index, slot, slot - 1)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    int sum(long nowNanos) {
+        int bucket = bucket(nowNanos);
+        int total = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            long slot = slots.get(i);
+            if (bucket - sequence(slot) < slots.length()) {
+                total += (int) (slot & COUNT_MASK);
+            }
+        }
+        return total;
+    }
+
+    private int bucket(long nowNanos) {
+        return (int) (nowNanos / bucketNanos);
+    }
+
+    private static int sequence(long slot) {
+        return (int) (slot >>> 32);
+    }
+
+    private static long pack(int sequence, int count) {
+        return ((long) sequence << 32) | count;
+    }
+}
@@ -1,16 +1,25 @@
 package com.daypulse.auth_serivce.service;
 
+import com.daypulse.auth_serivce.cache.CacheInvalidationBus;
+import com.daypulse.auth_serivce.cache.InvalidationKind;
 import com.daypulse.auth_serivce.dto.request.AuthenticationRequest;
 import com.daypulse.auth_serivce.dto.request.IntrospectRequest;
 import com.daypulse.auth_serivce.dto.request.RefreshTokenRequest;
 import com.daypulse.auth_serivce.dto.response.AuthenticationResponse;
 import com.daypulse.auth_serivce.dto.response.IntrospectResponse;
+import com.daypulse.auth_serivce.dto.response.PermissionRegistryResponse;
 import com.daypulse.auth_serivce.entity.InvalidedToken;
 import com.daypulse.auth_serivce.entity.User;
 import com.daypulse.auth_serivce.exception.AppException;
 import com.daypulse.auth_serivce.exception.ErrorCode;
+import com.daypulse.auth_serivce.outbox.AuthEventType;
+import com.daypulse.auth_serivce.outbox.Outbox;
+import com.daypulse.auth_serivce.outbox.TokenRevokedPayload;
 import com.daypulse.auth_serivce.repository.InvalidedTokenRepository;
 import com.daypulse.auth_serivce.repository.UserRepository;
+import com.daypulse.auth_serivce.security.DecodedJwtCache;
+import com.daypulse.auth_serivce.security.LoginAttemptLimiter;
+import com.daypulse.auth_serivce.security.PermissionRegistry;
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.MACSigner;
 import com.nimbusds.jose.crypto.MACVerifier;
@@ -22,17 +31,19 @@ import lombok.experimental.FieldDefaults;
 import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Base64;
 import java.util.Date;
-import java.util.StringJoiner;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 @Slf4j
 @Service
@@ -53,13 +64,22 @@ public class AuthenticationService {
 
     UserRepository userRepository;
     InvalidedTokenRepository invalidedTokenRepository;
+    PermissionRegistry permissionRegistry;
+    DecodedJwtCache decodedJwtCache;
+    LoginAttemptLimiter loginAttemptLimiter;
+    PasswordEncoder passwordEncoder;
+    CacheInvalidationBus cacheInvalidationBus;
+    Outbox outbox;
+    TransactionTemplate transactionTemplate;
 
     private byte[] getSigningKeyBytes() {
         return Base64.getDecoder().decode(SIGNING_KEY);
     }
 
-    public AuthenticationResponse authenticate(AuthenticationRequest authenticationRequest) {
-        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    public AuthenticationResponse authenticate(AuthenticationRequest authenticationRequest, String clientAddress) {
+        String username = String.valueOf(authenticationRequest.getUsername());
+        loginAttemptLimiter.acquire(username, clientAddress);
+
         var userOptional = userRepository.findByUsername(authenticationRequest.getUsername())
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
         boolean authenticated = passwordEncoder.matches(authenticationRequest.getPassword(),
@@ -68,6 +88,7 @@ public class AuthenticationService {
         if (!authenticated) {
             throw new AppException(ErrorCode.UNAUTHENTICATED);
         }
+        loginAttemptLimiter.succeeded(username, clientAddress);
 
         var token = generateToken(userOptional);
 
@@ -82,10 +103,7 @@ public class AuthenticationService {
             var signToken = verifyToken(token, true);
             String jit = signToken.getJWTClaimsSet().getJWTID();
             Date expiredTime = signToken.getJWTClaimsSet().getExpirationTime();
-            invalidedTokenRepository.save(InvalidedToken.builder()
-                    .id(jit)
-                    .expiredTime(expiredTime)
-                    .build());
+            revoke(token, jit, expiredTime);
         } catch (Exception e) {
             log.error("Token ready expired : {}", e.getMessage());
             throw new RuntimeException(e);
@@ -111,10 +129,7 @@ public class AuthenticationService {
 
         String jit = signnedJWT.getJWTClaimsSet().getJWTID();
         Date expiredTime = signnedJWT.getJWTClaimsSet().getExpirationTime();
-        invalidedTokenRepository.save(InvalidedToken.builder()
-                .id(jit)
-                .expiredTime(expiredTime)
-                .build());
+        revoke(request.getToken(), jit, expiredTime);
 
         var userName = signnedJWT.getJWTClaimsSet().getSubject();
         User user = userRepository.findByUsername(userName)
@@ -127,7 +142,35 @@ public class AuthenticationService {
                 .build();
     }
 
+    private void revoke(String token, String jit, Date expiredTime) {
+        transactionTemplate.executeWithoutResult(status -> {
+            invalidedTokenRepository.save(InvalidedToken.builder()
+                    .id(jit)
+                    .expiredTime(expiredTime)
+                    .build());
+            outbox.append(AuthEventType.TOKEN_REVOKED, jit, new TokenRevokedPayload(jit, expiredTime.toInstant()));
+        });
+        decodedJwtCache.revoke(token, jit, expiredTime.toInstant());
+        cacheInvalidationBus.publish(InvalidationKind.TOKEN_REVOKED, jit, expiredTime.toInstant());
+    }
+
+    public PermissionRegistryResponse getPermissionRegistry() {
+        // Read the list once so version and names come from the same registry snapshot
+        var authorities = permissionRegistry.authorities();
+        return PermissionRegistryResponse.builder()
+                .version(authorities.size())
+                .authorities(authorities)
+                .build();
+    }
+
     SignedJWT verifyToken(String token, boolean isRefresh) throws Exception {
+        return verifyToken(token, isRefresh, invalidedTokenRepository::existsById);
+    }
+
+    /**
+     * Verifies {@code token}, asking {@code isRevoked} whether its id was logged out.
+     */
+    SignedJWT verifyToken(String token, boolean isRefresh, Predicate<String> isRevoked) throws Exception {
         try {
             JWSVerifier verifier = new MACVerifier(getSigningKeyBytes());
             SignedJWT signedJWT = SignedJWT.parse(token);
@@ -157,7 +200,7 @@ public class AuthenticationService {
             }
 
             // Check if token has been invalidated (logged out)
-            if (invalidedTokenRepository.existsById(claims.getJWTID())) {
+            if (isRevoked.test(claims.getJWTID())) {
                 throw new AppException(ErrorCode.UNAUTHENTICATED);
             }
 
@@ -173,6 +216,9 @@ public class AuthenticationService {
     String generateToken(User user) {
         JWSHeader header = new JWSHeader(JWSAlgorithm.HS512);
 
+        // Encode first: it may register new authorities and bump the registry version
+        String permissions = permissionRegistry.encode(buildAuthorities(user));
+
         // Build JWT claims with user information
         JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
                 .subject(user.getUsername())
@@ -180,7 +226,8 @@ public class AuthenticationService {
                 .expirationTime(Date.from(Instant.now().plus(VALID_DURATION, ChronoUnit.SECONDS)))
                 .issueTime(new Date())
                 .jwtID(UUID.randomUUID().toString())
-                .claim("scope", buildScope(user))
+                .claim(PermissionRegistry.PERMISSIONS_CLAIM, permissions)
+                .claim(PermissionRegistry.VERSION_CLAIM, permissionRegistry.version())
                 .claim("userId", user.getId())
                 .build();
 
@@ -197,18 +244,16 @@ public class AuthenticationService {
         return jwsObject.serialize();
     }
 
-    String buildScope(User user) {
-        StringJoiner scopeJoiner = new StringJoiner(" ");
+    Set<String> buildAuthorities(User user) {
+        Set<String> authorities = new LinkedHashSet<>();
         if (!CollectionUtils.isEmpty(user.getRoles())) {
             user.getRoles().forEach(role -> {
-                scopeJoiner.add("ROLE_" + role.getName());
+                authorities.add("ROLE_" + role.getName());
                 if (!CollectionUtils.isEmpty(role.getPermissions())) {
-                    role.getPermissions().forEach(permission -> scopeJoiner.add(permission.getName()));
+                    role.getPermissions().forEach(permission -> authorities.add(permission.getName()));
                 }
             });
-            return scopeJoiner.toString();
-        } else {
-            return "";
         }
+        return authorities;
     }
 }
@@ -0,0 +1,66 @@
+package com.daypulse.auth_serivce.service;
+
+import com.daypulse.auth_serivce.cache.CacheInvalidation;
+import com.daypulse.auth_serivce.cache.CacheInvalidationListener;
+import com.daypulse.auth_serivce.cache.InvalidationKind;
+import com.daypulse.auth_serivce.entity.Role;
+import com.daypulse.auth_serivce.repository.RoleRepository;
+import com.daypulse.auth_serivce.util.constant.PredefinedRole;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Holds the role every new user is given, loaded with its permissions so registration can link it
+ * and render it without touching the roles table. Reloaded on demand until the role exists.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class DefaultRoleCache implements CacheInvalidationListener {
+    RoleRepository roleRepository;
+
+    @NonFinal
+    volatile Role userRole;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (userRole().isEmpty()) {
+            log.warn("Role {} does not exist yet; new users get no role until it is created", PredefinedRole.ROLE_USER);
+        }
+    }
+
+    public Optional<Role> userRole() {
+        Role role = userRole;
+        if (role == null) {
+            role = roleRepository.findWithPermissionsByName(PredefinedRole.ROLE_USER).orElse(null);
+            userRole = role;
+        }
+        return Optional.ofNullable(role);
+    }
+
+    public void evict() {
+        userRole = null;
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidation invalidation) {
+        // A deleted permission also leaves the role it belonged to
+        if (invalidation.kind() == InvalidationKind.ROLE || invalidation.kind() == InvalidationKind.PERMISSION) {
+            evict();
+        }
+    }
+
+    @Override
+    public void resync() {
+        evict();
+    }
+}
@@ -0,0 +1,49 @@
+package com.daypulse.auth_serivce.service;
+
+import com.daypulse.auth_serivce.repository.InvalidedTokenRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+/**
+ * Deletes revocation records that can no longer match a usable token.
+ * <p>
+ * A record stores its token's expiry, but a token is accepted for refresh until its issue time
+ * plus the refreshable duration, which is the valid duration later. Records are therefore kept
+ * for that difference past their expiry.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class InvalidedTokenPurgeService {
+    @NonFinal
+    @Value("${jwt.valid-duration}")
+    long VALID_DURATION;
+
+    @NonFinal
+    @Value("${jwt.refreshable-duration}")
+    long REFRESHABLE_DURATION;
+
+    InvalidedTokenRepository invalidedTokenRepository;
+
+    @Scheduled(initialDelayString = "${jwt.invalided-token-purge-interval}",
+            fixedDelayString = "${jwt.invalided-token-purge-interval}")
+    public void purgeExpired() {
+        long retention = Math.max(0, REFRESHABLE_DURATION - VALID_DURATION);
+        Date cutoff = Date.from(Instant.now().minus(retention, ChronoUnit.SECONDS));
+        int deleted = invalidedTokenRepository.deleteAllExpiredBefore(cutoff);
+        if (deleted > 0) {
+            log.info("Purged {} invalided tokens that expired before {}", deleted, cutoff);
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.daypulse.auth_serivce.service;
 
+import com.daypulse.auth_serivce.cache.CacheInvalidationBus;
+import com.daypulse.auth_serivce.cache.InvalidationKind;
 import com.daypulse.auth_serivce.dto.request.PermissionRequest;
 import com.daypulse.auth_serivce.dto.response.PermissionResponse;
 import com.daypulse.auth_serivce.entity.Permission;
 import com.daypulse.auth_serivce.mapper.PermissionMapper;
 import com.daypulse.auth_serivce.repository.PermissionRepository;
+import com.daypulse.auth_serivce.security.PermissionRegistry;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -20,10 +23,17 @@ import java.util.List;
 public class PermissionService {
     PermissionRepository permissionRepository;
     PermissionMapper permissionMapper;
+    PermissionRegistry permissionRegistry;
+    DefaultRoleCache defaultRoleCache;
+    RoleCatalogTag roleCatalogTag;
+    CacheInvalidationBus cacheInvalidationBus;
 
     public PermissionResponse createPermissionResponse(PermissionRequest request) {
         Permission permission = permissionMapper.toPermission(request);
         permission = permissionRepository.save(permission);
+        permissionRegistry.register(permission.getName());
+        roleCatalogTag.evict();
+        cacheInvalidationBus.publish(InvalidationKind.PERMISSION, permission.getName());
         log.info("Permission created with name: {}", permission.getName());
         return permissionMapper.toPermissionResponse(permission);
     }
@@ -38,6 +48,9 @@ public class PermissionService {
 
     public void deletePermission(String permissionName) {
         permissionRepository.deleteById(permissionName);
+        defaultRoleCache.evict();
+        roleCatalogTag.evict();
+        cacheInvalidationBus.publish(InvalidationKind.PERMISSION, permissionName);
         log.info("Permission deleted with name: {}", permissionName);
     }
 }
@@ -0,0 +1,83 @@
+package com.daypulse.auth_serivce.service;
+
+import com.daypulse.auth_serivce.cache.CacheInvalidation;
+import com.daypulse.auth_serivce.cache.CacheInvalidationListener;
+import com.daypulse.auth_serivce.cache.InvalidationKind;
+import com.daypulse.auth_serivce.repository.RoleRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Short digest of every role and its permissions. User responses embed the user's roles, so their
+ * ETags include it: a role change alters the responses of users whose own version did not move.
+ * The digest depends only on the database content, so every instance computes the same one.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RoleCatalogTag implements CacheInvalidationListener {
+    RoleRepository roleRepository;
+    AtomicLong generation = new AtomicLong();
+
+    @NonFinal
+    volatile String tag;
+
+    public String get() {
+        String current = tag;
+        if (current == null) {
+            long computedAt = generation.get();
+            current = compute();
+            // Keep it only if no change arrived while computing; the next call recomputes otherwise
+            synchronized (this) {
+                if (generation.get() == computedAt) {
+                    tag = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public synchronized void evict() {
+        generation.incrementAndGet();
+        tag = null;
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.kind() == InvalidationKind.ROLE || invalidation.kind() == InvalidationKind.PERMISSION) {
+            evict();
+        }
+    }
+
+    @Override
+    public void resync() {
+        evict();
+    }
+
+    private String compute() {
+        List<Object[]> rows = roleRepository.findCatalog();
+        String catalog = rows.stream()
+                .map(row -> Arrays.stream(row).map(value -> Objects.toString(value, "")).collect(Collectors.joining("\u0000")))
+                .sorted()
+                .collect(Collectors.joining("\n"));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(catalog.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.daypulse.auth_serivce.service;
 
+import com.daypulse.auth_serivce.cache.CacheInvalidationBus;
+import com.daypulse.auth_serivce.cache.InvalidationKind;
 import com.daypulse.auth_serivce.dto.request.RoleRequest;
 import com.daypulse.auth_serivce.dto.response.RoleResponse;
 import com.daypulse.auth_serivce.mapper.RoleMapper;
 import com.daypulse.auth_serivce.repository.PermissionRepository;
 import com.daypulse.auth_serivce.repository.RoleRepository;
+import com.daypulse.auth_serivce.security.PermissionRegistry;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -22,6 +25,10 @@ public class RoleService {
     RoleRepository roleRepository;
     PermissionRepository permissionRepository;
     RoleMapper roleMapper;
+    PermissionRegistry permissionRegistry;
+    DefaultRoleCache defaultRoleCache;
+    RoleCatalogTag roleCatalogTag;
+    CacheInvalidationBus cacheInvalidationBus;
 
     public RoleResponse create(RoleRequest request){
         var role = roleMapper.toRole(request);
@@ -30,6 +37,11 @@ public class RoleService {
         role.setPermissions(new HashSet<>(permissions));
 
         role = roleRepository.save(role);
+        permissionRegistry.register("ROLE_" + role.getName());
+        permissions.forEach(permission -> permissionRegistry.register(permission.getName()));
+        defaultRoleCache.evict();
+        roleCatalogTag.evict();
+        cacheInvalidationBus.publish(InvalidationKind.ROLE, role.getName());
         return roleMapper.toRoleResponse(role);
     }
 
@@ -42,5 +54,8 @@ public class RoleService {
 
     public void delete(String role){
         roleRepository.deleteById(role);
+        defaultRoleCache.evict();
+        roleCatalogTag.evict();
+        cacheInvalidationBus.publish(InvalidationKind.ROLE, role);
     }
 }
@@ -0,0 +1,79 @@
+package com.daypulse.auth_serivce.service;
+
+import com.daypulse.auth_serivce.cache.CacheInvalidation;
+import com.daypulse.auth_serivce.cache.CacheInvalidationListener;
+import com.daypulse.auth_serivce.cache.InvalidationKind;
+import com.daypulse.auth_serivce.dto.response.UserProfileResponse;
+import com.daypulse.auth_serivce.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Local cache of user profiles for batch lookups. Ids missing from the cache are loaded with one
+ * query; ids without a user are not cached, so a user created later shows up right away.
+ * Updates and deletes evict the entry on every instance through the cache invalidation bus.
+ */
+@Component
+public class UserProfileCache implements CacheInvalidationListener {
+    private final Cache<String, UserProfileResponse> profiles;
+    private final UserRepository userRepository;
+
+    public UserProfileCache(@Value("${user-profile-cache.max-size}") long maxSize,
+                            @Value("${user-profile-cache.expire-after-write}") Duration expireAfterWrite,
+                            UserRepository userRepository) {
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Profiles of the given ids that exist, keyed by id.
+     */
+    public Map<String, UserProfileResponse> getAll(Collection<String> ids) {
+        return profiles.getAll(ids, missing -> userRepository.findProfilesByIdIn(List.copyOf(missing)).stream()
+                .collect(Collectors.toMap(UserProfileResponse::getId, Function.identity())));
+    }
+
+    /**
+     * Drops a user changed here once the current transaction commits, or right away outside a
+     * transaction. Dropped before the commit, a concurrent batch read could load the old row
+     * back in and keep it until it expires.
+     */
+    public void evict(String userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    profiles.invalidate(userId);
+                }
+            });
+        } else {
+            profiles.invalidate(userId);
+        }
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.kind() == InvalidationKind.USER) {
+            profiles.invalidate(invalidation.key());
+        }
+    }
+
+    @Override
+    public void resync() {
+        profiles.invalidateAll();
+    }
+}
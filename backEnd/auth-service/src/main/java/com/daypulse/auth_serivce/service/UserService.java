@@ -1,55 +1,117 @@
 package com.daypulse.auth_serivce.service;
 
+import com.daypulse.auth_serivce.cache.CacheInvalidationBus;
+import com.daypulse.auth_serivce.cache.InvalidationKind;
+import com.daypulse.auth_serivce.dto.request.UserBatchRequest;
 import com.daypulse.auth_serivce.dto.request.UserCreationRequest;
 import com.daypulse.auth_serivce.dto.request.UserUpdateRequest;
+import com.daypulse.auth_serivce.dto.response.UserBatchResponse;
+import com.daypulse.auth_serivce.dto.response.UserProfileResponse;
 import com.daypulse.auth_serivce.dto.response.UserResponse;
 import com.daypulse.auth_serivce.entity.Role;
 import com.daypulse.auth_serivce.entity.User;
 import com.daypulse.auth_serivce.exception.AppException;
 import com.daypulse.auth_serivce.exception.ErrorCode;
 import com.daypulse.auth_serivce.mapper.UserMapper;
-import com.daypulse.auth_serivce.repository.RoleRepository;
+import com.daypulse.auth_serivce.outbox.AuthEventType;
+import com.daypulse.auth_serivce.outbox.Outbox;
+import com.daypulse.auth_serivce.outbox.UserEventPayload;
 import com.daypulse.auth_serivce.repository.UserRepository;
-import com.daypulse.auth_serivce.util.constant.PredefinedRole;
+import com.daypulse.auth_serivce.search.UserSearchIndex;
+import com.daypulse.auth_serivce.security.AccessRule;
+import com.daypulse.auth_serivce.security.Authorize;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
-import org.springframework.security.access.prepost.PreAuthorize;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class UserService {
+    private static final String USERNAME_INDEX = "ux_users_username";
+
+    @NonFinal
+    @Value("${user-batch.max-ids}")
+    int MAX_BATCH_IDS;
+
+    @NonFinal
+    @Value("${user-search.default-results}")
+    int DEFAULT_SEARCH_RESULTS;
+
     UserRepository userRepository;
     UserMapper userMapper;
     PasswordEncoder passwordEncoder;
-    RoleRepository roleRepository;
+    DefaultRoleCache defaultRoleCache;
+    UserProfileCache userProfileCache;
+    RoleCatalogTag roleCatalogTag;
+    CacheInvalidationBus cacheInvalidationBus;
+    Outbox outbox;
+    UserSearchIndex userSearchIndex;
 
+    @Transactional
     public UserResponse createUser(UserCreationRequest request){
-        if (userRepository.existsByUsername(request.getUsername()))
-            throw new AppException(ErrorCode.USER_EXISTED);
-
         User user = userMapper.toUser(request);
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        HashSet<Role> roles = new HashSet<>();
-        roleRepository.findById(PredefinedRole.ROLE_USER).ifPresent(roles::add);
-        user.setRoles(roles);
-        return userMapper.toUserResponse(userRepository.save(user));
+        user.setRoles(new HashSet<>());
+
+        // The unique index on username decides concurrent sign-ups of the same name.
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (violates(e, USERNAME_INDEX)) {
+                throw new AppException(ErrorCode.USER_EXISTED);
+            }
+            throw e;
+        }
+
+        // Linked by key rather than through the collection, which would make Hibernate look the role up again.
+        Set<Role> roles = defaultRoleCache.userRole().map(Set::of).orElse(Set.of());
+        if (!roles.isEmpty()) {
+            userRepository.addRoles(user.getId(), roles.stream().map(Role::getName).toList());
+        }
+        outbox.append(AuthEventType.USER_REGISTERED, user.getId(), UserEventPayload.of(user, roles));
+        userSearchIndex.refresh(user.getId());
+        // Other instances add the user to their search index
+        cacheInvalidationBus.publish(InvalidationKind.USER, user.getId());
+        return userMapper.toUserResponse(user, roles);
     }
 
+    @Transactional
+    @Authorize(value = AccessRule.ADMIN_OR_SELF, subject = "userId")
     public UserResponse updateUser(String userId, UserUpdateRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
         userMapper.updateUser(user, request);
-        return userMapper.toUserResponse(userRepository.save(user));
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new AppException(ErrorCode.USER_MODIFIED);
+        }
+        outbox.append(AuthEventType.USER_UPDATED, userId, UserEventPayload.of(user, user.getRoles()));
+        userProfileCache.evict(userId);
+        userSearchIndex.refresh(userId);
+        cacheInvalidationBus.publish(InvalidationKind.USER, userId);
+        return userMapper.toUserResponse(user);
     }
 
+    @Authorize(AccessRule.AUTHENTICATED)
     public UserResponse getMyInfo(){
         var context = SecurityContextHolder.getContext();
         String name = context.getAuthentication().getName();
@@ -57,20 +119,95 @@ public class UserService {
         return userMapper.toUserResponse(user);
     }
 
-    @PreAuthorize("hasRole('ADMIN')")
+    /**
+     * ETag of {@link #getMyInfo()}, read without loading the user.
+     */
+    @Authorize(AccessRule.AUTHENTICATED)
+    public String getMyInfoETag() {
+        String name = SecurityContextHolder.getContext().getAuthentication().getName();
+        return eTag(userRepository.findVersionByUsername(name).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND)));
+    }
+
+    @Transactional
+    @Authorize(AccessRule.ADMIN)
     public void deleteUser(String userId){
         userRepository.deleteById(userId);
+        userRepository.flush();
+        outbox.append(AuthEventType.USER_DELETED, userId, UserEventPayload.deleted(userId));
+        userProfileCache.evict(userId);
+        userSearchIndex.refresh(userId);
+        cacheInvalidationBus.publish(InvalidationKind.USER, userId);
+    }
+
+    /**
+     * Profiles for up to {@code user-batch.max-ids} ids, in request order. Ids without a user are
+     * listed as missing instead of failing the whole batch.
+     */
+    @Authorize(AccessRule.AUTHENTICATED)
+    public UserBatchResponse getUserProfiles(UserBatchRequest request) {
+        Set<String> ids = request.getIds() == null ? new LinkedHashSet<>() : new LinkedHashSet<>(request.getIds());
+        ids.remove(null);
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new AppException(ErrorCode.BATCH_TOO_LARGE);
+        }
+
+        Map<String, UserProfileResponse> found = userProfileCache.getAll(ids);
+        List<UserProfileResponse> users = new ArrayList<>(found.size());
+        List<String> missing = new ArrayList<>(ids.size() - found.size());
+        for (String id : ids) {
+            UserProfileResponse profile = found.get(id);
+            if (profile != null) {
+                users.add(profile);
+            } else {
+                missing.add(id);
+            }
+        }
+        return UserBatchResponse.builder()
+                .users(users)
+                .missing(missing)
+                .build();
     }
 
-    @PreAuthorize("hasAuthority('APPROVE_DATA')")
+    /**
+     * Users whose username, first or last name starts with {@code query}, for search-as-you-type.
+     */
+    @Authorize(AccessRule.AUTHENTICATED)
+    public List<UserProfileResponse> searchUsers(String query, Integer limit) {
+        return userSearchIndex.search(query, limit == null ? DEFAULT_SEARCH_RESULTS : limit);
+    }
+
+    @Authorize(AccessRule.ADMIN_WITH_APPROVE_DATA)
     public List<UserResponse> getUsers(){
         return userRepository.findAll().stream()
                 .map(userMapper::toUserResponse).toList();
     }
 
-    @PreAuthorize("hasRole('ADMIN')")
+    @Authorize(AccessRule.ADMIN)
     public UserResponse getUser(String id){
         return userMapper.toUserResponse(userRepository.findById(id)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND)));
     }
+
+    /**
+     * ETag of {@link #getUser(String)}, read without loading the user.
+     */
+    @Authorize(AccessRule.ADMIN)
+    public String getUserETag(String id) {
+        return eTag(userRepository.findVersionById(id).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND)));
+    }
+
+    // The id keeps a shared cache from serving one user's my-info to another
+    private String eTag(UserRepository.UserVersion version) {
+        return version.getId() + "-" + version.getVersion() + "-" + roleCatalogTag.get();
+    }
+
+    /**
+     * Whether {@code e} was raised by {@code constraint}. Databases may qualify the name or append
+     * the indexed columns to it.
+     */
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(constraint);
+    }
 }
@@ -0,0 +1,51 @@
+package com.daypulse.auth_serivce.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Logs how much faster each warm-up operation got: the mean of its first calls against the mean
+ * of its last ones.
+ */
+@Slf4j
+class WarmUpReport {
+    private static final int WINDOW = 20;
+
+    private final Map<String, long[]> operations = new LinkedHashMap<>();
+    private final Map<String, Integer> counts = new LinkedHashMap<>();
+
+    <T> T time(String operation, Callable<T> call) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return call.call();
+        } finally {
+            // The first WINDOW slots keep the cold calls; the next WINDOW are a ring of the latest
+            long[] samples = operations.computeIfAbsent(operation, name -> new long[2 * WINDOW]);
+            int count = counts.merge(operation, 1, Integer::sum) - 1;
+            samples[count < WINDOW ? count : WINDOW + count % WINDOW] = System.nanoTime() - start;
+        }
+    }
+
+    void log(Duration elapsed, int cycles) {
+        log.info("Warm-up ran {} cycles in {} ms", cycles, elapsed.toMillis());
+        operations.forEach((operation, samples) -> {
+            int count = counts.get(operation);
+            double coldMs = meanMillis(samples, 0, Math.min(count, WINDOW));
+            double warmMs = count > WINDOW ? meanMillis(samples, WINDOW, Math.min(count - WINDOW, WINDOW)) : coldMs;
+            log.info("  {}: {} calls, first {} ms, last {} ms", operation, count,
+                    String.format("%.3f", coldMs), String.format("%.3f", warmMs));
+        });
+    }
+
+    private static double meanMillis(long[] samples, int from, int length) {
+        long total = 0;
+        for (int i = from; i < from + length; i++) {
+            total += samples[i];
+        }
+        return total / 1e6 / length;
+    }
+}
@@ -0,0 +1,116 @@
+package com.daypulse.auth_serivce.service;
+
+import com.daypulse.auth_serivce.config.CustomJwtDecoder;
+import com.daypulse.auth_serivce.dto.response.ApiBaseResponse;
+import com.daypulse.auth_serivce.dto.response.AuthenticationResponse;
+import com.daypulse.auth_serivce.entity.User;
+import com.daypulse.auth_serivce.security.DecodedJwtCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Runs synthetic token issue, verify and decode cycles before the service reports ready.
+ * <p>
+ * Application runners finish before the readiness state turns to ACCEPTING_TRAFFIC, so the first
+ * real requests after a rollout hit compiled code instead of the interpreter. Each cycle also sends
+ * an authenticated request over loopback through Tomcat, the security filter chain, a controller
+ * and Jackson. Nothing touches the database: the synthetic token is checked for revocation against
+ * an in-memory stub, and the loopback request only needs the decoded JWT cache, which is emptied
+ * afterwards.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class WarmUpService implements ApplicationRunner {
+    static final String SUBJECT = "warm-up";
+
+    @NonFinal
+    @Value("${warm-up.duration}")
+    Duration WARM_UP_DURATION;
+
+    @NonFinal
+    @Value("${server.servlet.context-path:}")
+    String CONTEXT_PATH;
+
+    AuthenticationService authenticationService;
+    CustomJwtDecoder customJwtDecoder;
+    DecodedJwtCache decodedJwtCache;
+    ObjectMapper objectMapper;
+    ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (WARM_UP_DURATION.isZero() || WARM_UP_DURATION.isNegative()) {
+            return;
+        }
+        RestClient client = loopbackClient();
+        if (client == null) {
+            log.info("No web server running, warm-up skips the HTTP requests");
+        }
+        User user = User.builder()
+                .id(UUID.randomUUID().toString())
+                .username(SUBJECT)
+                .roles(Set.of())
+                .build();
+
+        WarmUpReport report = new WarmUpReport();
+        long start = System.nanoTime();
+        long deadline = start + WARM_UP_DURATION.toNanos();
+        int cycles = 0;
+        try {
+            while (System.nanoTime() < deadline) {
+                cycle(report, user, client);
+                cycles++;
+            }
+        } catch (Exception e) {
+            log.warn("Warm-up stopped after {} cycles: {}", cycles, e.getMessage());
+        } finally {
+            decodedJwtCache.clear();
+        }
+        report.log(Duration.ofNanos(System.nanoTime() - start), cycles);
+    }
+
+    private void cycle(WarmUpReport report, User user, RestClient client) throws Exception {
+        String token = report.time("issue", () -> authenticationService.generateToken(user));
+        // The synthetic token was never logged out, so no lookup of the revoked tokens is needed
+        report.time("verify", () -> authenticationService.verifyToken(token, false, jwtId -> false));
+        report.time("decode", () -> customJwtDecoder.decode(token));
+        report.time("serialize", () -> objectMapper.writeValueAsBytes(ApiBaseResponse.<AuthenticationResponse>builder()
+                .result(AuthenticationResponse.builder().authenticated(true).token(token).build())
+                .build()));
+        if (client == null) {
+            return;
+        }
+
+        report.time("http-permission-registry", () -> client.get()
+                .uri("/auth/permission-registry")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange((request, response) -> response.getBody().readAllBytes()));
+    }
+
+    private RestClient loopbackClient() {
+        if (!(applicationContext instanceof WebServerApplicationContext webContext) || webContext.getWebServer() == null) {
+            return null;
+        }
+        return RestClient.builder()
+                .baseUrl("http://localhost:" + webContext.getWebServer().getPort() + CONTEXT_PATH)
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+-- Schema as previously generated by Hibernate (ddl-auto: update). Existing databases are
+-- baselined at this version, so it only runs on empty ones.
+
+create table permissions (
+    name        varchar(255) not null,
+    description varchar(255),
+    primary key (name)
+);
+
+create table roles (
+    name        varchar(255) not null,
+    description varchar(255),
+    primary key (name)
+);
+
+create table roles_permissions (
+    roles_name       varchar(255) not null,
+    permissions_name varchar(255) not null,
+    primary key (roles_name, permissions_name),
+    constraint fk_roles_permissions_role foreign key (roles_name) references roles (name),
+    constraint fk_roles_permissions_permission foreign key (permissions_name) references permissions (name)
+);
+
+create table users (
+    id         varchar(255) not null,
+    username   varchar(255) not null,
+    password   varchar(255),
+    first_name varchar(255),
+    last_name  varchar(255),
+    dob        date,
+    primary key (id)
+);
+
+create table users_roles (
+    users_id   varchar(255) not null,
+    roles_name varchar(255) not null,
+    primary key (users_id, roles_name),
+    constraint fk_users_roles_user foreign key (users_id) references users (id),
+    constraint fk_users_roles_role foreign key (roles_name) references roles (name)
+);
+
+create table invalided_tokens (
+    id           varchar(255) not null,
+    expired_time timestamp(6),
+    primary key (id)
+);
@@ -0,0 +1,11 @@
+-- Login, refresh and registration look users up by name; registration relies on the unique
+-- index to reject duplicates.
+create unique index if not exists ux_users_username on users (username);
+
+-- Expired revocations are purged by expiry time.
+create index if not exists ix_invalided_tokens_expired_time on invalided_tokens (expired_time);
+
+-- The join table keys lead with the owning side; these cover lookups from the other side and
+-- the foreign key checks when a role or permission is deleted.
+create index if not exists ix_users_roles_roles_name on users_roles (roles_name);
+create index if not exists ix_roles_permissions_permissions_name on roles_permissions (permissions_name);
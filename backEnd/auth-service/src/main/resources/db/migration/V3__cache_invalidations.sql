@@ -0,0 +1,15 @@
+-- Change feed of the cache invalidation bus. Each instance numbers its own rows in node_seq
+-- without gaps; rows are purged after cache-invalidation.retention.
+create table cache_invalidations (
+    id         bigint generated by default as identity,
+    node_id    varchar(36)  not null,
+    node_seq   bigint       not null,
+    kind       varchar(32)  not null,
+    cache_key  varchar(255),
+    expires_at timestamp(6),
+    created_at timestamp(6) not null,
+    primary key (id),
+    constraint uk_cache_invalidations_node_seq unique (node_id, node_seq)
+);
+
+create index ix_cache_invalidations_created_at on cache_invalidations (created_at);
@@ -0,0 +1,2 @@
+-- Optimistic lock version of a user, bumped on every update; user reads use it as their ETag.
+alter table users add column version bigint not null default 0;
@@ -0,0 +1,17 @@
+-- Domain events written in the transaction of their change and deleted once relayed.
+create table outbox_events (
+    id           bigint generated by default as identity,
+    topic        varchar(64)  not null,
+    aggregate_id varchar(255) not null,
+    payload      text         not null,
+    created_at   timestamp(6) not null,
+    primary key (id)
+);
+
+-- Single row locked by the relaying instance, so events leave in order from one instance at a time.
+create table outbox_relay (
+    id integer not null,
+    primary key (id)
+);
+
+insert into outbox_relay (id) values (1);
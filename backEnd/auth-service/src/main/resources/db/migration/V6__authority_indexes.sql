@@ -0,0 +1,8 @@
+-- Bit position of each role and permission in the token's permission bitset. Databases that ran
+-- on ddl-auto: update may already have the table, so it is only created when missing.
+create table if not exists authority_indexes (
+    name     varchar(255) not null,
+    position integer      not null,
+    primary key (name),
+    constraint uk_authority_indexes_position unique (position)
+);
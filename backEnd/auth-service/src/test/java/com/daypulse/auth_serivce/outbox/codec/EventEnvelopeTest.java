@@ -0,0 +1,152 @@
+package com.daypulse.auth_serivce.outbox.codec;
+
+import com.daypulse.auth_serivce.outbox.AuthEventType;
+import com.daypulse.auth_serivce.outbox.TokenRevokedPayload;
+import com.daypulse.auth_serivce.outbox.UserEventPayload;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventEnvelopeTest {
+    private static final Instant CREATED_AT = Instant.parse("2026-03-01T10:15:30.123456Z");
+
+    @Test
+    void roundTripsUserEvent() {
+        String id = UUID.randomUUID().toString();
+        UserEventPayload payload = new UserEventPayload(id, "alice", "Alice", "Nguyễn", LocalDate.of(1969, 7, 20),
+                List.of("ADMIN", "USER"));
+        WireWriter out = new WireWriter(64);
+        EventEnvelopeCodec.encode(42, AuthEventType.USER_UPDATED, id, CREATED_AT, payload, out);
+
+        EventEnvelope envelope = EventEnvelope.wrap(out.view());
+
+        assertThat(envelope.formatVersion()).isEqualTo(EventEnvelope.FORMAT_VERSION);
+        assertThat(envelope.eventId()).isEqualTo(42);
+        assertThat(envelope.type()).isEqualTo(AuthEventType.USER_UPDATED);
+        assertThat(envelope.aggregateId()).isEqualTo(id);
+        assertThat(envelope.createdAt()).isEqualTo(CREATED_AT);
+        assertThat(envelope.payloadVersion()).isEqualTo(AuthPayloadCodec.USER_VERSION);
+        assertThat(EventEnvelopeCodec.decodePayload(envelope)).isEqualTo(payload);
+    }
+
+    @Test
+    void roundTripsTokenRevokedWithNonUuidAggregate() {
+        TokenRevokedPayload payload = new TokenRevokedPayload("not-a-uuid", Instant.parse("2026-03-02T00:00:00Z"));
+        WireWriter out = new WireWriter(16);
+        EventEnvelopeCodec.encode(7, AuthEventType.TOKEN_REVOKED, "not-a-uuid", CREATED_AT, payload, out);
+
+        EventEnvelope envelope = EventEnvelope.wrap(out.view());
+
+        assertThat(envelope.aggregateId()).isEqualTo("not-a-uuid");
+        assertThat(EventEnvelopeCodec.decodePayload(envelope)).isEqualTo(payload);
+    }
+
+    @Test
+    void readsFromBufferPositionWithoutMovingIt() {
+        WireWriter out = new WireWriter(64);
+        out.writeRawByte(0xFF);
+        out.writeRawByte(0xFF);
+        EventEnvelopeCodec.encode(3, AuthEventType.USER_DELETED, "u-1", CREATED_AT, UserEventPayload.deleted("u-1"), out);
+        ByteBuffer buffer = out.view().position(2);
+
+        EventEnvelope envelope = EventEnvelope.wrap(buffer);
+
+        assertThat(envelope.eventId()).isEqualTo(3);
+        assertThat(buffer.position()).isEqualTo(2);
+    }
+
+    @Test
+    void skipsFieldsAddedByNewerWriters() {
+        WireWriter payload = new WireWriter(16);
+        payload.stringField(2, "u-1");
+        payload.varintField(30, 99);
+        WireWriter out = new WireWriter(64);
+        out.writeRawByte(EventEnvelope.MAGIC);
+        out.writeRawByte(EventEnvelope.FORMAT_VERSION);
+        out.varintField(20, 123_456_789);
+        out.varintField(EventEnvelope.EVENT_ID, 5);
+        writeFixed64(out, 21, -1);
+        out.varintField(EventEnvelope.TYPE_CODE, AuthEventType.USER_DELETED.getCode());
+        out.stringField(22, "from the future");
+        out.stringField(EventEnvelope.AGGREGATE_ID, "u-1");
+        out.varintField(EventEnvelope.PAYLOAD_VERSION, AuthPayloadCodec.USER_VERSION);
+        out.bytesField(EventEnvelope.PAYLOAD, payload.view());
+
+        EventEnvelope envelope = EventEnvelope.wrap(out.view());
+
+        assertThat(envelope.eventId()).isEqualTo(5);
+        assertThat(envelope.type()).isEqualTo(AuthEventType.USER_DELETED);
+        assertThat(envelope.aggregateId()).isEqualTo("u-1");
+        assertThat(envelope.createdAt()).isEqualTo(Instant.EPOCH);
+        assertThat(EventEnvelopeCodec.decodePayload(envelope)).isEqualTo(UserEventPayload.deleted("u-1"));
+    }
+
+    @Test
+    void leavesTypesFromNewerWritersUndecoded() {
+        WireWriter out = new WireWriter(32);
+        out.writeRawByte(EventEnvelope.MAGIC);
+        out.writeRawByte(EventEnvelope.FORMAT_VERSION);
+        out.varintField(EventEnvelope.TYPE_CODE, 1000);
+        out.stringField(EventEnvelope.PAYLOAD, "opaque");
+
+        EventEnvelope envelope = EventEnvelope.wrap(out.view());
+
+        assertThat(envelope.typeCode()).isEqualTo(1000);
+        assertThat(envelope.type()).isNull();
+        assertThat(EventEnvelopeCodec.decodePayload(envelope)).isNull();
+    }
+
+    @Test
+    void rejectsNewerFormatVersion() {
+        WireWriter out = new WireWriter(16);
+        out.writeRawByte(EventEnvelope.MAGIC);
+        out.writeRawByte(EventEnvelope.FORMAT_VERSION + 1);
+
+        assertThatThrownBy(() -> EventEnvelope.wrap(out.view()))
+                .isInstanceOf(CodecException.class)
+                .hasMessageContaining("newer");
+    }
+
+    @Test
+    void rejectsNewerPayloadVersion() {
+        WireWriter out = new WireWriter(32);
+        out.writeRawByte(EventEnvelope.MAGIC);
+        out.writeRawByte(EventEnvelope.FORMAT_VERSION);
+        out.varintField(EventEnvelope.TYPE_CODE, AuthEventType.TOKEN_REVOKED.getCode());
+        out.varintField(EventEnvelope.PAYLOAD_VERSION, AuthPayloadCodec.TOKEN_REVOKED_VERSION + 1);
+
+        EventEnvelope envelope = EventEnvelope.wrap(out.view());
+
+        assertThatThrownBy(() -> EventEnvelopeCodec.decodePayload(envelope))
+                .isInstanceOf(CodecException.class)
+                .hasMessageContaining("newer");
+    }
+
+    @Test
+    void rejectsInputThatIsNotAnEnvelope() {
+        assertThatThrownBy(() -> EventEnvelope.wrap(ByteBuffer.wrap(new byte[]{1, 1})))
+                .isInstanceOf(CodecException.class);
+    }
+
+    @Test
+    void keepsMicrosecondPrecision() {
+        Instant createdAt = CREATED_AT.plus(1, ChronoUnit.MICROS);
+        WireWriter out = new WireWriter(64);
+        EventEnvelopeCodec.encode(1, AuthEventType.USER_DELETED, "u-1", createdAt, UserEventPayload.deleted("u-1"), out);
+
+        assertThat(EventEnvelope.wrap(out.view()).createdAt()).isEqualTo(createdAt);
+    }
+
+    private static void writeFixed64(WireWriter out, int field, long value) {
+        out.writeVarint((long) field << 3 | WireType.FIXED64);
+        out.writeRawBytes(ByteBuffer.allocate(8).putLong(0, value));
+    }
+}
@@ -0,0 +1,118 @@
+package com.daypulse.auth_serivce.outbox.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WireReaderTest {
+
+    @Test
+    void roundTripsEveryWireType() {
+        UUID uuid = UUID.randomUUID();
+        WireWriter out = new WireWriter(16);
+        out.varintField(1, Long.MAX_VALUE);
+        out.signedField(2, -3);
+        out.stringField(3, "héllo 👋");
+        out.uuidField(4, uuid);
+        out.varintField(5, 0);
+
+        WireReader reader = new WireReader(out.view());
+
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.field()).isEqualTo(1);
+        assertThat(reader.wireType()).isEqualTo(WireType.VARINT);
+        assertThat(reader.readVarint()).isEqualTo(Long.MAX_VALUE);
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.readSigned()).isEqualTo(-3);
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.wireType()).isEqualTo(WireType.LENGTH_DELIMITED);
+        assertThat(reader.readString()).isEqualTo("héllo 👋");
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.readUuid()).isEqualTo(uuid);
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.readVarint()).isZero();
+        assertThat(reader.next()).isFalse();
+    }
+
+    @Test
+    void leavesEmptyStringsAndNullsOut() {
+        WireWriter out = new WireWriter(16);
+        out.stringField(1, "");
+        out.stringField(2, null);
+
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    void skipsEachWireType() {
+        WireWriter out = new WireWriter(16);
+        out.varintField(1, 300);
+        out.writeVarint(2L << 3 | WireType.FIXED64);
+        out.writeRawBytes(ByteBuffer.allocate(8));
+        out.stringField(3, "skipped");
+        out.varintField(4, 7);
+
+        WireReader reader = new WireReader(out.view());
+        while (reader.next() && reader.field() != 4) {
+            reader.skip();
+        }
+
+        assertThat(reader.field()).isEqualTo(4);
+        assertThat(reader.readVarint()).isEqualTo(7);
+    }
+
+    @Test
+    void returnsBytesAsSliceOfTheSource() {
+        WireWriter out = new WireWriter(16);
+        out.stringField(1, "abc");
+        ByteBuffer source = ByteBuffer.wrap(out.toByteArray());
+
+        WireReader reader = new WireReader(source);
+        reader.next();
+        ByteBuffer bytes = reader.readBytes();
+        source.put(2, (byte) 'x');
+
+        assertThat(WireReader.utf8(bytes)).isEqualTo("xbc");
+        assertThat(source.position()).isZero();
+    }
+
+    @Test
+    void rejectsLengthBeyondInput() {
+        WireWriter out = new WireWriter(16);
+        out.writeVarint(1L << 3 | WireType.LENGTH_DELIMITED);
+        out.writeVarint(10);
+        out.writeRawByte('a');
+
+        WireReader reader = new WireReader(out.view());
+        reader.next();
+
+        assertThatThrownBy(reader::readBytes).isInstanceOf(CodecException.class);
+    }
+
+    @Test
+    void rejectsTruncatedVarint() {
+        WireReader reader = new WireReader(ByteBuffer.wrap(new byte[]{8, (byte) 0x80}));
+        reader.next();
+
+        assertThatThrownBy(reader::readVarint).isInstanceOf(CodecException.class);
+    }
+
+    @Test
+    void rejectsFieldNumberZero() {
+        WireReader reader = new WireReader(ByteBuffer.wrap(new byte[]{0, 1}));
+
+        assertThatThrownBy(reader::next).isInstanceOf(CodecException.class);
+    }
+
+    @Test
+    void rejectsUnknownWireTypeOnSkip() {
+        WireReader reader = new WireReader(ByteBuffer.wrap(new byte[]{(1 << 3) | 5, 0}));
+        reader.next();
+
+        assertThatThrownBy(reader::skip).isInstanceOf(CodecException.class);
+    }
+}
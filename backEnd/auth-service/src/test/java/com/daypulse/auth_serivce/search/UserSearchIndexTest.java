@@ -0,0 +1,165 @@
+package com.daypulse.auth_serivce.search;
+
+import com.daypulse.auth_serivce.cache.CacheInvalidation;
+import com.daypulse.auth_serivce.cache.CacheInvalidationBus;
+import com.daypulse.auth_serivce.cache.InvalidationKind;
+import com.daypulse.auth_serivce.dto.response.UserProfileResponse;
+import com.daypulse.auth_serivce.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserSearchIndexTest {
+    private static final Duration WAIT = Duration.ofSeconds(10);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CacheInvalidationBus cacheInvalidationBus = mock(CacheInvalidationBus.class);
+    // What the table holds, by id
+    private final Map<String, UserProfileResponse> table = new ConcurrentHashMap<>();
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findProfilesAfter(anyString(), any(Limit.class))).thenAnswer(invocation -> {
+            String afterId = invocation.getArgument(0);
+            Limit limit = invocation.getArgument(1);
+            return table.values().stream()
+                    .filter(user -> user.getId().compareTo(afterId) > 0)
+                    .sorted((a, b) -> a.getId().compareTo(b.getId()))
+                    .limit(limit.max())
+                    .toList();
+        });
+        when(userRepository.findProfilesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().map(table::get).filter(user -> user != null).toList();
+        });
+        put("1", "alice", "Alice", "Tran");
+        put("2", "alicia", null, null);
+        put("3", "bob", "Ali", "Khan");
+        // Merged into the segment after three pending changes
+        index = new UserSearchIndex(userRepository, cacheInvalidationBus, new SimpleMeterRegistry(), 20, 3,
+                Duration.ofMinutes(30), "", 2, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        index.stop();
+    }
+
+    @Test
+    void searchesTheDatabaseUntilLoaded() {
+        when(userRepository.findProfilesByPrefix(anyString(), any(Limit.class))).thenReturn(List.of());
+
+        index.search(" A_b% ", 5);
+
+        verify(userRepository).findProfilesByPrefix(eq("a\\_b\\%"), eq(Limit.of(5)));
+    }
+
+    @Test
+    void loadsAllUsersInBatches() {
+        index.resync();
+
+        awaitIds("ali", "1", "2", "3");
+        assertThat(index.search("   ", 10)).isEmpty();
+    }
+
+    @Test
+    void overlaysChangedAndNewUsers() {
+        index.resync();
+        awaitIds("ali", "1", "2", "3");
+
+        put("2", "zed", null, null);
+        put("4", "ali", null, null);
+        index.refresh("2");
+        index.onInvalidation(new CacheInvalidation("other-node", 1, InvalidationKind.USER, "4", null));
+
+        awaitIds("ali", "4", "1", "3");
+        assertThat(ids("zed")).containsExactly("2");
+    }
+
+    @Test
+    void hidesDeletedUsers() {
+        index.resync();
+        awaitIds("ali", "1", "2", "3");
+
+        table.remove("1");
+        index.refresh("1");
+
+        awaitIds("ali", "2", "3");
+        assertThat(ids("tran")).isEmpty();
+    }
+
+    @Test
+    void keepsResultsWhenChangesAreMerged() {
+        index.resync();
+        awaitIds("ali", "1", "2", "3");
+
+        put("4", "alex", null, null);
+        put("5", "alina", null, null);
+        table.remove("3");
+        for (String id : List.of("4", "5", "3")) {
+            index.refresh(id);
+        }
+
+        awaitIds("al", "4", "1", "5", "2");
+        put("1", "carol", null, null);
+        index.refresh("1");
+        awaitIds("al", "4", "5", "2");
+    }
+
+    @Test
+    void rebuildsFromTheTableOnResync() {
+        index.resync();
+        awaitIds("ali", "1", "2", "3");
+
+        // A change whose notification was lost
+        table.remove("2");
+        index.resync();
+
+        awaitIds("ali", "1", "3");
+    }
+
+    private void put(String id, String username, String firstName, String lastName) {
+        table.put(id, new UserProfileResponse(id, username, firstName, lastName));
+    }
+
+    private List<String> ids(String query) {
+        return index.search(query, 10).stream().map(UserProfileResponse::getId).toList();
+    }
+
+    private void awaitIds(String query, String... expected) {
+        await(() -> ids(query).equals(List.of(expected)));
+        assertThat(ids(query)).containsExactly(expected);
+    }
+
+    private static void await(Supplier<Boolean> condition) {
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        while (!condition.get() && System.nanoTime() < deadline) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.daypulse.auth_serivce.search;
+
+import com.daypulse.auth_serivce.dto.response.UserProfileResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserSearchSegmentTest {
+
+    @Test
+    void ranksShorterTermsFirstAndUsernamesBeforeNames() {
+        UserSearchSegment segment = build(4,
+                user("1", "alicia", "Zoe", "Tran"),
+                user("2", "zed", "Ali", "Khan"),
+                user("3", "ali", null, null),
+                user("4", "bob", "Alice", null),
+                user("5", "alice", null, null));
+
+        // ali (username, 3), alice (username, 5), alice (name, 5), alicia (6), ali khan (8)
+        assertThat(ids(segment.search(bytes("ali"), 10, Set.of()))).containsExactly("3", "5", "4", "1", "2");
+        assertThat(ids(segment.search(bytes("ali"), 2, Set.of()))).containsExactly("3", "5");
+    }
+
+    @Test
+    void matchesEitherNameOrderIgnoringCaseAndAccents() {
+        UserSearchSegment segment = build(4, user("1", "duc", "Nguyễn  Văn", "Đức"));
+
+        assertThat(ids(segment.search(bytes("NGUYEN VAN"), 10, Set.of()))).containsExactly("1");
+        assertThat(ids(segment.search(bytes("đức nguyễn"), 10, Set.of()))).containsExactly("1");
+        assertThat(segment.search(bytes("van"), 10, Set.of())).isEmpty();
+    }
+
+    @Test
+    void leavesOutHiddenUsers() {
+        UserSearchSegment segment = build(4,
+                user("1", "anna", null, null),
+                user("2", "annabel", null, null),
+                user("3", "anne", null, null));
+
+        Set<Integer> hidden = Set.of(segment.find("1"));
+
+        assertThat(ids(segment.search(bytes("ann"), 10, hidden))).containsExactly("3", "2");
+        assertThat(segment.find("missing")).isEqualTo(-1);
+        assertThat(segment.profile(segment.find("2")).getUsername()).isEqualTo("annabel");
+    }
+
+    @Test
+    void rankedShortPrefixesMatchAFullScan() {
+        List<UserProfileResponse> users = manyUsers();
+        UserSearchSegment segment = build(8, users.toArray(UserProfileResponse[]::new));
+
+        for (String prefix : List.of("u", "us", "user", "user1", "n", "name 2")) {
+            assertThat(ids(segment.search(bytes(prefix), 8, Set.of())))
+                    .as(prefix)
+                    .containsExactlyElementsOf(bruteForce(users, prefix, 8, Set.of()));
+        }
+    }
+
+    @Test
+    void scansWhenTooManyOfTheRankedBestAreHidden() {
+        List<UserProfileResponse> users = manyUsers();
+        UserSearchSegment segment = build(8, users.toArray(UserProfileResponse[]::new));
+        List<String> best = ids(segment.search(bytes("u"), 8, Set.of()));
+        Set<Integer> hidden = new HashSet<>();
+        Set<String> hiddenIds = new HashSet<>();
+        for (String id : best.subList(0, 5)) {
+            hidden.add(segment.find(id));
+            hiddenIds.add(id);
+        }
+
+        assertThat(ids(segment.search(bytes("u"), 8, hidden)))
+                .containsExactlyElementsOf(bruteForce(users, "u", 8, hiddenIds));
+    }
+
+    @Test
+    void readsBackWhatItWrote() throws IOException {
+        List<UserProfileResponse> users = manyUsers();
+        UserSearchSegment segment = build(8, users.toArray(UserProfileResponse[]::new));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        segment.write(new DataOutputStream(bytes));
+
+        UserSearchSegment read = UserSearchSegment.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(read.size()).isEqualTo(segment.size());
+        assertThat(ids(read.search(bytes("user"), 8, Set.of()))).isEqualTo(ids(segment.search(bytes("user"), 8, Set.of())));
+        assertThat(read.find("0042")).isEqualTo(segment.find("0042"));
+    }
+
+    // More users under one prefix than SCAN_LIMIT, so short prefixes are ranked when the segment is built
+    private static List<UserProfileResponse> manyUsers() {
+        List<UserProfileResponse> users = new ArrayList<>();
+        for (int i = 0; i < UserSearchSegment.SCAN_LIMIT * 3; i++) {
+            String id = String.format("%04d", i);
+            users.add(user(id, "user" + Integer.toString(i * 7919 % 1000, 36), "Name " + (i % 37), "Last" + i));
+        }
+        return users;
+    }
+
+    private static List<String> bruteForce(List<UserProfileResponse> users, String query, int limit, Set<String> hidden) {
+        byte[] prefix = bytes(query);
+        record Best(int rank, String term, String id) {
+        }
+        List<Best> matches = new ArrayList<>();
+        for (UserProfileResponse user : users) {
+            if (hidden.contains(user.getId())) {
+                continue;
+            }
+            byte[][] terms = SearchTerms.terms(user);
+            Best best = null;
+            for (int kind = 0; kind < terms.length; kind++) {
+                if (terms[kind] != null && SearchTerms.startsWith(terms[kind], prefix)) {
+                    Best match = new Best(SearchTerms.rank(terms[kind].length, kind), new String(terms[kind]), user.getId());
+                    if (best == null || match.rank() < best.rank()) {
+                        best = match;
+                    }
+                }
+            }
+            if (best != null) {
+                matches.add(best);
+            }
+        }
+        return matches.stream()
+                .sorted(Comparator.comparingInt(Best::rank).thenComparing(Best::term).thenComparing(Best::id))
+                .limit(limit)
+                .map(Best::id)
+                .toList();
+    }
+
+    private static UserSearchSegment build(int rankedLength, UserProfileResponse... users) {
+        UserSearchSegment.Builder builder = new UserSearchSegment.Builder();
+        for (UserProfileResponse user : users) {
+            builder.add(user);
+        }
+        return builder.build(rankedLength);
+    }
+
+    private static UserProfileResponse user(String id, String username, String firstName, String lastName) {
+        return new UserProfileResponse(id, username, firstName, lastName);
+    }
+
+    private static byte[] bytes(String query) {
+        return SearchTerms.bytes(query);
+    }
+
+    private static List<String> ids(List<UserSearchSegment.Match> matches) {
+        return matches.stream().map(match -> match.profile().getId()).toList();
+    }
+}
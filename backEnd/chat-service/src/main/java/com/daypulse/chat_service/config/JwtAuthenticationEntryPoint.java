@@ -0,0 +1,38 @@
+package com.daypulse.chat_service.config;
+
+import com.daypulse.chat_service.dto.response.ApiBaseResponse;
+import com.daypulse.chat_service.exception.ErrorCode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+public class JwtAuthenticationEntryPoint implements ServerAuthenticationEntryPoint {
+
+    @Override
+    public Mono<Void> commence(ServerWebExchange exchange, AuthenticationException authException) {
+        ErrorCode errorCode = ErrorCode.UNAUTHENTICATED;
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(errorCode.getStatusCode());
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        ApiBaseResponse<?> apiBaseResponse = ApiBaseResponse.builder()
+                .code(errorCode.getCode())
+                .message(errorCode.getMessage())
+                .build();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(apiBaseResponse);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
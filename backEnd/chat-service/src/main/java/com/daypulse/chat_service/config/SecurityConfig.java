@@ -0,0 +1,72 @@
+package com.daypulse.chat_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.oauth2.server.resource.web.server.authentication.ServerBearerTokenAuthenticationConverter;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+
+@Configuration
+@EnableWebFluxSecurity
+public class SecurityConfig {
+    // auth-service puts User.id in this claim; the subject is the username
+    public static final String USER_ID_CLAIM = "userId";
+
+    private final String[] PUBLIC_GET_ENDPOINTS = {
+            "/actuator/health/**"
+    };
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        http.authorizeExchange(exchanges ->
+                exchanges.pathMatchers(HttpMethod.GET, PUBLIC_GET_ENDPOINTS).permitAll()
+                        .anyExchange().authenticated());
+
+        http.oauth2ResourceServer(oauth2 ->
+                oauth2.bearerTokenConverter(bearerTokenConverter())
+                        .jwt(jwtSpec -> jwtSpec.jwtAuthenticationConverter(jwtAuthenticationConverter()))
+                        .authenticationEntryPoint(new JwtAuthenticationEntryPoint())
+        );
+        http.securityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+        http.csrf(ServerHttpSecurity.CsrfSpec::disable);
+        http.httpBasic(ServerHttpSecurity.HttpBasicSpec::disable);
+        http.formLogin(ServerHttpSecurity.FormLoginSpec::disable);
+
+        return http.build();
+    }
+
+    @Bean
+    ReactiveJwtDecoder jwtDecoder(@Value("${jwt.signing-key}") String signingKey) {
+        byte[] keyBytes = Base64.getDecoder().decode(signingKey);
+        return NimbusReactiveJwtDecoder
+                .withSecretKey(new SecretKeySpec(keyBytes, "HmacSHA512"))
+                .macAlgorithm(MacAlgorithm.HS512)
+                .build();
+    }
+
+    ServerBearerTokenAuthenticationConverter bearerTokenConverter() {
+        // Browsers cannot set headers on a WebSocket handshake, so the token may come as ?access_token=
+        ServerBearerTokenAuthenticationConverter converter = new ServerBearerTokenAuthenticationConverter();
+        converter.setAllowUriQueryParameter(true);
+        return converter;
+    }
+
+    ReactiveJwtAuthenticationConverterAdapter jwtAuthenticationConverter() {
+        // Authentication names are user ids, which is what messages and direct rooms are keyed by
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setPrincipalClaimName(USER_ID_CLAIM);
+        return new ReactiveJwtAuthenticationConverterAdapter(converter);
+    }
+}
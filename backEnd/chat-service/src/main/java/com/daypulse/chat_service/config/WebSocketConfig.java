@@ -0,0 +1,39 @@
+package com.daypulse.chat_service.config;
+
+import com.daypulse.chat_service.socket.ChatWebSocketHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.reactive.socket.server.WebSocketService;
+import org.springframework.web.reactive.socket.server.support.HandshakeWebSocketService;
+import org.springframework.web.reactive.socket.server.upgrade.ReactorNettyRequestUpgradeStrategy;
+import reactor.netty.http.server.WebsocketServerSpec;
+
+import java.util.Map;
+
+@Configuration
+public class WebSocketConfig implements WebFluxConfigurer {
+    public static final String CHAT_PATH = "/ws/chat";
+
+    private final int maxFrameBytes;
+
+    public WebSocketConfig(@Value("${chat.max-frame-bytes}") int maxFrameBytes) {
+        this.maxFrameBytes = maxFrameBytes;
+    }
+
+    @Bean
+    HandlerMapping chatHandlerMapping(ChatWebSocketHandler chatWebSocketHandler) {
+        // Ahead of the annotated controllers
+        return new SimpleUrlHandlerMapping(Map.of(CHAT_PATH, chatWebSocketHandler), -1);
+    }
+
+    @Override
+    public WebSocketService getWebSocketService() {
+        // Inbound frames are small commands; a large one is a misbehaving client
+        return new HandshakeWebSocketService(new ReactorNettyRequestUpgradeStrategy(
+                () -> WebsocketServerSpec.builder().maxFramePayloadLength(maxFrameBytes)));
+    }
+}
@@ -0,0 +1,75 @@
+package com.daypulse.chat_service.controller;
+
+import com.daypulse.chat_service.dto.request.ReminderRequest;
+import com.daypulse.chat_service.dto.response.ApiBaseResponse;
+import com.daypulse.chat_service.dto.response.ReminderResponse;
+import com.daypulse.chat_service.service.ReminderService;
+import com.daypulse.chat_service.util.SecurityUtils;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/rooms/{roomId}/reminders")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReminderController {
+    ReminderService reminderService;
+
+    @GetMapping
+    Mono<ApiBaseResponse<List<ReminderResponse>>> getReminders(@PathVariable String roomId) {
+        return SecurityUtils.currentUserId()
+                .publishOn(Schedulers.boundedElastic())
+                .map(userId -> ApiBaseResponse.<List<ReminderResponse>>builder()
+                        .result(reminderService.getReminders(userId, roomId))
+                        .build());
+    }
+
+    @PostMapping
+    Mono<ApiBaseResponse<ReminderResponse>> createReminder(@PathVariable String roomId,
+                                                           @RequestBody ReminderRequest request) {
+        return SecurityUtils.currentUserId()
+                .publishOn(Schedulers.boundedElastic())
+                .map(userId -> ApiBaseResponse.<ReminderResponse>builder()
+                        .result(reminderService.createReminder(userId, roomId, request))
+                        .build());
+    }
+
+    @PatchMapping("/{reminderId}")
+    Mono<ApiBaseResponse<ReminderResponse>> updateReminder(@PathVariable String roomId,
+                                                           @PathVariable String reminderId,
+                                                           @RequestBody ReminderRequest request) {
+        return SecurityUtils.currentUserId()
+                .publishOn(Schedulers.boundedElastic())
+                .map(userId -> ApiBaseResponse.<ReminderResponse>builder()
+                        .result(reminderService.updateReminder(userId, roomId, reminderId, request))
+                        .build());
+    }
+
+    // firedAt is the lastFiredAt of the reminder event being acknowledged
+    @DeleteMapping("/{reminderId}/delivery")
+    Mono<ApiBaseResponse<Void>> acknowledgeReminder(@PathVariable String roomId, @PathVariable String reminderId,
+                                                    @RequestParam String firedAt) {
+        return SecurityUtils.currentUserId()
+                .publishOn(Schedulers.boundedElastic())
+                .map(userId -> {
+                    reminderService.acknowledge(userId, roomId, reminderId, firedAt);
+                    return ApiBaseResponse.<Void>builder().build();
+                });
+    }
+
+    @DeleteMapping("/{reminderId}")
+    Mono<ApiBaseResponse<Void>> deleteReminder(@PathVariable String roomId, @PathVariable String reminderId) {
+        return SecurityUtils.currentUserId()
+                .publishOn(Schedulers.boundedElastic())
+                .map(userId -> {
+                    reminderService.deleteReminder(userId, roomId, reminderId);
+                    return ApiBaseResponse.<Void>builder().build();
+                });
+    }
+}
@@ -0,0 +1,41 @@
+package com.daypulse.chat_service.controller;
+
+import com.daypulse.chat_service.dto.response.ApiBaseResponse;
+import com.daypulse.chat_service.dto.response.ChatMessagePageResponse;
+import com.daypulse.chat_service.service.MessageHistoryService;
+import com.daypulse.chat_service.util.SecurityUtils;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@RestController
+@RequestMapping("/rooms/{roomId}/messages")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RoomMessageController {
+    MessageHistoryService messageHistoryService;
+
+    @GetMapping
+    Mono<ApiBaseResponse<ChatMessagePageResponse>> getMessages(@PathVariable String roomId,
+                                                               @RequestParam(required = false) String before,
+                                                               @RequestParam(required = false) Integer limit) {
+        return SecurityUtils.currentUserId()
+                .publishOn(Schedulers.boundedElastic())
+                .map(userId -> ApiBaseResponse.<ChatMessagePageResponse>builder()
+                        .result(messageHistoryService.getMessages(userId, roomId, before, limit))
+                        .build());
+    }
+
+    @DeleteMapping("/{messageId}")
+    Mono<ApiBaseResponse<Void>> deleteMessage(@PathVariable String roomId, @PathVariable String messageId) {
+        return SecurityUtils.currentUserId()
+                .publishOn(Schedulers.boundedElastic())
+                .map(userId -> {
+                    messageHistoryService.deleteMessage(userId, roomId, messageId);
+                    return ApiBaseResponse.<Void>builder().build();
+                });
+    }
+}
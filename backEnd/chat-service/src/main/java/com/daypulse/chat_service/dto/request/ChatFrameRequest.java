@@ -0,0 +1,24 @@
+package com.daypulse.chat_service.dto.request;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * One client-to-server frame: {@code join} or {@code leave} a room, or {@code send} text to a
+ * joined room. {@code clientId} is optional and is echoed on the ack or error the frame causes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ChatFrameRequest {
+    public static final String JOIN = "join";
+    public static final String LEAVE = "leave";
+    public static final String SEND = "send";
+
+    String type;
+    String roomId;
+    String text;
+    String clientId;
+}
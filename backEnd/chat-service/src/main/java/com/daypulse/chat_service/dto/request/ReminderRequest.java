@@ -0,0 +1,24 @@
+package com.daypulse.chat_service.dto.request;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Creates a reminder, or changes one when only some fields are given. {@code type} is
+ * {@code once} or {@code daily}; {@code time} is an ISO instant for once reminders and
+ * {@code HH:mm} for daily ones, in {@code zone} (default UTC). {@code target} is {@code self},
+ * or {@code partner} or {@code both} in direct rooms.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ReminderRequest {
+    String type;
+    String time;
+    String zone;
+    String target;
+    String content;
+    Boolean enabled;
+}
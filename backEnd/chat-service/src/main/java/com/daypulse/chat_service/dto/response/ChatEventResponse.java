@@ -0,0 +1,38 @@
+package com.daypulse.chat_service.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * One server-to-client event. Events are sent as JSON arrays of one or more events per frame.
+ * {@code connected} is always the first event of a connection.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChatEventResponse {
+    public static final String CONNECTED = "connected";
+    public static final String MESSAGE = "message";
+    public static final String ACK = "ack";
+    public static final String JOINED = "joined";
+    public static final String LEFT = "left";
+    public static final String ERROR = "error";
+    public static final String REMINDER = "reminder";
+
+    String type;
+    // The authenticated user, on connected
+    String userId;
+    String roomId;
+    // Echoes the clientId of the send this event answers
+    String clientId;
+    ChatMessageResponse message;
+    ReminderResponse reminder;
+    // The stored message id on acks
+    String messageId;
+    Integer code;
+    String error;
+}
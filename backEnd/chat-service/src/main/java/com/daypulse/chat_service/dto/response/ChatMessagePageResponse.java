@@ -0,0 +1,20 @@
+package com.daypulse.chat_service.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChatMessagePageResponse {
+    // Newest first: a JSON array of ChatMessageResponse copied from the history log as it is stored
+    @JsonRawValue
+    String messages;
+    // Pass back as "before" for the next page; absent on the last page
+    String nextCursor;
+}
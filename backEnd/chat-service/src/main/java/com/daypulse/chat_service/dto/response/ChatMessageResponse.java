@@ -0,0 +1,20 @@
+package com.daypulse.chat_service.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ChatMessageResponse {
+    // Serialized as a string: JavaScript numbers cannot hold every 64-bit id
+    String id;
+    String roomId;
+    String senderId;
+    String text;
+    Instant createdAt;
+}
@@ -0,0 +1,32 @@
+package com.daypulse.chat_service.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReminderResponse {
+    // Serialized as a string, like message ids
+    String id;
+    String roomId;
+    String createdBy;
+    String content;
+    // once or daily
+    String type;
+    // self, partner or both
+    String target;
+    // An ISO instant for once reminders, HH:mm in zone for daily ones
+    String time;
+    String zone;
+    boolean enabled;
+    // Absent once the reminder will not fire again
+    Instant nextFireAt;
+    Instant lastFiredAt;
+}
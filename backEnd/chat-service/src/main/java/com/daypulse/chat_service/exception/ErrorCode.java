@@ -0,0 +1,36 @@
+package com.daypulse.chat_service.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+@Getter
+public enum ErrorCode {
+    UNCATEGORIZED_EXCEPTION(888, "Uncategorized error", HttpStatus.INTERNAL_SERVER_ERROR),
+    INVALID_KEY(101, "Uncategorized error", HttpStatus.BAD_REQUEST),
+    UNAUTHENTICATED(106, "Unauthenticated user", HttpStatus.UNAUTHORIZED),
+    UNAUTHORIZED(107, "Unauthorized user", HttpStatus.FORBIDDEN),
+    INVALID_ROOM(301, "Invalid room id", HttpStatus.BAD_REQUEST),
+    INVALID_FRAME(302, "Malformed chat frame", HttpStatus.BAD_REQUEST),
+    INVALID_TEXT(303, "Message text is empty or too long", HttpStatus.BAD_REQUEST),
+    NOT_A_MEMBER(304, "Join the room before sending to it", HttpStatus.FORBIDDEN),
+    TOO_MANY_ROOMS(305, "Too many rooms joined on one connection", HttpStatus.BAD_REQUEST),
+    CHAT_OVERLOADED(306, "Chat is overloaded, try again later", HttpStatus.SERVICE_UNAVAILABLE),
+    INVALID_CURSOR(307, "Invalid cursor", HttpStatus.BAD_REQUEST),
+    MESSAGE_NOT_FOUND(308, "Message not found", HttpStatus.NOT_FOUND),
+    INVALID_REMINDER(309, "Reminder type, time, zone or target is invalid", HttpStatus.BAD_REQUEST),
+    REMINDER_NOT_FOUND(310, "Reminder not found", HttpStatus.NOT_FOUND),
+    TOO_MANY_REMINDERS(311, "Too many reminders in this room", HttpStatus.BAD_REQUEST)
+    ;
+
+    ErrorCode(int code, String message, HttpStatusCode statusCode) {
+        this.code = code;
+        this.message = message;
+        this.statusCode = statusCode;
+    }
+
+    private final int code;
+    private final String message;
+    private final HttpStatusCode statusCode;
+
+}
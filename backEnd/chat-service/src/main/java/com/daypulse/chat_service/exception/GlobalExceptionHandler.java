@@ -0,0 +1,47 @@
+package com.daypulse.chat_service.exception;
+
+import com.daypulse.chat_service.dto.response.ApiBaseResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+@Slf4j
+@ControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(value = Exception.class)
+    ResponseEntity<ApiBaseResponse> handlingRuntimeException(RuntimeException exception) {
+        log.error("Unhandled exception", exception);
+        ApiBaseResponse ApiBaseResponse = new ApiBaseResponse();
+
+        ApiBaseResponse.setCode(ErrorCode.UNCATEGORIZED_EXCEPTION.getCode());
+        ApiBaseResponse.setMessage(ErrorCode.UNCATEGORIZED_EXCEPTION.getMessage());
+
+        return ResponseEntity.badRequest().body(ApiBaseResponse);
+    }
+
+    @ExceptionHandler(value = AppException.class)
+    ResponseEntity<ApiBaseResponse> handlingAppException(AppException exception) {
+        ErrorCode errorCode = exception.getErrorCode();
+        ApiBaseResponse ApiBaseResponse = new ApiBaseResponse();
+
+        ApiBaseResponse.setCode(errorCode.getCode());
+        ApiBaseResponse.setMessage(errorCode.getMessage());
+
+        return ResponseEntity.status(errorCode.getStatusCode()).body(ApiBaseResponse);
+    }
+
+    @ExceptionHandler(value = AccessDeniedException.class)
+    ResponseEntity<ApiBaseResponse> handlingAccessDenied(AccessDeniedException exception) {
+        ErrorCode errorCode = ErrorCode.UNAUTHORIZED;
+
+        return ResponseEntity.status(errorCode.getStatusCode()).body(
+                ApiBaseResponse.builder()
+                        .code(errorCode.getCode())
+                        .message(errorCode.getMessage())
+                        .build());
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.daypulse.chat_service.journal;
+
+import com.daypulse.chat_service.dto.response.ChatMessageResponse;
+
+import java.time.Instant;
+
+public record ChatMessage(long id, String roomId, String senderId, String text, Instant createdAt) {
+
+    public ChatMessageResponse toResponse() {
+        return ChatMessageResponse.builder()
+                .id(String.valueOf(id))
+                .roomId(roomId)
+                .senderId(senderId)
+                .text(text)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,10 @@
+package com.daypulse.chat_service.journal;
+
+import com.daypulse.chat_service.socket.ChatSession;
+
+/**
+ * A message waiting to be written, with the session to ack once it is committed and what delivers
+ * it to the room then.
+ */
+public record JournalEntry(ChatMessage message, ChatSession sender, String clientId, Runnable delivery) {
+}
@@ -0,0 +1,158 @@
+package com.daypulse.chat_service.journal;
+
+import com.daypulse.chat_service.socket.ChatEvents;
+import com.daypulse.chat_service.log.MessageLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes chat messages with group commits on a thread of its own. Room actors append and move on;
+ * the writer takes everything queued since its last commit, up to {@code chat.journal.batch-size}
+ * messages, appends it to the {@link MessageLog} and flushes the log once, so the cost of a flush
+ * is shared by every message that arrived while the previous one was in flight. Senders get an
+ * ack, and the message is handed back to its room for delivery, only once it is on disk, so no
+ * member sees a message that history would not return.
+ * <p>
+ * A failed batch is retried after {@code chat.journal.retry-delay}, starting after the messages
+ * that were already appended, so a retry does not duplicate them. Appends are refused while
+ * {@code chat.journal.capacity} messages are waiting.
+ */
+@Slf4j
+@Component
+public class MessageJournal {
+    private final MessageLog messageLog;
+    private final ChatEvents events;
+    private final int batchSize;
+    private final int capacity;
+    private final Duration retryDelay;
+    private final Queue<JournalEntry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter persisted;
+    private final Timer commits;
+
+    // Messages of the current batch already in the log; writer thread only
+    private int appended;
+    private volatile boolean running;
+    private volatile boolean sleeping;
+    private volatile Thread thread;
+
+    public MessageJournal(MessageLog messageLog,
+                          ChatEvents events,
+                          MeterRegistry meterRegistry,
+                          @Value("${chat.journal.batch-size}") int batchSize,
+                          @Value("${chat.journal.capacity}") int capacity,
+                          @Value("${chat.journal.retry-delay}") Duration retryDelay) {
+        this.messageLog = messageLog;
+        this.events = events;
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+        this.retryDelay = retryDelay;
+        this.persisted = Counter.builder("chat.journal.persisted")
+                .description("Chat messages committed")
+                .register(meterRegistry);
+        this.commits = Timer.builder("chat.journal.commit")
+                .description("Group commits of chat messages")
+                .register(meterRegistry);
+        Gauge.builder("chat.journal.waiting", waiting, AtomicInteger::get)
+                .description("Chat messages waiting to be committed")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform().daemon().name("chat-journal").start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+            // Messages appended before shutdown are still written
+            current.join(retryDelay.toMillis() * 3);
+        }
+    }
+
+    /**
+     * Queues a message for the next group commit. Returns false, queueing nothing, when the
+     * journal is full.
+     */
+    public boolean append(JournalEntry entry) {
+        if (waiting.incrementAndGet() > capacity) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        queue.offer(entry);
+        if (sleeping) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    private void run() {
+        List<JournalEntry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            JournalEntry entry;
+            while (batch.size() < batchSize && (entry = queue.poll()) != null) {
+                batch.add(entry);
+            }
+            if (batch.isEmpty()) {
+                sleeping = true;
+                // Rechecked after publishing the flag, so an append in between is not missed
+                if (running && queue.isEmpty()) {
+                    LockSupport.park(this);
+                }
+                sleeping = false;
+                continue;
+            }
+            try {
+                commits.record(() -> commit(batch));
+            } catch (RuntimeException e) {
+                log.warn("Writing {} chat messages failed, retrying in {}: {}", batch.size(), retryDelay, e.getMessage());
+                sleep(retryDelay);
+                continue;
+            }
+            waiting.addAndGet(-batch.size());
+            persisted.increment(batch.size());
+            for (JournalEntry committed : batch) {
+                committed.sender().send(events.ack(committed.message(), committed.clientId()));
+                committed.delivery().run();
+            }
+            batch.clear();
+            appended = 0;
+        }
+    }
+
+    private void commit(List<JournalEntry> batch) {
+        for (; appended < batch.size(); appended++) {
+            messageLog.append(batch.get(appended).message());
+        }
+        messageLog.flush();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
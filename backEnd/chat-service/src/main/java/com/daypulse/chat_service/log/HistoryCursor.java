@@ -0,0 +1,37 @@
+package com.daypulse.chat_service.log;
+
+import com.daypulse.chat_service.exception.AppException;
+import com.daypulse.chat_service.exception.ErrorCode;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Position in a room's history: the log offset of the last message returned. Clients get it as
+ * an opaque base64url string; the partition checks it belongs to the room it is used with.
+ */
+record HistoryCursor(long offset) {
+    private static final int LENGTH = Long.BYTES;
+
+    String encode() {
+        ByteBuffer bytes = ByteBuffer.allocate(LENGTH).putLong(offset);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+    }
+
+    static HistoryCursor decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+        if (bytes.length != LENGTH) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+        HistoryCursor decoded = new HistoryCursor(ByteBuffer.wrap(bytes).getLong());
+        if (decoded.offset < 0) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,339 @@
+package com.daypulse.chat_service.log;
+
+import com.daypulse.chat_service.exception.AppException;
+import com.daypulse.chat_service.exception.ErrorCode;
+import com.daypulse.chat_service.journal.ChatMessage;
+import com.daypulse.chat_service.util.MessageIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * The log of the rooms that hash to one partition: a directory of {@link LogSegment}s numbered by
+ * offset. Every record points back to the previous record of its room, and the partition keeps the
+ * newest offset of each room, so reading a room's history walks its own records only, however many
+ * other rooms share the partition.
+ * <p>
+ * When a segment is sealed, those newest offsets are written beside the next one as
+ * {@code <offset>.heads}, so startup reads that file and scans the active segment instead of the
+ * whole log.
+ * <p>
+ * Appends, deletes and swapping in compacted segments are serialized on the partition; reads take
+ * no lock and work on the segments as they were when the read started.
+ */
+@Slf4j
+final class LogPartition {
+    static final String HEADS_SUFFIX = ".heads";
+
+    // Creation times in a partition are out of order by at most this much: ids are taken by room
+    // actors running in parallel and appended by one writer
+    private static final long CLOCK_SLACK_MILLIS = 1000;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int indexIntervalBytes;
+    private final Map<String, Long> heads = new ConcurrentHashMap<>();
+    private volatile LogSegment[] segments;
+
+    private LogPartition(Path directory, int segmentBytes, int indexIntervalBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.indexIntervalBytes = indexIntervalBytes;
+    }
+
+    static LogPartition open(Path directory, int segmentBytes, int indexIntervalBytes) throws IOException {
+        Files.createDirectories(directory);
+        LogPartition partition = new LogPartition(directory, segmentBytes, indexIntervalBytes);
+        partition.recover();
+        return partition;
+    }
+
+    synchronized void append(ChatMessage message, byte[] payload) throws IOException {
+        byte[] roomId = message.roomId().getBytes(StandardCharsets.US_ASCII);
+        byte[] senderId = message.senderId().getBytes(StandardCharsets.US_ASCII);
+        if (senderId.length > MessageRecord.MAX_ID_LENGTH) {
+            throw new IllegalArgumentException("Sender id of " + senderId.length + " bytes");
+        }
+        int size = MessageRecord.sizeOf(roomId, senderId, payload.length);
+        LogSegment active = segments[segments.length - 1];
+        if (!active.hasRoomFor(size)) {
+            if (size > segmentBytes) {
+                throw new IllegalArgumentException("Message of " + size + " bytes exceeds chat.log.segment-bytes");
+            }
+            active = roll(active);
+        }
+        long offset = active.nextOffset();
+        active.append(heads.getOrDefault(message.roomId(), MessageRecord.NONE), message.id(),
+                message.createdAt().toEpochMilli(), roomId, senderId, payload);
+        // After the append, so a reader that sees the offset finds the record
+        heads.put(message.roomId(), offset);
+    }
+
+    synchronized void flush() {
+        segments[segments.length - 1].flush();
+    }
+
+    /**
+     * Seals the active segment, so the next start need not scan it.
+     */
+    synchronized void close() {
+        segments[segments.length - 1].seal();
+    }
+
+    /**
+     * Copies up to {@code limit} messages of {@code roomId} older than the message at offset
+     * {@code before} into {@code page}, newest first. Pass {@link MessageRecord#NONE} for the
+     * newest page. Returns the offset to pass as {@code before} for the next page, or
+     * {@link MessageRecord#NONE} after the oldest message.
+     */
+    long readPage(String roomId, long before, int limit, PageBuffer page) {
+        LogSegment[] current = segments;
+        long offset;
+        if (before == MessageRecord.NONE) {
+            offset = heads.getOrDefault(roomId, MessageRecord.NONE);
+        } else {
+            long location = locate(current, before);
+            if (location < 0 || !MessageRecord.roomEquals(segment(current, location).buffer(), position(location), roomId)) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+            offset = MessageRecord.previous(segment(current, location).buffer(), position(location));
+        }
+        int count = 0;
+        long last = MessageRecord.NONE;
+        while (offset != MessageRecord.NONE && count < limit) {
+            long location = locate(current, offset);
+            if (location < 0) {
+                break;
+            }
+            ByteBuffer buffer = segment(current, location).buffer();
+            int position = position(location);
+            if (!MessageRecord.isDeleted(buffer, position)) {
+                page.add(buffer, MessageRecord.payloadPosition(buffer, position), MessageRecord.payloadLength(buffer, position));
+                count++;
+                last = offset;
+            }
+            offset = MessageRecord.previous(buffer, position);
+        }
+        return count == limit && offset != MessageRecord.NONE ? last : MessageRecord.NONE;
+    }
+
+    /**
+     * Deletes message {@code messageId} of {@code roomId} if {@code userId} sent it.
+     */
+    synchronized void delete(String roomId, long messageId, String userId) {
+        LogSegment[] current = segments;
+        long timestamp = MessageIdGenerator.timestampOf(messageId);
+        for (LogSegment segment : current) {
+            if (segment.maxTimestamp() < timestamp - CLOCK_SLACK_MILLIS) {
+                continue;
+            }
+            ByteBuffer buffer = segment.buffer();
+            int end = segment.end();
+            for (int position = segment.positionBefore(timestamp - CLOCK_SLACK_MILLIS); position < end;
+                 position += MessageRecord.size(buffer, position)) {
+                if (MessageRecord.timestamp(buffer, position) > timestamp + CLOCK_SLACK_MILLIS) {
+                    throw new AppException(ErrorCode.MESSAGE_NOT_FOUND);
+                }
+                if (MessageRecord.id(buffer, position) != messageId) {
+                    continue;
+                }
+                if (!MessageRecord.roomEquals(buffer, position, roomId) || MessageRecord.isDeleted(buffer, position)) {
+                    throw new AppException(ErrorCode.MESSAGE_NOT_FOUND);
+                }
+                if (!MessageRecord.senderEquals(buffer, position, userId)) {
+                    throw new AppException(ErrorCode.UNAUTHORIZED);
+                }
+                segment.markDeleted(position);
+                return;
+            }
+        }
+        throw new AppException(ErrorCode.MESSAGE_NOT_FOUND);
+    }
+
+    /**
+     * Compacts every sealed segment in which deleted payloads make up at least
+     * {@code minDeletedRatio} of the bytes. Returns the bytes given back.
+     */
+    long compact(double minDeletedRatio) throws IOException {
+        long reclaimed = 0;
+        for (LogSegment segment : segments) {
+            if (!segment.isSealed() || segment.end() == 0) {
+                continue;
+            }
+            long deleted = segment.deletedBytes();
+            if (deleted == 0 || (double) deleted / segment.end() < minDeletedRatio) {
+                continue;
+            }
+            // Copied without the lock; deletes made meanwhile are carried over when swapping
+            LogSegment copy = segment.compactedCopy(directory);
+            synchronized (this) {
+                segment.replaceWith(copy, directory);
+                LogSegment[] replaced = segments.clone();
+                replaced[Arrays.asList(replaced).indexOf(segment)] = copy;
+                segments = replaced;
+            }
+            reclaimed += segment.end() - copy.end();
+        }
+        return reclaimed;
+    }
+
+    private LogSegment roll(LogSegment active) throws IOException {
+        active.seal();
+        long baseOffset = active.nextOffset();
+        writeHeads(baseOffset);
+        LogSegment next = LogSegment.create(directory, baseOffset, segmentBytes, indexIntervalBytes);
+        LogSegment[] rolled = Arrays.copyOf(segments, segments.length + 1);
+        rolled[rolled.length - 1] = next;
+        segments = rolled;
+        deleteHeadsBefore(baseOffset);
+        return next;
+    }
+
+    /**
+     * Finds the record at {@code offset}: the segment's number in the high half, its position in
+     * the low half, or -1.
+     */
+    private static long locate(LogSegment[] current, long offset) {
+        int low = 0;
+        int high = current.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (current[middle].baseOffset() <= offset) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        int position = current[low].position(offset);
+        return position < 0 ? -1 : (long) low << 32 | position;
+    }
+
+    private static LogSegment segment(LogSegment[] current, long location) {
+        return current[(int) (location >>> 32)];
+    }
+
+    private static int position(long location) {
+        return (int) location;
+    }
+
+    private void recover() throws IOException {
+        List<Long> baseOffsets = new ArrayList<>();
+        long headsOffset = -1;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(LogSegment.COMPACTING_SUFFIX)) {
+                    Files.delete(file);
+                } else if (name.endsWith(LogSegment.LOG_SUFFIX)) {
+                    baseOffsets.add(baseOffset(name, LogSegment.LOG_SUFFIX));
+                } else if (name.endsWith(HEADS_SUFFIX)) {
+                    headsOffset = Math.max(headsOffset, baseOffset(name, HEADS_SUFFIX));
+                }
+            }
+        }
+        baseOffsets.sort(null);
+        if (baseOffsets.isEmpty()) {
+            segments = new LogSegment[]{LogSegment.create(directory, 0, segmentBytes, indexIntervalBytes)};
+            return;
+        }
+        LogSegment[] opened = new LogSegment[baseOffsets.size()];
+        for (int i = 0; i < opened.length; i++) {
+            opened[i] = LogSegment.open(directory, baseOffsets.get(i), segmentBytes, indexIntervalBytes, i == opened.length - 1);
+        }
+        segments = opened;
+
+        int scanFrom = 0;
+        long keepHeadsFrom = Long.MAX_VALUE;
+        if (headsOffset >= 0 && baseOffsets.contains(headsOffset)) {
+            readHeads(headsOffset);
+            scanFrom = baseOffsets.indexOf(headsOffset);
+            keepHeadsFrom = headsOffset;
+        }
+        for (int i = scanFrom; i < opened.length; i++) {
+            ByteBuffer buffer = opened[i].buffer();
+            for (int position = 0; position < opened[i].end(); position += MessageRecord.size(buffer, position)) {
+                heads.put(MessageRecord.roomId(buffer, position), MessageRecord.offset(buffer, position));
+            }
+        }
+        deleteHeadsBefore(keepHeadsFrom);
+
+        LogSegment last = opened[opened.length - 1];
+        if (last.isRecovered()) {
+            // Appends go to a fresh file, so nothing left behind by the crash can follow them
+            if (last.end() == 0) {
+                segments[segments.length - 1] = LogSegment.create(directory, last.baseOffset(), segmentBytes, indexIntervalBytes);
+            } else {
+                roll(last);
+            }
+        }
+        log.info("Opened {} with {} segments and {} rooms, next offset {}", directory, segments.length, heads.size(),
+                segments[segments.length - 1].nextOffset());
+    }
+
+    private void writeHeads(long baseOffset) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(heads.size() * 48);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(heads.size());
+        for (Map.Entry<String, Long> head : heads.entrySet()) {
+            out.writeByte(head.getKey().length());
+            out.writeBytes(head.getKey());
+            out.writeLong(head.getValue());
+        }
+        Path file = directory.resolve(LogSegment.fileName(baseOffset, HEADS_SUFFIX));
+        Path temporary = directory.resolve(LogSegment.fileName(baseOffset, HEADS_SUFFIX + LogSegment.COMPACTING_SUFFIX));
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void readHeads(long baseOffset) throws IOException {
+        try (InputStream file = Files.newInputStream(directory.resolve(LogSegment.fileName(baseOffset, HEADS_SUFFIX)));
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                byte[] roomId = new byte[in.readUnsignedByte()];
+                in.readFully(roomId);
+                heads.put(new String(roomId, StandardCharsets.US_ASCII), in.readLong());
+            }
+        }
+    }
+
+    private void deleteHeadsBefore(long baseOffset) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(HEADS_SUFFIX) && baseOffset(name, HEADS_SUFFIX) < baseOffset) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private static long baseOffset(String fileName, String suffix) {
+        return Long.parseLong(fileName.substring(0, fileName.length() - suffix.length()));
+    }
+}
@@ -0,0 +1,383 @@
+package com.daypulse.chat_service.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One file of a partition's log, named after the offset of its first message, with a sparse
+ * index beside it. Both are memory-mapped; records are read and written in place.
+ * <p>
+ * The index holds an entry for the first record and then one every {@code indexIntervalBytes}:
+ * the record's offset relative to the segment, its position, and the highest creation time of
+ * any record up to it. Finding a record by offset or by time is a binary search over the entries
+ * followed by a short forward scan.
+ * <p>
+ * A segment takes appends until it is full and is then sealed: flushed, with its end written to
+ * the index header so it is not scanned again on startup. A clean shutdown seals the active
+ * segment too, and startup unseals it. Any other segment is recovered by scanning up to its last
+ * whole record, which also rebuilds its index; see {@link #isRecovered()}.
+ * <p>
+ * One thread appends; any number read. Readers stop at {@link #end()}, which is published after
+ * each record is written.
+ */
+final class LogSegment {
+    static final String LOG_SUFFIX = ".log";
+    static final String INDEX_SUFFIX = ".index";
+    static final String COMPACTING_SUFFIX = ".compacting";
+
+    // int end, int entries, long length of the log file when sealed, long highest creation time
+    private static final int INDEX_HEADER = 24;
+    // int relative offset, int position, long highest creation time so far
+    private static final int INDEX_ENTRY = 16;
+
+    private final long baseOffset;
+    private final int indexIntervalBytes;
+    private final MappedByteBuffer log;
+    private final MappedByteBuffer index;
+    private final int maxEntries;
+
+    private volatile int end;
+    private volatile int entries;
+    private volatile long maxTimestamp = Long.MIN_VALUE;
+    private volatile boolean sealed;
+    private boolean recovered;
+    private long nextOffset;
+    private int lastIndexedPosition;
+    private int flushedEnd;
+
+    private LogSegment(long baseOffset, int indexIntervalBytes, MappedByteBuffer log, MappedByteBuffer index) {
+        this.baseOffset = baseOffset;
+        this.indexIntervalBytes = indexIntervalBytes;
+        this.log = log;
+        this.index = index;
+        this.maxEntries = (index.capacity() - INDEX_HEADER) / INDEX_ENTRY;
+        this.nextOffset = baseOffset;
+    }
+
+    static String fileName(long baseOffset, String suffix) {
+        return String.format("%020d%s", baseOffset, suffix);
+    }
+
+    /**
+     * Creates an empty segment of {@code capacity} bytes. The files are sparse until written.
+     */
+    static LogSegment create(Path directory, long baseOffset, int capacity, int indexIntervalBytes) throws IOException {
+        Path logFile = directory.resolve(fileName(baseOffset, LOG_SUFFIX));
+        Path indexFile = directory.resolve(fileName(baseOffset, INDEX_SUFFIX));
+        Files.deleteIfExists(logFile);
+        Files.deleteIfExists(indexFile);
+        return new LogSegment(baseOffset, indexIntervalBytes,
+                map(logFile, capacity), map(indexFile, indexCapacity(capacity, indexIntervalBytes)));
+    }
+
+    /**
+     * Opens an existing segment. A sealed one whose index header matches the log is trusted, and
+     * unsealed if it is to be {@code active}; any other is scanned up to its last whole record.
+     */
+    static LogSegment open(Path directory, long baseOffset, int capacity, int indexIntervalBytes, boolean active)
+            throws IOException {
+        Path logFile = directory.resolve(fileName(baseOffset, LOG_SUFFIX));
+        Path indexFile = directory.resolve(fileName(baseOffset, INDEX_SUFFIX));
+        long length = Files.size(logFile);
+        int logCapacity = active ? Math.max(capacity, Math.toIntExact(length)) : Math.toIntExact(length);
+        LogSegment segment = new LogSegment(baseOffset, indexIntervalBytes,
+                map(logFile, logCapacity), map(indexFile, indexCapacity(logCapacity, indexIntervalBytes)));
+        if (segment.loadSealed(length)) {
+            if (active) {
+                segment.unseal();
+            }
+            return segment;
+        }
+        segment.recover();
+        if (!active) {
+            segment.seal();
+        }
+        return segment;
+    }
+
+    long baseOffset() {
+        return baseOffset;
+    }
+
+    int end() {
+        return end;
+    }
+
+    long nextOffset() {
+        return nextOffset;
+    }
+
+    long maxTimestamp() {
+        return maxTimestamp;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    /**
+     * Whether the segment was not closed cleanly. Past its last whole record it may hold parts of
+     * records that never reached disk in full, so it should not take more appends.
+     */
+    boolean isRecovered() {
+        return recovered;
+    }
+
+    ByteBuffer buffer() {
+        return log;
+    }
+
+    boolean hasRoomFor(int recordSize) {
+        return end + recordSize <= log.capacity();
+    }
+
+    void append(long previous, long id, long timestamp, byte[] roomId, byte[] senderId, byte[] payload) {
+        int position = end;
+        long offset = nextOffset;
+        MessageRecord.write(log, position, offset, previous, id, timestamp, roomId, senderId, payload);
+        long highest = Math.max(maxTimestamp, timestamp);
+        if (entries == 0 || position - lastIndexedPosition >= indexIntervalBytes) {
+            addIndexEntry(offset, position, highest);
+        }
+        nextOffset = offset + 1;
+        maxTimestamp = highest;
+        end = position + MessageRecord.size(log, position);
+    }
+
+    /**
+     * Position of the record with {@code offset}, or -1 if this segment does not hold it.
+     */
+    int position(long offset) {
+        int limit = end;
+        int count = entries;
+        if (offset < baseOffset || count == 0) {
+            return -1;
+        }
+        long relative = offset - baseOffset;
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (index.getInt(entry(middle)) <= relative) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        int position = index.getInt(entry(low) + Integer.BYTES);
+        while (position < limit) {
+            long found = MessageRecord.offset(log, position);
+            if (found == offset) {
+                return position;
+            }
+            if (found > offset) {
+                return -1;
+            }
+            position += MessageRecord.size(log, position);
+        }
+        return -1;
+    }
+
+    /**
+     * A position before which every record was created before {@code timestamp}.
+     */
+    int positionBefore(long timestamp) {
+        int count = entries;
+        int low = -1;
+        int high = count - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (index.getLong(entry(middle) + 2 * Integer.BYTES) < timestamp) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low < 0 ? 0 : index.getInt(entry(low) + Integer.BYTES);
+    }
+
+    /**
+     * Marks the record at {@code position} deleted and flushes the flag.
+     */
+    void markDeleted(int position) {
+        MessageRecord.markDeleted(log, position);
+        log.force(MessageRecord.flagsPosition(position), 1);
+    }
+
+    /**
+     * Forces the records appended since the last flush to disk.
+     */
+    void flush() {
+        int limit = end;
+        if (limit > flushedEnd) {
+            log.force(flushedEnd, limit - flushedEnd);
+            flushedEnd = limit;
+        }
+    }
+
+    /**
+     * Flushes the segment and records its end, after which it takes no more appends.
+     */
+    void seal() {
+        log.force(0, end);
+        flushedEnd = end;
+        index.putInt(0, end)
+                .putInt(Integer.BYTES, entries)
+                .putLong(2 * Integer.BYTES, log.capacity())
+                .putLong(2 * Integer.BYTES + Long.BYTES, maxTimestamp);
+        index.force();
+        sealed = true;
+    }
+
+    /**
+     * Payload bytes held by deleted records, which compaction would give back.
+     */
+    long deletedBytes() {
+        long deleted = 0;
+        for (int position = 0; position < end; position += MessageRecord.size(log, position)) {
+            if (MessageRecord.isDeleted(log, position)) {
+                deleted += MessageRecord.payloadLength(log, position);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Writes a sealed copy of this segment with deleted records cut down to stubs, under names
+     * ending in {@link #COMPACTING_SUFFIX}. {@link #replaceWith} puts it in place.
+     */
+    LogSegment compactedCopy(Path directory) throws IOException {
+        int limit = end;
+        int size = Math.toIntExact(limit - deletedBytes());
+        Path logFile = directory.resolve(fileName(baseOffset, LOG_SUFFIX + COMPACTING_SUFFIX));
+        Path indexFile = directory.resolve(fileName(baseOffset, INDEX_SUFFIX + COMPACTING_SUFFIX));
+        Files.deleteIfExists(logFile);
+        Files.deleteIfExists(indexFile);
+        LogSegment copy = new LogSegment(baseOffset, indexIntervalBytes,
+                map(logFile, size), map(indexFile, indexCapacity(size, indexIntervalBytes)));
+        long highest = Long.MIN_VALUE;
+        int target = 0;
+        for (int position = 0; position < limit; position += MessageRecord.size(log, position)) {
+            long offset = MessageRecord.offset(log, position);
+            highest = Math.max(highest, MessageRecord.timestamp(log, position));
+            if (copy.entries == 0 || target - copy.lastIndexedPosition >= indexIntervalBytes) {
+                copy.addIndexEntry(offset, target, highest);
+            }
+            if (MessageRecord.isDeleted(log, position)) {
+                target += MessageRecord.writeStub(log, position, copy.log, target);
+            } else {
+                int recordSize = MessageRecord.size(log, position);
+                copy.log.put(target, log, position, recordSize);
+                target += recordSize;
+            }
+            copy.nextOffset = offset + 1;
+        }
+        copy.maxTimestamp = highest;
+        copy.end = target;
+        copy.seal();
+        return copy;
+    }
+
+    /**
+     * Carries deletes made since {@code copy} was taken over to it and renames its files over
+     * this segment's. Call with appends and deletes excluded.
+     */
+    void replaceWith(LogSegment copy, Path directory) throws IOException {
+        int source = 0;
+        int target = 0;
+        while (target < copy.end) {
+            if (MessageRecord.isDeleted(log, source) && !MessageRecord.isDeleted(copy.log, target)) {
+                copy.markDeleted(target);
+            }
+            source += MessageRecord.size(log, source);
+            target += MessageRecord.size(copy.log, target);
+        }
+        // The index goes first: a log left without its index is detected by the length check
+        move(directory, INDEX_SUFFIX);
+        move(directory, LOG_SUFFIX);
+    }
+
+    private void move(Path directory, String suffix) throws IOException {
+        Files.move(directory.resolve(fileName(baseOffset, suffix + COMPACTING_SUFFIX)),
+                directory.resolve(fileName(baseOffset, suffix)),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private boolean loadSealed(long length) {
+        int sealedEnd = index.getInt(0);
+        int sealedEntries = index.getInt(Integer.BYTES);
+        if (sealedEnd < 0 || sealedEnd > log.capacity() || sealedEntries > maxEntries
+                || index.getLong(2 * Integer.BYTES) != length) {
+            return false;
+        }
+        end = sealedEnd;
+        entries = sealedEntries;
+        maxTimestamp = index.getLong(2 * Integer.BYTES + Long.BYTES);
+        flushedEnd = sealedEnd;
+        sealed = true;
+        int last = entries - 1;
+        lastIndexedPosition = last < 0 ? 0 : index.getInt(entry(last) + Integer.BYTES);
+        int position = lastIndexedPosition;
+        while (position < end) {
+            nextOffset = MessageRecord.offset(log, position) + 1;
+            position += MessageRecord.size(log, position);
+        }
+        return true;
+    }
+
+    private void unseal() {
+        // Flushed before any append, so a crash cannot leave the header vouching for an old end
+        index.putInt(0, 0).putLong(2 * Integer.BYTES, 0);
+        index.force(0, INDEX_HEADER);
+        sealed = false;
+    }
+
+    private void recover() {
+        recovered = true;
+        entries = 0;
+        int position = 0;
+        long highest = Long.MIN_VALUE;
+        while (MessageRecord.isValid(log, position, log.capacity()) && MessageRecord.offset(log, position) >= nextOffset) {
+            long offset = MessageRecord.offset(log, position);
+            highest = Math.max(highest, MessageRecord.timestamp(log, position));
+            if (entries == 0 || position - lastIndexedPosition >= indexIntervalBytes) {
+                addIndexEntry(offset, position, highest);
+            }
+            nextOffset = offset + 1;
+            position += MessageRecord.size(log, position);
+        }
+        maxTimestamp = highest;
+        end = position;
+        flushedEnd = position;
+    }
+
+    private void addIndexEntry(long offset, int position, long timestamp) {
+        int slot = entry(entries);
+        index.putInt(slot, Math.toIntExact(offset - baseOffset))
+                .putInt(slot + Integer.BYTES, position)
+                .putLong(slot + 2 * Integer.BYTES, timestamp);
+        lastIndexedPosition = position;
+        entries = entries + 1;
+    }
+
+    private static int entry(int number) {
+        return INDEX_HEADER + number * INDEX_ENTRY;
+    }
+
+    private static int indexCapacity(int logCapacity, int indexIntervalBytes) {
+        return INDEX_HEADER + (logCapacity / indexIntervalBytes + 2) * INDEX_ENTRY;
+    }
+
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+}
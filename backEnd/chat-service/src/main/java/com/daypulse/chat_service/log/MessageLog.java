@@ -0,0 +1,141 @@
+package com.daypulse.chat_service.log;
+
+import com.daypulse.chat_service.journal.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Chat history as an append-only log under {@code chat.log.directory}, split into
+ * {@code chat.log.partitions} {@link LogPartition}s by the hash of the room id. Messages are
+ * stored as the JSON the history endpoint returns, so a page is assembled by copying bytes out of
+ * the mapped segments.
+ * <p>
+ * Only {@link com.daypulse.chat_service.journal.MessageJournal} appends. Deleting marks the
+ * message in place; sealed segments whose deleted payloads reach
+ * {@code chat.log.compaction.min-deleted-ratio} are rewritten without them every
+ * {@code chat.log.compaction.interval}.
+ * <p>
+ * The number of partitions cannot change once messages are stored, since rooms would move.
+ */
+@Slf4j
+@Component
+public class MessageLog {
+    private static final String PARTITION_PREFIX = "partition-";
+
+    private final ObjectMapper objectMapper;
+    private final LogPartition[] partitions;
+    private final boolean[] unflushed;
+    private final double minDeletedRatio;
+
+    public MessageLog(ObjectMapper objectMapper,
+                      @Value("${chat.log.directory}") Path directory,
+                      @Value("${chat.log.partitions}") int partitions,
+                      @Value("${chat.log.segment-bytes}") int segmentBytes,
+                      @Value("${chat.log.index-interval-bytes}") int indexIntervalBytes,
+                      @Value("${chat.log.compaction.min-deleted-ratio}") double minDeletedRatio) throws IOException {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("chat.log.partitions must be at least 1");
+        }
+        if (segmentBytes < 1 << 20 || indexIntervalBytes < 1) {
+            throw new IllegalArgumentException("chat.log.segment-bytes must be at least 1MB and the index interval positive");
+        }
+        this.objectMapper = objectMapper;
+        this.minDeletedRatio = minDeletedRatio;
+        Files.createDirectories(directory);
+        long existing;
+        try (Stream<Path> files = Files.list(directory)) {
+            existing = files.filter(file -> file.getFileName().toString().startsWith(PARTITION_PREFIX)).count();
+        }
+        if (existing != 0 && existing != partitions) {
+            throw new IllegalStateException(directory + " holds " + existing + " partitions but chat.log.partitions is "
+                    + partitions);
+        }
+        this.partitions = new LogPartition[partitions];
+        for (int index = 0; index < partitions; index++) {
+            this.partitions[index] = LogPartition.open(directory.resolve(String.format("%s%03d", PARTITION_PREFIX, index)),
+                    segmentBytes, indexIntervalBytes);
+        }
+        this.unflushed = new boolean[partitions];
+        log.info("Chat history log at {} with {} partitions", directory.toAbsolutePath(), partitions);
+    }
+
+    /**
+     * Appends a message. It is durable after the next {@link #flush()}. Journal thread only.
+     */
+    public void append(ChatMessage message) {
+        int index = partition(message.roomId());
+        try {
+            partitions[index].append(message, objectMapper.writeValueAsBytes(message.toResponse()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        unflushed[index] = true;
+    }
+
+    /**
+     * Forces the messages appended since the last flush to disk. Journal thread only.
+     */
+    public void flush() {
+        for (int index = 0; index < partitions.length; index++) {
+            if (unflushed[index]) {
+                partitions[index].flush();
+                unflushed[index] = false;
+            }
+        }
+    }
+
+    /**
+     * Copies up to {@code limit} messages of {@code roomId} older than the cursor {@code before}
+     * into {@code page}, newest first, and returns the cursor of the next page or null. May fault
+     * pages in from disk; call it off the event loop.
+     */
+    public String readPage(String roomId, String before, int limit, PageBuffer page) {
+        long offset = before == null ? MessageRecord.NONE : HistoryCursor.decode(before).offset();
+        long next = partitions[partition(roomId)].readPage(roomId, offset, limit, page);
+        return next == MessageRecord.NONE ? null : new HistoryCursor(next).encode();
+    }
+
+    /**
+     * Deletes a message sent by {@code userId}. Its bytes stay on disk until the segment is compacted.
+     */
+    public void delete(String roomId, long messageId, String userId) {
+        partitions[partition(roomId)].delete(roomId, messageId, userId);
+    }
+
+    @Scheduled(initialDelayString = "${chat.log.compaction.interval}", fixedDelayString = "${chat.log.compaction.interval}")
+    public void compact() {
+        long reclaimed = 0;
+        for (LogPartition partition : partitions) {
+            try {
+                reclaimed += partition.compact(minDeletedRatio);
+            } catch (IOException e) {
+                log.warn("Compacting chat history failed: {}", e.getMessage());
+            }
+        }
+        if (reclaimed > 0) {
+            log.info("Compaction gave back {} bytes of deleted chat messages", reclaimed);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (LogPartition partition : partitions) {
+            partition.close();
+        }
+    }
+
+    private int partition(String roomId) {
+        int hash = roomId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), partitions.length);
+    }
+}
@@ -0,0 +1,175 @@
+package com.daypulse.chat_service.log;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * Layout of one message in a segment, read and written in place with absolute accessors:
+ * <pre>
+ *  0 int   size of the record in bytes
+ *  4 int   CRC32C of bytes 9 to size; the flags are left out so a delete does not rewrite it
+ *  8 byte  flags, {@link #DELETED} once the message is deleted
+ *  9 long  offset, the message's sequence number in its partition
+ * 17 long  offset of the previous message of the same room, or {@link #NONE}
+ * 25 long  message id
+ * 33 long  creation time in epoch millis
+ * 41 byte  room id length
+ * 42 byte  sender id length
+ * 43 int   payload length
+ * 47       room id and sender id in ASCII, then the payload: the message as JSON
+ * </pre>
+ * Compaction turns deleted records into stubs without a payload, which keeps the room's chain of
+ * previous offsets intact.
+ */
+final class MessageRecord {
+    static final long NONE = -1;
+    static final byte DELETED = 1;
+    static final int MAX_ID_LENGTH = 255;
+
+    private static final int SIZE = 0;
+    private static final int CRC = 4;
+    private static final int FLAGS = 8;
+    private static final int OFFSET = 9;
+    private static final int PREVIOUS = 17;
+    private static final int ID = 25;
+    private static final int TIMESTAMP = 33;
+    private static final int ROOM_LENGTH = 41;
+    private static final int SENDER_LENGTH = 42;
+    private static final int PAYLOAD_LENGTH = 43;
+    static final int HEADER = 47;
+
+    private MessageRecord() {
+    }
+
+    static int sizeOf(byte[] roomId, byte[] senderId, int payloadLength) {
+        return HEADER + roomId.length + senderId.length + payloadLength;
+    }
+
+    static void write(ByteBuffer buffer, int position, long offset, long previous, long id, long timestamp,
+                      byte[] roomId, byte[] senderId, byte[] payload) {
+        int size = sizeOf(roomId, senderId, payload.length);
+        buffer.putInt(position + SIZE, size)
+                .put(position + FLAGS, (byte) 0)
+                .putLong(position + OFFSET, offset)
+                .putLong(position + PREVIOUS, previous)
+                .putLong(position + ID, id)
+                .putLong(position + TIMESTAMP, timestamp)
+                .put(position + ROOM_LENGTH, (byte) roomId.length)
+                .put(position + SENDER_LENGTH, (byte) senderId.length)
+                .putInt(position + PAYLOAD_LENGTH, payload.length)
+                .put(position + HEADER, roomId)
+                .put(position + HEADER + roomId.length, senderId)
+                .put(position + HEADER + roomId.length + senderId.length, payload);
+        buffer.putInt(position + CRC, checksum(buffer, position, size));
+    }
+
+    /**
+     * Copies the record at {@code position} without its payload, marked deleted.
+     */
+    static int writeStub(ByteBuffer source, int position, ByteBuffer target, int targetPosition) {
+        int size = HEADER + roomLength(source, position) + senderLength(source, position);
+        target.put(targetPosition, source, position, size)
+                .put(targetPosition + FLAGS, DELETED)
+                .putInt(targetPosition + SIZE, size)
+                .putInt(targetPosition + PAYLOAD_LENGTH, 0);
+        target.putInt(targetPosition + CRC, checksum(target, targetPosition, size));
+        return size;
+    }
+
+    /**
+     * Whether a whole, undamaged record starts at {@code position}. Recovery stops at the first
+     * position where this is false.
+     */
+    static boolean isValid(ByteBuffer buffer, int position, int limit) {
+        if (position + HEADER > limit) {
+            return false;
+        }
+        int size = size(buffer, position);
+        if (size < HEADER || size > limit - position) {
+            return false;
+        }
+        int lengths = HEADER + roomLength(buffer, position) + senderLength(buffer, position) + payloadLength(buffer, position);
+        return lengths == size && buffer.getInt(position + CRC) == checksum(buffer, position, size);
+    }
+
+    static int size(ByteBuffer buffer, int position) {
+        return buffer.getInt(position + SIZE);
+    }
+
+    static boolean isDeleted(ByteBuffer buffer, int position) {
+        return (buffer.get(position + FLAGS) & DELETED) != 0;
+    }
+
+    static void markDeleted(ByteBuffer buffer, int position) {
+        buffer.put(position + FLAGS, (byte) (buffer.get(position + FLAGS) | DELETED));
+    }
+
+    static int flagsPosition(int position) {
+        return position + FLAGS;
+    }
+
+    static long offset(ByteBuffer buffer, int position) {
+        return buffer.getLong(position + OFFSET);
+    }
+
+    static long previous(ByteBuffer buffer, int position) {
+        return buffer.getLong(position + PREVIOUS);
+    }
+
+    static long id(ByteBuffer buffer, int position) {
+        return buffer.getLong(position + ID);
+    }
+
+    static long timestamp(ByteBuffer buffer, int position) {
+        return buffer.getLong(position + TIMESTAMP);
+    }
+
+    static int payloadPosition(ByteBuffer buffer, int position) {
+        return position + HEADER + roomLength(buffer, position) + senderLength(buffer, position);
+    }
+
+    static int payloadLength(ByteBuffer buffer, int position) {
+        return buffer.getInt(position + PAYLOAD_LENGTH);
+    }
+
+    static boolean roomEquals(ByteBuffer buffer, int position, String roomId) {
+        return asciiEquals(buffer, position + HEADER, roomLength(buffer, position), roomId);
+    }
+
+    static boolean senderEquals(ByteBuffer buffer, int position, String senderId) {
+        return asciiEquals(buffer, position + HEADER + roomLength(buffer, position), senderLength(buffer, position), senderId);
+    }
+
+    static String roomId(ByteBuffer buffer, int position) {
+        byte[] roomId = new byte[roomLength(buffer, position)];
+        buffer.get(position + HEADER, roomId);
+        return new String(roomId, StandardCharsets.US_ASCII);
+    }
+
+    private static int roomLength(ByteBuffer buffer, int position) {
+        return Byte.toUnsignedInt(buffer.get(position + ROOM_LENGTH));
+    }
+
+    private static int senderLength(ByteBuffer buffer, int position) {
+        return Byte.toUnsignedInt(buffer.get(position + SENDER_LENGTH));
+    }
+
+    private static boolean asciiEquals(ByteBuffer buffer, int position, int length, String value) {
+        if (length != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(position + i) != (byte) value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int checksum(ByteBuffer buffer, int position, int size) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position + OFFSET, size - OFFSET));
+        return (int) crc.getValue();
+    }
+}
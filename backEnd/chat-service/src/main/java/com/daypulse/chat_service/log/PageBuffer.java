@@ -0,0 +1,41 @@
+package com.daypulse.chat_service.log;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Collects stored messages into a JSON array by copying their payloads straight out of the
+ * mapped segments, so a page costs one buffer however many messages it holds.
+ */
+public class PageBuffer {
+    private byte[] bytes;
+    private int length;
+
+    public PageBuffer(int initialCapacity) {
+        this.bytes = new byte[Math.max(initialCapacity, 2)];
+        this.bytes[0] = '[';
+        this.length = 1;
+    }
+
+    void add(ByteBuffer source, int position, int payloadLength) {
+        ensureCapacity(payloadLength + 2);
+        if (length > 1) {
+            bytes[length++] = ',';
+        }
+        source.get(position, bytes, length, payloadLength);
+        length += payloadLength;
+    }
+
+    public String toJson() {
+        ensureCapacity(1);
+        bytes[length] = ']';
+        return new String(bytes, 0, length + 1, StandardCharsets.UTF_8);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.daypulse.chat_service.reminder;
+
+import com.daypulse.chat_service.dto.response.ReminderResponse;
+import com.daypulse.chat_service.room.RoomIds;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Set;
+
+/**
+ * A reminder set in a room. A once reminder fires at {@code fireAt}; a daily one every day at
+ * {@code timeOfDay} in {@code zone}. Times are epoch millis; {@code nextFireAt} is null when it
+ * will not fire again.
+ */
+public record Reminder(long id, String roomId, String createdBy, String content, ReminderType type,
+                       ReminderTarget target, Long fireAt, LocalTime timeOfDay, ZoneId zone, boolean enabled,
+                       Long nextFireAt, Long lastFiredAt) {
+
+    /**
+     * The first occurrence after {@code after}, or null if there is none.
+     */
+    public Long nextOccurrence(long after) {
+        if (type == ReminderType.ONCE) {
+            return fireAt > after ? fireAt : null;
+        }
+        LocalDate day = Instant.ofEpochMilli(after).atZone(zone).toLocalDate();
+        // A time skipped by a daylight saving change fires just after the change
+        long next = ZonedDateTime.of(day, timeOfDay, zone).toInstant().toEpochMilli();
+        return next > after ? next : ZonedDateTime.of(day.plusDays(1), timeOfDay, zone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * This reminder after its occurrence at {@code at} has fired.
+     */
+    public Reminder fired(long at, Long next) {
+        return new Reminder(id, roomId, createdBy, content, type, target, fireAt, timeOfDay, zone, enabled, next, at);
+    }
+
+    /**
+     * The users the reminder is delivered to.
+     */
+    public Set<String> recipients() {
+        return switch (target) {
+            case SELF -> Set.of(createdBy);
+            case PARTNER -> Set.of(RoomIds.partnerOf(roomId, createdBy));
+            case BOTH -> Set.of(createdBy, RoomIds.partnerOf(roomId, createdBy));
+        };
+    }
+
+    public ReminderResponse toResponse() {
+        return ReminderResponse.builder()
+                .id(String.valueOf(id))
+                .roomId(roomId)
+                .createdBy(createdBy)
+                .content(content)
+                .type(type.wireName())
+                .target(target.wireName())
+                .time(type == ReminderType.ONCE ? Instant.ofEpochMilli(fireAt).toString() : timeOfDay.toString())
+                .zone(zone == null ? null : zone.getId())
+                .enabled(enabled)
+                .nextFireAt(nextFireAt == null ? null : Instant.ofEpochMilli(nextFireAt))
+                .lastFiredAt(lastFiredAt == null ? null : Instant.ofEpochMilli(lastFiredAt))
+                .build();
+    }
+}
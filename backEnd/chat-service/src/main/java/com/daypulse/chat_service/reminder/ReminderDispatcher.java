@@ -0,0 +1,160 @@
+package com.daypulse.chat_service.reminder;
+
+import com.daypulse.chat_service.repository.ReminderRepository;
+import com.daypulse.chat_service.room.RoomShards;
+import com.daypulse.chat_service.socket.ChatEvents;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fires the reminders the {@link ReminderScheduler} finds due, on a thread of its own and in
+ * batches of up to {@code chat.reminders.fire-batch-size}. Each occurrence is first claimed: one
+ * statement moves the reminder to its next occurrence on condition that the due one is still
+ * next. That update is the durable fire marker, so an occurrence fires once however often it was
+ * scheduled, and is not fired again after a restart. The same transaction records the occurrence
+ * as pending for each recipient, and it is pushed to those in the room once the claim is
+ * committed. Recipients who were not connected, or who missed the push because the service
+ * stopped first, get it when they next join the room, until they acknowledge it.
+ * <p>
+ * A batch that fails for any reason is retried after {@code chat.reminders.retry-delay}.
+ */
+@Slf4j
+final class ReminderDispatcher {
+
+    /**
+     * Schedules the next occurrence of a reminder that was fired.
+     */
+    interface Rescheduler {
+        void schedule(long id, long due);
+    }
+
+    private record Due(long id, long at) {
+    }
+
+    private final ReminderRepository reminderRepository;
+    private final RoomShards roomShards;
+    private final ChatEvents events;
+    private final Rescheduler rescheduler;
+    private final int batchSize;
+    private final Duration retryDelay;
+    private final Queue<Due> queue = new ConcurrentLinkedQueue<>();
+    private final Counter fired;
+
+    private volatile boolean running;
+    private volatile boolean sleeping;
+    private volatile Thread thread;
+
+    ReminderDispatcher(ReminderRepository reminderRepository, RoomShards roomShards, ChatEvents events,
+                       MeterRegistry meterRegistry, Rescheduler rescheduler, int batchSize, Duration retryDelay) {
+        this.reminderRepository = reminderRepository;
+        this.roomShards = roomShards;
+        this.events = events;
+        this.rescheduler = rescheduler;
+        this.batchSize = batchSize;
+        this.retryDelay = retryDelay;
+        this.fired = Counter.builder("chat.reminders.fired")
+                .description("Reminder occurrences fired")
+                .register(meterRegistry);
+    }
+
+    void start() {
+        running = true;
+        thread = Thread.ofPlatform().daemon().name("chat-reminder-fire").start(this::run);
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+            current.join(retryDelay.toMillis() * 3);
+        }
+    }
+
+    void offer(long id, long due) {
+        queue.offer(new Due(id, due));
+        if (sleeping) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        List<Due> batch = new ArrayList<>(batchSize);
+        while (running) {
+            Due due;
+            while (batch.size() < batchSize && (due = queue.poll()) != null) {
+                batch.add(due);
+            }
+            if (batch.isEmpty()) {
+                sleeping = true;
+                // Rechecked after publishing the flag, so an offer in between is not missed
+                if (running && queue.isEmpty()) {
+                    LockSupport.park(this);
+                }
+                sleeping = false;
+                continue;
+            }
+            try {
+                fire(batch);
+            } catch (RuntimeException e) {
+                // A batch whose claim committed is not fired twice: its retry no longer matches nextFireAt
+                log.warn("Firing {} reminders failed, retrying in {}: {}", batch.size(), retryDelay, e.getMessage());
+                sleep(retryDelay);
+                continue;
+            }
+            batch.clear();
+        }
+    }
+
+    private void fire(List<Due> batch) {
+        Map<Long, Reminder> reminders = new HashMap<>(batch.size() * 2);
+        for (Reminder reminder : reminderRepository.findAllById(batch.stream().map(Due::id).distinct().toList())) {
+            reminders.put(reminder.id(), reminder);
+        }
+        long now = System.currentTimeMillis();
+        List<ReminderRepository.Claim> claims = new ArrayList<>(batch.size());
+        for (Due due : batch) {
+            Reminder reminder = reminders.get(due.id());
+            // Gone, changed or already fired since it was scheduled
+            if (reminder == null || reminder.nextFireAt() == null || reminder.nextFireAt() != due.at()) {
+                continue;
+            }
+            // Occurrences missed while the service was down are fired once, not caught up
+            claims.add(new ReminderRepository.Claim(reminder, due.at(), reminder.nextOccurrence(Math.max(due.at(), now))));
+        }
+        if (claims.isEmpty()) {
+            return;
+        }
+        boolean[] claimed = reminderRepository.claim(claims);
+        for (int i = 0; i < claims.size(); i++) {
+            if (!claimed[i]) {
+                continue;
+            }
+            ReminderRepository.Claim claim = claims.get(i);
+            Reminder reminder = claim.reminder().fired(claim.due(), claim.next());
+            roomShards.remind(reminder.roomId(), reminder.recipients(), events.reminder(reminder));
+            fired.increment();
+            if (claim.next() != null) {
+                rescheduler.schedule(reminder.id(), claim.next());
+            }
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.daypulse.chat_service.reminder;
+
+import com.daypulse.chat_service.repository.ReminderRepository;
+import com.daypulse.chat_service.room.RoomShards;
+import com.daypulse.chat_service.socket.ChatEvents;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Keeps the reminders due within {@code chat.reminders.horizon} in a {@link TimingWheel} and
+ * hands them to a {@link ReminderDispatcher} the millisecond they are due. The wheel has a thread
+ * of its own that sleeps until its next deadline.
+ * <p>
+ * Reminders further out stay in the database. Every {@code chat.reminders.refill-interval} the
+ * next slice of the horizon is read, starting where the previous read stopped; the first read
+ * also picks up everything that fell due while the service was down. A reminder created or moved
+ * to a time inside the horizon is scheduled directly, since a read that has already passed that
+ * time will not see it. The same reminder may end up in the wheel twice, or stay there after it
+ * was changed or deleted: the dispatcher only fires an occurrence it can claim in the database.
+ */
+@Slf4j
+@Component
+public class ReminderScheduler {
+    // Daily reminders are rescheduled by the refill, which needs their next occurrence beyond the horizon
+    private static final Duration MAX_HORIZON = Duration.ofHours(12);
+
+    private final ReminderRepository reminderRepository;
+    private final ReminderDispatcher dispatcher;
+    private final long horizonMillis;
+    private final int loadBatchSize;
+    private final TimingWheel wheel = new TimingWheel(System.currentTimeMillis());
+    // Pairs of reminder id and due time, for the wheel thread to add
+    private final Queue<long[]> incoming = new ConcurrentLinkedQueue<>();
+    private final TimingWheel.Expiry expired;
+    private final TimingWheel.Expiry overdue;
+
+    // Reminders due before this have been read; refill thread only
+    private long loadedUntil = Long.MIN_VALUE;
+    private volatile int scheduled;
+    private volatile boolean running;
+    private volatile boolean sleeping;
+    private volatile Thread thread;
+
+    public ReminderScheduler(ReminderRepository reminderRepository,
+                             RoomShards roomShards,
+                             ChatEvents events,
+                             MeterRegistry meterRegistry,
+                             @Value("${chat.reminders.horizon}") Duration horizon,
+                             @Value("${chat.reminders.refill-interval}") Duration refillInterval,
+                             @Value("${chat.reminders.load-batch-size}") int loadBatchSize,
+                             @Value("${chat.reminders.fire-batch-size}") int fireBatchSize,
+                             @Value("${chat.reminders.retry-delay}") Duration retryDelay) {
+        if (horizon.compareTo(MAX_HORIZON) > 0 || refillInterval.compareTo(horizon) >= 0) {
+            throw new IllegalArgumentException("chat.reminders.horizon must be at most " + MAX_HORIZON
+                    + " and longer than chat.reminders.refill-interval");
+        }
+        this.reminderRepository = reminderRepository;
+        this.horizonMillis = horizon.toMillis();
+        this.loadBatchSize = loadBatchSize;
+        this.dispatcher = new ReminderDispatcher(reminderRepository, roomShards, events, meterRegistry, this::schedule,
+                fireBatchSize, retryDelay);
+        Timer lateness = Timer.builder("chat.reminders.lateness")
+                .description("Time from a reminder's due time to the wheel handing it over")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+        this.expired = (id, deadline) -> {
+            lateness.record(Math.max(0, System.currentTimeMillis() - deadline), TimeUnit.MILLISECONDS);
+            dispatcher.offer(id, deadline);
+        };
+        // Added when already due, mostly missed while the service was down; not counted as late firing
+        this.overdue = dispatcher::offer;
+        Gauge.builder("chat.reminders.scheduled", this, scheduler -> scheduler.scheduled)
+                .description("Reminders held in the timing wheel")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        dispatcher.start();
+        thread = Thread.ofPlatform().daemon().name("chat-reminder-wheel").start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+            current.join(1000);
+        }
+        dispatcher.stop();
+    }
+
+    /**
+     * Schedules an occurrence of a reminder that was just stored. Occurrences beyond the horizon
+     * are left to the refill.
+     */
+    public void schedule(long id, long due) {
+        if (due < System.currentTimeMillis() + horizonMillis) {
+            add(new long[]{id, due});
+        }
+    }
+
+    /**
+     * Reads the reminders that fall due in the next slice of the horizon into the wheel.
+     */
+    @Scheduled(fixedDelayString = "${chat.reminders.refill-interval}")
+    public void refill() {
+        // Taken before reading, so a reminder stored after the read began is within schedule()'s reach
+        long until = System.currentTimeMillis() + horizonMillis;
+        long afterAt = loadedUntil;
+        long afterId = Long.MIN_VALUE;
+        long loaded = 0;
+        try {
+            long[] due;
+            do {
+                due = reminderRepository.findDue(afterAt, afterId, until, loadBatchSize);
+                if (due.length > 0) {
+                    add(due);
+                    afterId = due[due.length - 2];
+                    afterAt = due[due.length - 1];
+                    loaded += due.length / 2;
+                }
+            } while (due.length == loadBatchSize * 2);
+        } catch (DataAccessException e) {
+            // Read again from the same point next time; reminders read twice are claimed once
+            log.warn("Loading reminders failed after {} of them: {}", loaded, e.getMessage());
+            return;
+        }
+        loadedUntil = until;
+        if (loaded > 0) {
+            log.debug("Loaded {} reminders due before {}", loaded, until);
+        }
+    }
+
+    private void add(long[] due) {
+        incoming.offer(due);
+        if (sleeping) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            wheel.advance(System.currentTimeMillis(), expired);
+            long[] due;
+            while ((due = incoming.poll()) != null) {
+                for (int i = 0; i < due.length; i += 2) {
+                    wheel.add(due[i], due[i + 1], overdue);
+                }
+            }
+            scheduled = wheel.size();
+            long next = wheel.nextTick();
+            sleeping = true;
+            // Rechecked after publishing the flag, so an add in between is not missed
+            if (running && incoming.isEmpty()) {
+                if (next == Long.MAX_VALUE) {
+                    LockSupport.park(this);
+                } else {
+                    long wait = next - System.currentTimeMillis();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(wait));
+                    }
+                }
+            }
+            sleeping = false;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.daypulse.chat_service.reminder;
+
+import java.util.Locale;
+
+/**
+ * Who a reminder is for: its creator, the other participant of the direct room it was set in, or
+ * both. Clients use the lower-case names.
+ */
+public enum ReminderTarget {
+    SELF,
+    PARTNER,
+    BOTH;
+
+    /**
+     * The target named {@code value}, or null if there is none.
+     */
+    public static ReminderTarget parse(String value) {
+        for (ReminderTarget target : values()) {
+            if (target.wireName().equals(value)) {
+                return target;
+            }
+        }
+        return null;
+    }
+
+    public String wireName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
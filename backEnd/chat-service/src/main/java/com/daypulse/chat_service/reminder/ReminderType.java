@@ -0,0 +1,27 @@
+package com.daypulse.chat_service.reminder;
+
+import java.util.Locale;
+
+/**
+ * How often a reminder fires. Clients use the lower-case names.
+ */
+public enum ReminderType {
+    ONCE,
+    DAILY;
+
+    /**
+     * The type named {@code value}, or null if there is none.
+     */
+    public static ReminderType parse(String value) {
+        for (ReminderType type : values()) {
+            if (type.wireName().equals(value)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    public String wireName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
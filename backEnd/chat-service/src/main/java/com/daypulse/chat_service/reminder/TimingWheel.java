@@ -0,0 +1,174 @@
+package com.daypulse.chat_service.reminder;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel over epoch milliseconds: {@value #LEVELS} wheels of {@value #SLOTS}
+ * slots, where a slot of level {@code n} spans {@code 512^n} milliseconds, so the whole wheel
+ * covers about two years. A timer goes into the lowest level whose span still reaches its
+ * deadline and moves down a level each time the wheel below comes round to it, so adding,
+ * expiring and cascading a timer are constant time whatever the number of timers held.
+ * <p>
+ * Timers are reminder ids with their deadlines, kept as pairs in a {@code long[]} per slot rather
+ * than as objects: about 16 bytes per timer. A bitmap per level marks the slots in use, which lets
+ * {@link #nextTick()} tell the caller how long it may sleep and lets {@link #advance} skip idle
+ * time without visiting every millisecond.
+ * <p>
+ * Not thread-safe.
+ */
+final class TimingWheel {
+    private static final int SLOT_BITS = 9;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+    // Emptied slot arrays above this many timers are dropped, so one busy slot does not pin its peak
+    private static final int RETAINED_TIMERS = 64;
+
+    /**
+     * Called for each timer whose deadline has been reached.
+     */
+    interface Expiry {
+        void expired(long id, long deadline);
+    }
+
+    private final long[][][] slots = new long[LEVELS][SLOTS][];
+    private final int[][] counts = new int[LEVELS][SLOTS];
+    private final long[][] occupied = new long[LEVELS][SLOTS / Long.SIZE];
+    // Every tick up to and including this one has been processed
+    private long now;
+    private int size;
+
+    TimingWheel(long startMillis) {
+        this.now = startMillis;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds a timer. One that is already due goes straight to {@code expiry}.
+     */
+    void add(long id, long deadline, Expiry expiry) {
+        long delta = deadline - now;
+        if (delta <= 0) {
+            expiry.expired(id, deadline);
+            return;
+        }
+        // Deadlines past the top level wait in its farthest slot and are placed again from there
+        long at = delta < SPAN ? deadline : now + SPAN - 1;
+        int level = 0;
+        while (at - now >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        insert(level, (int) ((at >>> (SLOT_BITS * level)) & SLOT_MASK), id, deadline);
+    }
+
+    /**
+     * Expires every timer due up to {@code millis}. Does nothing when {@code millis} is behind
+     * the wheel, which happens if the clock is set back.
+     */
+    void advance(long millis, Expiry expiry) {
+        while (now < millis) {
+            long next = nextTick();
+            if (next > millis) {
+                now = millis;
+                return;
+            }
+            now = next;
+            // Higher levels first, so timers they hand down for this tick are expired with it
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((now & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) ((now >>> (SLOT_BITS * level)) & SLOT_MASK), expiry);
+                }
+            }
+            expire((int) (now & SLOT_MASK), expiry);
+        }
+    }
+
+    /**
+     * The next tick at which {@link #advance} has work to do: a slot of timers falls due, or one
+     * of a higher level is to be handed down. {@link Long#MAX_VALUE} when the wheel is empty.
+     */
+    long nextTick() {
+        long next = Long.MAX_VALUE;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            long block = (now >>> shift) + 1;
+            int distance = nextOccupied(occupied[level], (int) (block & SLOT_MASK));
+            if (distance >= 0) {
+                next = Math.min(next, (block + distance) << shift);
+            }
+        }
+        return next;
+    }
+
+    private void insert(int level, int index, long id, long deadline) {
+        long[] timers = slots[level][index];
+        int count = counts[level][index];
+        if (timers == null) {
+            timers = new long[8];
+            slots[level][index] = timers;
+        } else if (count * 2 == timers.length) {
+            timers = Arrays.copyOf(timers, timers.length * 2);
+            slots[level][index] = timers;
+        }
+        timers[count * 2] = id;
+        timers[count * 2 + 1] = deadline;
+        counts[level][index] = count + 1;
+        occupied[level][index >>> 6] |= 1L << index;
+        size++;
+    }
+
+    private void cascade(int level, int index, Expiry expiry) {
+        long[] timers = slots[level][index];
+        int count = take(level, index);
+        // Re-added timers only go to lower levels, never back into this slot
+        for (int i = 0; i < count * 2; i += 2) {
+            add(timers[i], timers[i + 1], expiry);
+        }
+    }
+
+    private void expire(int index, Expiry expiry) {
+        long[] timers = slots[0][index];
+        int count = take(0, index);
+        for (int i = 0; i < count * 2; i += 2) {
+            expiry.expired(timers[i], timers[i + 1]);
+        }
+    }
+
+    private int take(int level, int index) {
+        int count = counts[level][index];
+        if (count == 0) {
+            return 0;
+        }
+        counts[level][index] = 0;
+        occupied[level][index >>> 6] &= ~(1L << index);
+        if (count > RETAINED_TIMERS) {
+            slots[level][index] = null;
+        }
+        size -= count;
+        return count;
+    }
+
+    /**
+     * Distance from {@code from} to the first set bit going round the wheel, or -1 if none is set.
+     */
+    private static int nextOccupied(long[] bits, int from) {
+        int first = from >>> 6;
+        for (int i = 0; i <= bits.length; i++) {
+            int word = (first + i) % bits.length;
+            long mask = bits[word];
+            if (i == 0) {
+                mask &= -1L << from;
+            } else if (i == bits.length) {
+                mask &= ~(-1L << from);
+            }
+            if (mask != 0) {
+                return (word * Long.SIZE + Long.numberOfTrailingZeros(mask) - from) & SLOT_MASK;
+            }
+        }
+        return -1;
+    }
+}
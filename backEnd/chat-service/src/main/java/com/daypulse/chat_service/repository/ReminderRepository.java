@@ -0,0 +1,221 @@
+package com.daypulse.chat_service.repository;
+
+import com.daypulse.chat_service.reminder.Reminder;
+import com.daypulse.chat_service.reminder.ReminderTarget;
+import com.daypulse.chat_service.reminder.ReminderType;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReminderRepository {
+    private static final String COLUMNS = "id, room_id, created_by, content, type, target, fire_at, time_of_day, "
+            + "zone_id, enabled, next_fire_at, last_fired_at";
+
+    JdbcTemplate jdbcTemplate;
+    NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * One occurrence being fired: the reminder moves from {@code due} to {@code next}.
+     */
+    public record Claim(Reminder reminder, long due, Long next) {
+    }
+
+    /**
+     * Stores a new reminder and returns its id.
+     */
+    public long insert(Reminder reminder) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("insert into chat_reminders (room_id, "
+                    + "created_by, content, type, target, fire_at, time_of_day, zone_id, enabled, next_fire_at) "
+                    + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", new String[]{"id"});
+            statement.setString(1, reminder.roomId());
+            statement.setString(2, reminder.createdBy());
+            setSchedule(statement, 3, reminder);
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    /**
+     * Rewrites what a reminder fires and when. Its last fire time is kept.
+     */
+    public void update(Reminder reminder) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("update chat_reminders set content = ?, "
+                    + "type = ?, target = ?, fire_at = ?, time_of_day = ?, zone_id = ?, enabled = ?, next_fire_at = ? "
+                    + "where id = ?");
+            setSchedule(statement, 1, reminder);
+            statement.setLong(9, reminder.id());
+            return statement;
+        });
+    }
+
+    public void delete(long id) {
+        jdbcTemplate.update("delete from chat_reminders where id = ?", id);
+    }
+
+    public Optional<Reminder> findById(long id) {
+        return jdbcTemplate.query("select " + COLUMNS + " from chat_reminders where id = ?", ROW_MAPPER, id)
+                .stream().findFirst();
+    }
+
+    public List<Reminder> findAllById(Collection<Long> ids) {
+        return namedParameterJdbcTemplate.query("select " + COLUMNS + " from chat_reminders where id in (:ids)",
+                Map.of("ids", ids), ROW_MAPPER);
+    }
+
+    /**
+     * Reminders of a room that {@code userId} set or is a target of, oldest first.
+     */
+    public List<Reminder> findByRoom(String roomId, String userId) {
+        // Only direct rooms hold reminders for the partner, and there the partner is the other user
+        return jdbcTemplate.query("select " + COLUMNS + " from chat_reminders where room_id = ? "
+                + "and (created_by = ? or target <> 'SELF') order by id", ROW_MAPPER, roomId, userId);
+    }
+
+    public int countByRoomAndCreator(String roomId, String userId) {
+        return jdbcTemplate.queryForObject("select count(*) from chat_reminders where room_id = ? and created_by = ?",
+                Integer.class, roomId, userId);
+    }
+
+    /**
+     * Up to {@code limit} reminders due before {@code before} and after the position
+     * ({@code afterAt}, {@code afterId}), in due order, as pairs of id and due time.
+     */
+    public long[] findDue(long afterAt, long afterId, long before, int limit) {
+        long[] due = new long[limit * 2];
+        int[] count = new int[1];
+        // The leading range on next_fire_at lets each page start where the last ended in the index
+        jdbcTemplate.query("select id, next_fire_at from chat_reminders where next_fire_at < ? and next_fire_at >= ? "
+                        + "and (next_fire_at > ? or id > ?) order by next_fire_at, id limit ?",
+                resultSet -> {
+                    due[count[0] * 2] = resultSet.getLong(1);
+                    due[count[0] * 2 + 1] = resultSet.getLong(2);
+                    count[0]++;
+                }, before, afterAt, afterAt, afterId, limit);
+        return Arrays.copyOf(due, count[0] * 2);
+    }
+
+    /**
+     * Moves each reminder past the occurrence being fired, if that occurrence is still its next
+     * one, and records the occurrence as pending for each recipient. Returns, per claim, whether it
+     * was made; a reminder changed, deleted or already fired in the meantime is not claimed. All or
+     * none are made, so a failed batch can be retried.
+     */
+    @Transactional
+    public boolean[] claim(List<Claim> claims) {
+        int[][] counts = jdbcTemplate.batchUpdate("update chat_reminders set next_fire_at = ?, last_fired_at = ? "
+                + "where id = ? and next_fire_at = ?", claims, claims.size(), (statement, claim) -> {
+            if (claim.next() == null) {
+                statement.setNull(1, Types.BIGINT);
+            } else {
+                statement.setLong(1, claim.next());
+            }
+            statement.setLong(2, claim.due());
+            statement.setLong(3, claim.reminder().id());
+            statement.setLong(4, claim.due());
+        });
+        boolean[] claimed = new boolean[claims.size()];
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                claimed[index++] = count == 1;
+            }
+        }
+
+        List<Claim> made = new ArrayList<>(claims.size());
+        List<Object[]> deliveries = new ArrayList<>(claims.size() * 2);
+        for (int i = 0; i < claimed.length; i++) {
+            if (claimed[i]) {
+                Claim claim = claims.get(i);
+                made.add(claim);
+                for (String userId : claim.reminder().recipients()) {
+                    deliveries.add(new Object[]{claim.reminder().id(), userId, claim.due()});
+                }
+            }
+        }
+        if (!made.isEmpty()) {
+            // The occurrence replaces any earlier one still pending; the target may have changed since
+            jdbcTemplate.batchUpdate("delete from chat_reminder_deliveries where reminder_id = ?", made, made.size(),
+                    (statement, claim) -> statement.setLong(1, claim.reminder().id()));
+            jdbcTemplate.batchUpdate("insert into chat_reminder_deliveries (reminder_id, user_id, fired_at) "
+                    + "values (?, ?, ?)", deliveries);
+        }
+        return claimed;
+    }
+
+    /**
+     * Reminders of a room that fired for {@code userId} and were not acknowledged, oldest
+     * occurrence first, each with the pending occurrence as its last fire time.
+     */
+    public List<Reminder> findUndelivered(String userId, String roomId) {
+        return jdbcTemplate.query("select " + COLUMNS + ", fired_at from chat_reminder_deliveries "
+                        + "join chat_reminders on id = reminder_id where user_id = ? and room_id = ? order by fired_at, id",
+                (resultSet, rowNum) -> ROW_MAPPER.mapRow(resultSet, rowNum)
+                        .fired(resultSet.getLong("fired_at"), resultSet.getObject("next_fire_at", Long.class)),
+                userId, roomId);
+    }
+
+    /**
+     * Marks the occurrences of a reminder up to {@code firedAt} as received by {@code userId}.
+     * A later occurrence stays pending. Returns whether one was pending.
+     */
+    public boolean acknowledge(long reminderId, String userId, long firedAt) {
+        return jdbcTemplate.update("delete from chat_reminder_deliveries where reminder_id = ? and user_id = ? "
+                + "and fired_at <= ?", reminderId, userId, firedAt) > 0;
+    }
+
+    private static void setSchedule(PreparedStatement statement, int from, Reminder reminder) throws SQLException {
+        statement.setString(from, reminder.content());
+        statement.setString(from + 1, reminder.type().name());
+        statement.setString(from + 2, reminder.target().name());
+        statement.setObject(from + 3, reminder.fireAt(), Types.BIGINT);
+        statement.setObject(from + 4, reminder.timeOfDay(), Types.TIME);
+        statement.setString(from + 5, reminder.zone() == null ? null : reminder.zone().getId());
+        statement.setBoolean(from + 6, reminder.enabled());
+        statement.setObject(from + 7, reminder.nextFireAt(), Types.BIGINT);
+    }
+
+    private static final RowMapper<Reminder> ROW_MAPPER = (resultSet, rowNum) -> new Reminder(
+            resultSet.getLong("id"),
+            resultSet.getString("room_id"),
+            resultSet.getString("created_by"),
+            resultSet.getString("content"),
+            ReminderType.valueOf(resultSet.getString("type")),
+            ReminderTarget.valueOf(resultSet.getString("target")),
+            resultSet.getObject("fire_at", Long.class),
+            resultSet.getObject("time_of_day", LocalTime.class),
+            zone(resultSet),
+            resultSet.getBoolean("enabled"),
+            resultSet.getObject("next_fire_at", Long.class),
+            resultSet.getObject("last_fired_at", Long.class));
+
+    private static ZoneId zone(ResultSet resultSet) throws SQLException {
+        String zoneId = resultSet.getString("zone_id");
+        return zoneId == null ? null : ZoneId.of(zoneId);
+    }
+}
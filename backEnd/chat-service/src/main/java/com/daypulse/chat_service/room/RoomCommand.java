@@ -0,0 +1,36 @@
+package com.daypulse.chat_service.room;
+
+import com.daypulse.chat_service.journal.ChatMessage;
+import com.daypulse.chat_service.socket.ChatSession;
+
+import java.util.Set;
+
+/**
+ * Mailbox messages of a {@link RoomShard}.
+ */
+sealed interface RoomCommand {
+
+    record Join(String roomId, ChatSession session) implements RoomCommand {
+    }
+
+    /**
+     * {@code acknowledge} is false when the session is closing and nobody is left to tell.
+     */
+    record Leave(String roomId, ChatSession session, boolean acknowledge) implements RoomCommand {
+    }
+
+    record Post(String roomId, ChatSession session, String text, String clientId) implements RoomCommand {
+    }
+
+    /**
+     * Delivers a message to the members of its room once it is committed.
+     */
+    record Deliver(ChatMessage message, String clientId) implements RoomCommand {
+    }
+
+    /**
+     * Delivers an encoded event to the members of the room who are among {@code userIds}.
+     */
+    record Remind(String roomId, Set<String> userIds, byte[] event) implements RoomCommand {
+    }
+}
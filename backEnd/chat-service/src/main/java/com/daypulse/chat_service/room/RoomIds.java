@@ -0,0 +1,39 @@
+package com.daypulse.chat_service.room;
+
+import java.util.regex.Pattern;
+
+/**
+ * Room naming rules. Direct rooms are named {@code dm:<userId>:<userId>} and only those two users
+ * may join them or read their history; every other room is open to all users.
+ */
+public final class RoomIds {
+    public static final String DIRECT_PREFIX = "dm:";
+
+    private static final Pattern ROOM_ID = Pattern.compile("[A-Za-z0-9_:-]{1,100}");
+
+    private RoomIds() {
+    }
+
+    public static boolean isValid(String roomId) {
+        return roomId != null && ROOM_ID.matcher(roomId).matches();
+    }
+
+    public static boolean canAccess(String roomId, String userId) {
+        if (!roomId.startsWith(DIRECT_PREFIX)) {
+            return true;
+        }
+        String[] participants = roomId.substring(DIRECT_PREFIX.length()).split(":", -1);
+        return participants.length == 2 && (participants[0].equals(userId) || participants[1].equals(userId));
+    }
+
+    /**
+     * The other participant of a direct room {@code userId} is in, or null for any other room.
+     */
+    public static String partnerOf(String roomId, String userId) {
+        if (!roomId.startsWith(DIRECT_PREFIX) || !canAccess(roomId, userId)) {
+            return null;
+        }
+        String[] participants = roomId.substring(DIRECT_PREFIX.length()).split(":", -1);
+        return participants[0].equals(userId) ? participants[1] : participants[0];
+    }
+}
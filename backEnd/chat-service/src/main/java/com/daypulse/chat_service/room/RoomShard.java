@@ -0,0 +1,174 @@
+package com.daypulse.chat_service.room;
+
+import com.daypulse.chat_service.exception.ErrorCode;
+import com.daypulse.chat_service.journal.ChatMessage;
+import com.daypulse.chat_service.journal.JournalEntry;
+import com.daypulse.chat_service.journal.MessageJournal;
+import com.daypulse.chat_service.socket.ChatEvents;
+import com.daypulse.chat_service.socket.ChatSession;
+import com.daypulse.chat_service.util.MessageIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-threaded actor that owns the membership of a subset of rooms. Every command for those
+ * rooms goes through its lock-free mailbox and is handled on its thread, so room state needs no
+ * locks and the messages of a room are delivered to every member in one order.
+ * <p>
+ * Sessions touched while handling a batch of up to {@code chat.mailbox-batch} commands are flushed
+ * once at the end of it, which is where outbound events get coalesced.
+ */
+@Slf4j
+final class RoomShard {
+    private final int index;
+    private final int mailboxBatch;
+    private final MessageJournal journal;
+    private final ChatEvents events;
+    private final MessageIdGenerator ids;
+    private final Queue<RoomCommand> mailbox = new ConcurrentLinkedQueue<>();
+
+    // Owned by the shard thread
+    private final Map<String, Set<ChatSession>> rooms = new HashMap<>();
+    private final Set<ChatSession> touched = new HashSet<>();
+    private final List<ChatSession> slow = new ArrayList<>();
+
+    private volatile boolean running;
+    private volatile boolean sleeping;
+    private volatile Thread thread;
+
+    RoomShard(int index, int nodeId, int mailboxBatch, MessageJournal journal, ChatEvents events) {
+        this.index = index;
+        this.mailboxBatch = mailboxBatch;
+        this.journal = journal;
+        this.events = events;
+        this.ids = new MessageIdGenerator(nodeId, index);
+    }
+
+    void start() {
+        running = true;
+        thread = Thread.ofPlatform().daemon().name("chat-room-" + index).start(this::run);
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+            current.join(1000);
+        }
+    }
+
+    void tell(RoomCommand command) {
+        mailbox.offer(command);
+        if (sleeping) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            int handled = 0;
+            RoomCommand command;
+            while (handled < mailboxBatch && (command = mailbox.poll()) != null) {
+                try {
+                    handle(command);
+                } catch (RuntimeException e) {
+                    log.error("Room shard {} failed to handle {}", index, command.getClass().getSimpleName(), e);
+                }
+                handled++;
+            }
+            flushTouched();
+            if (handled == 0) {
+                sleeping = true;
+                // Rechecked after publishing the flag, so a command told in between is not missed
+                if (running && mailbox.isEmpty()) {
+                    LockSupport.park(this);
+                }
+                sleeping = false;
+            }
+        }
+    }
+
+    private void handle(RoomCommand command) {
+        switch (command) {
+            case RoomCommand.Join join -> {
+                rooms.computeIfAbsent(join.roomId(), roomId -> new HashSet<>()).add(join.session());
+                deliver(join.session(), events.joined(join.roomId()));
+            }
+            case RoomCommand.Leave leave -> {
+                Set<ChatSession> members = rooms.get(leave.roomId());
+                if (members != null && members.remove(leave.session()) && members.isEmpty()) {
+                    rooms.remove(leave.roomId());
+                }
+                if (leave.acknowledge()) {
+                    deliver(leave.session(), events.left(leave.roomId()));
+                }
+            }
+            case RoomCommand.Post post -> post(post);
+            case RoomCommand.Deliver deliver -> {
+                byte[] event = events.message(deliver.message(), deliver.clientId());
+                for (ChatSession member : rooms.getOrDefault(deliver.message().roomId(), Set.of())) {
+                    deliver(member, event);
+                }
+            }
+            case RoomCommand.Remind remind -> {
+                Set<ChatSession> members = rooms.getOrDefault(remind.roomId(), Set.of());
+                for (ChatSession member : members) {
+                    if (remind.userIds().contains(member.userId())) {
+                        deliver(member, remind.event());
+                    }
+                }
+            }
+        }
+    }
+
+    private void post(RoomCommand.Post post) {
+        ChatSession sender = post.session();
+        Set<ChatSession> members = rooms.get(post.roomId());
+        if (members == null || !members.contains(sender)) {
+            deliver(sender, events.error(ErrorCode.NOT_A_MEMBER, post.roomId(), post.clientId()));
+            return;
+        }
+        long id = ids.nextId();
+        // The creation time is the one in the id, which is how the history log finds the message again
+        ChatMessage message = new ChatMessage(id, post.roomId(), sender.userId(), post.text(),
+                Instant.ofEpochMilli(MessageIdGenerator.timestampOf(id)));
+        // Delivered once committed, so members never see a message history will not return; the
+        // journal commits in append order, so a room's messages still arrive in one order
+        JournalEntry entry = new JournalEntry(message, sender, post.clientId(),
+                () -> tell(new RoomCommand.Deliver(message, post.clientId())));
+        if (!journal.append(entry)) {
+            deliver(sender, events.error(ErrorCode.CHAT_OVERLOADED, post.roomId(), post.clientId()));
+        }
+    }
+
+    private void deliver(ChatSession session, byte[] event) {
+        if (session.append(event)) {
+            touched.add(session);
+        } else {
+            slow.add(session);
+        }
+    }
+
+    private void flushTouched() {
+        for (ChatSession session : touched) {
+            session.flush();
+        }
+        touched.clear();
+        // Closing leaves their rooms through the mailbox, after this batch
+        for (ChatSession session : slow) {
+            session.close(ChatSession.SLOW_CONSUMER);
+        }
+        slow.clear();
+    }
+}
@@ -0,0 +1,86 @@
+package com.daypulse.chat_service.room;
+
+import com.daypulse.chat_service.journal.MessageJournal;
+import com.daypulse.chat_service.socket.ChatEvents;
+import com.daypulse.chat_service.socket.ChatSession;
+import com.daypulse.chat_service.util.MessageIdGenerator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Spreads rooms over {@code chat.shards} {@link RoomShard} actors by the hash of the room id.
+ * Commands from one connection reach a room in the order they were sent, since a room always
+ * lives on the same shard.
+ */
+@Slf4j
+@Component
+public class RoomShards {
+    private final RoomShard[] shards;
+
+    public RoomShards(MessageJournal journal,
+                      ChatEvents events,
+                      @Value("${chat.node-id}") int nodeId,
+                      @Value("${chat.shards}") int shards,
+                      @Value("${chat.mailbox-batch}") int mailboxBatch) {
+        int count = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+        count = Math.min(count, MessageIdGenerator.MAX_SHARD + 1);
+        this.shards = new RoomShard[count];
+        for (int index = 0; index < count; index++) {
+            this.shards[index] = new RoomShard(index, nodeId, mailboxBatch, journal, events);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (RoomShard shard : shards) {
+            shard.start();
+        }
+        log.info("Started {} room shards", shards.length);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (RoomShard shard : shards) {
+            shard.stop();
+        }
+    }
+
+    public void join(String roomId, ChatSession session) {
+        shard(roomId).tell(new RoomCommand.Join(roomId, session));
+    }
+
+    public void leave(String roomId, ChatSession session) {
+        shard(roomId).tell(new RoomCommand.Leave(roomId, session, true));
+    }
+
+    public void post(String roomId, ChatSession session, String text, String clientId) {
+        shard(roomId).tell(new RoomCommand.Post(roomId, session, text, clientId));
+    }
+
+    /**
+     * Sends {@code event} to the sessions of {@code userIds} that have joined the room.
+     */
+    public void remind(String roomId, Set<String> userIds, byte[] event) {
+        shard(roomId).tell(new RoomCommand.Remind(roomId, userIds, event));
+    }
+
+    /**
+     * Removes a closed session from every room it joined.
+     */
+    public void leaveAll(ChatSession session) {
+        for (String roomId : session.rooms()) {
+            shard(roomId).tell(new RoomCommand.Leave(roomId, session, false));
+        }
+    }
+
+    private RoomShard shard(String roomId) {
+        int hash = roomId.hashCode();
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+}
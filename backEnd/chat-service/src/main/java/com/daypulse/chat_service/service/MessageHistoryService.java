@@ -0,0 +1,69 @@
+package com.daypulse.chat_service.service;
+
+import com.daypulse.chat_service.dto.response.ChatMessagePageResponse;
+import com.daypulse.chat_service.exception.AppException;
+import com.daypulse.chat_service.exception.ErrorCode;
+import com.daypulse.chat_service.log.MessageLog;
+import com.daypulse.chat_service.log.PageBuffer;
+import com.daypulse.chat_service.room.RoomIds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Room history, newest first, read from the {@link MessageLog} with opaque cursors. Messages show
+ * up here once they are appended, at most one group commit before the sender gets the ack.
+ */
+@Service
+public class MessageHistoryService {
+    // Typical stored size of one message, to size the page buffer
+    private static final int MESSAGE_BYTES = 256;
+
+    private final MessageLog messageLog;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public MessageHistoryService(MessageLog messageLog,
+                                 @Value("${chat.history.default-page-size}") int defaultPageSize,
+                                 @Value("${chat.history.max-page-size}") int maxPageSize) {
+        this.messageLog = messageLog;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Reads memory-mapped segments that may have to be faulted in from disk; call it off the event loop.
+     */
+    public ChatMessagePageResponse getMessages(String userId, String roomId, String before, Integer limit) {
+        checkAccess(userId, roomId);
+        int pageSize = limit == null ? defaultPageSize : Math.clamp(limit, 1, maxPageSize);
+        PageBuffer page = new PageBuffer(pageSize * MESSAGE_BYTES);
+        String nextCursor = messageLog.readPage(roomId, before, pageSize, page);
+        return ChatMessagePageResponse.builder()
+                .messages(page.toJson())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Deletes one of the user's own messages. Members that already received it keep their copy.
+     */
+    public void deleteMessage(String userId, String roomId, String messageId) {
+        checkAccess(userId, roomId);
+        long id;
+        try {
+            id = Long.parseLong(messageId);
+        } catch (NumberFormatException e) {
+            throw new AppException(ErrorCode.MESSAGE_NOT_FOUND);
+        }
+        messageLog.delete(roomId, id, userId);
+    }
+
+    private static void checkAccess(String userId, String roomId) {
+        if (!RoomIds.isValid(roomId)) {
+            throw new AppException(ErrorCode.INVALID_ROOM);
+        }
+        if (!RoomIds.canAccess(roomId, userId)) {
+            throw new AppException(ErrorCode.UNAUTHORIZED);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.daypulse.chat_service.service;
+
+import com.daypulse.chat_service.dto.request.ReminderRequest;
+import com.daypulse.chat_service.dto.response.ReminderResponse;
+import com.daypulse.chat_service.exception.AppException;
+import com.daypulse.chat_service.exception.ErrorCode;
+import com.daypulse.chat_service.reminder.Reminder;
+import com.daypulse.chat_service.reminder.ReminderScheduler;
+import com.daypulse.chat_service.reminder.ReminderTarget;
+import com.daypulse.chat_service.reminder.ReminderType;
+import com.daypulse.chat_service.repository.ReminderRepository;
+import com.daypulse.chat_service.room.RoomIds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Reminders set in rooms. Only their creator may change or delete them; the partner of a direct
+ * room sees the ones aimed at them. Fire times are worked out here and handed to the
+ * {@link ReminderScheduler}; it is blocking JDBC, so call it off the event loop. An occurrence that
+ * fired stays pending for each recipient until they acknowledge it.
+ */
+@Service
+public class ReminderService {
+    private final ReminderRepository reminderRepository;
+    private final ReminderScheduler reminderScheduler;
+    private final int maxContentLength;
+    private final int maxPerRoom;
+
+    public ReminderService(ReminderRepository reminderRepository,
+                           ReminderScheduler reminderScheduler,
+                           @Value("${chat.reminders.max-content-length}") int maxContentLength,
+                           @Value("${chat.reminders.max-per-room}") int maxPerRoom) {
+        this.reminderRepository = reminderRepository;
+        this.reminderScheduler = reminderScheduler;
+        this.maxContentLength = maxContentLength;
+        this.maxPerRoom = maxPerRoom;
+    }
+
+    public List<ReminderResponse> getReminders(String userId, String roomId) {
+        checkAccess(userId, roomId);
+        return reminderRepository.findByRoom(roomId, userId).stream()
+                .map(Reminder::toResponse)
+                .toList();
+    }
+
+    public ReminderResponse createReminder(String userId, String roomId, ReminderRequest request) {
+        checkAccess(userId, roomId);
+        if (reminderRepository.countByRoomAndCreator(roomId, userId) >= maxPerRoom) {
+            throw new AppException(ErrorCode.TOO_MANY_REMINDERS);
+        }
+        Reminder reminder = build(0, userId, roomId, request, null);
+        long id = reminderRepository.insert(reminder);
+        if (reminder.nextFireAt() != null) {
+            reminderScheduler.schedule(id, reminder.nextFireAt());
+        }
+        return reminderRepository.findById(id).orElseThrow().toResponse();
+    }
+
+    /**
+     * Changes the fields given in {@code request}. The next fire time is worked out again from now.
+     */
+    public ReminderResponse updateReminder(String userId, String roomId, String reminderId, ReminderRequest request) {
+        Reminder current = findOwn(userId, roomId, reminderId);
+        Reminder reminder = build(current.id(), userId, roomId, request, current);
+        reminderRepository.update(reminder);
+        // The old occurrence may still be in the timing wheel; it no longer matches and is skipped
+        if (reminder.nextFireAt() != null) {
+            reminderScheduler.schedule(reminder.id(), reminder.nextFireAt());
+        }
+        return reminder.toResponse();
+    }
+
+    public void deleteReminder(String userId, String roomId, String reminderId) {
+        reminderRepository.delete(findOwn(userId, roomId, reminderId).id());
+    }
+
+    /**
+     * Reminders that fired for {@code userId} in a room and that they have not acknowledged, each
+     * with the pending occurrence as its last fire time.
+     */
+    public List<Reminder> getUndelivered(String userId, String roomId) {
+        checkAccess(userId, roomId);
+        return reminderRepository.findUndelivered(userId, roomId);
+    }
+
+    /**
+     * Marks the occurrence of a reminder fired at {@code firedAt}, and any before it, as received
+     * by {@code userId}, so it is not delivered again when they next join the room.
+     */
+    public void acknowledge(String userId, String roomId, String reminderId, String firedAt) {
+        checkAccess(userId, roomId);
+        long id;
+        long at;
+        try {
+            id = Long.parseLong(reminderId);
+            at = Instant.parse(firedAt).toEpochMilli();
+        } catch (NumberFormatException | DateTimeException | NullPointerException e) {
+            throw new AppException(ErrorCode.REMINDER_NOT_FOUND);
+        }
+        // Acknowledging twice, or after the reminder was deleted, is not an error
+        reminderRepository.acknowledge(id, userId, at);
+    }
+
+    private Reminder findOwn(String userId, String roomId, String reminderId) {
+        checkAccess(userId, roomId);
+        long id;
+        try {
+            id = Long.parseLong(reminderId);
+        } catch (NumberFormatException e) {
+            throw new AppException(ErrorCode.REMINDER_NOT_FOUND);
+        }
+        Reminder reminder = reminderRepository.findById(id)
+                .filter(found -> found.roomId().equals(roomId))
+                .orElseThrow(() -> new AppException(ErrorCode.REMINDER_NOT_FOUND));
+        if (!reminder.createdBy().equals(userId)) {
+            throw new AppException(ErrorCode.UNAUTHORIZED);
+        }
+        return reminder;
+    }
+
+    /**
+     * The reminder {@code request} describes, taking fields it leaves out from {@code current}.
+     */
+    private Reminder build(long id, String userId, String roomId, ReminderRequest request, Reminder current) {
+        ReminderResponse previous = current == null ? null : current.toResponse();
+        ReminderType type = ReminderType.parse(request.getType() != null || previous == null
+                ? request.getType() : previous.getType());
+        ReminderTarget target = ReminderTarget.parse(request.getTarget() != null || previous == null
+                ? request.getTarget() : previous.getTarget());
+        String time = request.getTime() != null || previous == null ? request.getTime() : previous.getTime();
+        String zone = request.getZone() != null || previous == null ? request.getZone() : previous.getZone();
+        String content = request.getContent() != null || previous == null ? request.getContent() : previous.getContent();
+        boolean enabled = request.getEnabled() != null ? request.getEnabled() : previous == null || previous.isEnabled();
+
+        if (type == null || target == null || time == null
+                || (target != ReminderTarget.SELF && RoomIds.partnerOf(roomId, userId) == null)) {
+            throw new AppException(ErrorCode.INVALID_REMINDER);
+        }
+        if (content == null || content.isBlank() || content.length() > maxContentLength) {
+            throw new AppException(ErrorCode.INVALID_TEXT);
+        }
+        Long fireAt = null;
+        LocalTime timeOfDay = null;
+        ZoneId zoneId = null;
+        try {
+            if (type == ReminderType.ONCE) {
+                fireAt = Instant.parse(time).toEpochMilli();
+            } else {
+                timeOfDay = LocalTime.parse(time);
+                zoneId = ZoneId.of(zone == null ? "UTC" : zone);
+            }
+        } catch (DateTimeException e) {
+            throw new AppException(ErrorCode.INVALID_REMINDER);
+        }
+
+        Reminder reminder = new Reminder(id, roomId, userId, content, type, target, fireAt, timeOfDay, zoneId, enabled,
+                null, current == null ? null : current.lastFiredAt());
+        Long next = enabled ? reminder.nextOccurrence(System.currentTimeMillis()) : null;
+        // A once reminder that has fired keeps its time when other fields change, but a new time must be ahead
+        if (enabled && next == null && request.getTime() != null) {
+            throw new AppException(ErrorCode.INVALID_REMINDER);
+        }
+        return new Reminder(id, roomId, userId, content, type, target, fireAt, timeOfDay, zoneId, enabled, next,
+                reminder.lastFiredAt());
+    }
+
+    private static void checkAccess(String userId, String roomId) {
+        if (!RoomIds.isValid(roomId)) {
+            throw new AppException(ErrorCode.INVALID_ROOM);
+        }
+        if (!RoomIds.canAccess(roomId, userId)) {
+            throw new AppException(ErrorCode.UNAUTHORIZED);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.daypulse.chat_service.socket;
+
+import com.daypulse.chat_service.dto.response.ChatEventResponse;
+import com.daypulse.chat_service.exception.ErrorCode;
+import com.daypulse.chat_service.journal.ChatMessage;
+import com.daypulse.chat_service.reminder.Reminder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serializes server events once, so a message fanned out to a room is encoded a single time
+ * whatever the number of members.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ChatEvents {
+    ObjectMapper objectMapper;
+
+    public byte[] connected(String userId) {
+        return write(ChatEventResponse.builder()
+                .type(ChatEventResponse.CONNECTED)
+                .userId(userId)
+                .build());
+    }
+
+    public byte[] message(ChatMessage message, String clientId) {
+        return write(ChatEventResponse.builder()
+                .type(ChatEventResponse.MESSAGE)
+                .roomId(message.roomId())
+                .clientId(clientId)
+                .message(message.toResponse())
+                .build());
+    }
+
+    public byte[] ack(ChatMessage message, String clientId) {
+        return write(ChatEventResponse.builder()
+                .type(ChatEventResponse.ACK)
+                .roomId(message.roomId())
+                .clientId(clientId)
+                .messageId(String.valueOf(message.id()))
+                .build());
+    }
+
+    public byte[] reminder(Reminder reminder) {
+        return write(ChatEventResponse.builder()
+                .type(ChatEventResponse.REMINDER)
+                .roomId(reminder.roomId())
+                .reminder(reminder.toResponse())
+                .build());
+    }
+
+    public byte[] joined(String roomId) {
+        return write(ChatEventResponse.builder()
+                .type(ChatEventResponse.JOINED)
+                .roomId(roomId)
+                .build());
+    }
+
+    public byte[] left(String roomId) {
+        return write(ChatEventResponse.builder()
+                .type(ChatEventResponse.LEFT)
+                .roomId(roomId)
+                .build());
+    }
+
+    public byte[] error(ErrorCode errorCode, String roomId, String clientId) {
+        return write(ChatEventResponse.builder()
+                .type(ChatEventResponse.ERROR)
+                .roomId(roomId)
+                .clientId(clientId)
+                .code(errorCode.getCode())
+                .error(errorCode.getMessage())
+                .build());
+    }
+
+    private byte[] write(ChatEventResponse event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + event.getType() + " event", e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.daypulse.chat_service.socket;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Outbound side of one WebSocket connection. Room actors and the journal append serialized events
+ * from any thread and flush once they are done with a batch; everything appended between two
+ * flushes leaves in one text frame holding a JSON array, so a busy room costs each session one
+ * write per actor batch instead of one per message. While the socket is not writable flushes pile
+ * up as one pending request and the next frame carries everything queued meanwhile.
+ * <p>
+ * A client that falls {@code chat.session.max-pending-bytes} behind is disconnected instead of
+ * being buffered without bound.
+ */
+public class ChatSession {
+    public static final CloseStatus SLOW_CONSUMER = new CloseStatus(4008, "Slow consumer");
+    public static final CloseStatus TOKEN_EXPIRED = new CloseStatus(4001, "Token expired");
+
+    private final String userId;
+    private final WebSocketSession webSocketSession;
+    private final int maxPendingBytes;
+    private final int maxFrameBytes;
+    private final Queue<byte[]> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingBytes = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    // Rooms joined or being joined; written by the connection's inbound handler only
+    private final Set<String> rooms = ConcurrentHashMap.newKeySet();
+
+    private volatile FluxSink<Boolean> flushes;
+
+    public ChatSession(String userId, WebSocketSession webSocketSession, int maxPendingBytes, int maxFrameBytes) {
+        this.userId = userId;
+        this.webSocketSession = webSocketSession;
+        this.maxPendingBytes = maxPendingBytes;
+        this.maxFrameBytes = maxFrameBytes;
+    }
+
+    public String userId() {
+        return userId;
+    }
+
+    public Set<String> rooms() {
+        return rooms;
+    }
+
+    /**
+     * The frames to send, one per flush that found events queued. Completes when the session closes.
+     */
+    public Flux<WebSocketMessage> frames() {
+        return Flux.<Boolean>create(sink -> {
+                    flushes = sink;
+                    // Events may have been appended before the socket subscribed
+                    flush();
+                })
+                .handle((flush, frames) -> {
+                    WebSocketMessage frame = nextFrame();
+                    if (frame != null) {
+                        frames.next(frame);
+                    }
+                });
+    }
+
+    /**
+     * Queues an event without sending it. Returns false, queueing nothing, if the client is too far
+     * behind; the caller should {@link #close} the session then.
+     */
+    public boolean append(byte[] event) {
+        if (closed.get()) {
+            return true;
+        }
+        if (pendingBytes.addAndGet(event.length) > maxPendingBytes) {
+            pendingBytes.addAndGet(-event.length);
+            return false;
+        }
+        pending.offer(event);
+        return true;
+    }
+
+    /**
+     * Sends the queued events unless a send is already pending, which will pick them up.
+     */
+    public void flush() {
+        FluxSink<Boolean> sink = flushes;
+        if (sink != null && !pending.isEmpty() && flushRequested.compareAndSet(false, true)) {
+            sink.next(Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Appends and flushes one event, closing the session if the client is too far behind.
+     */
+    public void send(byte[] event) {
+        if (append(event)) {
+            flush();
+        } else {
+            close(SLOW_CONSUMER);
+        }
+    }
+
+    public void close(CloseStatus status) {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        FluxSink<Boolean> sink = flushes;
+        if (sink != null) {
+            sink.complete();
+        }
+        pending.clear();
+        webSocketSession.close(status).subscribe();
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    // Runs serialized: the sink of Flux.create delivers one flush at a time
+    private WebSocketMessage nextFrame() {
+        // Cleared first, so an event appended from here on schedules another frame
+        flushRequested.set(false);
+        byte[] event = pending.poll();
+        if (event == null) {
+            return null;
+        }
+        DataBuffer buffer = webSocketSession.bufferFactory()
+                .allocateBuffer(Math.min(maxFrameBytes, pendingBytes.get()) + 2);
+        int bytes = event.length;
+        buffer.write((byte) '[');
+        buffer.write(event);
+        while ((event = pending.peek()) != null && bytes + event.length <= maxFrameBytes) {
+            pending.poll();
+            buffer.write((byte) ',');
+            buffer.write(event);
+            bytes += event.length;
+        }
+        buffer.write((byte) ']');
+        pendingBytes.addAndGet(-bytes);
+        if (event != null) {
+            // The rest goes in the next frame
+            flush();
+        }
+        return new WebSocketMessage(WebSocketMessage.Type.TEXT, buffer);
+    }
+}
@@ -0,0 +1,164 @@
+package com.daypulse.chat_service.socket;
+
+import com.daypulse.chat_service.dto.request.ChatFrameRequest;
+import com.daypulse.chat_service.exception.ErrorCode;
+import com.daypulse.chat_service.room.RoomIds;
+import com.daypulse.chat_service.room.RoomShards;
+import com.daypulse.chat_service.service.ReminderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Chat endpoint. The handshake is authenticated like any other request, with the token in the
+ * {@code Authorization} header or the {@code access_token} query parameter, and the connection is
+ * closed with {@link ChatSession#TOKEN_EXPIRED} when the token expires so the client reconnects
+ * with a fresh one.
+ * <p>
+ * The first event on a connection is {@code connected}. Clients wait for it before sending: a
+ * frame that arrives while the connection is still being switched over to WebSocket can be lost.
+ * <p>
+ * Inbound frames are validated here and handed to the room shards; nothing on the connection's
+ * event loop waits for a room or the database.
+ * <p>
+ * Joining a room also sends the reminders that fired there for the user while they were away and
+ * that they have not acknowledged; a client may see an occurrence both live and on a join, and
+ * tells them apart by reminder id and {@code lastFiredAt}.
+ */
+@Slf4j
+@Component
+public class ChatWebSocketHandler implements WebSocketHandler {
+    private final RoomShards roomShards;
+    private final ReminderService reminderService;
+    private final ChatEvents events;
+    private final ObjectMapper objectMapper;
+    private final int maxTextLength;
+    private final int maxRooms;
+    private final int maxPendingBytes;
+    private final int maxFrameBytes;
+
+    public ChatWebSocketHandler(RoomShards roomShards,
+                                ReminderService reminderService,
+                                ChatEvents events,
+                                ObjectMapper objectMapper,
+                                @Value("${chat.max-text-length}") int maxTextLength,
+                                @Value("${chat.session.max-rooms}") int maxRooms,
+                                @Value("${chat.session.max-pending-bytes}") int maxPendingBytes,
+                                @Value("${chat.session.max-frame-bytes}") int maxFrameBytes) {
+        this.roomShards = roomShards;
+        this.reminderService = reminderService;
+        this.events = events;
+        this.objectMapper = objectMapper;
+        this.maxTextLength = maxTextLength;
+        this.maxRooms = maxRooms;
+        this.maxPendingBytes = maxPendingBytes;
+        this.maxFrameBytes = maxFrameBytes;
+    }
+
+    @Override
+    @NonNull
+    public Mono<Void> handle(@NonNull WebSocketSession session) {
+        return session.getHandshakeInfo().getPrincipal()
+                .cast(JwtAuthenticationToken.class)
+                .flatMap(authentication -> {
+                    ChatSession chat = new ChatSession(authentication.getName(), session, maxPendingBytes, maxFrameBytes);
+                    Disposable expiry = closeOnExpiry(chat, authentication.getToken().getExpiresAt());
+                    // Leaves with the first frame, once the outbound side is subscribed
+                    chat.append(events.connected(chat.userId()));
+
+                    Mono<Void> inbound = session.receive()
+                            .doOnNext(message -> onFrame(chat, message))
+                            .then()
+                            // The client went away; completing the outbound side ends the connection
+                            .doFinally(signal -> chat.close(CloseStatus.NORMAL));
+                    Mono<Void> outbound = session.send(chat.frames());
+
+                    return Mono.when(inbound, outbound)
+                            .doFinally(signal -> {
+                                expiry.dispose();
+                                chat.close(CloseStatus.NORMAL);
+                                roomShards.leaveAll(chat);
+                            });
+                });
+    }
+
+    private Disposable closeOnExpiry(ChatSession chat, Instant expiresAt) {
+        if (expiresAt == null) {
+            return Disposables.disposed();
+        }
+        Duration remaining = Duration.between(Instant.now(), expiresAt);
+        return Mono.delay(remaining.isNegative() ? Duration.ZERO : remaining)
+                .subscribe(tick -> chat.close(ChatSession.TOKEN_EXPIRED));
+    }
+
+    private void onFrame(ChatSession chat, WebSocketMessage message) {
+        ChatFrameRequest frame;
+        try {
+            frame = objectMapper.readValue(message.getPayloadAsText(), ChatFrameRequest.class);
+        } catch (IOException e) {
+            chat.send(events.error(ErrorCode.INVALID_FRAME, null, null));
+            return;
+        }
+        String roomId = frame.getRoomId();
+        if (!RoomIds.isValid(roomId)) {
+            chat.send(events.error(ErrorCode.INVALID_ROOM, null, frame.getClientId()));
+            return;
+        }
+        switch (String.valueOf(frame.getType())) {
+            case ChatFrameRequest.JOIN -> join(chat, roomId, frame.getClientId());
+            case ChatFrameRequest.LEAVE -> {
+                if (chat.rooms().remove(roomId)) {
+                    roomShards.leave(roomId, chat);
+                } else {
+                    chat.send(events.left(roomId));
+                }
+            }
+            case ChatFrameRequest.SEND -> {
+                String text = frame.getText();
+                if (text == null || text.isBlank() || text.length() > maxTextLength) {
+                    chat.send(events.error(ErrorCode.INVALID_TEXT, roomId, frame.getClientId()));
+                } else {
+                    // Membership is checked by the room, which is the only one that knows it for sure
+                    roomShards.post(roomId, chat, text, frame.getClientId());
+                }
+            }
+            default -> chat.send(events.error(ErrorCode.INVALID_FRAME, roomId, frame.getClientId()));
+        }
+    }
+
+    private void join(ChatSession chat, String roomId, String clientId) {
+        if (!RoomIds.canAccess(roomId, chat.userId())) {
+            chat.send(events.error(ErrorCode.UNAUTHORIZED, roomId, clientId));
+        } else if (chat.rooms().contains(roomId)) {
+            chat.send(events.joined(roomId));
+        } else if (chat.rooms().size() >= maxRooms) {
+            chat.send(events.error(ErrorCode.TOO_MANY_ROOMS, roomId, clientId));
+        } else {
+            chat.rooms().add(roomId);
+            roomShards.join(roomId, chat);
+            sendUndeliveredReminders(chat, roomId);
+        }
+    }
+
+    private void sendUndeliveredReminders(ChatSession chat, String roomId) {
+        Mono.fromCallable(() -> reminderService.getUndelivered(chat.userId(), roomId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(reminders -> reminders.forEach(reminder -> chat.send(events.reminder(reminder))),
+                        error -> log.warn("Loading pending reminders of room {} failed: {}", roomId, error.getMessage()));
+    }
+}
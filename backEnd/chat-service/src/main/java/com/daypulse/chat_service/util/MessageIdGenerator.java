@@ -0,0 +1,57 @@
+package com.daypulse.chat_service.util;
+
+/**
+ * Generates 64-bit message ids that sort by creation time: 41 bits of milliseconds since
+ * {@link #EPOCH_MILLIS}, 6 bits of node id, 6 bits of room shard and 10 bits of per-millisecond
+ * sequence. Each room actor owns one generator, so ids are taken without synchronization; the
+ * history log finds a message by the time in its id.
+ * <p>
+ * Not thread-safe.
+ */
+public class MessageIdGenerator {
+    // 2025-01-01T00:00:00Z, the same epoch as main-service pulse ids
+    static final long EPOCH_MILLIS = 1735689600000L;
+
+    private static final int NODE_BITS = 6;
+    private static final int SHARD_BITS = 6;
+    private static final int SEQUENCE_BITS = 10;
+    public static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    public static final int MAX_SHARD = (1 << SHARD_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long worker;
+    private long lastMillis = -1;
+    private long sequence;
+
+    public MessageIdGenerator(int node, int shard) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("chat.node-id must be between 0 and " + MAX_NODE);
+        }
+        if (shard < 0 || shard > MAX_SHARD) {
+            throw new IllegalArgumentException("Shard must be between 0 and " + MAX_SHARD);
+        }
+        this.worker = ((long) node << SHARD_BITS) | shard;
+    }
+
+    /**
+     * Creation time of {@code id} in epoch millis.
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SHARD_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    public long nextId() {
+        // A clock that steps back keeps using the last millisecond until it catches up
+        long millis = Math.max(System.currentTimeMillis(), lastMillis);
+        if (millis == lastMillis) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                millis = ++lastMillis;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = millis;
+        return ((millis - EPOCH_MILLIS) << (NODE_BITS + SHARD_BITS + SEQUENCE_BITS)) | (worker << SEQUENCE_BITS) | sequence;
+    }
+}
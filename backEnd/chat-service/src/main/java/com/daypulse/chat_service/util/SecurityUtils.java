@@ -0,0 +1,23 @@
+package com.daypulse.chat_service.util;
+
+import com.daypulse.chat_service.exception.AppException;
+import com.daypulse.chat_service.exception.ErrorCode;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import reactor.core.publisher.Mono;
+
+public final class SecurityUtils {
+    private SecurityUtils() {
+    }
+
+    /**
+     * The auth-service {@code User.id} of the caller.
+     */
+    public static Mono<String> currentUserId() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(Authentication::getName)
+                .switchIfEmpty(Mono.error(() -> new AppException(ErrorCode.UNAUTHENTICATED)));
+    }
+}
@@ -0,0 +1,12 @@
+-- Message ids are time ordered (see MessageIdGenerator), so "newest first" is "highest id first".
+create table chat_messages (
+    id         bigint        not null,
+    room_id    varchar(100)  not null,
+    sender_id  varchar(36)   not null,
+    text       varchar(2000) not null,
+    created_at timestamp(6)  not null,
+    primary key (id)
+);
+
+-- History pages read one room newest first
+create index ix_chat_messages_room_id on chat_messages (room_id, id);
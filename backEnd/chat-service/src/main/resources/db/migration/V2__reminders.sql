@@ -0,0 +1,22 @@
+-- Fire times are epoch millis, the unit of the timing wheel. next_fire_at is null once a reminder
+-- cannot fire again: disabled, or a once reminder that has fired. Moving it forward is the fire
+-- marker, so an occurrence is claimed by exactly one update.
+create table chat_reminders (
+    id           bigint generated by default as identity,
+    room_id      varchar(100) not null,
+    created_by   varchar(36)  not null,
+    content      varchar(500) not null,
+    type         varchar(5)   not null, -- ONCE or DAILY
+    target       varchar(7)   not null, -- SELF, PARTNER or BOTH
+    fire_at      bigint,                -- ONCE: when
+    time_of_day  time,                  -- DAILY: the local time it fires at, in zone_id
+    zone_id      varchar(64),
+    enabled      boolean      not null,
+    next_fire_at bigint,
+    last_fired_at bigint,
+    primary key (id)
+);
+
+-- Windows of the timing wheel are loaded by due time
+create index ix_chat_reminders_next_fire_at on chat_reminders (next_fire_at, id);
+create index ix_chat_reminders_room_id on chat_reminders (room_id, id);
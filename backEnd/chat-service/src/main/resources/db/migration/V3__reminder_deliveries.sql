@@ -0,0 +1,13 @@
+-- The last fired occurrence of a reminder that a recipient has not acknowledged yet. Written in the
+-- transaction that claims the occurrence, so a fired occurrence reaches its recipients even if the
+-- service stops before delivering it or they are not connected. One row per reminder and recipient:
+-- an occurrence replaces the one before it, as missed occurrences are not caught up.
+create table chat_reminder_deliveries (
+    reminder_id bigint      not null references chat_reminders (id) on delete cascade,
+    user_id     varchar(36) not null,
+    fired_at    bigint      not null,
+    primary key (reminder_id, user_id)
+);
+
+-- Pending occurrences are looked up per recipient when they join a room
+create index ix_chat_reminder_deliveries_user_id on chat_reminder_deliveries (user_id);
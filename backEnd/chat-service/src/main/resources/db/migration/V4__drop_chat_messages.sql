@@ -0,0 +1,2 @@
+-- History is kept in the chat log (chat.log.directory) now
+drop table if exists chat_messages;
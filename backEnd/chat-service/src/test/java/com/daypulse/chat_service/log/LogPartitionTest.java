@@ -0,0 +1,165 @@
+package com.daypulse.chat_service.log;
+
+import com.daypulse.chat_service.exception.AppException;
+import com.daypulse.chat_service.exception.ErrorCode;
+import com.daypulse.chat_service.journal.ChatMessage;
+import com.daypulse.chat_service.util.MessageIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LogPartitionTest {
+    // Four messages to a segment, so a room's history spans several
+    private static final int SEGMENT_BYTES = 256;
+    private static final int INDEX_INTERVAL = 64;
+
+    @TempDir
+    Path directory;
+
+    private final MessageIdGenerator ids = new MessageIdGenerator(0, 0);
+    private final List<ChatMessage> messages = new ArrayList<>();
+    private LogPartition partition;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        partition = LogPartition.open(directory, SEGMENT_BYTES, INDEX_INTERVAL);
+    }
+
+    @Test
+    void readsPagesOfOneRoomAcrossSegments() throws IOException {
+        appendAlternating(10);
+
+        assertThat(segmentCount()).isGreaterThan(2);
+        assertThat(readAll("room-a", 2)).containsExactly("[8,6]", "[4,2]", "[0]");
+        assertThat(readAll("room-b", 3)).containsExactly("[9,7,5]", "[3,1]");
+        assertThat(readAll("room-c", 3)).containsExactly("[]");
+    }
+
+    @Test
+    void rejectsACursorOfAnotherRoom() throws IOException {
+        appendAlternating(4);
+
+        assertThatThrownBy(() -> partition.readPage("room-b", 0, 10, new PageBuffer(64)))
+                .isInstanceOf(AppException.class)
+                .extracting(error -> ((AppException) error).getErrorCode())
+                .isEqualTo(ErrorCode.INVALID_CURSOR);
+        assertThatThrownBy(() -> partition.readPage("room-a", 1_000, 10, new PageBuffer(64)))
+                .isInstanceOf(AppException.class)
+                .extracting(error -> ((AppException) error).getErrorCode())
+                .isEqualTo(ErrorCode.INVALID_CURSOR);
+    }
+
+    @Test
+    void deletesOnlyTheSendersMessage() throws IOException {
+        appendAlternating(6);
+        ChatMessage target = messages.get(2);
+
+        assertThatThrownBy(() -> partition.delete("room-a", target.id(), "someone-else"))
+                .extracting(error -> ((AppException) error).getErrorCode())
+                .isEqualTo(ErrorCode.UNAUTHORIZED);
+        assertThatThrownBy(() -> partition.delete("room-b", target.id(), target.senderId()))
+                .extracting(error -> ((AppException) error).getErrorCode())
+                .isEqualTo(ErrorCode.MESSAGE_NOT_FOUND);
+
+        partition.delete("room-a", target.id(), target.senderId());
+
+        assertThat(readAll("room-a", 10)).containsExactly("[4,0]");
+        assertThatThrownBy(() -> partition.delete("room-a", target.id(), target.senderId()))
+                .extracting(error -> ((AppException) error).getErrorCode())
+                .isEqualTo(ErrorCode.MESSAGE_NOT_FOUND);
+    }
+
+    @Test
+    void reopensACleanlyClosedPartitionFromItsHeads() throws IOException {
+        appendAlternating(10);
+        partition.close();
+
+        partition = LogPartition.open(directory, SEGMENT_BYTES, INDEX_INTERVAL);
+        appendAlternating(2);
+
+        assertThat(readAll("room-a", 10)).containsExactly("[10,8,6,4,2,0]");
+        assertThat(readAll("room-b", 10)).containsExactly("[11,9,7,5,3,1]");
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.filter(file -> file.toString().endsWith(LogPartition.HEADS_SUFFIX))).hasSize(1);
+        }
+    }
+
+    @Test
+    void recoversAfterACrashAndAppendsToAFreshSegment() throws IOException {
+        appendAlternating(10);
+        partition.flush();
+        int segments = segmentCount();
+
+        partition = LogPartition.open(directory, SEGMENT_BYTES, INDEX_INTERVAL);
+
+        assertThat(segmentCount()).isEqualTo(segments + 1);
+        appendAlternating(2);
+        assertThat(readAll("room-a", 4)).containsExactly("[10,8,6,4]", "[2,0]");
+        assertThat(readAll("room-b", 10)).containsExactly("[11,9,7,5,3,1]");
+    }
+
+    @Test
+    void compactsSealedSegmentsWithoutBreakingTheHistory() throws IOException {
+        appendAlternating(10);
+        for (int i : new int[]{0, 1, 2}) {
+            partition.delete(messages.get(i).roomId(), messages.get(i).id(), messages.get(i).senderId());
+        }
+
+        long reclaimed = partition.compact(0.01);
+
+        assertThat(reclaimed).isEqualTo(3L * "0".length());
+        assertThat(partition.compact(0.01)).isZero();
+        assertThat(readAll("room-a", 2)).containsExactly("[8,6]", "[4]");
+        assertThat(readAll("room-b", 10)).containsExactly("[9,7,5,3]");
+
+        partition.close();
+        partition = LogPartition.open(directory, SEGMENT_BYTES, INDEX_INTERVAL);
+
+        assertThat(readAll("room-a", 10)).containsExactly("[8,6,4]");
+        assertThat(readAll("room-b", 10)).containsExactly("[9,7,5,3]");
+    }
+
+    /**
+     * Appends {@code count} messages taking turns between room-a and room-b, each with its number
+     * as its payload.
+     */
+    private void appendAlternating(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            int number = messages.size();
+            long id = ids.nextId();
+            ChatMessage message = new ChatMessage(id, number % 2 == 0 ? "room-a" : "room-b", "user-" + number % 2,
+                    String.valueOf(number), Instant.ofEpochMilli(MessageIdGenerator.timestampOf(id)));
+            partition.append(message, String.valueOf(number).getBytes(StandardCharsets.UTF_8));
+            messages.add(message);
+        }
+    }
+
+    private List<String> readAll(String roomId, int limit) {
+        List<String> pages = new ArrayList<>();
+        long before = MessageRecord.NONE;
+        do {
+            PageBuffer page = new PageBuffer(64);
+            before = partition.readPage(roomId, before, limit, page);
+            pages.add(page.toJson());
+        } while (before != MessageRecord.NONE);
+        return pages;
+    }
+
+    private int segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return (int) files.filter(file -> file.toString().endsWith(LogSegment.LOG_SUFFIX)).count();
+        }
+    }
+}
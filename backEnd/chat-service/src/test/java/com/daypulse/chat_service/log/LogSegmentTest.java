@@ -0,0 +1,165 @@
+package com.daypulse.chat_service.log;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSegmentTest {
+    private static final int CAPACITY = 4096;
+    private static final int INDEX_INTERVAL = 128;
+    private static final long BASE = 100;
+    private static final byte[] ROOM = "room-1".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SENDER = "user-1".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void findsRecordsByOffset() throws IOException {
+        LogSegment segment = LogSegment.create(directory, BASE, CAPACITY, INDEX_INTERVAL);
+        for (int i = 0; i < 20; i++) {
+            append(segment, i);
+        }
+
+        assertThat(segment.nextOffset()).isEqualTo(BASE + 20);
+        for (int i = 0; i < 20; i++) {
+            int position = segment.position(BASE + i);
+            assertThat(MessageRecord.offset(segment.buffer(), position)).isEqualTo(BASE + i);
+            assertThat(payload(segment.buffer(), position)).isEqualTo(payload(i));
+        }
+        assertThat(segment.position(BASE - 1)).isEqualTo(-1);
+        assertThat(segment.position(BASE + 20)).isEqualTo(-1);
+    }
+
+    @Test
+    void trustsASealedSegmentOnReopen() throws IOException {
+        LogSegment segment = LogSegment.create(directory, BASE, CAPACITY, INDEX_INTERVAL);
+        for (int i = 0; i < 5; i++) {
+            append(segment, i);
+        }
+        segment.seal();
+
+        LogSegment reopened = LogSegment.open(directory, BASE, CAPACITY, INDEX_INTERVAL, true);
+
+        assertThat(reopened.isRecovered()).isFalse();
+        assertThat(reopened.isSealed()).isFalse();
+        assertThat(reopened.end()).isEqualTo(segment.end());
+        assertThat(reopened.nextOffset()).isEqualTo(BASE + 5);
+        assertThat(reopened.maxTimestamp()).isEqualTo(timestamp(4));
+    }
+
+    @Test
+    void recoversAnUnsealedSegmentUpToItsLastWholeRecord() throws IOException {
+        LogSegment segment = LogSegment.create(directory, BASE, CAPACITY, INDEX_INTERVAL);
+        for (int i = 0; i < 3; i++) {
+            append(segment, i);
+        }
+        int torn = segment.position(BASE + 2);
+        // The last record's payload never reached disk in full
+        segment.buffer().put(segment.end() - 1, (byte) 0);
+        segment.flush();
+
+        LogSegment reopened = LogSegment.open(directory, BASE, CAPACITY, INDEX_INTERVAL, true);
+
+        assertThat(reopened.isRecovered()).isTrue();
+        assertThat(reopened.end()).isEqualTo(torn);
+        assertThat(reopened.nextOffset()).isEqualTo(BASE + 2);
+        assertThat(reopened.maxTimestamp()).isEqualTo(timestamp(1));
+        assertThat(reopened.position(BASE + 1)).isEqualTo(segment.position(BASE + 1));
+        assertThat(reopened.position(BASE + 2)).isEqualTo(-1);
+    }
+
+    @Test
+    void recoversAnUnsealedSegmentWithoutATornTail() throws IOException {
+        LogSegment segment = LogSegment.create(directory, BASE, CAPACITY, INDEX_INTERVAL);
+        for (int i = 0; i < 30; i++) {
+            append(segment, i);
+        }
+        segment.flush();
+
+        LogSegment reopened = LogSegment.open(directory, BASE, CAPACITY, INDEX_INTERVAL, false);
+
+        assertThat(reopened.isRecovered()).isTrue();
+        assertThat(reopened.isSealed()).isTrue();
+        assertThat(reopened.end()).isEqualTo(segment.end());
+        assertThat(reopened.nextOffset()).isEqualTo(BASE + 30);
+        assertThat(reopened.position(BASE + 17)).isEqualTo(segment.position(BASE + 17));
+    }
+
+    @Test
+    void compactionCarriesOverDeletesMadeDuringTheCopy() throws IOException {
+        LogSegment segment = LogSegment.create(directory, BASE, CAPACITY, INDEX_INTERVAL);
+        for (int i = 0; i < 4; i++) {
+            append(segment, i);
+        }
+        segment.seal();
+        segment.markDeleted(segment.position(BASE + 1));
+        assertThat(segment.deletedBytes()).isEqualTo(payload(1).length());
+
+        LogSegment copy = segment.compactedCopy(directory);
+        segment.markDeleted(segment.position(BASE + 2));
+        segment.replaceWith(copy, directory);
+
+        assertThat(copy.end()).isEqualTo(segment.end() - payload(1).length());
+        assertThat(MessageRecord.isDeleted(copy.buffer(), copy.position(BASE + 1))).isTrue();
+        assertThat(MessageRecord.payloadLength(copy.buffer(), copy.position(BASE + 1))).isZero();
+        assertThat(MessageRecord.isDeleted(copy.buffer(), copy.position(BASE + 2))).isTrue();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(file -> file.getFileName().toString()))
+                    .containsExactlyInAnyOrder(LogSegment.fileName(BASE, LogSegment.LOG_SUFFIX),
+                            LogSegment.fileName(BASE, LogSegment.INDEX_SUFFIX));
+        }
+
+        LogSegment reopened = LogSegment.open(directory, BASE, CAPACITY, INDEX_INTERVAL, false);
+
+        assertThat(reopened.isRecovered()).isFalse();
+        assertThat(reopened.end()).isEqualTo(copy.end());
+        assertThat(reopened.nextOffset()).isEqualTo(BASE + 4);
+        assertThat(MessageRecord.previous(reopened.buffer(), reopened.position(BASE + 2))).isEqualTo(BASE + 1);
+        assertThat(MessageRecord.isDeleted(reopened.buffer(), reopened.position(BASE + 2))).isTrue();
+        assertThat(payload(reopened.buffer(), reopened.position(BASE + 3))).isEqualTo(payload(3));
+    }
+
+    @Test
+    void findsAPositionBeforeATimestamp() throws IOException {
+        LogSegment segment = LogSegment.create(directory, BASE, CAPACITY, INDEX_INTERVAL);
+        for (int i = 0; i < 30; i++) {
+            append(segment, i);
+        }
+
+        int position = segment.positionBefore(timestamp(20));
+
+        assertThat(position).isLessThanOrEqualTo(segment.position(BASE + 20));
+        for (int scan = 0; scan < position; scan += MessageRecord.size(segment.buffer(), scan)) {
+            assertThat(MessageRecord.timestamp(segment.buffer(), scan)).isLessThan(timestamp(20));
+        }
+        assertThat(segment.positionBefore(timestamp(0))).isZero();
+    }
+
+    private static void append(LogSegment segment, int i) {
+        long previous = i == 0 ? MessageRecord.NONE : segment.nextOffset() - 1;
+        segment.append(previous, 1000 + i, timestamp(i), ROOM, SENDER, payload(i).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long timestamp(int i) {
+        return 1_700_000_000_000L + i * 1000L;
+    }
+
+    private static String payload(int i) {
+        return "{\"text\":\"message " + i + "\"}";
+    }
+
+    private static String payload(ByteBuffer buffer, int position) {
+        byte[] bytes = new byte[MessageRecord.payloadLength(buffer, position)];
+        buffer.get(MessageRecord.payloadPosition(buffer, position), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,128 @@
+package com.daypulse.chat_service.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+    // Not aligned to any slot boundary
+    private static final long START = 1_700_000_000_123L;
+    private static final long SPAN = 1L << 36;
+
+    private final List<Long> expired = new ArrayList<>();
+    private final TimingWheel.Expiry expiry = (id, deadline) -> expired.add(id);
+
+    @Test
+    void expiresATimerAtItsDeadline() {
+        TimingWheel wheel = new TimingWheel(START);
+        wheel.add(1, START + 10, expiry);
+
+        assertThat(wheel.nextTick()).isEqualTo(START + 10);
+        wheel.advance(START + 9, expiry);
+        assertThat(expired).isEmpty();
+
+        wheel.advance(START + 10, expiry);
+        assertThat(expired).containsExactly(1L);
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.nextTick()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void expiresADueTimerRightAway() {
+        TimingWheel wheel = new TimingWheel(START);
+
+        wheel.add(1, START, expiry);
+        wheel.add(2, START - 5_000, expiry);
+
+        assertThat(expired).containsExactly(1L, 2L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cascadesTimersDownEachLevel() {
+        TimingWheel wheel = new TimingWheel(START);
+        long[] deadlines = {
+                START + 512 * 3 + 7,
+                START + 512L * 512 * 5 + 300,
+                START + 512L * 512 * 512 * 2 + 512 * 9 + 1,
+        };
+        for (int i = 0; i < deadlines.length; i++) {
+            wheel.add(i, deadlines[i], expiry);
+        }
+
+        for (int i = 0; i < deadlines.length; i++) {
+            wheel.advance(deadlines[i] - 1, expiry);
+            assertThat(expired).hasSize(i);
+            wheel.advance(deadlines[i], expiry);
+            assertThat(expired).hasSize(i + 1).last().isEqualTo((long) i);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void holdsDeadlinesBeyondTheTopLevel() {
+        TimingWheel wheel = new TimingWheel(START);
+        long far = START + 3 * SPAN + 12_345;
+        wheel.add(1, far, expiry);
+
+        assertThat(wheel.nextTick()).isLessThan(far);
+        wheel.advance(far - 1, expiry);
+        assertThat(expired).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        wheel.advance(far, expiry);
+        assertThat(expired).containsExactly(1L);
+    }
+
+    @Test
+    void ignoresAClockSetBack() {
+        TimingWheel wheel = new TimingWheel(START);
+        wheel.add(1, START + 1_000, expiry);
+        wheel.advance(START + 500, expiry);
+
+        wheel.advance(START, expiry);
+        wheel.add(2, START + 400, expiry);
+
+        assertThat(expired).containsExactly(2L);
+        wheel.advance(START + 1_000, expiry);
+        assertThat(expired).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void expiresEveryTimerOnceAndNeverEarly() {
+        Random random = new Random(42);
+        TimingWheel wheel = new TimingWheel(START);
+        long[] deadlines = new long[5_000];
+        long[] advancedTo = {START};
+        Set<Long> expiredIds = new HashSet<>();
+        TimingWheel.Expiry recording = (id, deadline) -> {
+            assertThat(expiredIds.add(id)).as("timer %d expired twice", id).isTrue();
+            assertThat(deadline).isEqualTo(deadlines[(int) id]).isLessThanOrEqualTo(advancedTo[0]);
+        };
+        for (int id = 0; id < deadlines.length; id++) {
+            // Spread over every level: milliseconds up to about a year
+            deadlines[id] = START + 1 + (long) Math.pow(2, random.nextDouble() * 35);
+            wheel.add(id, deadlines[id], recording);
+        }
+        long[] sorted = deadlines.clone();
+        Arrays.sort(sorted);
+
+        while (wheel.size() > 0) {
+            advancedTo[0] = wheel.nextTick() + random.nextInt(1_000_000);
+            wheel.advance(advancedTo[0], recording);
+            int due = 0;
+            while (due < sorted.length && sorted[due] <= advancedTo[0]) {
+                due++;
+            }
+            assertThat(expiredIds).as("expired by %d", advancedTo[0]).hasSize(due);
+        }
+        assertThat(expiredIds).hasSize(deadlines.length);
+    }
+}
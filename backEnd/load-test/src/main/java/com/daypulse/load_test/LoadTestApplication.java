@@ -0,0 +1,131 @@
+package com.daypulse.load_test;
+
+import com.daypulse.load_test.driver.OpenModelDriver;
+import com.daypulse.load_test.report.BaselineComparison;
+import com.daypulse.load_test.report.LatencyRecorder;
+import com.daypulse.load_test.report.RunReport;
+import com.daypulse.load_test.scenario.ApiClient;
+import com.daypulse.load_test.scenario.SessionScenario;
+import com.daypulse.load_test.standin.EmbeddedDatabase;
+import com.daypulse.load_test.standin.ServiceProcess;
+import com.daypulse.load_test.standin.StubMainService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * End-to-end capacity test for api-gateway and auth-service.
+ * <p>
+ * Starts an embedded H2 database and a stub main-service, launches the auth-service and
+ * api-gateway jars against them, then drives user sessions through the gateway at an open arrival
+ * rate. The measured window is written as a JSON report and optionally compared with a baseline.
+ * <pre>
+ * mvn -f ../auth-service package -DskipTests
+ * mvn -f ../api-gateway package -DskipTests
+ * mvn compile exec:java -Dexec.args="--rate=50 --warmup=15 --duration=60 --baseline=baseline.json"
+ * </pre>
+ * Pass {@code --gateway-url=http://host:port} to run against services that are already deployed.
+ */
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Deque<AutoCloseable> resources = new ArrayDeque<>();
+        int exitCode;
+        try {
+            String gatewayUrl = options.startServices() ? startServices(options, resources) : options.externalGatewayUrl();
+            exitCode = run(options, gatewayUrl);
+        } finally {
+            while (!resources.isEmpty()) {
+                resources.pop().close();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static String startServices(LoadTestOptions options, Deque<AutoCloseable> resources) throws Exception {
+        EmbeddedDatabase database = EmbeddedDatabase.start();
+        resources.push(database);
+        StubMainService mainService = StubMainService.start();
+        resources.push(mainService);
+
+        int authPort = ServiceProcess.freePort();
+        int authRpcPort = ServiceProcess.freePort();
+        // The gateway strips the /auth-service prefix before forwarding, so auth-service is mounted at the root.
+        List<String> authArguments = new ArrayList<>(database.springArguments());
+        authArguments.add("--server.servlet.context-path=");
+        authArguments.add("--spring.rsocket.server.port=" + authRpcPort);
+        ServiceProcess authService = ServiceProcess.start("auth-service", options.authServiceJar(), authPort,
+                List.of(EmbeddedDatabase.driverJar()), authArguments, options.workDir());
+        resources.push(authService);
+        authService.awaitReady(Duration.ofMinutes(2));
+        database.seedRoles();
+
+        int gatewayPort = ServiceProcess.freePort();
+        String authUrl = "http://localhost:" + authPort;
+        ServiceProcess gateway = ServiceProcess.start("api-gateway", options.gatewayJar(), gatewayPort, List.of(), List.of(
+                "--auth-service.url=" + authUrl,
+                "--auth-service.rpc.port=" + authRpcPort,
+                "--main-service.url=" + mainService.baseUrl(),
+                "--logging.level.org.springframework.cloud.gateway=INFO",
+                "--logging.level.org.springframework.security=INFO"), options.workDir());
+        resources.push(gateway);
+        gateway.awaitReady(Duration.ofMinutes(2));
+
+        return "http://localhost:" + gatewayPort;
+    }
+
+    private static int run(LoadTestOptions options, String gatewayUrl) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        SessionScenario scenario = new SessionScenario(new ApiClient(gatewayUrl, recorder), options.readsPerSession());
+        OpenModelDriver driver = new OpenModelDriver(options.arrivalRate(), options.maxInFlight(), scenario::run);
+
+        System.out.printf("Warming up for %ds at %.1f sessions/s against %s%n",
+                options.warmup().toSeconds(), options.arrivalRate(), gatewayUrl);
+        driver.run(options.warmup());
+        driver.drain(Duration.ofSeconds(30));
+        driver.resetCounts();
+
+        System.out.printf("Measuring for %ds%n", options.duration().toSeconds());
+        Instant startedAt = Instant.now();
+        recorder.startRecording();
+        long start = System.nanoTime();
+        driver.run(options.duration());
+        driver.drain(Duration.ofSeconds(30));
+        recorder.stopRecording();
+        double measuredSeconds = (System.nanoTime() - start) / 1e9;
+
+        RunReport report = new RunReport(startedAt, options.arrivalRate(), options.warmup().toSeconds(),
+                Math.round(measuredSeconds * 100) / 100.0, driver.counts(), recorder.snapshot(measuredSeconds));
+        report.write(options.reportFile());
+        System.out.println("Report written to " + options.reportFile().toAbsolutePath());
+        print(report);
+
+        if (options.baselineFile() == null) {
+            return 0;
+        }
+        BaselineComparison comparison = new BaselineComparison(
+                RunReport.read(options.baselineFile()), report, options.maxRegressionPercent());
+        System.out.println();
+        System.out.println("Compared with " + options.baselineFile());
+        System.out.print(comparison.render());
+        if (comparison.regressions().isEmpty()) {
+            return 0;
+        }
+        System.out.println("Regressions over " + options.maxRegressionPercent() + "%: " + comparison.regressions());
+        return 2;
+    }
+
+    private static void print(RunReport report) {
+        RunReport.SessionCounts sessions = report.sessions();
+        System.out.printf("sessions: started=%d completed=%d failed=%d dropped=%d%n",
+                sessions.started(), sessions.completed(), sessions.failed(), sessions.dropped());
+        System.out.printf("%-10s %9s %8s %10s %9s %9s %9s%n", "operation", "count", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms");
+        report.operations().forEach((name, op) -> System.out.printf("%-10s %9d %8d %10.1f %9.2f %9.2f %9.2f%n",
+                name, op.count(), op.errors(), op.throughput(), op.p50Ms(), op.p99Ms(), op.p999Ms()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.daypulse.load_test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options of the harness. Every option is passed as {@code --name=value}.
+ */
+public record LoadTestOptions(
+        Path authServiceJar,
+        Path gatewayJar,
+        String externalGatewayUrl,
+        double arrivalRate,
+        Duration warmup,
+        Duration duration,
+        int maxInFlight,
+        int readsPerSession,
+        Path reportFile,
+        Path baselineFile,
+        double maxRegressionPercent,
+        Path workDir) {
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = arguments(args);
+        Path workDir = Path.of(values.getOrDefault("work-dir", "target/load-test"));
+        return new LoadTestOptions(
+                Path.of(values.getOrDefault("auth-jar", "../auth-service/target/auth-service-0.0.1-SNAPSHOT.jar")),
+                Path.of(values.getOrDefault("gateway-jar", "../api-gateway/target/api-gateway-0.0.1-SNAPSHOT.jar")),
+                values.get("gateway-url"),
+                Double.parseDouble(values.getOrDefault("rate", "20")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "15"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+                Integer.parseInt(values.getOrDefault("reads", "5")),
+                Path.of(values.getOrDefault("report", workDir.resolve("report.json").toString())),
+                values.containsKey("baseline") ? Path.of(values.get("baseline")) : null,
+                Double.parseDouble(values.getOrDefault("max-regression", "10")),
+                workDir);
+    }
+
+    /**
+     * Splits {@code --name=value} arguments into a map; a bare {@code --name} maps to {@code true}.
+     */
+    public static Map<String, String> arguments(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        return values;
+    }
+
+    public boolean startServices() {
+        return externalGatewayUrl == null;
+    }
+}
@@ -0,0 +1,211 @@
+package com.daypulse.load_test.chat;
+
+import com.daypulse.load_test.report.LatencyRecorder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One simulated chat user: connects, joins its room once the server sent {@code connected}, and
+ * sends messages whose text is the intended start time, so every member that receives one can
+ * record the end-to-end delivery latency.
+ * <p>
+ * Operations reported: {@code connect} (handshake until {@code joined}), {@code send} (until the
+ * ack, i.e. until the message was stored) and {@code deliver} (until a member received it). Errors
+ * are reported under the chat error code, or 0 for closed connections and timeouts.
+ */
+class ChatConnection implements WebSocket.Listener {
+    private static final Duration ACK_TIMEOUT = Duration.ofSeconds(30);
+    private static final AtomicLong CLIENT_IDS = new AtomicLong();
+
+    private final ObjectMapper objectMapper;
+    private final LatencyRecorder recorder;
+    private final String roomId;
+    private final long connectStartNanos;
+    private final CompletableFuture<Void> joined = new CompletableFuture<>();
+    private final Map<String, PendingSend> pending = new ConcurrentHashMap<>();
+    private final StringBuilder partial = new StringBuilder();
+
+    private volatile WebSocket webSocket;
+    private volatile boolean closed;
+    // The JDK client allows one outstanding send, so every send waits for the previous one
+    private CompletableFuture<WebSocket> lastSend = CompletableFuture.completedFuture(null);
+
+    private ChatConnection(ObjectMapper objectMapper, LatencyRecorder recorder, String roomId, long connectStartNanos) {
+        this.objectMapper = objectMapper;
+        this.recorder = recorder;
+        this.roomId = roomId;
+        this.connectStartNanos = connectStartNanos;
+    }
+
+    /**
+     * Connects and joins {@code roomId}. The returned future completes with the connection once it
+     * is a member of the room.
+     */
+    static CompletableFuture<ChatConnection> open(HttpClient httpClient, URI uri, String token, String roomId,
+                                                  ObjectMapper objectMapper, LatencyRecorder recorder) {
+        ChatConnection connection = new ChatConnection(objectMapper, recorder, roomId, System.nanoTime());
+        httpClient.newWebSocketBuilder()
+                .header("Authorization", "Bearer " + token)
+                .connectTimeout(Duration.ofSeconds(10))
+                .buildAsync(uri, connection)
+                .whenComplete((webSocket, error) -> {
+                    if (error != null) {
+                        connection.joined.completeExceptionally(error);
+                    }
+                });
+        return connection.joined
+                .orTimeout(ACK_TIMEOUT.toSeconds(), TimeUnit.SECONDS)
+                .handle((ignored, error) -> {
+                    long latency = System.nanoTime() - connection.connectStartNanos;
+                    if (error != null) {
+                        recorder.failure("connect", latency, 0);
+                        connection.close();
+                        throw new IllegalStateException("Could not join " + roomId, error);
+                    }
+                    recorder.success("connect", latency);
+                    return connection;
+                });
+    }
+
+    boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * Sends one message to the room. The returned future completes when the server acknowledged it.
+     */
+    CompletableFuture<Void> send(long intendedStartNanos) {
+        if (closed) {
+            recorder.failure("send", System.nanoTime() - intendedStartNanos, 0);
+            return CompletableFuture.failedFuture(new IllegalStateException("Connection closed"));
+        }
+        String clientId = Long.toString(CLIENT_IDS.incrementAndGet());
+        PendingSend send = new PendingSend(intendedStartNanos, new CompletableFuture<>());
+        pending.put(clientId, send);
+        write(Map.of("type", "send", "roomId", roomId, "text", Long.toString(intendedStartNanos), "clientId", clientId));
+        return send.acked()
+                .orTimeout(ACK_TIMEOUT.toSeconds(), TimeUnit.SECONDS)
+                .whenComplete((ignored, error) -> {
+                    if (error != null && pending.remove(clientId) != null) {
+                        recorder.failure("send", System.nanoTime() - intendedStartNanos, 0);
+                    }
+                });
+    }
+
+    void close() {
+        WebSocket current = webSocket;
+        if (current != null && !closed) {
+            current.sendClose(WebSocket.NORMAL_CLOSURE, "");
+        }
+        closed = true;
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket) {
+        this.webSocket = webSocket;
+        webSocket.request(1);
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        partial.append(data);
+        if (last) {
+            String frame = partial.toString();
+            partial.setLength(0);
+            try {
+                for (JsonNode event : objectMapper.readTree(frame)) {
+                    onEvent(event);
+                }
+            } catch (IOException e) {
+                fail(new UncheckedIOException("Unreadable frame", e));
+            }
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        fail(new IllegalStateException("Closed with " + statusCode + " " + reason));
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        fail(error);
+    }
+
+    private void onEvent(JsonNode event) {
+        long now = System.nanoTime();
+        switch (event.path("type").asText()) {
+            case "connected" -> write(Map.of("type", "join", "roomId", roomId));
+            case "joined" -> joined.complete(null);
+            case "message" -> {
+                // Only messages of this run carry a start time
+                String text = event.path("message").path("text").asText();
+                try {
+                    recorder.success("deliver", now - Long.parseLong(text));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+            case "ack" -> {
+                PendingSend send = pending.remove(event.path("clientId").asText());
+                if (send != null) {
+                    recorder.success("send", now - send.intendedStartNanos());
+                    send.acked().complete(null);
+                }
+            }
+            case "error" -> {
+                PendingSend send = pending.remove(event.path("clientId").asText());
+                int code = event.path("code").asInt();
+                if (send != null) {
+                    recorder.failure("send", now - send.intendedStartNanos(), code);
+                    send.acked().completeExceptionally(new IllegalStateException(event.path("error").asText()));
+                } else {
+                    joined.completeExceptionally(new IllegalStateException(event.path("error").asText()));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void write(Map<String, String> frame) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(frame);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        synchronized (this) {
+            lastSend = lastSend.thenCompose(ignored -> webSocket.sendText(json, true));
+            lastSend.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    fail(error);
+                }
+            });
+        }
+    }
+
+    private void fail(Throwable error) {
+        closed = true;
+        joined.completeExceptionally(error);
+        pending.values().forEach(send -> send.acked().completeExceptionally(error));
+    }
+
+    private record PendingSend(long intendedStartNanos, CompletableFuture<Void> acked) {
+    }
+}
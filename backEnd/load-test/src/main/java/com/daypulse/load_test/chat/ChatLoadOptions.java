@@ -0,0 +1,55 @@
+package com.daypulse.load_test.chat;
+
+import com.daypulse.load_test.LoadTestOptions;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options of {@link ChatLoadTest}. Every option is passed as {@code --name=value}.
+ */
+public record ChatLoadOptions(
+        String chatUrl,
+        String signingKey,
+        int connections,
+        int roomSize,
+        double connectRate,
+        double messageRate,
+        Duration warmup,
+        Duration duration,
+        int maxInFlight,
+        List<InetAddress> localAddresses,
+        Path reportFile) {
+
+    // The development key of auth-service; deployed services need --signing-key
+    private static final String DEFAULT_SIGNING_KEY =
+            "fbX2a4nQ4tdMnfExFUl+uA9aD9IFS+csS8GP96pR75RxrCiUcEYvpn+b4wWsgJshvXMUQiDUxhEBxA9RdPj+OQ==";
+
+    public static ChatLoadOptions parse(String[] args) throws UnknownHostException {
+        Map<String, String> values = LoadTestOptions.arguments(args);
+        Path workDir = Path.of(values.getOrDefault("work-dir", "target/chat-load-test"));
+        List<InetAddress> localAddresses = new ArrayList<>();
+        if (values.containsKey("local-addresses")) {
+            for (String address : values.get("local-addresses").split(",")) {
+                localAddresses.add(InetAddress.getByName(address.trim()));
+            }
+        }
+        return new ChatLoadOptions(
+                values.getOrDefault("chat-url", "ws://localhost:8082/chat-service/ws/chat"),
+                values.getOrDefault("signing-key", DEFAULT_SIGNING_KEY),
+                Integer.parseInt(values.getOrDefault("connections", "1000")),
+                Integer.parseInt(values.getOrDefault("room-size", "20")),
+                Double.parseDouble(values.getOrDefault("connect-rate", "500")),
+                Double.parseDouble(values.getOrDefault("rate", "200")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "15"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "10000")),
+                localAddresses,
+                Path.of(values.getOrDefault("report", workDir.resolve("report.json").toString())));
+    }
+}
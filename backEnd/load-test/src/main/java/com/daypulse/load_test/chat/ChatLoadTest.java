@@ -0,0 +1,148 @@
+package com.daypulse.load_test.chat;
+
+import com.daypulse.load_test.driver.OpenModelDriver;
+import com.daypulse.load_test.report.LatencyRecorder;
+import com.daypulse.load_test.report.RunReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Connection and fan-out test for chat-service.
+ * <p>
+ * Opens {@code --connections} WebSockets at {@code --connect-rate} per second, each a distinct
+ * user, and joins them to rooms of {@code --room-size} members. Messages are then sent at an open
+ * arrival rate from random members, so every message is delivered {@code --room-size} times.
+ * <pre>
+ * mvn compile exec:java -Dmain.class=com.daypulse.load_test.chat.ChatLoadTest \
+ *     -Dexec.args="--connections=10000 --room-size=50 --rate=500 --warmup=15 --duration=60"
+ * </pre>
+ * A single source address runs out of ephemeral ports at about 28k connections to one server
+ * port. For more, add addresses to the load host and pass them as {@code --local-addresses=a,b,...};
+ * connections are spread over them. Raise {@code ulimit -n} on both ends.
+ */
+public class ChatLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        ChatLoadOptions options = ChatLoadOptions.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper();
+        LatencyRecorder recorder = new LatencyRecorder();
+        List<HttpClient> httpClients = httpClients(options.localAddresses());
+        URI uri = URI.create(options.chatUrl());
+        // Tokens outlive the run, so no connection is closed for an expired token
+        TokenMinter tokens = new TokenMinter(options.signingKey(),
+                options.warmup().plus(options.duration()).plus(Duration.ofHours(1)));
+
+        System.out.printf("Opening %d connections at %.0f/s to %s%n",
+                options.connections(), options.connectRate(), uri);
+        recorder.startRecording();
+        long connectStart = System.nanoTime();
+        List<ChatConnection> connections = connect(options, httpClients, uri, tokens, objectMapper, recorder);
+        recorder.stopRecording();
+        Map<String, RunReport.OperationReport> connectPhase =
+                recorder.snapshot((System.nanoTime() - connectStart) / 1e9);
+        System.out.printf("%d of %d connections joined%n", connections.size(), options.connections());
+        if (connections.isEmpty()) {
+            System.exit(1);
+        }
+
+        OpenModelDriver driver = new OpenModelDriver(options.messageRate(), options.maxInFlight(),
+                start -> connections.get(ThreadLocalRandom.current().nextInt(connections.size())).send(start));
+
+        System.out.printf("Warming up for %ds at %.1f messages/s%n", options.warmup().toSeconds(), options.messageRate());
+        driver.run(options.warmup());
+        driver.drain(Duration.ofSeconds(30));
+        driver.resetCounts();
+
+        System.out.printf("Measuring for %ds%n", options.duration().toSeconds());
+        Instant startedAt = Instant.now();
+        recorder.startRecording();
+        long start = System.nanoTime();
+        driver.run(options.duration());
+        driver.drain(Duration.ofSeconds(30));
+        // Deliveries trail the last acks
+        LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+        recorder.stopRecording();
+        double measuredSeconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, RunReport.OperationReport> operations = new TreeMap<>(recorder.snapshot(measuredSeconds));
+        operations.putAll(connectPhase);
+        long open = connections.stream().filter(ChatConnection::isOpen).count();
+        connections.forEach(ChatConnection::close);
+
+        RunReport report = new RunReport(startedAt, options.messageRate(), options.warmup().toSeconds(),
+                Math.round(measuredSeconds * 100) / 100.0, driver.counts(), operations);
+        report.write(options.reportFile());
+        System.out.println("Report written to " + options.reportFile().toAbsolutePath());
+        System.out.printf("connections: joined=%d open at end=%d%n", connections.size(), open);
+        print(report);
+        System.exit(0);
+    }
+
+    private static List<ChatConnection> connect(ChatLoadOptions options, List<HttpClient> httpClients, URI uri,
+                                                TokenMinter tokens, ObjectMapper objectMapper, LatencyRecorder recorder) {
+        List<ChatConnection> connections = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<?>> opening = new ArrayList<>(options.connections());
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.connectRate());
+        long next = System.nanoTime();
+        for (int i = 0; i < options.connections(); i++, next += intervalNanos) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String userId = "load-user-" + i;
+            String roomId = "load-room-" + (i / options.roomSize());
+            opening.add(ChatConnection.open(httpClients.get(i % httpClients.size()), uri, tokens.mint(userId), roomId,
+                            objectMapper, recorder)
+                    .thenAccept(connections::add));
+        }
+        CompletableFuture.allOf(opening.toArray(CompletableFuture[]::new))
+                .exceptionally(error -> null)
+                .join();
+        return new ArrayList<>(connections);
+    }
+
+    private static List<HttpClient> httpClients(List<InetAddress> localAddresses) {
+        List<HttpClient> httpClients = new ArrayList<>();
+        if (localAddresses.isEmpty()) {
+            httpClients.add(httpClient(null));
+        }
+        for (InetAddress address : localAddresses) {
+            httpClients.add(httpClient(address));
+        }
+        return httpClients;
+    }
+
+    private static HttpClient httpClient(InetAddress localAddress) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor());
+        if (localAddress != null) {
+            builder.localAddress(localAddress);
+        }
+        return builder.build();
+    }
+
+    private static void print(RunReport report) {
+        RunReport.SessionCounts messages = report.sessions();
+        System.out.printf("messages: started=%d acked=%d failed=%d dropped=%d%n",
+                messages.started(), messages.completed(), messages.failed(), messages.dropped());
+        System.out.printf("%-10s %9s %8s %10s %9s %9s %9s%n", "operation", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p999 ms");
+        report.operations().forEach((name, op) -> System.out.printf("%-10s %9d %8d %10.1f %9.2f %9.2f %9.2f%n",
+                name, op.count(), op.errors(), op.throughput(), op.p50Ms(), op.p99Ms(), op.p999Ms()));
+    }
+}
@@ -0,0 +1,55 @@
+package com.daypulse.load_test.chat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Signs HS512 tokens shaped like those of auth-service, so a run can open more connections than
+ * there are users to log in. chat-service only checks the signature; the gateway also expects the
+ * permission claims of a real login, so minted tokens are used against chat-service directly.
+ */
+public class TokenMinter {
+    private static final String HEADER = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("{\"alg\":\"HS512\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final byte[] signingKey;
+    private final Duration validity;
+
+    public TokenMinter(String signingKey, Duration validity) {
+        this.signingKey = Base64.getDecoder().decode(signingKey);
+        this.validity = validity;
+    }
+
+    public String mint(String userId) {
+        Instant now = Instant.now();
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", userId);
+        claims.put("iss", "qnit18.com");
+        claims.put("iat", now.getEpochSecond());
+        claims.put("exp", now.plus(validity).getEpochSecond());
+        claims.put("jti", UUID.randomUUID().toString());
+        claims.put("userId", userId);
+        try {
+            String signingInput = HEADER + "." + Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(objectMapper.writeValueAsBytes(claims));
+            Mac mac = Mac.getInstance("HmacSHA512");
+            mac.init(new SecretKeySpec(signingKey, "HmacSHA512"));
+            byte[] signature = mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (JsonProcessingException | GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign a token for " + userId, e);
+        }
+    }
+}
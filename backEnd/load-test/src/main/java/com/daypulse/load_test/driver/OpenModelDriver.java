@@ -0,0 +1,95 @@
+package com.daypulse.load_test.driver;
+
+import com.daypulse.load_test.report.RunReport;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Open-model load generator: sessions arrive at a fixed rate whether or not earlier sessions have
+ * finished, so a slow system sees queues build up instead of the generator backing off.
+ * Arrivals that would exceed {@code maxInFlight} are dropped and counted rather than queued.
+ */
+public class OpenModelDriver {
+    private final double arrivalRate;
+    private final int maxInFlight;
+    private final LongFunction<CompletableFuture<Void>> session;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public OpenModelDriver(double arrivalRate, int maxInFlight, LongFunction<CompletableFuture<Void>> session) {
+        this.arrivalRate = arrivalRate;
+        this.maxInFlight = maxInFlight;
+        this.session = session;
+    }
+
+    /**
+     * Generates arrivals for {@code duration} on the calling thread.
+     */
+    public void run(Duration duration) {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / arrivalRate);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (long next = start; next < end; next += intervalNanos) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            arrive(next);
+        }
+    }
+
+    /**
+     * Waits up to {@code timeout} for sessions that are still running.
+     */
+    public void drain(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+    }
+
+    public RunReport.SessionCounts counts() {
+        return new RunReport.SessionCounts(started.sum(), completed.sum(), failed.sum(), dropped.sum());
+    }
+
+    public void resetCounts() {
+        started.reset();
+        completed.reset();
+        failed.reset();
+        dropped.reset();
+    }
+
+    private void arrive(long intendedStartNanos) {
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        started.increment();
+        CompletableFuture<Void> running;
+        try {
+            running = session.apply(intendedStartNanos);
+        } catch (RuntimeException e) {
+            running = CompletableFuture.failedFuture(e);
+        }
+        running.whenComplete((ignored, error) -> {
+            inFlight.decrementAndGet();
+            if (error == null) {
+                completed.increment();
+            } else {
+                failed.increment();
+            }
+        });
+    }
+}
@@ -0,0 +1,170 @@
+package com.daypulse.load_test.notification;
+
+import com.daypulse.load_test.chat.TokenMinter;
+import com.daypulse.load_test.standin.ActuatorMetrics;
+import com.daypulse.load_test.standin.EmbeddedDatabase;
+import com.daypulse.load_test.standin.ServiceProcess;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Opens thousands of idle notification streams on main-service and measures what holding them costs.
+ * <pre>
+ * mvn -f ../main-service package -DskipTests
+ * mvn compile exec:java -Dmain.class=com.daypulse.load_test.notification.NotificationStreamBenchmark -Dexec.args="--streams=10000"
+ * </pre>
+ * main-service runs against the embedded H2 database and is reached directly, one user per stream,
+ * with tokens signed by {@code --signing-key}. Streams are opened {@code --max-opening} at a time;
+ * a stream counts as open once its first event, the unread count, has arrived. They are then held
+ * for {@code --hold} seconds, long enough for heartbeats to flow. Each stream is a connection on
+ * both ends, so the file descriptor limit of both processes must allow for it.
+ */
+public class NotificationStreamBenchmark {
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration OPEN_TIMEOUT = Duration.ofMinutes(5);
+    private static final Duration SETTLE = Duration.ofSeconds(5);
+    private static final String BASE_PATH = "/main-service";
+
+    private final NotificationStreamOptions options;
+    private final TokenMinter tokenMinter;
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger closed = new AtomicInteger();
+    private final LongAdder heartbeats = new LongAdder();
+
+    private NotificationStreamBenchmark(NotificationStreamOptions options) {
+        this.options = options;
+        this.tokenMinter = new TokenMinter(options.signingKey(), Duration.ofHours(1));
+    }
+
+    public static void main(String[] args) throws Exception {
+        NotificationStreamOptions options = NotificationStreamOptions.parse(args);
+        NotificationStreamReport report = new NotificationStreamBenchmark(options).run();
+        report.write(options.reportFile());
+        System.out.println("Report written to " + options.reportFile().toAbsolutePath());
+        System.out.printf("%d of %d streams open in %d ms, %d after %d s (%.1f heartbeats each), %d failed%n",
+                report.opened(), report.streams(), report.openMs(), report.openAfterHold(),
+                options.hold().toSeconds(), report.heartbeatsPerStream(), report.failed());
+        System.out.printf("RSS %d -> %d MiB (%d B per stream), heap %d -> %d MiB, threads %d -> %d%n",
+                report.residentSetBeforeMib(), report.residentSetAfterMib(), report.residentSetBytesPerStream(),
+                report.heapBeforeMib(), report.heapAfterMib(), report.threadsBefore(), report.threadsAfter());
+        System.exit(0);
+    }
+
+    private NotificationStreamReport run() throws Exception {
+        try (EmbeddedDatabase database = EmbeddedDatabase.start("mem:main-service");
+             ServiceProcess process = start(database)) {
+            ActuatorMetrics metrics = new ActuatorMetrics("http://localhost:" + process.port() + BASE_PATH + "/actuator",
+                    tokenMinter.mint("notification-stream-benchmark"));
+            long residentSetBefore = process.residentSetKib();
+            long heapBefore = (long) metrics.value("jvm.memory.used?tag=area:heap");
+            long threadsBefore = (long) metrics.value("jvm.threads.live");
+
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            Semaphore opening = new Semaphore(options.maxOpening());
+            long started = System.nanoTime();
+            long deadline = started + OPEN_TIMEOUT.toNanos();
+            for (int i = 0; i < options.streams() && System.nanoTime() < deadline; i++) {
+                opening.acquire();
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + process.port()
+                                + BASE_PATH + "/notifications/stream"))
+                        .header("Authorization", "Bearer " + tokenMinter.mint("stream-user-" + i))
+                        .header("Accept", "text/event-stream")
+                        .GET()
+                        .build();
+                client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(new StreamReader(opening)));
+            }
+            while (opened.get() + failed.get() < options.streams() && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+            long openMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            System.out.printf("Opened %d streams in %d ms, %d failed%n", opened.get(), openMs, failed.get());
+
+            Thread.sleep(SETTLE.toMillis());
+            long openOnServer = (long) metrics.value("notifications.streams.open");
+            long residentSetAfter = process.residentSetKib();
+            long heapAfter = (long) metrics.value("jvm.memory.used?tag=area:heap");
+            long threadsAfter = (long) metrics.value("jvm.threads.live");
+
+            heartbeats.reset();
+            Thread.sleep(options.hold().toMillis());
+            long openAfterHold = (long) metrics.value("notifications.streams.open");
+            int streams = Math.max(1, opened.get());
+            return new NotificationStreamReport(Instant.now(), options.streams(), opened.get(), openMs, openOnServer,
+                    openAfterHold, failed.get(), (double) heartbeats.sum() / streams,
+                    residentSetBefore / 1024, residentSetAfter / 1024,
+                    (residentSetAfter - residentSetBefore) * 1024 / streams,
+                    heapBefore >> 20, heapAfter >> 20, threadsBefore, threadsAfter);
+        }
+    }
+
+    private ServiceProcess start(EmbeddedDatabase database) throws Exception {
+        int port = ServiceProcess.freePort();
+        List<String> arguments = Stream.concat(database.springArguments().stream(), Stream.of(
+                "--notifications.stream.heartbeat-interval=" + options.heartbeatInterval())).toList();
+        ServiceProcess process = ServiceProcess.start("main-service", options.mainServiceJar(), port,
+                List.of("-Xmx" + options.heap()), List.of(EmbeddedDatabase.driverJar()), arguments, options.workDir());
+        process.awaitHttp(BASE_PATH + "/actuator/health", START_TIMEOUT);
+        return process;
+    }
+
+    /**
+     * Reads one stream line by line: the first event opens it, comment lines are heartbeats.
+     */
+    private final class StreamReader implements Flow.Subscriber<String> {
+        private final Semaphore opening;
+        private boolean open;
+
+        private StreamReader(Semaphore opening) {
+            this.opening = opening;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (!open && line.startsWith("event:")) {
+                open = true;
+                opened.incrementAndGet();
+                opening.release();
+            } else if (line.startsWith(":")) {
+                heartbeats.increment();
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            if (!open) {
+                failed.incrementAndGet();
+                opening.release();
+            } else {
+                closed.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (!open) {
+                failed.incrementAndGet();
+                opening.release();
+            } else {
+                closed.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.daypulse.load_test.notification;
+
+import com.daypulse.load_test.LoadTestOptions;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Command line options of {@link NotificationStreamBenchmark}. Every option is passed as {@code --name=value}.
+ */
+public record NotificationStreamOptions(
+        Path mainServiceJar,
+        String heap,
+        String signingKey,
+        int streams,
+        int maxOpening,
+        Duration hold,
+        Duration heartbeatInterval,
+        Path reportFile,
+        Path workDir) {
+
+    // The development key of auth-service, which main-service also starts with
+    private static final String DEFAULT_SIGNING_KEY =
+            "fbX2a4nQ4tdMnfExFUl+uA9aD9IFS+csS8GP96pR75RxrCiUcEYvpn+b4wWsgJshvXMUQiDUxhEBxA9RdPj+OQ==";
+
+    public static NotificationStreamOptions parse(String[] args) {
+        Map<String, String> values = LoadTestOptions.arguments(args);
+        Path workDir = Path.of(values.getOrDefault("work-dir", "target/notification-streams"));
+        return new NotificationStreamOptions(
+                Path.of(values.getOrDefault("main-jar", "../main-service/target/main-service-0.0.1-SNAPSHOT.jar")),
+                values.getOrDefault("heap", "1536m"),
+                values.getOrDefault("signing-key", DEFAULT_SIGNING_KEY),
+                Integer.parseInt(values.getOrDefault("streams", "10000")),
+                Integer.parseInt(values.getOrDefault("max-opening", "200")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("hold", "60"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("heartbeat-interval", "25"))),
+                Path.of(values.getOrDefault("report", workDir.resolve("streams.json").toString())),
+                workDir);
+    }
+}
@@ -0,0 +1,48 @@
+package com.daypulse.load_test.notification;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Results of an idle notification stream run, written as pretty-printed JSON. Heap figures are what
+ * the service reports as used, so they include garbage not yet collected.
+ */
+@JsonPropertyOrder({"measuredAt", "streams", "opened", "openMs", "openOnServer", "openAfterHold", "failed",
+        "heartbeatsPerStream", "residentSetBeforeMib", "residentSetAfterMib", "residentSetBytesPerStream",
+        "heapBeforeMib", "heapAfterMib", "threadsBefore", "threadsAfter"})
+public record NotificationStreamReport(
+        Instant measuredAt,
+        int streams,
+        int opened,
+        long openMs,
+        long openOnServer,
+        long openAfterHold,
+        int failed,
+        double heartbeatsPerStream,
+        long residentSetBeforeMib,
+        long residentSetAfterMib,
+        long residentSetBytesPerStream,
+        long heapBeforeMib,
+        long heapAfterMib,
+        long threadsBefore,
+        long threadsAfter) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        MAPPER.writeValue(file.toFile(), this);
+    }
+}
@@ -0,0 +1,151 @@
+package com.daypulse.load_test.reminder;
+
+import com.daypulse.load_test.chat.TokenMinter;
+import com.daypulse.load_test.standin.ActuatorMetrics;
+import com.daypulse.load_test.standin.EmbeddedDatabase;
+import com.daypulse.load_test.standin.ServiceProcess;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Fills chat-service's timing wheel with millions of reminders and measures what holding and
+ * firing them costs.
+ * <pre>
+ * mvn -f ../chat-service package -DskipTests
+ * mvn compile exec:java -Dmain.class=com.daypulse.load_test.reminder.ReminderBenchmark -Dexec.args="--reminders=10000000"
+ * </pre>
+ * chat-service is started once to create its schema in an H2 file database, then stopped while
+ * the reminders are inserted, all due within its horizon from {@code --lead} seconds on and
+ * spread over {@code --spread} seconds. The second start loads every one of them into the wheel
+ * at once, as after a restart. The run then watches them fire for {@code --duration} seconds.
+ * Figures are read from the service's metrics endpoint with a token signed by {@code --signing-key}.
+ */
+public class ReminderBenchmark {
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration LOAD_TIMEOUT = Duration.ofMinutes(10);
+    private static final Duration REFILL_INTERVAL = Duration.ofSeconds(5);
+    private static final int SEED_CHUNK = 1_000_000;
+    private static final String PROBE_PATH = "/chat-service/actuator/health";
+
+    private final ReminderBenchmarkOptions options;
+    private final String token;
+
+    private ReminderBenchmark(ReminderBenchmarkOptions options) {
+        this.options = options;
+        this.token = new TokenMinter(options.signingKey(), Duration.ofHours(1)).mint("reminder-benchmark");
+    }
+
+    public static void main(String[] args) throws Exception {
+        ReminderBenchmarkOptions options = ReminderBenchmarkOptions.parse(args);
+        ReminderReport report = new ReminderBenchmark(options).run();
+        report.write(options.reportFile());
+        System.out.println("Report written to " + options.reportFile().toAbsolutePath());
+        System.out.printf("%d reminders: loaded in %d ms, %d B of heap each, %d MiB RSS%n", report.scheduled(),
+                report.loadMs(), report.heapBytesPerReminder(), report.residentSetMib());
+        System.out.printf("fired %d (%.0f/s), lateness p50 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms%n",
+                report.fired(), report.firedPerSecond(), report.latenessP50Ms(), report.latenessP99Ms(),
+                report.latenessP999Ms(), report.latenessMaxMs());
+        System.exit(0);
+    }
+
+    private ReminderReport run() throws Exception {
+        Path database = options.workDir().toAbsolutePath().resolve("reminders");
+        Files.deleteIfExists(Path.of(database + ".mv.db"));
+        try (EmbeddedDatabase embedded = EmbeddedDatabase.start(database.toString())) {
+            long heapBefore;
+            try (ServiceProcess process = start(embedded)) {
+                heapBefore = (long) metrics(process).value("jvm.memory.used?tag=area:heap");
+            }
+
+            long seedStarted = System.nanoTime();
+            long firstDue = System.currentTimeMillis() + options.lead().toMillis();
+            seed(embedded, firstDue);
+            long seedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStarted);
+            System.out.printf("Inserted %d reminders in %d ms%n", options.reminders(), seedMs);
+
+            try (ServiceProcess process = start(embedded)) {
+                ActuatorMetrics metrics = metrics(process);
+                long scheduled = 0;
+                long loadDeadline = System.nanoTime() + LOAD_TIMEOUT.toNanos();
+                while (scheduled < options.reminders() && System.nanoTime() < loadDeadline) {
+                    Thread.sleep(200);
+                    scheduled = (long) metrics.value("chat.reminders.scheduled");
+                }
+                long loadMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - process.startedNanos());
+                long heapAfter = (long) metrics.value("jvm.memory.used?tag=area:heap");
+                long residentSetMib = process.residentSetKib() / 1024;
+                System.out.printf("Loaded %d reminders in %d ms since start%n", scheduled, loadMs);
+
+                long wait = firstDue - System.currentTimeMillis();
+                if (wait > 0) {
+                    Thread.sleep(wait);
+                }
+                Thread.sleep(options.duration().toMillis());
+                long fired = (long) metrics.value("chat.reminders.fired", "COUNT");
+                return new ReminderReport(Instant.now(), options.reminders(), seedMs, loadMs, scheduled,
+                        heapBefore >> 20, heapAfter >> 20,
+                        scheduled == 0 ? 0 : (heapAfter - heapBefore) / scheduled,
+                        residentSetMib, fired, (double) fired / options.duration().toSeconds(),
+                        latenessMs(metrics, "chat.reminders.lateness.percentile?tag=phi:0.5", "VALUE"),
+                        latenessMs(metrics, "chat.reminders.lateness.percentile?tag=phi:0.99", "VALUE"),
+                        latenessMs(metrics, "chat.reminders.lateness.percentile?tag=phi:0.999", "VALUE"),
+                        latenessMs(metrics, "chat.reminders.lateness", "MAX"));
+            }
+        }
+    }
+
+    private ActuatorMetrics metrics(ServiceProcess process) {
+        return new ActuatorMetrics("http://localhost:" + process.port() + "/chat-service/actuator", token);
+    }
+
+    private ServiceProcess start(EmbeddedDatabase database) throws IOException, InterruptedException {
+        int port = ServiceProcess.freePort();
+        Duration horizon = options.lead().plus(options.spread()).plus(Duration.ofMinutes(1));
+        List<String> arguments = Stream.concat(database.springArguments().stream(), Stream.of(
+                "--chat.log.directory=" + options.workDir().toAbsolutePath().resolve("chat-log"),
+                "--chat.reminders.horizon=" + horizon,
+                "--chat.reminders.refill-interval=" + REFILL_INTERVAL)).toList();
+        ServiceProcess process = ServiceProcess.start("chat-service", options.chatServiceJar(), port,
+                List.of("-Xmx" + options.heap()), List.of(EmbeddedDatabase.driverJar()), arguments, options.workDir());
+        process.awaitHttp(PROBE_PATH, START_TIMEOUT);
+        return process;
+    }
+
+    /**
+     * Inserts once reminders due evenly from {@code firstDue} over the spread, spread over a
+     * thousand group rooms. The rows are generated by the database to keep the run short.
+     */
+    private void seed(EmbeddedDatabase database, long firstDue) throws SQLException {
+        long spreadMillis = options.spread().toMillis();
+        try (Connection connection = database.connect();
+             PreparedStatement statement = connection.prepareStatement("insert into chat_reminders (room_id, "
+                     + "created_by, content, type, target, fire_at, enabled, next_fire_at) "
+                     + "select 'bench-' || mod(n, 1000), 'reminder-benchmark', 'Benchmark reminder', 'ONCE', 'SELF', "
+                     + "due, true, due from (select n, cast(? + n * ? / ? as bigint) as due "
+                     + "from system_range(?, ?) as r (n))")) {
+            for (long from = 0; from < options.reminders(); from += SEED_CHUNK) {
+                statement.setLong(1, firstDue);
+                statement.setLong(2, spreadMillis);
+                statement.setLong(3, options.reminders());
+                statement.setLong(4, from);
+                statement.setLong(5, Math.min(from + SEED_CHUNK, options.reminders()) - 1);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    private static double latenessMs(ActuatorMetrics metrics, String path, String statistic)
+            throws IOException, InterruptedException {
+        return metrics.value(path, statistic) * 1000;
+    }
+}
@@ -0,0 +1,41 @@
+package com.daypulse.load_test.reminder;
+
+import com.daypulse.load_test.LoadTestOptions;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Command line options of {@link ReminderBenchmark}. Every option is passed as {@code --name=value}.
+ */
+public record ReminderBenchmarkOptions(
+        Path chatServiceJar,
+        String heap,
+        String signingKey,
+        int reminders,
+        Duration lead,
+        Duration spread,
+        Duration duration,
+        Path reportFile,
+        Path workDir) {
+
+    // The development key of auth-service, which chat-service also starts with
+    private static final String DEFAULT_SIGNING_KEY =
+            "fbX2a4nQ4tdMnfExFUl+uA9aD9IFS+csS8GP96pR75RxrCiUcEYvpn+b4wWsgJshvXMUQiDUxhEBxA9RdPj+OQ==";
+
+    public static ReminderBenchmarkOptions parse(String[] args) {
+        Map<String, String> values = LoadTestOptions.arguments(args);
+        Path workDir = Path.of(values.getOrDefault("work-dir", "target/reminder-benchmark"));
+        return new ReminderBenchmarkOptions(
+                Path.of(values.getOrDefault("chat-jar", "../chat-service/target/chat-service-0.0.1-SNAPSHOT.jar")),
+                values.getOrDefault("heap", "1g"),
+                values.getOrDefault("signing-key", DEFAULT_SIGNING_KEY),
+                Integer.parseInt(values.getOrDefault("reminders", "10000000")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("lead", "300"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("spread", "3600"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                Path.of(values.getOrDefault("report", workDir.resolve("reminders.json").toString())),
+                workDir);
+    }
+}
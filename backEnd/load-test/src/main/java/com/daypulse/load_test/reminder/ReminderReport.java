@@ -0,0 +1,48 @@
+package com.daypulse.load_test.reminder;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Results of a reminder benchmark run, written as pretty-printed JSON. Heap figures are what the
+ * service reports as used, so they include garbage not yet collected.
+ */
+@JsonPropertyOrder({"measuredAt", "reminders", "seedMs", "loadMs", "scheduled", "heapBeforeMib", "heapAfterMib",
+        "heapBytesPerReminder", "residentSetMib", "fired", "firedPerSecond", "latenessP50Ms", "latenessP99Ms",
+        "latenessP999Ms", "latenessMaxMs"})
+public record ReminderReport(
+        Instant measuredAt,
+        int reminders,
+        long seedMs,
+        long loadMs,
+        long scheduled,
+        long heapBeforeMib,
+        long heapAfterMib,
+        long heapBytesPerReminder,
+        long residentSetMib,
+        long fired,
+        double firedPerSecond,
+        double latenessP50Ms,
+        double latenessP99Ms,
+        double latenessP999Ms,
+        double latenessMaxMs) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        MAPPER.writeValue(file.toFile(), this);
+    }
+}
@@ -0,0 +1,61 @@
+package com.daypulse.load_test.report;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Compares a run against a saved baseline report, operation by operation.
+ */
+public class BaselineComparison {
+    private final RunReport baseline;
+    private final RunReport current;
+    private final double maxRegressionPercent;
+    private final List<String> regressions = new ArrayList<>();
+
+    public BaselineComparison(RunReport baseline, RunReport current, double maxRegressionPercent) {
+        this.baseline = baseline;
+        this.current = current;
+        this.maxRegressionPercent = maxRegressionPercent;
+    }
+
+    /**
+     * Renders the comparison table and collects regressions beyond the allowed threshold.
+     * Latency and error rate regress when they grow, throughput when it shrinks.
+     */
+    public String render() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-14s %-12s %12s %12s %9s%n", "operation", "metric", "baseline", "current", "change"));
+
+        TreeSet<String> names = new TreeSet<>(baseline.operations().keySet());
+        names.addAll(current.operations().keySet());
+        for (String name : names) {
+            RunReport.OperationReport before = baseline.operations().get(name);
+            RunReport.OperationReport after = current.operations().get(name);
+            if (before == null || after == null) {
+                out.append(String.format("%-14s %s%n", name, before == null ? "(new)" : "(missing)"));
+                continue;
+            }
+            row(out, name, "throughput", before.throughput(), after.throughput(), false);
+            row(out, name, "p50Ms", before.p50Ms(), after.p50Ms(), true);
+            row(out, name, "p99Ms", before.p99Ms(), after.p99Ms(), true);
+            row(out, name, "p999Ms", before.p999Ms(), after.p999Ms(), true);
+            row(out, name, "errorRate", before.errorRate(), after.errorRate(), true);
+        }
+        return out.toString();
+    }
+
+    public List<String> regressions() {
+        return regressions;
+    }
+
+    private void row(StringBuilder out, String name, String metric, double before, double after, boolean higherIsWorse) {
+        double change = before == 0 ? (after == 0 ? 0 : 100) : (after - before) * 100 / before;
+        out.append(String.format("%-14s %-12s %12.2f %12.2f %+8.1f%%%n", name, metric, before, after, change));
+
+        double regression = higherIsWorse ? change : -change;
+        if (regression > maxRegressionPercent) {
+            regressions.add(String.format("%s %s %+.1f%%", name, metric, change));
+        }
+    }
+}
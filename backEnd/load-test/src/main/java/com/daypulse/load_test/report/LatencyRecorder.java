@@ -0,0 +1,88 @@
+package com.daypulse.load_test.report;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency histograms and error counters. Recording is switched off during warm-up
+ * so that the report only covers the measured window.
+ */
+public class LatencyRecorder {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    public void startRecording() {
+        operations.clear();
+        recording = true;
+    }
+
+    public void stopRecording() {
+        recording = false;
+    }
+
+    public void success(String operation, long latencyNanos) {
+        if (recording) {
+            operation(operation).record(latencyNanos);
+        }
+    }
+
+    /**
+     * Records a failed call. {@code status} is the HTTP status, or 0 for transport errors and timeouts.
+     */
+    public void failure(String operation, long latencyNanos, int status) {
+        if (recording) {
+            Operation stats = operation(operation);
+            stats.record(latencyNanos);
+            stats.errorsByStatus.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+    }
+
+    public Map<String, RunReport.OperationReport> snapshot(double measuredSeconds) {
+        Map<String, RunReport.OperationReport> result = new TreeMap<>();
+        operations.forEach((name, operation) -> result.put(name, operation.report(measuredSeconds)));
+        return result;
+    }
+
+    private Operation operation(String name) {
+        return operations.computeIfAbsent(name, key -> new Operation());
+    }
+
+    private static final class Operation {
+        final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final Map<Integer, LongAdder> errorsByStatus = new ConcurrentHashMap<>();
+
+        void record(long latencyNanos) {
+            long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS);
+            histogram.recordValue(Math.max(1, micros));
+        }
+
+        RunReport.OperationReport report(double measuredSeconds) {
+            long count = histogram.getTotalCount();
+            Map<String, Long> errors = new TreeMap<>();
+            errorsByStatus.forEach((status, adder) -> errors.put(String.valueOf(status), adder.sum()));
+            long errorCount = errors.values().stream().mapToLong(Long::longValue).sum();
+            return new RunReport.OperationReport(
+                    count,
+                    errorCount,
+                    count == 0 ? 0 : (double) errorCount / count,
+                    measuredSeconds == 0 ? 0 : count / measuredSeconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    errors);
+        }
+
+        private static double millis(long micros) {
+            return Math.round(micros / 10.0) / 100.0;
+        }
+    }
+}
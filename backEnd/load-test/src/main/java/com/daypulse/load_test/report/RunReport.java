@@ -0,0 +1,59 @@
+package com.daypulse.load_test.report;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Result of one run. Written as pretty-printed JSON with a stable field order so that two reports
+ * can be compared with a plain text diff as well as with {@link BaselineComparison}.
+ */
+@JsonPropertyOrder({"startedAt", "arrivalRate", "warmupSeconds", "measuredSeconds", "sessions", "operations"})
+public record RunReport(
+        Instant startedAt,
+        double arrivalRate,
+        long warmupSeconds,
+        double measuredSeconds,
+        SessionCounts sessions,
+        Map<String, OperationReport> operations) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    @JsonPropertyOrder({"started", "completed", "failed", "dropped"})
+    public record SessionCounts(long started, long completed, long failed, long dropped) {
+    }
+
+    @JsonPropertyOrder({"count", "errors", "errorRate", "throughput", "p50Ms", "p99Ms", "p999Ms", "maxMs", "errorsByStatus"})
+    public record OperationReport(
+            long count,
+            long errors,
+            double errorRate,
+            double throughput,
+            double p50Ms,
+            double p99Ms,
+            double p999Ms,
+            double maxMs,
+            Map<String, Long> errorsByStatus) {
+    }
+
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        MAPPER.writeValue(file.toFile(), this);
+    }
+
+    public static RunReport read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), RunReport.class);
+    }
+}
@@ -0,0 +1,96 @@
+package com.daypulse.load_test.scenario;
+
+import com.daypulse.load_test.report.LatencyRecorder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+
+/**
+ * Asynchronous JSON client for the gateway. Every call is timed and reported to the
+ * {@link LatencyRecorder} under its operation name.
+ */
+public class ApiClient {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String gatewayUrl;
+    private final LatencyRecorder recorder;
+
+    public ApiClient(String gatewayUrl, LatencyRecorder recorder) {
+        this.gatewayUrl = gatewayUrl;
+        this.recorder = recorder;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public CompletableFuture<JsonNode> post(String operation, String path, Object body, String token, long startNanos) {
+        HttpRequest.Builder request = request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(toJson(body)));
+        return send(operation, request.build(), startNanos);
+    }
+
+    public CompletableFuture<JsonNode> get(String operation, String path, String token, long startNanos) {
+        return send(operation, request(path, token).GET().build(), startNanos);
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(gatewayUrl + path)).timeout(REQUEST_TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private CompletableFuture<JsonNode> send(String operation, HttpRequest request, long startNanos) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> {
+                    long latency = System.nanoTime() - startNanos;
+                    if (error != null) {
+                        recorder.failure(operation, latency, 0);
+                        throw new CompletionException(error);
+                    }
+                    if (response.statusCode() >= 400) {
+                        recorder.failure(operation, latency, response.statusCode());
+                        throw new CompletionException(new IllegalStateException(
+                                operation + " returned HTTP " + response.statusCode()));
+                    }
+                    recorder.success(operation, latency);
+                    return parse(response.body());
+                });
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private JsonNode parse(byte[] body) {
+        if (body.length == 0) {
+            return objectMapper.missingNode();
+        }
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            // Some endpoints answer with plain text; callers that need a JSON field will fail on it.
+            return objectMapper.missingNode();
+        }
+    }
+}
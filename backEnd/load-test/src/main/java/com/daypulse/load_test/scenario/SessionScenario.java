@@ -0,0 +1,80 @@
+package com.daypulse.load_test.scenario;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One user session through the gateway: register, log in, a series of authenticated reads against
+ * auth-service and main-service, a token refresh, one more read with the new token and a logout.
+ * A failing step aborts the rest of the session.
+ */
+public class SessionScenario {
+    public static final String REGISTER = "register";
+    public static final String LOGIN = "login";
+    public static final String MY_INFO = "my-info";
+    public static final String FEED = "feed";
+    public static final String REFRESH = "refresh";
+    public static final String LOGOUT = "logout";
+
+    private static final String PASSWORD = "load-test-password";
+
+    private final ApiClient client;
+    private final int readsPerSession;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong userSequence = new AtomicLong();
+
+    public SessionScenario(ApiClient client, int readsPerSession) {
+        this.client = client;
+        this.readsPerSession = readsPerSession;
+    }
+
+    /**
+     * Runs a session. {@code intendedStartNanos} is the scheduled arrival time; the first request
+     * is timed from it so that queueing inside the harness is not hidden from the latencies.
+     */
+    public CompletableFuture<Void> run(long intendedStartNanos) {
+        String username = "lt" + runId + "u" + userSequence.incrementAndGet();
+
+        return client.post(REGISTER, "/auth-service/users", Map.of(
+                        "username", username,
+                        "password", PASSWORD,
+                        "firstName", "Load",
+                        "lastName", "Test",
+                        "dob", "1990-01-01"), null, intendedStartNanos)
+                .thenCompose(ignored -> client.post(LOGIN, "/auth-service/auth/token", Map.of(
+                        "username", username,
+                        "password", PASSWORD), null, System.nanoTime()))
+                .thenCompose(login -> reads(token(login), 0))
+                .thenCompose(token -> client.post(REFRESH, "/auth-service/auth/refresh-token",
+                        Map.of("token", token), null, System.nanoTime()))
+                .thenCompose(refresh -> {
+                    String token = token(refresh);
+                    return client.get(MY_INFO, "/auth-service/users/my-info", token, System.nanoTime())
+                            .thenApply(ignored -> token);
+                })
+                .thenCompose(token -> client.post(LOGOUT, "/auth-service/auth/logout",
+                        Map.of("token", token), null, System.nanoTime()))
+                .thenApply(ignored -> null);
+    }
+
+    private CompletableFuture<String> reads(String token, int done) {
+        if (done == readsPerSession) {
+            return CompletableFuture.completedFuture(token);
+        }
+        CompletableFuture<JsonNode> read = done % 2 == 0
+                ? client.get(MY_INFO, "/auth-service/users/my-info", token, System.nanoTime())
+                : client.get(FEED, "/main-service/feed", token, System.nanoTime());
+        return read.thenCompose(ignored -> reads(token, done + 1));
+    }
+
+    private static String token(JsonNode response) {
+        JsonNode token = response.path("result").path("token");
+        if (!token.isTextual()) {
+            throw new IllegalStateException("Response carries no token: " + response);
+        }
+        return token.asText();
+    }
+}
@@ -0,0 +1,57 @@
+package com.daypulse.load_test.standin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Reads single values from a service's {@code /actuator/metrics} endpoint, which the services only
+ * expose to authenticated callers.
+ */
+public class ActuatorMetrics {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final String token;
+
+    /**
+     * @param actuatorUrl the service's actuator base, e.g. {@code http://localhost:8082/chat-service/actuator}
+     */
+    public ActuatorMetrics(String actuatorUrl, String token) {
+        this.baseUrl = actuatorUrl + "/metrics/";
+        this.token = token;
+    }
+
+    public double value(String path) throws IOException, InterruptedException {
+        return value(path, "VALUE");
+    }
+
+    /**
+     * The {@code statistic} measurement of a metric, in its base unit; 0 if the metric has not
+     * been registered yet. {@code path} is the metric name, optionally with {@code ?tag=} filters.
+     */
+    public double value(String path, String statistic) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 404) {
+            return 0;
+        }
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Reading " + path + " failed with status " + response.statusCode());
+        }
+        for (JsonNode measurement : objectMapper.readTree(response.body()).path("measurements")) {
+            if (statistic.equals(measurement.path("statistic").asText())) {
+                return measurement.path("value").asDouble();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,92 @@
+package com.daypulse.load_test.standin;
+
+import org.h2.tools.Server;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * H2 database served over TCP, standing in for a service's Postgres instance. By default it is
+ * the in-memory auth-service database. The service process connects to it in PostgreSQL
+ * compatibility mode and runs its own migrations; the harness only seeds the data a run depends on.
+ */
+public class EmbeddedDatabase implements AutoCloseable {
+    private static final String AUTH_SERVICE_DATABASE = "mem:auth-service";
+    private static final String URL_OPTIONS = ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String USERNAME = "sa";
+    private static final String PASSWORD = "";
+
+    private final Server server;
+    private final String database;
+
+    private EmbeddedDatabase(Server server, String database) {
+        this.server = server;
+        this.database = database;
+    }
+
+    public static EmbeddedDatabase start() throws SQLException {
+        return start(AUTH_SERVICE_DATABASE);
+    }
+
+    /**
+     * Serves {@code database}: {@code mem:<name>}, or the absolute path of a file database for
+     * data that would not fit in memory.
+     */
+    public static EmbeddedDatabase start(String database) throws SQLException {
+        Server server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        return new EmbeddedDatabase(server, database);
+    }
+
+    public String jdbcUrl() {
+        return "jdbc:h2:tcp://localhost:" + server.getPort() + "/" + database + URL_OPTIONS;
+    }
+
+    public Connection connect() throws SQLException {
+        return DriverManager.getConnection(jdbcUrl(), USERNAME, PASSWORD);
+    }
+
+    /**
+     * Spring Boot properties that point a service at this database instead of Postgres.
+     */
+    public List<String> springArguments() {
+        return List.of(
+                "--spring.datasource.url=" + jdbcUrl(),
+                "--spring.datasource.username=" + USERNAME,
+                "--spring.datasource.password=" + PASSWORD,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false");
+    }
+
+    /**
+     * Location of the H2 driver jar, added to the auth-service class path through {@code loader.path}.
+     */
+    public static Path driverJar() {
+        try {
+            return Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Cannot locate the H2 driver jar", e);
+        }
+    }
+
+    /**
+     * Inserts the predefined roles. Must run after auth-service has migrated its schema.
+     */
+    public void seedRoles() throws SQLException {
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("MERGE INTO roles (name, description) KEY (name) VALUES ('USER', 'User role')");
+            statement.executeUpdate("MERGE INTO roles (name, description) KEY (name) VALUES ('ADMIN', 'Admin role')");
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop();
+    }
+}
@@ -0,0 +1,162 @@
+package com.daypulse.load_test.standin;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A Spring Boot fat jar started as a child JVM. Output goes to {@code <work-dir>/<name>.log}.
+ */
+public class ServiceProcess implements AutoCloseable {
+    private static final String PROPERTIES_LAUNCHER = "org.springframework.boot.loader.launch.PropertiesLauncher";
+
+    private final String name;
+    private final Process process;
+    private final int port;
+    private final long startedNanos;
+
+    private ServiceProcess(String name, Process process, int port, long startedNanos) {
+        this.name = name;
+        this.process = process;
+        this.port = port;
+        this.startedNanos = startedNanos;
+    }
+
+    /**
+     * Starts {@code jar} on {@code port}. Extra jars in {@code loaderPath} are appended to the
+     * application class path through the Boot {@code PropertiesLauncher}.
+     */
+    public static ServiceProcess start(String name, Path jar, int port, List<Path> loaderPath,
+                                       List<String> arguments, Path workDir) throws IOException {
+        return start(name, jar, port, List.of(), loaderPath, arguments, workDir);
+    }
+
+    /**
+     * Starts {@code jar} as above, with {@code jvmOptions} such as a heap size.
+     */
+    public static ServiceProcess start(String name, Path jar, int port, List<String> jvmOptions, List<Path> loaderPath,
+                                       List<String> arguments, Path workDir) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(name + " jar not found at " + jar.toAbsolutePath()
+                    + " (run 'mvn package' in that module first)");
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(javaExecutable().toString());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(jar.toAbsolutePath().toString());
+        if (!loaderPath.isEmpty()) {
+            command.add("-Dloader.path=" + String.join(",",
+                    loaderPath.stream().map(path -> path.toAbsolutePath().toString()).toList()));
+        }
+        command.add(PROPERTIES_LAUNCHER);
+        command.add("--server.port=" + port);
+        command.addAll(arguments);
+        return launch(name, command, port, workDir);
+    }
+
+    /**
+     * Runs {@code command}, which must start a service listening on {@code port}.
+     */
+    public static ServiceProcess launch(String name, List<String> command, int port, Path workDir) throws IOException {
+        Files.createDirectories(workDir);
+        long startedNanos = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve(name + ".log").toFile())
+                .start();
+        return new ServiceProcess(name, process, port, startedNanos);
+    }
+
+    public static Path javaExecutable() {
+        return Path.of(System.getProperty("java.home"), "bin", "java");
+    }
+
+    public static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    public int port() {
+        return port;
+    }
+
+    public long startedNanos() {
+        return startedNanos;
+    }
+
+    /**
+     * Resident set size of the process in KiB, read from {@code /proc}; -1 where that is not available.
+     */
+    public long residentSetKib() {
+        Path status = Path.of("/proc", Long.toString(process.pid()), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException e) {
+            // Not Linux, or the process is gone.
+        }
+        return -1;
+    }
+
+    /**
+     * Blocks until {@code probePath} answers with any HTTP status, i.e. the web server is up.
+     */
+    public void awaitHttp(String probePath, Duration timeout) throws InterruptedException {
+        await(probePath, false, timeout);
+    }
+
+    /**
+     * Blocks until the readiness probe answers 200, i.e. the service has also finished its warm-up.
+     */
+    public void awaitReady(Duration timeout) throws InterruptedException {
+        await("/actuator/health/readiness", true, timeout);
+    }
+
+    private void await(String probePath, boolean requireOk, Duration timeout) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest probe = HttpRequest.newBuilder(URI.create("http://localhost:" + port + probePath))
+                .timeout(Duration.ofSeconds(2))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with code " + process.exitValue()
+                        + ", see " + name + ".log");
+            }
+            try {
+                int status = client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (!requireOk || status == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException(name + " did not start within " + timeout);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
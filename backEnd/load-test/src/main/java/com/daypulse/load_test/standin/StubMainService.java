@@ -0,0 +1,60 @@
+package com.daypulse.load_test.standin;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal stand-in for main-service. Answers every request under {@code /main-service}
+ * with a fixed feed-like JSON page so the gateway route can be exercised without the real backend.
+ */
+public class StubMainService implements AutoCloseable {
+    private static final byte[] FEED_PAGE = """
+            {"code":1000,"message":"Success","result":{"items":[\
+            {"id":"1","content":"stub pulse","mood":"ok","likes":3,"commentsCount":1},\
+            {"id":"2","content":"stub pulse","mood":"ok","likes":0,"commentsCount":0}],\
+            "hasMore":false}}""".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private StubMainService(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    public static StubMainService start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/main-service", StubMainService::handle);
+        server.start();
+        return new StubMainService(server, executor);
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody(); OutputStream out = exchange.getResponseBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, FEED_PAGE.length);
+            out.write(FEED_PAGE);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,182 @@
+package com.daypulse.load_test.startup;
+
+import com.daypulse.load_test.standin.EmbeddedDatabase;
+import com.daypulse.load_test.standin.ServiceProcess;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Compares time to first request and resident memory of the plain fat jars with the AOT-processed,
+ * CDS-backed builds of the {@code cds} profile.
+ * <pre>
+ * mvn -f ../auth-service -Pcds package -DskipTests -Dcds.training.skip
+ * mvn -f ../api-gateway -Pcds package -DskipTests
+ * mvn compile exec:java -Dmain.class=com.daypulse.load_test.startup.StartupComparison -Dexec.args="--runs=5"
+ * </pre>
+ * auth-service runs against the embedded H2 database. A CDS directory without an archive gets
+ * one from a training run with that database before it is measured.
+ */
+public class StartupComparison {
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+    private static final String ARCHIVE = "application.jsa";
+
+    private final StartupOptions options;
+
+    private StartupComparison(StartupOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        StartupOptions options = StartupOptions.parse(args);
+        StartupComparison comparison = new StartupComparison(options);
+
+        List<StartupReport.VariantResult> results = new ArrayList<>();
+        results.add(comparison.measure(Service.AUTH_SERVICE, "jar"));
+        results.add(comparison.measure(Service.AUTH_SERVICE, "aot-cds"));
+        results.add(comparison.measure(Service.API_GATEWAY, "jar"));
+        results.add(comparison.measure(Service.API_GATEWAY, "aot-cds"));
+
+        StartupReport report = new StartupReport(Instant.now(), options.runs(), results);
+        report.write(options.reportFile());
+        System.out.println("Report written to " + options.reportFile().toAbsolutePath());
+        System.out.printf("%-13s %-8s %18s %18s%n", "service", "variant", "first response ms", "RSS MiB");
+        for (StartupReport.VariantResult result : results) {
+            System.out.printf("%-13s %-8s %18d %18d%n", result.service(), result.variant(),
+                    result.medianFirstResponseMs(), result.medianResidentSetMib());
+        }
+        System.exit(0);
+    }
+
+    private StartupReport.VariantResult measure(Service service, String variant) throws Exception {
+        long[] firstResponseMs = new long[options.runs()];
+        long[] residentSetMib = new long[options.runs()];
+        for (int run = 0; run < options.runs(); run++) {
+            try (EmbeddedDatabase database = service.needsDatabase ? EmbeddedDatabase.start() : null) {
+                int port = ServiceProcess.freePort();
+                List<String> arguments = service.arguments(database);
+                try (ServiceProcess process = "jar".equals(variant)
+                        ? startJar(service, port, arguments)
+                        : startCds(service, port, arguments)) {
+                    process.awaitHttp(service.probePath, START_TIMEOUT);
+                    firstResponseMs[run] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - process.startedNanos());
+                    residentSetMib[run] = process.residentSetKib() / 1024;
+                }
+            }
+            System.out.printf("%s %s run %d: %d ms, %d MiB%n", service.name, variant, run + 1,
+                    firstResponseMs[run], residentSetMib[run]);
+        }
+        return StartupReport.VariantResult.of(service.name, variant, firstResponseMs, residentSetMib);
+    }
+
+    private ServiceProcess startJar(Service service, int port, List<String> arguments) throws IOException {
+        List<Path> loaderPath = service.needsDatabase ? List.of(EmbeddedDatabase.driverJar()) : List.of();
+        return ServiceProcess.start(service.name, jar(service), port, loaderPath, arguments, options.workDir());
+    }
+
+    private ServiceProcess startCds(Service service, int port, List<String> arguments) throws Exception {
+        Path cdsDir = cdsDir(service);
+        Path archive = cdsDir.resolve(ARCHIVE);
+        if (!Files.isRegularFile(archive)) {
+            train(service, cdsDir, archive);
+        }
+        List<String> command = cdsCommand(service, cdsDir, "-XX:SharedArchiveFile=" + archive.toAbsolutePath());
+        command.add("--server.port=" + port);
+        command.addAll(arguments);
+        return ServiceProcess.launch(service.name + "-cds", command, port, options.workDir());
+    }
+
+    /**
+     * Starts the application up to context refresh with archive dumping on, as the profile's training run does.
+     */
+    private void train(Service service, Path cdsDir, Path archive) throws Exception {
+        System.out.println("Training " + archive);
+        try (EmbeddedDatabase database = service.needsDatabase ? EmbeddedDatabase.start() : null) {
+            List<String> command = cdsCommand(service, cdsDir,
+                    "-XX:ArchiveClassesAtExit=" + archive.toAbsolutePath(), "-Dspring.context.exit=onRefresh");
+            command.add("--server.port=0");
+            command.addAll(service.arguments(database));
+            Files.createDirectories(options.workDir());
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(options.workDir().resolve(service.name + "-training.log").toFile())
+                    .start();
+            if (!process.waitFor(START_TIMEOUT.toSeconds(), TimeUnit.SECONDS) || !Files.isRegularFile(archive)) {
+                process.destroyForcibly();
+                throw new IllegalStateException("Training run of " + service.name + " produced no archive, see "
+                        + service.name + "-training.log");
+            }
+        }
+    }
+
+    private List<String> cdsCommand(Service service, Path cdsDir, String... jvmOptions) throws IOException {
+        Path applicationJar = cdsDir.resolve(jar(service).getFileName());
+        if (!Files.isRegularFile(applicationJar)) {
+            throw new IllegalStateException(service.name + " CDS build not found at " + cdsDir.toAbsolutePath()
+                    + " (run 'mvn -Pcds package' in that module first)");
+        }
+        String classPath = applicationJar.toAbsolutePath().toString();
+        if (service.needsDatabase) {
+            classPath += File.pathSeparator + EmbeddedDatabase.driverJar();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(ServiceProcess.javaExecutable().toString());
+        command.addAll(List.of(jvmOptions));
+        command.add("-Dspring.aot.enabled=true");
+        command.add("-cp");
+        command.add(classPath);
+        command.add(mainClass(applicationJar));
+        return command;
+    }
+
+    private static String mainClass(Path applicationJar) {
+        try (JarFile jar = new JarFile(applicationJar.toFile())) {
+            return jar.getManifest().getMainAttributes().getValue("Main-Class");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path jar(Service service) {
+        return service == Service.AUTH_SERVICE ? options.authServiceJar() : options.gatewayJar();
+    }
+
+    private Path cdsDir(Service service) {
+        return service == Service.AUTH_SERVICE ? options.authServiceCdsDir() : options.gatewayCdsDir();
+    }
+
+    private enum Service {
+        // Mounted at the root as in the load test.
+        AUTH_SERVICE("auth-service", true, "/auth/introspect"),
+        // Rejected by the gateway's own filter chain, so no backend is needed.
+        API_GATEWAY("api-gateway", false, "/main-service/feed");
+
+        private final String name;
+        private final boolean needsDatabase;
+        private final String probePath;
+
+        Service(String name, boolean needsDatabase, String probePath) {
+            this.name = name;
+            this.needsDatabase = needsDatabase;
+            this.probePath = probePath;
+        }
+
+        List<String> arguments(EmbeddedDatabase database) {
+            if (this == AUTH_SERVICE) {
+                return Stream.concat(database.springArguments().stream(),
+                        Stream.of("--server.servlet.context-path=", "--spring.rsocket.server.port=0")).toList();
+            }
+            return List.of("--auth-service.url=http://localhost:9", "--main-service.url=http://localhost:9");
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.daypulse.load_test.startup;
+
+import com.daypulse.load_test.LoadTestOptions;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Command line options of {@link StartupComparison}. Every option is passed as {@code --name=value}.
+ */
+public record StartupOptions(
+        Path authServiceJar,
+        Path authServiceCdsDir,
+        Path gatewayJar,
+        Path gatewayCdsDir,
+        int runs,
+        Path reportFile,
+        Path workDir) {
+
+    public static StartupOptions parse(String[] args) {
+        Map<String, String> values = LoadTestOptions.arguments(args);
+        Path workDir = Path.of(values.getOrDefault("work-dir", "target/startup"));
+        return new StartupOptions(
+                Path.of(values.getOrDefault("auth-jar", "../auth-service/target/auth-service-0.0.1-SNAPSHOT.jar")),
+                Path.of(values.getOrDefault("auth-cds-dir", "../auth-service/target/cds")),
+                Path.of(values.getOrDefault("gateway-jar", "../api-gateway/target/api-gateway-0.0.1-SNAPSHOT.jar")),
+                Path.of(values.getOrDefault("gateway-cds-dir", "../api-gateway/target/cds")),
+                Integer.parseInt(values.getOrDefault("runs", "3")),
+                Path.of(values.getOrDefault("report", workDir.resolve("startup.json").toString())),
+                workDir);
+    }
+}
@@ -0,0 +1,56 @@
+package com.daypulse.load_test.startup;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Startup measurements of each service variant, written as pretty-printed JSON.
+ */
+@JsonPropertyOrder({"measuredAt", "runs", "results"})
+public record StartupReport(Instant measuredAt, int runs, List<VariantResult> results) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * Time from process start to the first HTTP response, and resident memory right after it.
+     */
+    @JsonPropertyOrder({"service", "variant", "firstResponseMs", "residentSetMib", "medianFirstResponseMs", "medianResidentSetMib"})
+    public record VariantResult(
+            String service,
+            String variant,
+            long[] firstResponseMs,
+            long[] residentSetMib,
+            long medianFirstResponseMs,
+            long medianResidentSetMib) {
+
+        public static VariantResult of(String service, String variant, long[] firstResponseMs, long[] residentSetMib) {
+            return new VariantResult(service, variant, firstResponseMs, residentSetMib,
+                    median(firstResponseMs), median(residentSetMib));
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        MAPPER.writeValue(file.toFile(), this);
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
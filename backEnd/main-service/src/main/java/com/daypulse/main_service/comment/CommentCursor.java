@@ -0,0 +1,41 @@
+package com.daypulse.main_service.comment;
+
+import com.daypulse.main_service.exception.AppException;
+import com.daypulse.main_service.exception.ErrorCode;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Position in a comment thread: the pulse and the number of the last comment returned. Clients
+ * get it as an opaque base64url string.
+ */
+public record CommentCursor(long pulseId, long seq) {
+    private static final int LENGTH = 2 * Long.BYTES;
+
+    public String encode() {
+        ByteBuffer bytes = ByteBuffer.allocate(LENGTH).putLong(pulseId).putLong(seq);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+    }
+
+    /**
+     * Decodes a cursor issued for {@code pulseId}; cursors of other threads are rejected.
+     */
+    public static CommentCursor decode(String cursor, long pulseId) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+        if (bytes.length != LENGTH) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        CommentCursor decoded = new CommentCursor(buffer.getLong(), buffer.getLong());
+        if (decoded.pulseId != pulseId || decoded.seq < 0) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+        return decoded;
+    }
+}
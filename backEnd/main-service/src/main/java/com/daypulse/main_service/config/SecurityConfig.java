@@ -0,0 +1,87 @@
+package com.daypulse.main_service.config;
+
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.ObjectPostProcessor;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.header.HeaderWriterFilter;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+
+@Configuration
+@EnableWebSecurity
+public class SecurityConfig {
+    // auth-service puts User.id in this claim; the subject is the username
+    public static final String USER_ID_CLAIM = "userId";
+
+    private static final String STREAM_PATH = "/notifications/stream";
+
+    private final String[] PUBLIC_GET_ENDPOINTS = {
+            "/actuator/health/**"
+    };
+
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity httpSecurity) throws Exception {
+        httpSecurity.authorizeHttpRequests(request ->
+                request.requestMatchers(HttpMethod.GET, PUBLIC_GET_ENDPOINTS).permitAll()
+                        // Notification streams were authenticated when they were opened
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .anyRequest().authenticated());
+
+        httpSecurity.oauth2ResourceServer(oauth2 ->
+                oauth2.bearerTokenResolver(bearerTokenResolver())
+                        .jwt(jwtConfigurer -> jwtConfigurer.jwtAuthenticationConverter(jwtAuthenticationConverter()))
+                        .authenticationEntryPoint(new JwtAuthenticationEntryPoint())
+        );
+        httpSecurity.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        httpSecurity.csrf(AbstractHttpConfigurer::disable);
+        // Headers written after the chain would race a stream's first events, sent from other threads
+        httpSecurity.headers(headers -> headers.addObjectPostProcessor(new ObjectPostProcessor<HeaderWriterFilter>() {
+            @Override
+            public <O extends HeaderWriterFilter> O postProcess(O filter) {
+                filter.setShouldWriteHeadersEagerly(true);
+                return filter;
+            }
+        }));
+
+        return httpSecurity.build();
+    }
+
+    @Bean
+    JwtDecoder jwtDecoder(@Value("${jwt.signing-key}") String signingKey) {
+        byte[] keyBytes = Base64.getDecoder().decode(signingKey);
+        return NimbusJwtDecoder
+                .withSecretKey(new SecretKeySpec(keyBytes, "HmacSHA512"))
+                .macAlgorithm(MacAlgorithm.HS512)
+                .build();
+    }
+
+    BearerTokenResolver bearerTokenResolver() {
+        // Browsers cannot set headers on an EventSource, so a stream's token may come as ?access_token=
+        DefaultBearerTokenResolver headerOnly = new DefaultBearerTokenResolver();
+        DefaultBearerTokenResolver headerOrQuery = new DefaultBearerTokenResolver();
+        headerOrQuery.setAllowUriQueryParameter(true);
+        return request -> (STREAM_PATH.equals(request.getServletPath()) ? headerOrQuery : headerOnly).resolve(request);
+    }
+
+    JwtAuthenticationConverter jwtAuthenticationConverter() {
+        // Authentication names are user ids, which is what pulses and follows are keyed by
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setPrincipalClaimName(USER_ID_CLAIM);
+        return converter;
+    }
+}
@@ -0,0 +1,26 @@
+package com.daypulse.main_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-connection buffers of Tomcat that Spring Boot has no properties for. Every open notification
+ * stream holds its connection's buffers for as long as it is open, so they are sized for small
+ * JSON requests and events rather than left at 8 KB each.
+ */
+@Configuration
+public class TomcatConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> socketBuffers(
+            @Value("${tomcat.socket.app-read-buf-size}") int appReadBufSize,
+            @Value("${tomcat.socket.app-write-buf-size}") int appWriteBufSize) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            connector.setProperty("socket.appReadBufSize", String.valueOf(appReadBufSize));
+            connector.setProperty("socket.appWriteBufSize", String.valueOf(appWriteBufSize));
+        });
+    }
+}
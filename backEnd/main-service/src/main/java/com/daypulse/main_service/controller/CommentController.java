@@ -0,0 +1,43 @@
+package com.daypulse.main_service.controller;
+
+import com.daypulse.main_service.dto.request.CommentCreationRequest;
+import com.daypulse.main_service.dto.response.ApiBaseResponse;
+import com.daypulse.main_service.dto.response.CommentPageResponse;
+import com.daypulse.main_service.dto.response.CommentResponse;
+import com.daypulse.main_service.service.CommentService;
+import jakarta.validation.Valid;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/pulses/{pulseId}/comments")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CommentController {
+    CommentService commentService;
+
+    @PostMapping
+    ApiBaseResponse<CommentResponse> createComment(@PathVariable long pulseId,
+                                                   @RequestBody @Valid CommentCreationRequest request) {
+        return ApiBaseResponse.<CommentResponse>builder()
+                .result(commentService.createComment(pulseId, request))
+                .build();
+    }
+
+    @GetMapping
+    ApiBaseResponse<CommentPageResponse> getComments(@PathVariable long pulseId,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer limit) {
+        return ApiBaseResponse.<CommentPageResponse>builder()
+                .result(commentService.getComments(pulseId, cursor, limit))
+                .build();
+    }
+
+    @DeleteMapping("/{seq}")
+    ApiBaseResponse<Void> deleteComment(@PathVariable long pulseId, @PathVariable long seq) {
+        commentService.deleteComment(pulseId, seq);
+        return ApiBaseResponse.<Void>builder().build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.daypulse.main_service.controller;
+
+import com.daypulse.main_service.dto.response.ApiBaseResponse;
+import com.daypulse.main_service.dto.response.TimelineResponse;
+import com.daypulse.main_service.service.FeedService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class FeedController {
+    FeedService feedService;
+
+    @GetMapping("/feed")
+    ApiBaseResponse<TimelineResponse> getHomeTimeline(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer limit) {
+        return ApiBaseResponse.<TimelineResponse>builder()
+                .result(feedService.getHomeTimeline(cursor, limit))
+                .build();
+    }
+
+    @GetMapping("/users/{userId}/pulses")
+    ApiBaseResponse<TimelineResponse> getUserTimeline(@PathVariable String userId,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer limit) {
+        return ApiBaseResponse.<TimelineResponse>builder()
+                .result(feedService.getUserTimeline(userId, cursor, limit))
+                .build();
+    }
+}
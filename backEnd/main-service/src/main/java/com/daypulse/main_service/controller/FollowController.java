@@ -0,0 +1,28 @@
+package com.daypulse.main_service.controller;
+
+import com.daypulse.main_service.dto.response.ApiBaseResponse;
+import com.daypulse.main_service.service.FollowService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/follows")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class FollowController {
+    FollowService followService;
+
+    @PostMapping("/{userId}")
+    ApiBaseResponse<Void> follow(@PathVariable String userId) {
+        followService.follow(userId);
+        return ApiBaseResponse.<Void>builder().build();
+    }
+
+    @DeleteMapping("/{userId}")
+    ApiBaseResponse<Void> unfollow(@PathVariable String userId) {
+        followService.unfollow(userId);
+        return ApiBaseResponse.<Void>builder().build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.daypulse.main_service.controller;
+
+import com.daypulse.main_service.dto.response.ApiBaseResponse;
+import com.daypulse.main_service.dto.response.NotificationPageResponse;
+import com.daypulse.main_service.dto.response.UnreadCountResponse;
+import com.daypulse.main_service.service.NotificationService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/notifications")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class NotificationController {
+    NotificationService notificationService;
+
+    @GetMapping
+    ApiBaseResponse<NotificationPageResponse> getNotifications(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer limit) {
+        return ApiBaseResponse.<NotificationPageResponse>builder()
+                .result(notificationService.getNotifications(cursor, limit))
+                .build();
+    }
+
+    @GetMapping("/unread-count")
+    ApiBaseResponse<UnreadCountResponse> getUnreadCount() {
+        return ApiBaseResponse.<UnreadCountResponse>builder()
+                .result(notificationService.getUnreadCount())
+                .build();
+    }
+
+    /**
+     * Server-sent events: {@code notification}, {@code unread} and, for a client that fell too
+     * far behind, {@code resync}. Browsers may pass the token as {@code ?access_token=}.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter stream(HttpServletResponse response) {
+        // Tells proxies that honour it, such as nginx, not to buffer the stream
+        response.setHeader("X-Accel-Buffering", "no");
+        return notificationService.stream();
+    }
+
+    @PostMapping("/{notificationId}/read")
+    ApiBaseResponse<Void> markRead(@PathVariable String notificationId) {
+        notificationService.markRead(notificationId);
+        return ApiBaseResponse.<Void>builder().build();
+    }
+
+    @PostMapping("/read")
+    ApiBaseResponse<Void> markAllRead() {
+        notificationService.markAllRead();
+        return ApiBaseResponse.<Void>builder().build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.daypulse.main_service.controller;
+
+import com.daypulse.main_service.dto.request.PulseCreationRequest;
+import com.daypulse.main_service.dto.response.ApiBaseResponse;
+import com.daypulse.main_service.dto.response.PulseLikeResponse;
+import com.daypulse.main_service.dto.response.PulseResponse;
+import com.daypulse.main_service.service.LikeService;
+import com.daypulse.main_service.service.PulseService;
+import jakarta.validation.Valid;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/pulses")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PulseController {
+    PulseService pulseService;
+    LikeService likeService;
+
+    @PostMapping
+    ApiBaseResponse<PulseResponse> createPulse(@RequestBody @Valid PulseCreationRequest request) {
+        return ApiBaseResponse.<PulseResponse>builder()
+                .result(pulseService.createPulse(request))
+                .build();
+    }
+
+    @GetMapping("/{pulseId}")
+    ApiBaseResponse<PulseResponse> getPulse(@PathVariable long pulseId) {
+        return ApiBaseResponse.<PulseResponse>builder()
+                .result(pulseService.getPulse(pulseId))
+                .build();
+    }
+
+    @DeleteMapping("/{pulseId}")
+    ApiBaseResponse<Void> deletePulse(@PathVariable long pulseId) {
+        pulseService.deletePulse(pulseId);
+        return ApiBaseResponse.<Void>builder().build();
+    }
+
+    @PostMapping("/{pulseId}/likes")
+    ApiBaseResponse<PulseLikeResponse> like(@PathVariable long pulseId) {
+        return ApiBaseResponse.<PulseLikeResponse>builder()
+                .result(likeService.like(pulseId))
+                .build();
+    }
+
+    @DeleteMapping("/{pulseId}/likes")
+    ApiBaseResponse<PulseLikeResponse> unlike(@PathVariable long pulseId) {
+        return ApiBaseResponse.<PulseLikeResponse>builder()
+                .result(likeService.unlike(pulseId))
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.daypulse.main_service.controller;
+
+import com.daypulse.main_service.dto.response.ApiBaseResponse;
+import com.daypulse.main_service.dto.response.TrendingTagResponse;
+import com.daypulse.main_service.service.TrendingService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/trending")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TrendingController {
+    TrendingService trendingService;
+
+    @GetMapping("/tags")
+    ApiBaseResponse<List<TrendingTagResponse>> getTrendingTags(@RequestParam(required = false) Integer limit) {
+        return ApiBaseResponse.<List<TrendingTagResponse>>builder()
+                .result(trendingService.getTrendingTags(limit))
+                .build();
+    }
+}
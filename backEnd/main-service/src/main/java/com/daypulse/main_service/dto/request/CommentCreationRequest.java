@@ -0,0 +1,17 @@
+package com.daypulse.main_service.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CommentCreationRequest {
+    @NotNull(message = "INVALID_CONTENT")
+    @Size(min = 1, max = 280, message = "INVALID_CONTENT")
+    String content;
+}
@@ -0,0 +1,20 @@
+package com.daypulse.main_service.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CommentPageResponse {
+    // Oldest first
+    List<CommentResponse> comments;
+    // Pass back as "cursor" for the next page; absent on the last page
+    String nextCursor;
+}
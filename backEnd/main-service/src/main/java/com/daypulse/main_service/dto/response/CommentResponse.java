@@ -0,0 +1,19 @@
+package com.daypulse.main_service.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CommentResponse {
+    String pulseId;
+    long seq;
+    String authorId;
+    String content;
+    Instant createdAt;
+}
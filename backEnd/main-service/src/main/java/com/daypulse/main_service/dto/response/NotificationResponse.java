@@ -0,0 +1,29 @@
+package com.daypulse.main_service.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+/**
+ * "{@code latestActorId} and {@code eventCount - 1} others liked your pulse": names are resolved
+ * by the client.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NotificationResponse {
+    String id;
+    String type;
+    // The pulse liked or commented on; absent for follows
+    String pulseId;
+    String latestActorId;
+    long eventCount;
+    Instant createdAt;
+    Instant updatedAt;
+    boolean read;
+}
@@ -0,0 +1,22 @@
+package com.daypulse.main_service.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PulseResponse {
+    // Ids are sent as strings since they do not fit in a JavaScript number
+    String id;
+    String authorId;
+    String content;
+    Instant createdAt;
+    long likes;
+    boolean hasLiked;
+    long commentsCount;
+}
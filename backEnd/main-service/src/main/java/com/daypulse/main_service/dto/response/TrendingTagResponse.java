@@ -0,0 +1,14 @@
+package com.daypulse.main_service.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TrendingTagResponse {
+    String tag;
+    int count;
+}
@@ -0,0 +1,22 @@
+package com.daypulse.main_service.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Denormalized follower count, kept so fan-out can tell normal authors from celebrities without
+ * counting follows on every pulse.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "author_stats")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AuthorStats {
+    @Id
+    String userId;
+    long followerCount;
+}
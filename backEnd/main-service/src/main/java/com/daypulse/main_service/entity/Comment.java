@@ -0,0 +1,44 @@
+package com.daypulse.main_service.entity;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "comments")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class Comment implements Persistable<CommentId> {
+    @EmbeddedId
+    CommentId id;
+    String authorId;
+    String content;
+    Instant createdAt;
+    boolean deleted;
+
+    // Numbers are assigned before insert, like pulse ids
+    @Transient
+    @Builder.Default
+    boolean persisted = false;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
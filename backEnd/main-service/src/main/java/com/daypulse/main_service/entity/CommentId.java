@@ -0,0 +1,17 @@
+package com.daypulse.main_service.entity;
+
+import jakarta.persistence.Embeddable;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Embeddable
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CommentId implements Serializable {
+    Long pulseId;
+    Long seq;
+}
@@ -0,0 +1,20 @@
+package com.daypulse.main_service.entity;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "follows")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class Follow {
+    @EmbeddedId
+    FollowId id;
+    Instant createdAt;
+}
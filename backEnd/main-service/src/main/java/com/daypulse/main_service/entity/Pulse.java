@@ -0,0 +1,56 @@
+package com.daypulse.main_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * A short status update. Ids come from {@link com.daypulse.main_service.util.PulseIdGenerator}, so
+ * they are assigned before insert and order pulses by creation time.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "pulses")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class Pulse implements Persistable<Long> {
+    @Id
+    Long id;
+    String authorId;
+    String content;
+    Instant createdAt;
+    // Maintained by LikeStore with relative updates, never written from the entity
+    @Column(insertable = false, updatable = false)
+    long likeCount;
+    // Maintained by CommentService with relative updates
+    @Column(insertable = false, updatable = false)
+    long commentSeq;
+    @Column(insertable = false, updatable = false)
+    long commentCount;
+
+    // Assigned ids would otherwise make save() merge, which selects the row first
+    @Transient
+    @Builder.Default
+    boolean persisted = false;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
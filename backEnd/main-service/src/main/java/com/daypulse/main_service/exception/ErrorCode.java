@@ -0,0 +1,31 @@
+package com.daypulse.main_service.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+@Getter
+public enum ErrorCode {
+    UNCATEGORIZED_EXCEPTION(888, "Uncategorized error", HttpStatus.INTERNAL_SERVER_ERROR),
+    INVALID_KEY(101, "Uncategorized error", HttpStatus.BAD_REQUEST),
+    UNAUTHENTICATED(106, "Unauthenticated user", HttpStatus.UNAUTHORIZED),
+    UNAUTHORIZED(107, "Unauthorized user", HttpStatus.FORBIDDEN),
+    PULSE_NOT_FOUND(201, "Pulse not found", HttpStatus.NOT_FOUND),
+    INVALID_CONTENT(202, "Pulse content must be between {min} and {max} characters", HttpStatus.BAD_REQUEST),
+    CANNOT_FOLLOW_SELF(203, "Users cannot follow themselves", HttpStatus.BAD_REQUEST),
+    INVALID_CURSOR(204, "Invalid cursor", HttpStatus.BAD_REQUEST),
+    COMMENT_NOT_FOUND(205, "Comment not found", HttpStatus.NOT_FOUND),
+    NOTIFICATION_NOT_FOUND(206, "Notification not found", HttpStatus.NOT_FOUND)
+    ;
+
+    ErrorCode(int code, String message, HttpStatusCode statusCode) {
+        this.code = code;
+        this.message = message;
+        this.statusCode = statusCode;
+    }
+
+    private final int code;
+    private final String message;
+    private final HttpStatusCode statusCode;
+
+}
@@ -0,0 +1,4 @@
+package com.daypulse.main_service.like;
+
+public record LikeSnapshot(long likes, boolean hasLiked) {
+}
@@ -0,0 +1,259 @@
+package com.daypulse.main_service.like;
+
+import com.daypulse.main_service.exception.AppException;
+import com.daypulse.main_service.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Likes of recently used pulses, held in memory and written to the database in batches.
+ * <p>
+ * A like flips the user's bit in the pulse's {@link LikerBitmap}, adjusts a striped counter and
+ * marks the bit dirty; none of these lock, so a pulse taking thousands of likes a second does
+ * not serialize its writers. Liking twice or unliking a pulse that was not liked changes nothing.
+ * <p>
+ * Every {@code likes.flush-interval} the dirty bits are drained and their current state, not the
+ * sequence of changes, is written: a like undone before the flush never reaches the database.
+ * States idle for {@code likes.idle-expiry} are dropped once they are flushed.
+ * <p>
+ * Like the home timelines, this assumes a single main-service instance.
+ */
+@Slf4j
+@Component
+public class LikeStore {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long idleExpiryNanos;
+
+    private final ConcurrentHashMap<Long, PulseLikes> states = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<PulseLikes> dirtyStates = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Long> deletedPulseIds = new ConcurrentLinkedQueue<>();
+
+    public LikeStore(JdbcTemplate jdbcTemplate,
+                     PlatformTransactionManager transactionManager,
+                     @Value("${likes.idle-expiry}") Duration idleExpiry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idleExpiryNanos = idleExpiry.toNanos();
+    }
+
+    /**
+     * Returns whether the pulse was not liked by this user before.
+     */
+    public boolean like(long pulseId, int ordinal) {
+        return change(pulseId, ordinal, true);
+    }
+
+    /**
+     * Returns whether the pulse was liked by this user before.
+     */
+    public boolean unlike(long pulseId, int ordinal) {
+        return change(pulseId, ordinal, false);
+    }
+
+    public long count(long pulseId) {
+        return state(pulseId).count.sum();
+    }
+
+    /**
+     * The pulse's like count and whether {@code ordinal} liked it, or null if the pulse is not held
+     * in memory, in which case the database is current.
+     */
+    public LikeSnapshot peek(long pulseId, int ordinal) {
+        PulseLikes state = states.get(pulseId);
+        if (state == null) {
+            return null;
+        }
+        return new LikeSnapshot(state.count.sum(), ordinal >= 0 && state.likers.contains(ordinal));
+    }
+
+    /**
+     * Of {@code pulseIds}, those liked by {@code ordinal} according to the database.
+     */
+    public Set<Long> findLiked(int ordinal, Collection<Long> pulseIds) {
+        if (pulseIds.isEmpty()) {
+            return Set.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(pulseIds.size(), "?"));
+        List<Object> args = new ArrayList<>(pulseIds.size() + 1);
+        args.add(ordinal);
+        args.addAll(pulseIds);
+        return new HashSet<>(jdbcTemplate.queryForList("select pulse_id from pulse_likes where user_ordinal = ?"
+                + " and pulse_id in (" + placeholders + ")", Long.class, args.toArray()));
+    }
+
+    /**
+     * Drops the pulse's state; its likes are deleted with the next flush.
+     */
+    public void discard(long pulseId) {
+        PulseLikes state = states.remove(pulseId);
+        if (state != null) {
+            state.status.set(PulseLikes.DEAD);
+        }
+        deletedPulseIds.add(pulseId);
+    }
+
+    private boolean change(long pulseId, int ordinal, boolean like) {
+        while (true) {
+            PulseLikes state = state(pulseId);
+            boolean changed = like ? state.likers.add(ordinal) : state.likers.remove(ordinal);
+            if (!changed) {
+                return false;
+            }
+            // Count first: a flush that sees the dirty bit must also see the count it goes with
+            if (like) {
+                state.count.increment();
+            } else {
+                state.count.decrement();
+            }
+            state.dirty.add(ordinal);
+            if (state.awaitLive()) {
+                if (state.queued.compareAndSet(false, true)) {
+                    dirtyStates.add(state);
+                }
+                return true;
+            }
+            // Evicted before the change was seen; it only exists on the discarded state
+        }
+    }
+
+    private PulseLikes state(long pulseId) {
+        PulseLikes state = states.get(pulseId);
+        if (state == null) {
+            state = states.computeIfAbsent(pulseId, this::load);
+        }
+        state.touch();
+        return state;
+    }
+
+    private PulseLikes load(long pulseId) {
+        List<Long> counts = jdbcTemplate.queryForList("select like_count from pulses where id = ?", Long.class, pulseId);
+        if (counts.isEmpty()) {
+            throw new AppException(ErrorCode.PULSE_NOT_FOUND);
+        }
+        PulseLikes state = new PulseLikes(pulseId, counts.getFirst());
+        jdbcTemplate.query("select user_ordinal from pulse_likes where pulse_id = ?",
+                (RowCallbackHandler) resultSet -> state.likers.add(resultSet.getInt(1)), pulseId);
+        return state;
+    }
+
+    @Scheduled(fixedDelayString = "${likes.flush-interval}")
+    public void flush() {
+        List<Pending> batch = new ArrayList<>();
+        for (PulseLikes state = dirtyStates.poll(); state != null; state = dirtyStates.poll()) {
+            // Cleared before draining, so changes made from here on queue the state again
+            state.queued.set(false);
+            if (state.status.get() != PulseLikes.DEAD) {
+                batch.add(drain(state));
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+        purgeDeleted();
+        evictIdle();
+    }
+
+    private Pending drain(PulseLikes state) {
+        List<Integer> ordinals = new ArrayList<>();
+        state.dirty.drain(ordinals::add);
+        return new Pending(state, ordinals, state.count.sum());
+    }
+
+    private void write(List<Pending> batch) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> counts = new ArrayList<>();
+        for (Pending pending : batch) {
+            PulseLikes state = pending.state();
+            for (int ordinal : pending.ordinals()) {
+                (state.likers.contains(ordinal) ? inserts : deletes).add(new Object[]{state.pulseId, ordinal});
+            }
+            long delta = pending.count() - state.persistedCount;
+            if (delta != 0) {
+                counts.add(new Object[]{delta, state.pulseId});
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate("insert into pulse_likes (pulse_id, user_ordinal) values (?, ?) on conflict do nothing", inserts);
+                jdbcTemplate.batchUpdate("delete from pulse_likes where pulse_id = ? and user_ordinal = ?", deletes);
+                jdbcTemplate.batchUpdate("update pulses set like_count = like_count + ? where id = ?", counts);
+            });
+        } catch (DataAccessException e) {
+            log.warn("Flushing likes of {} pulses failed, retrying: {}", batch.size(), e.getMessage());
+            for (Pending pending : batch) {
+                pending.ordinals().forEach(pending.state().dirty::add);
+                if (pending.state().queued.compareAndSet(false, true)) {
+                    dirtyStates.add(pending.state());
+                }
+            }
+            return;
+        }
+        for (Pending pending : batch) {
+            pending.state().persistedCount = pending.count();
+        }
+        log.debug("Flushed {} likes and {} unlikes of {} pulses", inserts.size(), deletes.size(), batch.size());
+    }
+
+    private void purgeDeleted() {
+        List<Object[]> pulseIds = new ArrayList<>();
+        for (Long pulseId = deletedPulseIds.poll(); pulseId != null; pulseId = deletedPulseIds.poll()) {
+            pulseIds.add(new Object[]{pulseId});
+        }
+        if (!pulseIds.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate("delete from pulse_likes where pulse_id = ?", pulseIds);
+            } catch (DataAccessException e) {
+                log.warn("Deleting likes of {} deleted pulses failed, retrying: {}", pulseIds.size(), e.getMessage());
+                pulseIds.forEach(args -> deletedPulseIds.add((Long) args[0]));
+            }
+        }
+    }
+
+    private void evictIdle() {
+        long cutoff = System.nanoTime() - idleExpiryNanos;
+        for (PulseLikes state : states.values()) {
+            if (state.idleSince(cutoff) && !state.queued.get()) {
+                retire(state);
+            }
+        }
+    }
+
+    /**
+     * Evicts a flushed state. Writers mark the dirty bit before they check the status, so any
+     * change they go on to queue is seen here and keeps the state; changes that come after the
+     * status turned RETIRING are retried by their writer on a fresh state.
+     */
+    private void retire(PulseLikes state) {
+        if (!state.status.compareAndSet(PulseLikes.LIVE, PulseLikes.RETIRING)) {
+            return;
+        }
+        if (state.queued.get() || !state.dirty.isEmpty()) {
+            state.status.set(PulseLikes.LIVE);
+            return;
+        }
+        states.remove(state.pulseId, state);
+        state.status.set(PulseLikes.DEAD);
+    }
+
+    private record Pending(PulseLikes state, List<Integer> ordinals, long count) {
+    }
+}
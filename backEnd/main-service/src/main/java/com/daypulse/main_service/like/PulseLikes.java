@@ -0,0 +1,62 @@
+package com.daypulse.main_service.like;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The in-memory like state of one pulse: who liked it, how many did, and which ordinals changed
+ * since the last flush.
+ */
+final class PulseLikes {
+    static final int LIVE = 0;
+    // Being checked for eviction; writers wait for the outcome
+    static final int RETIRING = 1;
+    // Evicted or deleted; writers that reach it start over with a fresh state
+    static final int DEAD = 2;
+
+    // Accesses closer together than this do not rewrite the shared timestamp
+    private static final long TOUCH_GRANULARITY_NANOS = 1_000_000_000L;
+
+    final long pulseId;
+    final LikerBitmap likers = new LikerBitmap();
+    final LikerBitmap dirty = new LikerBitmap();
+    final LongAdder count = new LongAdder();
+    final AtomicInteger status = new AtomicInteger(LIVE);
+    final AtomicBoolean queued = new AtomicBoolean();
+
+    // Only read and written by the flushing thread
+    long persistedCount;
+
+    private volatile long lastAccessNanos = System.nanoTime();
+
+    PulseLikes(long pulseId, long persistedCount) {
+        this.pulseId = pulseId;
+        this.persistedCount = persistedCount;
+        this.count.add(persistedCount);
+    }
+
+    void touch() {
+        long now = System.nanoTime();
+        if (now - lastAccessNanos > TOUCH_GRANULARITY_NANOS) {
+            lastAccessNanos = now;
+        }
+    }
+
+    boolean idleSince(long nanos) {
+        return lastAccessNanos - nanos < 0;
+    }
+
+    /**
+     * Waits out an eviction check and returns whether the state is still live.
+     */
+    boolean awaitLive() {
+        while (true) {
+            int current = status.get();
+            if (current != RETIRING) {
+                return current == LIVE;
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
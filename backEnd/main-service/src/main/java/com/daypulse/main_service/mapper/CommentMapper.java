@@ -0,0 +1,13 @@
+package com.daypulse.main_service.mapper;
+
+import com.daypulse.main_service.dto.response.CommentResponse;
+import com.daypulse.main_service.entity.Comment;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface CommentMapper {
+    @Mapping(target = "pulseId", source = "id.pulseId")
+    @Mapping(target = "seq", source = "id.seq")
+    CommentResponse toCommentResponse(Comment comment);
+}
@@ -0,0 +1,12 @@
+package com.daypulse.main_service.mapper;
+
+import com.daypulse.main_service.dto.response.PulseResponse;
+import com.daypulse.main_service.entity.Pulse;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface PulseMapper {
+    @Mapping(target = "commentsCount", source = "pulse.commentCount")
+    PulseResponse toPulseResponse(Pulse pulse, long likes, boolean hasLiked);
+}
@@ -0,0 +1,18 @@
+package com.daypulse.main_service.notification;
+
+import java.time.Instant;
+
+/**
+ * A group of coalesced events as stored: {@code eventCount} events, the latest by
+ * {@code latestActorId}, between {@code createdAt} and {@code updatedAt}.
+ */
+public record Notification(
+        long id,
+        NotificationType type,
+        long targetId,
+        String latestActorId,
+        long eventCount,
+        Instant createdAt,
+        Instant updatedAt,
+        boolean read) {
+}
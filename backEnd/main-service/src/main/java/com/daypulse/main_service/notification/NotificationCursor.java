@@ -0,0 +1,35 @@
+package com.daypulse.main_service.notification;
+
+import com.daypulse.main_service.exception.AppException;
+import com.daypulse.main_service.exception.ErrorCode;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Position in a notification list, which is ordered by last update: the update time in epoch
+ * milliseconds and id of the last notification returned. Clients get it as an opaque base64url
+ * string.
+ */
+public record NotificationCursor(long updatedAt, long id) {
+    private static final int LENGTH = 2 * Long.BYTES;
+
+    public String encode() {
+        ByteBuffer bytes = ByteBuffer.allocate(LENGTH).putLong(updatedAt).putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+    }
+
+    public static NotificationCursor decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+        if (bytes.length != LENGTH) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new NotificationCursor(buffer.getLong(), buffer.getLong());
+    }
+}
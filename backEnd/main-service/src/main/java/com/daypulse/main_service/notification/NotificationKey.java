@@ -0,0 +1,8 @@
+package com.daypulse.main_service.notification;
+
+/**
+ * Events with the same key are merged into one notification. {@code targetId} is the pulse for
+ * likes and comments and 0 for follows.
+ */
+public record NotificationKey(String recipientId, NotificationType type, long targetId) {
+}
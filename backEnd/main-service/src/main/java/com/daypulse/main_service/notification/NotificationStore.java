@@ -0,0 +1,292 @@
+package com.daypulse.main_service.notification;
+
+import com.daypulse.main_service.util.PulseIdGenerator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Notifications, coalesced in memory and written to the database in batches.
+ * <p>
+ * Events are merged per {@link NotificationKey} as they arrive, so a pulse taking thousands of
+ * likes between two flushes costs one map entry. Every {@code notifications.flush-interval} the
+ * merged events are written in one transaction: into the recipient's unread notification for the
+ * same key if that was updated within {@code notifications.window} of them, which makes the window
+ * slide with every event, or else as a new notification. Those stay open in memory for a window
+ * after their last update, so a busy key is written as one relative update per flush; a
+ * notification read in the meantime no longer matches the update and the events start a new one.
+ * <p>
+ * Each recipient's unread count is a counter row adjusted in the same transaction as the
+ * notifications it counts, never a count over them.
+ * <p>
+ * Like the like store, this assumes a single main-service instance: for the first window after a
+ * start, open notifications are looked up in the database before new ones are created.
+ */
+@Slf4j
+@Component
+public class NotificationStore {
+    private static final String COLUMNS = "id, type, target_id, latest_actor_id, event_count, created_at, "
+            + "updated_at, read";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PulseIdGenerator idGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long windowMillis;
+    private final long lookupUntilMillis;
+
+    private final ConcurrentHashMap<NotificationKey, Pending> pending = new ConcurrentHashMap<>();
+    // Flush thread only, apart from discard()
+    private final Cache<NotificationKey, OpenNotification> openNotifications;
+
+    public NotificationStore(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             PulseIdGenerator idGenerator,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${notifications.window}") Duration window) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idGenerator = idGenerator;
+        this.eventPublisher = eventPublisher;
+        this.windowMillis = window.toMillis();
+        this.lookupUntilMillis = System.currentTimeMillis() + windowMillis;
+        this.openNotifications = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    /**
+     * Records an event by {@code actorId} at {@code at}, in epoch milliseconds. It is stored with
+     * the next flush.
+     */
+    public void record(NotificationKey key, String actorId, long at) {
+        pending.merge(key, new Pending(1, actorId, at, at), Pending::merge);
+    }
+
+    /**
+     * Deletes the notifications about a pulse, along with events not yet written.
+     */
+    public void discard(String recipientId, long pulseId) {
+        for (NotificationType type : List.of(NotificationType.LIKE, NotificationType.COMMENT)) {
+            NotificationKey key = new NotificationKey(recipientId, type, pulseId);
+            pending.remove(key);
+            openNotifications.invalidate(key);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            // Counted from the rows deleted, so one marked read or added meanwhile is not miscounted
+            long unread = jdbcTemplate.queryForObject("with deleted as (delete from notifications "
+                    + "where recipient_id = ? and target_id = ? and type <> 'FOLLOW' returning read) "
+                    + "select count(*) filter (where not read) from deleted", Long.class, recipientId, pulseId);
+            addUnread(Map.of(recipientId, -unread));
+        });
+    }
+
+    /**
+     * The recipient's notifications, most recently updated first, after {@code cursor} if given.
+     */
+    public List<Notification> findPage(String recipientId, NotificationCursor cursor, int limit) {
+        if (cursor == null) {
+            return jdbcTemplate.query("select " + COLUMNS + " from notifications where recipient_id = ? "
+                    + "order by updated_at desc, id desc limit ?", ROW_MAPPER, recipientId, limit);
+        }
+        Timestamp updatedAt = new Timestamp(cursor.updatedAt());
+        return jdbcTemplate.query("select " + COLUMNS + " from notifications where recipient_id = ? "
+                        + "and (updated_at < ? or (updated_at = ? and id < ?)) order by updated_at desc, id desc limit ?",
+                ROW_MAPPER, recipientId, updatedAt, updatedAt, cursor.id(), limit);
+    }
+
+    public List<Notification> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.query("select " + COLUMNS + " from notifications where id in (" + placeholders + ")",
+                ROW_MAPPER, ids.toArray());
+    }
+
+    public long countUnread(String recipientId) {
+        List<Long> unread = jdbcTemplate.queryForList("select unread from notification_counters where user_id = ?",
+                Long.class, recipientId);
+        return unread.isEmpty() ? 0 : unread.getFirst();
+    }
+
+    public boolean exists(String recipientId, long id) {
+        return !jdbcTemplate.queryForList("select id from notifications where id = ? and recipient_id = ?", Long.class,
+                id, recipientId).isEmpty();
+    }
+
+    /**
+     * Returns whether the notification was unread.
+     */
+    public boolean markRead(String recipientId, long id) {
+        Boolean changed = transactionTemplate.execute(status -> {
+            int updated = jdbcTemplate.update("update notifications set read = true where id = ? and recipient_id = ? "
+                    + "and read = false", id, recipientId);
+            addUnread(Map.of(recipientId, (long) -updated));
+            return updated > 0;
+        });
+        return Boolean.TRUE.equals(changed);
+    }
+
+    /**
+     * Returns how many notifications were unread.
+     */
+    public int markAllRead(String recipientId) {
+        Integer changed = transactionTemplate.execute(status -> {
+            int updated = jdbcTemplate.update("update notifications set read = true where recipient_id = ? "
+                    + "and read = false", recipientId);
+            // Relative, so notifications a concurrent flush adds are still counted
+            addUnread(Map.of(recipientId, (long) -updated));
+            return updated;
+        });
+        return changed == null ? 0 : changed;
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.flush-interval}")
+    public void flush() {
+        List<Write> batch = new ArrayList<>();
+        for (NotificationKey key : pending.keySet()) {
+            Pending events = pending.remove(key);
+            if (events != null) {
+                batch.add(new Write(key, events, open(key, events)));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        // In id order, so concurrent flushes and reads lock rows in the same order
+        batch.sort(Comparator.comparingLong(Write::notificationId));
+        List<Write> written;
+        try {
+            written = transactionTemplate.execute(status -> write(batch));
+        } catch (DataAccessException e) {
+            log.warn("Flushing {} notifications failed, retrying: {}", batch.size(), e.getMessage());
+            for (Write write : batch) {
+                pending.merge(write.key(), write.events(), Pending::merge);
+            }
+            return;
+        }
+        Map<String, List<Long>> idsByRecipient = new HashMap<>();
+        for (Write write : written) {
+            openNotifications.put(write.key(), new OpenNotification(write.notificationId(), write.events().latestAt()));
+            idsByRecipient.computeIfAbsent(write.key().recipientId(), recipientId -> new ArrayList<>())
+                    .add(write.notificationId());
+        }
+        log.debug("Flushed {} notifications", batch.size());
+        eventPublisher.publishEvent(new NotificationsWrittenEvent(idsByRecipient));
+    }
+
+    /**
+     * The id of the unread notification {@code events} may be merged into, or -1 if none is open.
+     */
+    private long open(NotificationKey key, Pending events) {
+        OpenNotification open = openNotifications.getIfPresent(key);
+        if (open == null && System.currentTimeMillis() < lookupUntilMillis) {
+            open = jdbcTemplate.query("select id, updated_at from notifications where recipient_id = ? "
+                            + "and type = ? and target_id = ? and read = false order by updated_at desc limit 1",
+                    (resultSet, rowNum) -> new OpenNotification(resultSet.getLong(1), resultSet.getTimestamp(2).getTime()),
+                    key.recipientId(), key.type().name(), key.targetId()).stream().findFirst().orElse(null);
+        }
+        return open != null && open.updatedAt() >= events.firstAt() - windowMillis ? open.id() : -1;
+    }
+
+    /**
+     * Writes the batch and returns it with the id of the notification each entry went into.
+     */
+    private List<Write> write(List<Write> batch) {
+        List<Write> updates = batch.stream().filter(write -> write.notificationId() >= 0).toList();
+        int[] updated = jdbcTemplate.batchUpdate("update notifications set event_count = event_count + ?, "
+                        + "latest_actor_id = ?, updated_at = ? where id = ? and read = false",
+                updates.stream().map(write -> new Object[]{write.events().count(), write.events().latestActorId(),
+                        new Timestamp(write.events().latestAt()), write.notificationId()}).toList());
+
+        List<Write> written = new ArrayList<>(batch.size());
+        List<Object[]> inserts = new ArrayList<>();
+        Map<String, Long> created = new HashMap<>();
+        int index = 0;
+        for (Write write : batch) {
+            // Read since it was opened, or never opened: the events start a new notification
+            if (write.notificationId() >= 0 && updated[index++] > 0) {
+                written.add(write);
+                continue;
+            }
+            long id = idGenerator.nextId();
+            Pending events = write.events();
+            inserts.add(new Object[]{id, write.key().recipientId(), write.key().type().name(), write.key().targetId(),
+                    events.latestActorId(), events.count(), new Timestamp(events.firstAt()),
+                    new Timestamp(events.latestAt())});
+            created.merge(write.key().recipientId(), 1L, Long::sum);
+            written.add(new Write(write.key(), events, id));
+        }
+        jdbcTemplate.batchUpdate("insert into notifications (id, recipient_id, type, target_id, latest_actor_id, "
+                + "event_count, created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?)", inserts);
+        addUnread(created);
+        return written;
+    }
+
+    private void addUnread(Map<String, Long> deltas) {
+        List<Object[]> creates = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        deltas.forEach((userId, delta) -> {
+            if (delta != 0) {
+                creates.add(new Object[]{userId});
+                updates.add(new Object[]{delta, userId});
+            }
+        });
+        if (updates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("insert into notification_counters (user_id, unread) values (?, 0) "
+                + "on conflict do nothing", creates);
+        jdbcTemplate.batchUpdate("update notification_counters set unread = unread + ? where user_id = ?", updates);
+    }
+
+    private static final RowMapper<Notification> ROW_MAPPER = (resultSet, rowNum) -> new Notification(
+            resultSet.getLong("id"),
+            NotificationType.valueOf(resultSet.getString("type")),
+            resultSet.getLong("target_id"),
+            resultSet.getString("latest_actor_id"),
+            resultSet.getLong("event_count"),
+            resultSet.getTimestamp("created_at").toInstant(),
+            resultSet.getTimestamp("updated_at").toInstant(),
+            resultSet.getBoolean("read"));
+
+    /**
+     * Events merged since the last flush: {@code count} of them, from {@code firstAt} to
+     * {@code latestAt}, the latest by {@code latestActorId}.
+     */
+    private record Pending(long count, String latestActorId, long firstAt, long latestAt) {
+        Pending merge(Pending other) {
+            Pending latest = other.latestAt >= latestAt ? other : this;
+            return new Pending(count + other.count, latest.latestActorId, Math.min(firstAt, other.firstAt),
+                    latest.latestAt);
+        }
+    }
+
+    private record OpenNotification(long id, long updatedAt) {
+    }
+
+    // notificationId is the open notification to merge into, -1 if none, and once written the one written to
+    private record Write(NotificationKey key, Pending events, long notificationId) {
+    }
+}
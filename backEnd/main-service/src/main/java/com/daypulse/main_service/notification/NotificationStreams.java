@@ -0,0 +1,151 @@
+package com.daypulse.main_service.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open server-sent event streams, by user. A stream is an async request: while idle it holds its
+ * connection and a {@link StreamSubscriber}, but no thread. Events are written by a small pool of
+ * writer threads, so publishing never waits for a client, and a client that stops reading holds a
+ * writer only until its write times out. Tomcat keeps the connection's buffers for as long as the
+ * request is open, about 95 KB of heap per stream once
+ * {@link com.daypulse.main_service.config.TomcatConfig} has trimmed them.
+ * <p>
+ * Every {@code notifications.stream.heartbeat-interval} each stream gets a comment line. That keeps
+ * proxies from closing it as idle, and a stream whose client has gone fails the write and is
+ * dropped. Streams end after {@code notifications.stream.timeout} and clients reconnect. A user
+ * opening more than {@code notifications.stream.max-per-user} streams closes their oldest.
+ * <p>
+ * Streams are local to the instance, as the notifications they carry are.
+ */
+@Component
+public class NotificationStreams {
+    private static final String HEARTBEAT_KEY = "heartbeat";
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("").build();
+
+    private final long timeoutMillis;
+    private final int maxPending;
+    private final int maxPerUser;
+    private final ExecutorService writers;
+    private final ConcurrentHashMap<String, List<StreamSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final Counter resyncs;
+
+    public NotificationStreams(MeterRegistry meterRegistry,
+                               @Value("${notifications.stream.timeout}") Duration timeout,
+                               @Value("${notifications.stream.max-pending-events}") int maxPending,
+                               @Value("${notifications.stream.max-per-user}") int maxPerUser,
+                               @Value("${notifications.stream.writer-threads}") int writerThreads) {
+        this.timeoutMillis = timeout.toMillis();
+        this.maxPending = maxPending;
+        this.maxPerUser = maxPerUser;
+        this.writers = Executors.newFixedThreadPool(writerThreads,
+                Thread.ofPlatform().daemon().name("notification-stream-writer-", 0).factory());
+        Gauge.builder("notifications.streams.open", open, AtomicInteger::get)
+                .description("Open notification streams")
+                .register(meterRegistry);
+        this.resyncs = Counter.builder("notifications.streams.resyncs")
+                .description("Streams that fell too far behind and were told to reload")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(String userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        StreamSubscriber subscriber = new StreamSubscriber(userId, emitter, maxPending, resyncs);
+        List<StreamSubscriber> evicted = new ArrayList<>(1);
+        subscribers.compute(userId, (id, current) -> {
+            List<StreamSubscriber> streams = current == null ? new ArrayList<>() : new ArrayList<>(current);
+            if (streams.size() >= maxPerUser) {
+                evicted.add(streams.removeFirst());
+            }
+            streams.add(subscriber);
+            return List.copyOf(streams);
+        });
+        open.addAndGet(1 - evicted.size());
+        // Called after timeouts and errors too
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        for (StreamSubscriber oldest : evicted) {
+            oldest.close();
+            oldest.emitter().complete();
+        }
+        return emitter;
+    }
+
+    public boolean isSubscribed(String userId) {
+        return subscribers.containsKey(userId);
+    }
+
+    /**
+     * Sends an event to every stream of the user. One still waiting to be written with the same
+     * {@code key} is replaced.
+     */
+    public void send(String userId, String key, SseEmitter.SseEventBuilder event) {
+        List<StreamSubscriber> streams = subscribers.get(userId);
+        if (streams == null) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> built = event.build();
+        for (StreamSubscriber subscriber : streams) {
+            offer(subscriber, key, built);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${notifications.stream.heartbeat-interval}")
+    public void heartbeat() {
+        for (List<StreamSubscriber> streams : subscribers.values()) {
+            for (StreamSubscriber subscriber : streams) {
+                offer(subscriber, HEARTBEAT_KEY, HEARTBEAT);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        writers.shutdownNow();
+        for (List<StreamSubscriber> streams : subscribers.values()) {
+            for (StreamSubscriber subscriber : streams) {
+                subscriber.close();
+                subscriber.emitter().complete();
+            }
+        }
+    }
+
+    private void offer(StreamSubscriber subscriber, String key, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        if (subscriber.offer(key, event)) {
+            writers.execute(subscriber::drain);
+        }
+    }
+
+    private void unsubscribe(StreamSubscriber subscriber) {
+        subscriber.close();
+        boolean[] removed = new boolean[1];
+        subscribers.computeIfPresent(subscriber.userId(), (id, current) -> {
+            if (!current.contains(subscriber)) {
+                return current;
+            }
+            removed[0] = true;
+            List<StreamSubscriber> streams = current.stream().filter(other -> other != subscriber).toList();
+            return streams.isEmpty() ? null : streams;
+        });
+        if (removed[0]) {
+            open.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.daypulse.main_service.notification;
+
+/**
+ * What happened to the recipient. Likes and comments target one of the recipient's pulses;
+ * follows target the recipient.
+ */
+public enum NotificationType {
+    LIKE,
+    COMMENT,
+    FOLLOW
+}
@@ -0,0 +1,10 @@
+package com.daypulse.main_service.notification;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A flush committed new or updated notifications: their ids, by recipient.
+ */
+public record NotificationsWrittenEvent(Map<String, List<Long>> idsByRecipient) {
+}
@@ -0,0 +1,104 @@
+package com.daypulse.main_service.notification;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One open notification stream and the events waiting to be written to it. Events carry a key and
+ * a newer event replaces a waiting one with the same key, so a client that falls behind only gets
+ * the latest state of each notification and one unread count. Past {@code maxPending} keys it is
+ * so far behind that all it gets is a {@code resync} event, after which it reloads.
+ */
+final class StreamSubscriber {
+    private static final String RESYNC_KEY = "resync";
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> RESYNC =
+            SseEmitter.event().name(RESYNC_KEY).data("").build();
+
+    private final String userId;
+    private final SseEmitter emitter;
+    private final int maxPending;
+    private final Counter resyncs;
+    // Guarded by this
+    private final LinkedHashMap<String, Set<ResponseBodyEmitter.DataWithMediaType>> pending = new LinkedHashMap<>();
+    private boolean scheduled;
+    private boolean closed;
+
+    StreamSubscriber(String userId, SseEmitter emitter, int maxPending, Counter resyncs) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.maxPending = maxPending;
+        this.resyncs = resyncs;
+    }
+
+    String userId() {
+        return userId;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    /**
+     * Queues an event, built once for every stream it goes to. Returns whether the caller has to
+     * schedule {@link #drain()}: true unless a drain is already pending or the stream is closed.
+     */
+    synchronized boolean offer(String key, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        if (closed) {
+            return false;
+        }
+        // Re-inserted so the queue keeps the order of the latest changes
+        pending.remove(key);
+        pending.put(key, event);
+        if (pending.size() > maxPending) {
+            pending.clear();
+            pending.put(RESYNC_KEY, RESYNC);
+            resyncs.increment();
+        }
+        if (scheduled) {
+            return false;
+        }
+        scheduled = true;
+        return true;
+    }
+
+    /**
+     * Writes the waiting events, on a writer thread. A write blocks while the client's socket
+     * buffer is full, for at most {@code server.tomcat.connection-timeout}, which Tomcat also
+     * applies to writes; one that fails or times out closes the stream.
+     */
+    void drain() {
+        while (true) {
+            List<Set<ResponseBodyEmitter.DataWithMediaType>> events;
+            synchronized (this) {
+                if (pending.isEmpty() || closed) {
+                    scheduled = false;
+                    return;
+                }
+                events = new ArrayList<>(pending.values());
+                pending.clear();
+            }
+            try {
+                for (Set<ResponseBodyEmitter.DataWithMediaType> event : events) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Gone, not reading, or completed by a timeout; the emitter's callbacks unregister the stream
+                close();
+                emitter.completeWithError(e);
+                return;
+            }
+        }
+    }
+
+    synchronized void close() {
+        closed = true;
+        pending.clear();
+    }
+}
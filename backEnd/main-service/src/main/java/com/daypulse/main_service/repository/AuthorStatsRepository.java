@@ -0,0 +1,24 @@
+package com.daypulse.main_service.repository;
+
+import com.daypulse.main_service.entity.AuthorStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AuthorStatsRepository extends JpaRepository<AuthorStats, String> {
+
+    @Modifying
+    @Query(value = "insert into author_stats (user_id, follower_count) values (:userId, 0) on conflict do nothing",
+            nativeQuery = true)
+    void createIfAbsent(@Param("userId") String userId);
+
+    @Modifying
+    @Query("update author_stats s set s.followerCount = s.followerCount + :delta where s.userId = :userId")
+    int addFollowers(@Param("userId") String userId, @Param("delta") long delta);
+
+    @Query("select s.followerCount from author_stats s where s.userId = :userId")
+    Long findFollowerCount(@Param("userId") String userId);
+}
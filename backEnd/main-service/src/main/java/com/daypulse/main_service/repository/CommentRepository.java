@@ -0,0 +1,24 @@
+package com.daypulse.main_service.repository;
+
+import com.daypulse.main_service.entity.Comment;
+import com.daypulse.main_service.entity.CommentId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CommentRepository extends JpaRepository<Comment, CommentId> {
+
+    @Query("select c from comments c where c.id.pulseId = :pulseId and c.id.seq > :after and c.deleted = false"
+            + " order by c.id.seq")
+    List<Comment> findPage(@Param("pulseId") long pulseId, @Param("after") long after, Limit limit);
+
+    @Modifying
+    @Query("delete from comments c where c.id.pulseId = :pulseId")
+    void deleteByPulseId(@Param("pulseId") long pulseId);
+}
@@ -0,0 +1,21 @@
+package com.daypulse.main_service.repository;
+
+import com.daypulse.main_service.entity.Follow;
+import com.daypulse.main_service.entity.FollowId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FollowRepository extends JpaRepository<Follow, FollowId> {
+
+    @Query("select f.id.followerId from follows f where f.id.followeeId = :followeeId")
+    List<String> findFollowerIds(@Param("followeeId") String followeeId);
+
+    @Query("select f.id.followeeId from follows f, author_stats s where s.userId = f.id.followeeId"
+            + " and f.id.followerId = :followerId and s.followerCount >= :threshold")
+    List<String> findFollowedCelebrities(@Param("followerId") String followerId, @Param("threshold") long threshold);
+}
@@ -0,0 +1,45 @@
+package com.daypulse.main_service.repository;
+
+import com.daypulse.main_service.entity.Pulse;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PulseRepository extends JpaRepository<Pulse, Long> {
+
+    @Query("select p.id from pulses p where p.authorId = :authorId and p.id < :before order by p.id desc")
+    List<Long> findIdsByAuthor(@Param("authorId") String authorId, @Param("before") long before, Limit limit);
+
+    /**
+     * The home timeline straight from the tables: the user's own pulses and those of everyone they
+     * follow. Only used to build timelines and for pages older than the buffered ones.
+     */
+    @Query("select p.id from pulses p where (p.authorId = :userId or p.authorId in"
+            + " (select f.id.followeeId from follows f where f.id.followerId = :userId))"
+            + " and p.id < :before order by p.id desc")
+    List<Long> findHomeIds(@Param("userId") String userId, @Param("before") long before, Limit limit);
+
+    @Query("select p.authorId from pulses p where p.id = :id")
+    Optional<String> findAuthorId(@Param("id") long id);
+
+    /**
+     * Takes the next comment number of the pulse, locking its row until the transaction ends.
+     */
+    @Modifying
+    @Query("update pulses p set p.commentSeq = p.commentSeq + 1, p.commentCount = p.commentCount + 1 where p.id = :id")
+    int incrementCommentSeq(@Param("id") long id);
+
+    @Query("select p.commentSeq from pulses p where p.id = :id")
+    long findCommentSeq(@Param("id") long id);
+
+    @Modifying
+    @Query("update pulses p set p.commentCount = p.commentCount + :delta where p.id = :id")
+    void addComments(@Param("id") long id, @Param("delta") long delta);
+}
@@ -0,0 +1,7 @@
+package com.daypulse.main_service.service;
+
+/**
+ * A comment was added to or deleted from a pulse's thread.
+ */
+public record CommentChangedEvent(long pulseId, long seq) {
+}
@@ -0,0 +1,4 @@
+package com.daypulse.main_service.service;
+
+public record CommentCreatedEvent(long pulseId, long seq, String authorId) {
+}
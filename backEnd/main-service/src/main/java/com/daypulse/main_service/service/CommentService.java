@@ -0,0 +1,129 @@
+package com.daypulse.main_service.service;
+
+import com.daypulse.main_service.comment.CommentCursor;
+import com.daypulse.main_service.dto.request.CommentCreationRequest;
+import com.daypulse.main_service.dto.response.CommentPageResponse;
+import com.daypulse.main_service.dto.response.CommentResponse;
+import com.daypulse.main_service.entity.Comment;
+import com.daypulse.main_service.entity.CommentId;
+import com.daypulse.main_service.exception.AppException;
+import com.daypulse.main_service.exception.ErrorCode;
+import com.daypulse.main_service.mapper.CommentMapper;
+import com.daypulse.main_service.repository.CommentRepository;
+import com.daypulse.main_service.repository.PulseRepository;
+import com.daypulse.main_service.util.SecurityUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Comment threads. Comments of a pulse are numbered 1, 2, 3... from a counter on the pulse row and
+ * never renumbered; deleting one only marks it. A page is the next run of numbers after the
+ * cursor, read straight off the primary key, so page 1000 costs what page 1 does.
+ * <p>
+ * First pages at the default size are cached. A full first page stays valid when comments are
+ * added, since they go after it; it is only dropped when a comment on it is deleted.
+ */
+@Service
+public class CommentService {
+    private final CommentRepository commentRepository;
+    private final PulseRepository pulseRepository;
+    private final CommentMapper commentMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final Cache<Long, CommentPageResponse> firstPages;
+
+    public CommentService(CommentRepository commentRepository,
+                          PulseRepository pulseRepository,
+                          CommentMapper commentMapper,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${comments.default-page-size}") int defaultPageSize,
+                          @Value("${comments.max-page-size}") int maxPageSize,
+                          @Value("${comments.first-page-cache.max-size}") long maxCachedPages,
+                          @Value("${comments.first-page-cache.expire-after-write}") Duration expireAfterWrite) {
+        this.commentRepository = commentRepository;
+        this.pulseRepository = pulseRepository;
+        this.commentMapper = commentMapper;
+        this.eventPublisher = eventPublisher;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.firstPages = Caffeine.newBuilder()
+                .maximumSize(maxCachedPages)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    @Transactional
+    public CommentResponse createComment(long pulseId, CommentCreationRequest request) {
+        if (pulseRepository.incrementCommentSeq(pulseId) == 0) {
+            throw new AppException(ErrorCode.PULSE_NOT_FOUND);
+        }
+        long seq = pulseRepository.findCommentSeq(pulseId);
+        Comment comment = commentRepository.save(Comment.builder()
+                .id(new CommentId(pulseId, seq))
+                .authorId(SecurityUtils.currentUserId())
+                .content(request.getContent())
+                .createdAt(Instant.now())
+                .build());
+        eventPublisher.publishEvent(new CommentChangedEvent(pulseId, seq));
+        eventPublisher.publishEvent(new CommentCreatedEvent(pulseId, seq, comment.getAuthorId()));
+        return commentMapper.toCommentResponse(comment);
+    }
+
+    public CommentPageResponse getComments(long pulseId, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : Math.clamp(limit, 1, maxPageSize);
+        if (cursor == null || cursor.isBlank()) {
+            return pageSize == defaultPageSize
+                    ? firstPages.get(pulseId, id -> loadPage(id, 0, pageSize))
+                    : loadPage(pulseId, 0, pageSize);
+        }
+        return loadPage(pulseId, CommentCursor.decode(cursor, pulseId).seq(), pageSize);
+    }
+
+    @Transactional
+    public void deleteComment(long pulseId, long seq) {
+        Comment comment = commentRepository.findById(new CommentId(pulseId, seq))
+                .filter(found -> !found.isDeleted())
+                .orElseThrow(() -> new AppException(ErrorCode.COMMENT_NOT_FOUND));
+        if (!comment.getAuthorId().equals(SecurityUtils.currentUserId())) {
+            throw new AppException(ErrorCode.UNAUTHORIZED);
+        }
+        comment.setDeleted(true);
+        pulseRepository.addComments(pulseId, -1);
+        eventPublisher.publishEvent(new CommentChangedEvent(pulseId, seq));
+    }
+
+    @TransactionalEventListener
+    public void onCommentChanged(CommentChangedEvent event) {
+        firstPages.asMap().computeIfPresent(event.pulseId(), (pulseId, page) ->
+                page.getNextCursor() != null && event.seq() > page.getComments().getLast().getSeq() ? page : null);
+    }
+
+    @TransactionalEventListener
+    public void onPulseDeleted(PulseDeletedEvent event) {
+        firstPages.invalidate(event.pulseId());
+    }
+
+    private CommentPageResponse loadPage(long pulseId, long after, int pageSize) {
+        List<Comment> comments = commentRepository.findPage(pulseId, after, Limit.of(pageSize));
+        if (comments.isEmpty() && after == 0 && !pulseRepository.existsById(pulseId)) {
+            throw new AppException(ErrorCode.PULSE_NOT_FOUND);
+        }
+        return CommentPageResponse.builder()
+                .comments(comments.stream().map(commentMapper::toCommentResponse).toList())
+                .nextCursor(comments.size() == pageSize
+                        ? new CommentCursor(pulseId, comments.getLast().getId().getSeq()).encode()
+                        : null)
+                .build();
+    }
+}
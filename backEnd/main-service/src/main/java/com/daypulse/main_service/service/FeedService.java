@@ -0,0 +1,304 @@
+package com.daypulse.main_service.service;
+
+import com.daypulse.main_service.dto.response.TimelineResponse;
+import com.daypulse.main_service.entity.Pulse;
+import com.daypulse.main_service.exception.AppException;
+import com.daypulse.main_service.exception.ErrorCode;
+import com.daypulse.main_service.repository.AuthorStatsRepository;
+import com.daypulse.main_service.repository.FollowRepository;
+import com.daypulse.main_service.repository.PulseRepository;
+import com.daypulse.main_service.timeline.HomeTimeline;
+import com.daypulse.main_service.timeline.TimelineBuffer;
+import com.daypulse.main_service.util.SecurityUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Home timelines with hybrid fan-out.
+ * <p>
+ * A new pulse is pushed into the cached home timeline of every follower of its author (fan-out on
+ * write), unless the author has at least {@code celebrity-threshold} followers. Celebrity pulses
+ * are only kept in the author's own buffer and merged into each follower's page when it is read,
+ * so one celebrity post does not touch millions of timelines. A read therefore merges the home
+ * buffer with one buffer per followed celebrity, never with one per followed account, and costs
+ * O(page size) apart from a binary search per source.
+ * <p>
+ * Timelines are built from the database on first read and dropped when idle, so users who are not
+ * reading cost nothing on fan-out. When an author crosses the threshold, only the cached timelines
+ * of that author's followers are dropped. Pages older than the buffered ids are read from the database.
+ * <p>
+ * The buffers live in this instance's memory and only see pulses created here: running more than
+ * one instance needs the pulse events broadcast between them first.
+ */
+@Slf4j
+@Service
+public class FeedService {
+    private final PulseRepository pulseRepository;
+    private final FollowRepository followRepository;
+    private final AuthorStatsRepository authorStatsRepository;
+    private final LikeService likeService;
+    private final long celebrityThreshold;
+    private final int capacity;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    private final Cache<String, HomeTimeline> homeTimelines;
+    private final Cache<String, TimelineBuffer> authorTimelines;
+    // Bumped whenever an author crosses the celebrity threshold, so a timeline built meanwhile is built again
+    private final AtomicLong celebrityChanges = new AtomicLong();
+    // One thread keeps each author's pulses in creation order
+    private final ExecutorService fanOutExecutor =
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().daemon().name("feed-fan-out").factory());
+
+    public FeedService(PulseRepository pulseRepository,
+                       FollowRepository followRepository,
+                       AuthorStatsRepository authorStatsRepository,
+                       LikeService likeService,
+                       @Value("${feed.celebrity-threshold}") long celebrityThreshold,
+                       @Value("${feed.timeline.capacity}") int capacity,
+                       @Value("${feed.timeline.max-cached-users}") long maxCachedUsers,
+                       @Value("${feed.timeline.idle-expiry}") Duration idleExpiry,
+                       @Value("${feed.default-page-size}") int defaultPageSize,
+                       @Value("${feed.max-page-size}") int maxPageSize) {
+        this.pulseRepository = pulseRepository;
+        this.followRepository = followRepository;
+        this.authorStatsRepository = authorStatsRepository;
+        this.likeService = likeService;
+        this.celebrityThreshold = celebrityThreshold;
+        this.capacity = capacity;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.homeTimelines = Caffeine.newBuilder()
+                .maximumSize(maxCachedUsers)
+                .expireAfterAccess(idleExpiry)
+                .build();
+        this.authorTimelines = Caffeine.newBuilder()
+                .maximumSize(maxCachedUsers)
+                .expireAfterAccess(idleExpiry)
+                .build();
+    }
+
+    public TimelineResponse getHomeTimeline(String cursor, Integer limit) {
+        String userId = SecurityUtils.currentUserId();
+        long before = parseCursor(cursor);
+        int pageSize = pageSize(limit);
+        HomeTimeline timeline = homeTimeline(userId);
+
+        // Read each page before its floor: ids dropped in between only raise the floor
+        List<long[]> pages = new ArrayList<>(1 + timeline.celebrityIds().size());
+        pages.add(timeline.buffer().page(before, pageSize));
+        long floor = timeline.buffer().floor();
+        for (String celebrityId : timeline.celebrityIds()) {
+            TimelineBuffer buffer = authorTimelines.get(celebrityId, this::loadAuthorTimeline);
+            pages.add(buffer.page(before, pageSize));
+            floor = Math.max(floor, buffer.floor());
+        }
+
+        List<Long> ids = merge(pages, floor, pageSize);
+        if (ids.size() < pageSize && floor != Long.MIN_VALUE) {
+            // Past the buffered ids of at least one source
+            long from = ids.isEmpty() ? before : ids.getLast();
+            ids.addAll(pulseRepository.findHomeIds(userId, from, Limit.of(pageSize - ids.size())));
+        }
+        return toTimelineResponse(ids, pageSize);
+    }
+
+    public TimelineResponse getUserTimeline(String userId, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        List<Long> ids = pulseRepository.findIdsByAuthor(userId, parseCursor(cursor), Limit.of(pageSize));
+        return toTimelineResponse(ids, pageSize);
+    }
+
+    @TransactionalEventListener
+    public void onPulseCreated(PulseCreatedEvent event) {
+        // The author sees their pulse on their next read, followers shortly after
+        addToHomeTimeline(event.authorId(), event.pulseId());
+        authorTimelines.asMap().computeIfPresent(event.authorId(), (authorId, buffer) -> {
+            buffer.add(event.pulseId());
+            return buffer;
+        });
+        fanOutExecutor.execute(() -> fanOut(event));
+    }
+
+    @TransactionalEventListener
+    public void onPulseDeleted(PulseDeletedEvent event) {
+        // Followers keep the id until their timeline is rebuilt; reads skip pulses that are gone
+        homeTimelines.asMap().computeIfPresent(event.authorId(), (userId, timeline) -> {
+            timeline.buffer().remove(event.pulseId());
+            return timeline;
+        });
+        authorTimelines.asMap().computeIfPresent(event.authorId(), (authorId, buffer) -> {
+            buffer.remove(event.pulseId());
+            return buffer;
+        });
+    }
+
+    @TransactionalEventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        if (event.celebrityChanged()) {
+            // Bumped before the followers are read, so a timeline cached after they are is built again
+            celebrityChanges.incrementAndGet();
+            fanOutExecutor.execute(() -> dropFollowerTimelines(event.followeeId()));
+        }
+        homeTimelines.invalidate(event.followerId());
+    }
+
+    @PreDestroy
+    public void stop() {
+        fanOutExecutor.shutdownNow();
+    }
+
+    private void fanOut(PulseCreatedEvent event) {
+        try {
+            if (isCelebrity(event.authorId())) {
+                return;
+            }
+            int delivered = 0;
+            for (String followerId : followRepository.findFollowerIds(event.authorId())) {
+                if (addToHomeTimeline(followerId, event.pulseId())) {
+                    delivered++;
+                }
+            }
+            log.debug("Fanned out pulse {} to {} cached timelines", event.pulseId(), delivered);
+        } catch (RuntimeException e) {
+            // Followers whose timeline missed it see it again once that timeline is rebuilt
+            log.error("Fan-out of pulse {} failed", event.pulseId(), e);
+        }
+    }
+
+    private void dropFollowerTimelines(String authorId) {
+        try {
+            int dropped = 0;
+            for (String followerId : followRepository.findFollowerIds(authorId)) {
+                if (homeTimelines.asMap().remove(followerId) != null) {
+                    dropped++;
+                }
+            }
+            log.info("Author {} crossed the celebrity threshold, {} cached home timelines are rebuilt", authorId, dropped);
+        } catch (RuntimeException e) {
+            // Those timelines keep the author on the wrong side of the threshold until they expire
+            log.error("Dropping the timelines of the followers of {} failed", authorId, e);
+        }
+    }
+
+    /**
+     * Adds the pulse to the user's timeline if it is cached. A timeline being built right now is
+     * waited for, so a pulse committed while its query ran is not lost.
+     */
+    private boolean addToHomeTimeline(String userId, long pulseId) {
+        return homeTimelines.asMap().computeIfPresent(userId, (id, timeline) -> {
+            timeline.buffer().add(pulseId);
+            return timeline;
+        }) != null;
+    }
+
+    private HomeTimeline homeTimeline(String userId) {
+        return homeTimelines.get(userId, this::loadHomeTimeline);
+    }
+
+    private HomeTimeline loadHomeTimeline(String userId) {
+        // A threshold crossed while querying may not be seen by the query, nor drop the timeline it builds
+        while (true) {
+            long changes = celebrityChanges.get();
+            List<String> celebrityIds = followRepository.findFollowedCelebrities(userId, celebrityThreshold);
+            List<Long> ids = pulseRepository.findHomeIds(userId, Long.MAX_VALUE, Limit.of(capacity));
+            if (celebrityChanges.get() == changes) {
+                return new HomeTimeline(toBuffer(ids), List.copyOf(celebrityIds));
+            }
+        }
+    }
+
+    private TimelineBuffer loadAuthorTimeline(String authorId) {
+        return toBuffer(pulseRepository.findIdsByAuthor(authorId, Long.MAX_VALUE, Limit.of(capacity)));
+    }
+
+    private TimelineBuffer toBuffer(List<Long> newestFirst) {
+        long[] ids = newestFirst.stream().mapToLong(Long::longValue).toArray();
+        return new TimelineBuffer(capacity, ids, ids.length == capacity);
+    }
+
+    private boolean isCelebrity(String authorId) {
+        Long followers = authorStatsRepository.findFollowerCount(authorId);
+        return followers != null && followers >= celebrityThreshold;
+    }
+
+    /**
+     * Merges newest-first pages into one, dropping duplicates and stopping at {@code floor}.
+     */
+    private static List<Long> merge(List<long[]> pages, long floor, int pageSize) {
+        int[] positions = new int[pages.size()];
+        PriorityQueue<Integer> heads = new PriorityQueue<>(Math.max(1, pages.size()),
+                Comparator.comparingLong((Integer source) -> pages.get(source)[positions[source]]).reversed());
+        for (int source = 0; source < pages.size(); source++) {
+            if (pages.get(source).length > 0) {
+                heads.add(source);
+            }
+        }
+        List<Long> ids = new ArrayList<>(pageSize);
+        while (ids.size() < pageSize && !heads.isEmpty()) {
+            int source = heads.poll();
+            long id = pages.get(source)[positions[source]++];
+            if (positions[source] < pages.get(source).length) {
+                heads.add(source);
+            }
+            if (id < floor) {
+                break;
+            }
+            // A celebrity pulse can also be in the home buffer when that was built from the database
+            if (ids.isEmpty() || ids.getLast() != id) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private TimelineResponse toTimelineResponse(List<Long> ids, int pageSize) {
+        Map<Long, Pulse> pulses = pulseRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Pulse::getId, Function.identity()));
+        List<Pulse> page = ids.stream()
+                .map(pulses::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return TimelineResponse.builder()
+                .pulses(likeService.toPulseResponses(page))
+                .nextCursor(ids.size() == pageSize ? String.valueOf(ids.getLast()) : null)
+                .build();
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        return Math.clamp(limit, 1, maxPageSize);
+    }
+
+    private static long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+}
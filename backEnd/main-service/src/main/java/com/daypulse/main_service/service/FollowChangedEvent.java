@@ -0,0 +1,8 @@
+package com.daypulse.main_service.service;
+
+/**
+ * @param followed         whether the follower started following rather than stopped
+ * @param celebrityChanged whether the change moved the followee across the celebrity threshold
+ */
+public record FollowChangedEvent(String followerId, String followeeId, boolean followed, boolean celebrityChanged) {
+}
@@ -0,0 +1,73 @@
+package com.daypulse.main_service.service;
+
+import com.daypulse.main_service.entity.Follow;
+import com.daypulse.main_service.entity.FollowId;
+import com.daypulse.main_service.exception.AppException;
+import com.daypulse.main_service.exception.ErrorCode;
+import com.daypulse.main_service.repository.AuthorStatsRepository;
+import com.daypulse.main_service.repository.FollowRepository;
+import com.daypulse.main_service.util.SecurityUtils;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Follow and unfollow are idempotent. Users are identified by their auth-service id and are not
+ * checked to exist.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class FollowService {
+    @NonFinal
+    @Value("${feed.celebrity-threshold}")
+    long CELEBRITY_THRESHOLD;
+
+    FollowRepository followRepository;
+    AuthorStatsRepository authorStatsRepository;
+    ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public void follow(String followeeId) {
+        String followerId = SecurityUtils.currentUserId();
+        if (followerId.equals(followeeId)) {
+            throw new AppException(ErrorCode.CANNOT_FOLLOW_SELF);
+        }
+        FollowId id = new FollowId(followerId, followeeId);
+        if (followRepository.existsById(id)) {
+            return;
+        }
+        followRepository.save(Follow.builder()
+                .id(id)
+                .createdAt(Instant.now())
+                .build());
+        changeFollowers(followerId, followeeId, true);
+    }
+
+    @Transactional
+    public void unfollow(String followeeId) {
+        String followerId = SecurityUtils.currentUserId();
+        FollowId id = new FollowId(followerId, followeeId);
+        if (!followRepository.existsById(id)) {
+            return;
+        }
+        followRepository.deleteById(id);
+        changeFollowers(followerId, followeeId, false);
+    }
+
+    private void changeFollowers(String followerId, String followeeId, boolean followed) {
+        long delta = followed ? 1 : -1;
+        authorStatsRepository.createIfAbsent(followeeId);
+        authorStatsRepository.addFollowers(followeeId, delta);
+        long followers = authorStatsRepository.findFollowerCount(followeeId);
+        boolean celebrityChanged = (followers >= CELEBRITY_THRESHOLD) != (followers - delta >= CELEBRITY_THRESHOLD);
+        eventPublisher.publishEvent(new FollowChangedEvent(followerId, followeeId, followed, celebrityChanged));
+    }
+}
@@ -0,0 +1,86 @@
+package com.daypulse.main_service.service;
+
+import com.daypulse.main_service.dto.response.PulseLikeResponse;
+import com.daypulse.main_service.dto.response.PulseResponse;
+import com.daypulse.main_service.entity.Pulse;
+import com.daypulse.main_service.like.LikeSnapshot;
+import com.daypulse.main_service.like.LikeStore;
+import com.daypulse.main_service.mapper.PulseMapper;
+import com.daypulse.main_service.util.SecurityUtils;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LikeService {
+    LikeStore likeStore;
+    UserOrdinalService userOrdinalService;
+    PulseMapper pulseMapper;
+    ApplicationEventPublisher eventPublisher;
+
+    public PulseLikeResponse like(long pulseId) {
+        String userId = SecurityUtils.currentUserId();
+        if (likeStore.like(pulseId, userOrdinalService.getOrCreate(userId))) {
+            eventPublisher.publishEvent(new PulseLikedEvent(pulseId, userId));
+        }
+        return PulseLikeResponse.builder()
+                .likes(likeStore.count(pulseId))
+                .hasLiked(true)
+                .build();
+    }
+
+    public PulseLikeResponse unlike(long pulseId) {
+        int ordinal = userOrdinalService.find(SecurityUtils.currentUserId());
+        if (ordinal != UserOrdinalService.NONE) {
+            likeStore.unlike(pulseId, ordinal);
+        }
+        return PulseLikeResponse.builder()
+                .likes(likeStore.count(pulseId))
+                .hasLiked(false)
+                .build();
+    }
+
+    /**
+     * Maps pulses to responses with their like count and whether the caller liked them. Pulses
+     * held in memory answer from there; the rest take one query for the whole page.
+     */
+    public List<PulseResponse> toPulseResponses(List<Pulse> pulses) {
+        int ordinal = userOrdinalService.find(SecurityUtils.currentUserId());
+        Map<Long, LikeSnapshot> snapshots = new HashMap<>();
+        List<Long> stored = new ArrayList<>();
+        for (Pulse pulse : pulses) {
+            LikeSnapshot snapshot = likeStore.peek(pulse.getId(), ordinal);
+            if (snapshot != null) {
+                snapshots.put(pulse.getId(), snapshot);
+            } else {
+                stored.add(pulse.getId());
+            }
+        }
+        Set<Long> liked = ordinal == UserOrdinalService.NONE ? Set.of() : likeStore.findLiked(ordinal, stored);
+
+        List<PulseResponse> responses = new ArrayList<>(pulses.size());
+        for (Pulse pulse : pulses) {
+            LikeSnapshot snapshot = snapshots.get(pulse.getId());
+            responses.add(snapshot != null
+                    ? pulseMapper.toPulseResponse(pulse, snapshot.likes(), snapshot.hasLiked())
+                    : pulseMapper.toPulseResponse(pulse, pulse.getLikeCount(), liked.contains(pulse.getId())));
+        }
+        return responses;
+    }
+
+    @TransactionalEventListener
+    public void onPulseDeleted(PulseDeletedEvent event) {
+        likeStore.discard(event.pulseId());
+    }
+}
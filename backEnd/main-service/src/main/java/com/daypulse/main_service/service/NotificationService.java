@@ -0,0 +1,191 @@
+package com.daypulse.main_service.service;
+
+import com.daypulse.main_service.dto.response.NotificationPageResponse;
+import com.daypulse.main_service.dto.response.NotificationResponse;
+import com.daypulse.main_service.dto.response.UnreadCountResponse;
+import com.daypulse.main_service.exception.AppException;
+import com.daypulse.main_service.exception.ErrorCode;
+import com.daypulse.main_service.notification.Notification;
+import com.daypulse.main_service.notification.NotificationCursor;
+import com.daypulse.main_service.notification.NotificationKey;
+import com.daypulse.main_service.notification.NotificationStore;
+import com.daypulse.main_service.notification.NotificationStreams;
+import com.daypulse.main_service.notification.NotificationType;
+import com.daypulse.main_service.notification.NotificationsWrittenEvent;
+import com.daypulse.main_service.repository.PulseRepository;
+import com.daypulse.main_service.util.SecurityUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Notifications of likes, comments and follows, fed by their events. Users are not notified of
+ * their own actions, and undoing one does not take its notification back.
+ * <p>
+ * Users with an open stream get each notification as it is written, as a {@code notification}
+ * event, and their unread count whenever it changes, as an {@code unread} event.
+ */
+@Service
+public class NotificationService {
+    private final NotificationStore notificationStore;
+    private final NotificationStreams notificationStreams;
+    private final PulseRepository pulseRepository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    // Authors never change, so a hot pulse is looked up once for all its likes
+    private final Cache<Long, Optional<String>> pulseAuthors;
+
+    public NotificationService(NotificationStore notificationStore,
+                               NotificationStreams notificationStreams,
+                               PulseRepository pulseRepository,
+                               @Value("${notifications.default-page-size}") int defaultPageSize,
+                               @Value("${notifications.max-page-size}") int maxPageSize,
+                               @Value("${notifications.max-cached-authors}") long maxCachedAuthors) {
+        this.notificationStore = notificationStore;
+        this.notificationStreams = notificationStreams;
+        this.pulseRepository = pulseRepository;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.pulseAuthors = Caffeine.newBuilder()
+                .maximumSize(maxCachedAuthors)
+                .build();
+    }
+
+    public NotificationPageResponse getNotifications(String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : Math.clamp(limit, 1, maxPageSize);
+        List<Notification> notifications = notificationStore.findPage(SecurityUtils.currentUserId(),
+                cursor == null || cursor.isBlank() ? null : NotificationCursor.decode(cursor), pageSize);
+        Notification last = notifications.isEmpty() ? null : notifications.getLast();
+        return NotificationPageResponse.builder()
+                .notifications(notifications.stream().map(NotificationService::toResponse).toList())
+                .nextCursor(notifications.size() == pageSize
+                        ? new NotificationCursor(last.updatedAt().toEpochMilli(), last.id()).encode()
+                        : null)
+                .build();
+    }
+
+    public UnreadCountResponse getUnreadCount() {
+        return UnreadCountResponse.builder()
+                .unread(notificationStore.countUnread(SecurityUtils.currentUserId()))
+                .build();
+    }
+
+    /**
+     * Opens a stream of the caller's notifications, starting with their unread count.
+     */
+    public SseEmitter stream() {
+        String userId = SecurityUtils.currentUserId();
+        SseEmitter emitter = notificationStreams.subscribe(userId);
+        sendUnreadCount(userId);
+        return emitter;
+    }
+
+    public void markRead(String notificationId) {
+        long id;
+        try {
+            id = Long.parseLong(notificationId);
+        } catch (NumberFormatException e) {
+            throw new AppException(ErrorCode.NOTIFICATION_NOT_FOUND);
+        }
+        String userId = SecurityUtils.currentUserId();
+        if (notificationStore.markRead(userId, id)) {
+            sendUnreadCount(userId);
+        } else if (!notificationStore.exists(userId, id)) {
+            throw new AppException(ErrorCode.NOTIFICATION_NOT_FOUND);
+        }
+    }
+
+    public void markAllRead() {
+        String userId = SecurityUtils.currentUserId();
+        if (notificationStore.markAllRead(userId) > 0) {
+            sendUnreadCount(userId);
+        }
+    }
+
+    /**
+     * Sends what a flush wrote to the recipients that have a stream open.
+     */
+    @EventListener
+    public void onNotificationsWritten(NotificationsWrittenEvent event) {
+        Map<Long, String> recipients = new HashMap<>();
+        event.idsByRecipient().forEach((recipientId, ids) -> {
+            if (notificationStreams.isSubscribed(recipientId)) {
+                ids.forEach(id -> recipients.put(id, recipientId));
+            }
+        });
+        if (recipients.isEmpty()) {
+            return;
+        }
+        for (Notification notification : notificationStore.findAllById(recipients.keySet())) {
+            notificationStreams.send(recipients.get(notification.id()), "notification:" + notification.id(),
+                    SseEmitter.event().name("notification").data(toResponse(notification), MediaType.APPLICATION_JSON));
+        }
+        new HashSet<>(recipients.values()).forEach(this::sendUnreadCount);
+    }
+
+    @EventListener
+    public void onPulseLiked(PulseLikedEvent event) {
+        notifyAuthor(event.pulseId(), NotificationType.LIKE, event.userId());
+    }
+
+    @TransactionalEventListener
+    public void onCommentCreated(CommentCreatedEvent event) {
+        notifyAuthor(event.pulseId(), NotificationType.COMMENT, event.authorId());
+    }
+
+    @TransactionalEventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        if (event.followed()) {
+            notificationStore.record(new NotificationKey(event.followeeId(), NotificationType.FOLLOW, 0),
+                    event.followerId(), System.currentTimeMillis());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onPulseDeleted(PulseDeletedEvent event) {
+        pulseAuthors.invalidate(event.pulseId());
+        notificationStore.discard(event.authorId(), event.pulseId());
+        sendUnreadCount(event.authorId());
+    }
+
+    private void sendUnreadCount(String userId) {
+        if (notificationStreams.isSubscribed(userId)) {
+            UnreadCountResponse unread = UnreadCountResponse.builder()
+                    .unread(notificationStore.countUnread(userId))
+                    .build();
+            notificationStreams.send(userId, "unread",
+                    SseEmitter.event().name("unread").data(unread, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private void notifyAuthor(long pulseId, NotificationType type, String actorId) {
+        pulseAuthors.get(pulseId, pulseRepository::findAuthorId)
+                .filter(authorId -> !authorId.equals(actorId))
+                .ifPresent(authorId -> notificationStore.record(new NotificationKey(authorId, type, pulseId), actorId,
+                        System.currentTimeMillis()));
+    }
+
+    private static NotificationResponse toResponse(Notification notification) {
+        return NotificationResponse.builder()
+                .id(String.valueOf(notification.id()))
+                .type(notification.type().name().toLowerCase())
+                .pulseId(notification.type() == NotificationType.FOLLOW ? null : String.valueOf(notification.targetId()))
+                .latestActorId(notification.latestActorId())
+                .eventCount(notification.eventCount())
+                .createdAt(notification.createdAt())
+                .updatedAt(notification.updatedAt())
+                .read(notification.read())
+                .build();
+    }
+}
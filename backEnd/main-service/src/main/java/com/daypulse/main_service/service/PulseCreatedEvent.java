@@ -0,0 +1,7 @@
+package com.daypulse.main_service.service;
+
+/**
+ * Published inside the creating transaction; timelines are updated once it commits.
+ */
+public record PulseCreatedEvent(long pulseId, String authorId, String content) {
+}
@@ -0,0 +1,4 @@
+package com.daypulse.main_service.service;
+
+public record PulseDeletedEvent(long pulseId, String authorId) {
+}
@@ -0,0 +1,8 @@
+package com.daypulse.main_service.service;
+
+/**
+ * A user liked a pulse they had not liked before. Published outside any transaction: the like is
+ * written by a later flush.
+ */
+public record PulseLikedEvent(long pulseId, String userId) {
+}
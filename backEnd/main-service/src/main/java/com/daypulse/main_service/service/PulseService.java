@@ -0,0 +1,63 @@
+package com.daypulse.main_service.service;
+
+import com.daypulse.main_service.dto.request.PulseCreationRequest;
+import com.daypulse.main_service.dto.response.PulseResponse;
+import com.daypulse.main_service.entity.Pulse;
+import com.daypulse.main_service.exception.AppException;
+import com.daypulse.main_service.exception.ErrorCode;
+import com.daypulse.main_service.repository.CommentRepository;
+import com.daypulse.main_service.repository.PulseRepository;
+import com.daypulse.main_service.util.PulseIdGenerator;
+import com.daypulse.main_service.util.SecurityUtils;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PulseService {
+    PulseRepository pulseRepository;
+    CommentRepository commentRepository;
+    LikeService likeService;
+    PulseIdGenerator pulseIdGenerator;
+    ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public PulseResponse createPulse(PulseCreationRequest request) {
+        Pulse pulse = pulseRepository.save(Pulse.builder()
+                .id(pulseIdGenerator.nextId())
+                .authorId(SecurityUtils.currentUserId())
+                .content(request.getContent())
+                .createdAt(Instant.now())
+                .build());
+        eventPublisher.publishEvent(new PulseCreatedEvent(pulse.getId(), pulse.getAuthorId(), pulse.getContent()));
+        return likeService.toPulseResponses(List.of(pulse)).getFirst();
+    }
+
+    public PulseResponse getPulse(long pulseId) {
+        Pulse pulse = pulseRepository.findById(pulseId)
+                .orElseThrow(() -> new AppException(ErrorCode.PULSE_NOT_FOUND));
+        return likeService.toPulseResponses(List.of(pulse)).getFirst();
+    }
+
+    @Transactional
+    public void deletePulse(long pulseId) {
+        Pulse pulse = pulseRepository.findById(pulseId)
+                .orElseThrow(() -> new AppException(ErrorCode.PULSE_NOT_FOUND));
+        if (!pulse.getAuthorId().equals(SecurityUtils.currentUserId())) {
+            throw new AppException(ErrorCode.UNAUTHORIZED);
+        }
+        commentRepository.deleteByPulseId(pulseId);
+        pulseRepository.delete(pulse);
+        eventPublisher.publishEvent(new PulseDeletedEvent(pulse.getId(), pulse.getAuthorId()));
+    }
+}
@@ -0,0 +1,92 @@
+package com.daypulse.main_service.service;
+
+import com.daypulse.main_service.dto.response.TrendingTagResponse;
+import com.daypulse.main_service.trending.TagExtractor;
+import com.daypulse.main_service.trending.TrendingTags;
+import com.daypulse.main_service.util.PulseIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Trending tags over the last {@code trending.window}, counted as pulses are created rather than
+ * by querying pulses. The ranking is refreshed every {@code trending.refresh-interval}.
+ */
+@Slf4j
+@Service
+public class TrendingService {
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration window;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final TrendingTags trendingTags;
+
+    public TrendingService(JdbcTemplate jdbcTemplate,
+                           @Value("${trending.window}") Duration window,
+                           @Value("${trending.bucket}") Duration bucket,
+                           @Value("${trending.sketch.depth}") int depth,
+                           @Value("${trending.sketch.width}") int width,
+                           @Value("${trending.candidates}") int candidates,
+                           @Value("${trending.default-limit}") int defaultLimit,
+                           @Value("${trending.max-limit}") int maxLimit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.window = window;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.trendingTags = new TrendingTags(window.toMillis(), bucket.toMillis(), depth, width, candidates,
+                System.currentTimeMillis());
+    }
+
+    public List<TrendingTagResponse> getTrendingTags(Integer limit) {
+        int count = limit == null ? defaultLimit : Math.clamp(limit, 1, maxLimit);
+        return trendingTags.top(count).stream()
+                .map(tag -> TrendingTagResponse.builder()
+                        .tag(tag.tag())
+                        .count(tag.count())
+                        .build())
+                .toList();
+    }
+
+    @TransactionalEventListener
+    public void onPulseCreated(PulseCreatedEvent event) {
+        Set<String> tags = TagExtractor.extract(event.content());
+        if (!tags.isEmpty()) {
+            trendingTags.record(tags, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Replays the pulses of the current window once at startup. Pulse ids are time ordered, so this
+     * is a range scan of the primary key.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long fromId = PulseIdGenerator.lowestIdAt(Instant.now().minus(window));
+        int[] replayed = new int[1];
+        jdbcTemplate.query("select content, created_at from pulses where id >= ?", (RowCallbackHandler) resultSet -> {
+            Set<String> tags = TagExtractor.extract(resultSet.getString("content"));
+            if (!tags.isEmpty()) {
+                trendingTags.record(tags, resultSet.getTimestamp("created_at").getTime());
+            }
+            replayed[0]++;
+        }, fromId);
+        refresh();
+        log.info("Replayed {} pulses of the last {} into trending tags", replayed[0], window);
+    }
+
+    @Scheduled(fixedDelayString = "${trending.refresh-interval}")
+    public void refresh() {
+        trendingTags.refresh(System.currentTimeMillis());
+    }
+}
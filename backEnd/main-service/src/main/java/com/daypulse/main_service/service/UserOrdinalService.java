@@ -0,0 +1,56 @@
+package com.daypulse.main_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Numbers users densely in the order they first like something. Ordinals never change once
+ * assigned.
+ */
+@Service
+public class UserOrdinalService {
+    public static final int NONE = -1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, Integer> ordinals;
+
+    public UserOrdinalService(JdbcTemplate jdbcTemplate,
+                              @Value("${likes.max-cached-ordinals}") long maxCachedOrdinals) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ordinals = Caffeine.newBuilder()
+                .maximumSize(maxCachedOrdinals)
+                .build();
+    }
+
+    public int getOrCreate(String userId) {
+        return ordinals.get(userId, id -> {
+            jdbcTemplate.update("insert into user_ordinals (user_id) values (?) on conflict do nothing", id);
+            return select(id).getFirst();
+        });
+    }
+
+    /**
+     * The user's ordinal, or {@link #NONE} if they never liked anything.
+     */
+    public int find(String userId) {
+        Integer ordinal = ordinals.getIfPresent(userId);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        List<Integer> found = select(userId);
+        if (found.isEmpty()) {
+            return NONE;
+        }
+        ordinals.put(userId, found.getFirst());
+        return found.getFirst();
+    }
+
+    private List<Integer> select(String userId) {
+        return jdbcTemplate.queryForList("select ordinal from user_ordinals where user_id = ?", Integer.class, userId);
+    }
+}
@@ -0,0 +1,11 @@
+package com.daypulse.main_service.timeline;
+
+import java.util.List;
+
+/**
+ * A user's materialized home timeline: the ids fanned out to them (their own pulses and those of
+ * the normal authors they follow), plus the celebrities they follow, whose pulses are merged in
+ * when the timeline is read.
+ */
+public record HomeTimeline(TimelineBuffer buffer, List<String> celebrityIds) {
+}
@@ -0,0 +1,102 @@
+package com.daypulse.main_service.timeline;
+
+import java.util.Arrays;
+
+/**
+ * The newest pulse ids of one timeline, held as a sorted {@code long[]} of at most
+ * {@code capacity} entries. Adding to a full buffer drops the oldest id.
+ * <p>
+ * A buffer is complete when it holds every id of its timeline; once ids have been dropped, or it
+ * was loaded with a full page, only ids at or above {@link #floor()} are known to be there and
+ * older pages have to come from the database.
+ */
+public final class TimelineBuffer {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int capacity;
+    private long[] ids;
+    private int size;
+    private boolean truncated;
+
+    /**
+     * @param newestFirst ids in descending order, at most {@code capacity} of them
+     * @param truncated   whether older ids exist that were not loaded
+     */
+    public TimelineBuffer(int capacity, long[] newestFirst, boolean truncated) {
+        if (newestFirst.length > capacity) {
+            throw new IllegalArgumentException("Loaded " + newestFirst.length + " ids into a buffer of " + capacity);
+        }
+        this.capacity = capacity;
+        this.size = newestFirst.length;
+        this.ids = new long[Math.min(capacity, Math.max(INITIAL_CAPACITY, size))];
+        for (int i = 0; i < size; i++) {
+            ids[i] = newestFirst[size - 1 - i];
+        }
+        this.truncated = truncated;
+    }
+
+    /**
+     * Inserts {@code id} in order. Ids already present are ignored, so a pulse that arrives both by
+     * loading and by fan-out is kept once.
+     */
+    public synchronized void add(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            return;
+        }
+        index = -index - 1;
+        if (size == capacity) {
+            truncated = true;
+            if (index == 0) {
+                // Older than everything kept
+                return;
+            }
+            System.arraycopy(ids, 1, ids, 0, index - 1);
+            ids[index - 1] = id;
+            return;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, Math.min(capacity, ids.length * 2));
+        }
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        ids[index] = id;
+        size++;
+    }
+
+    public synchronized void remove(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+    }
+
+    /**
+     * Up to {@code limit} ids below {@code before}, newest first.
+     */
+    public synchronized long[] page(long before, int limit) {
+        int end = Arrays.binarySearch(ids, 0, size, before);
+        end = end >= 0 ? end : -end - 1;
+        int count = Math.min(limit, end);
+        long[] page = new long[count];
+        for (int i = 0; i < count; i++) {
+            page[i] = ids[end - 1 - i];
+        }
+        return page;
+    }
+
+    /**
+     * The lowest id below which this buffer may be missing ids, or {@link Long#MIN_VALUE} if it
+     * is complete.
+     */
+    public synchronized long floor() {
+        if (!truncated) {
+            return Long.MIN_VALUE;
+        }
+        return size > 0 ? ids[0] : Long.MAX_VALUE;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
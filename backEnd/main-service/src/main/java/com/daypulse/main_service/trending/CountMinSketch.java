@@ -0,0 +1,72 @@
+package com.daypulse.main_service.trending;
+
+import java.util.Arrays;
+
+/**
+ * Count-min sketch over precomputed 64-bit hashes. Estimates never undercount; with width w and
+ * depth d an estimate exceeds the true count by more than 2N/w with probability at most 2^-d,
+ * where N is the sum of all counts. Sketches of the same shape add and subtract cell by cell,
+ * which is what lets a window sketch drop an expired bucket.
+ */
+final class CountMinSketch {
+    private final int depth;
+    private final int width;
+    private final int[] cells;
+
+    CountMinSketch(int depth, int width) {
+        if (Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Sketch width must be a power of two: " + width);
+        }
+        this.depth = depth;
+        this.width = width;
+        this.cells = new int[depth * width];
+    }
+
+    void add(long hash, int count) {
+        for (int row = 0; row < depth; row++) {
+            cells[cell(hash, row)] += count;
+        }
+    }
+
+    int estimate(long hash) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, cells[cell(hash, row)]);
+        }
+        return estimate;
+    }
+
+    void subtract(CountMinSketch other) {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] -= other.cells[i];
+        }
+    }
+
+    void clear() {
+        Arrays.fill(cells, 0);
+    }
+
+    private int cell(long hash, int row) {
+        // Double hashing: row i uses h1 + i * h2, with h2 odd so rows differ for every width
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * width + ((h1 + row * h2) & (width - 1));
+    }
+
+    /**
+     * FNV-1a over the characters, finished with the MurmurHash3 mixer so every bit of the result
+     * depends on every character.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,30 @@
+package com.daypulse.main_service.trending;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class TagExtractor {
+    public static final int MAX_TAG_LENGTH = 50;
+
+    // A # inside a word does not start a tag, and longer words are not tags rather than truncated ones
+    private static final Pattern TAG = Pattern.compile(
+            "(?<![\\p{L}\\p{N}_])#(\\p{L}[\\p{L}\\p{N}_]{0," + (MAX_TAG_LENGTH - 1) + "})(?![\\p{L}\\p{N}_])");
+
+    private TagExtractor() {
+    }
+
+    /**
+     * The distinct #tags of a pulse, lower-cased and without the #.
+     */
+    public static Set<String> extract(String content) {
+        Set<String> tags = new LinkedHashSet<>();
+        Matcher matcher = TAG.matcher(content);
+        while (matcher.find()) {
+            tags.add(matcher.group(1).toLowerCase(Locale.ROOT));
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,7 @@
+package com.daypulse.main_service.trending;
+
+/**
+ * @param count estimated uses in the window, never below the true count
+ */
+public record TrendingTag(String tag, int count) {
+}
@@ -0,0 +1,156 @@
+package com.daypulse.main_service.trending;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tag counts over a sliding window, in memory that does not grow with the number of distinct
+ * tags.
+ * <p>
+ * The window is a ring of per-bucket {@link CountMinSketch}es plus their running sum: a use is
+ * added to its bucket and to the sum, and a bucket leaving the window is subtracted from the sum.
+ * Tags whose estimate makes them heavy hitters are kept as a bounded candidate set; a new tag
+ * displaces the weakest candidate once its estimate is higher.
+ * <p>
+ * Recording is synchronized. The ranking is rebuilt by {@link #refresh(long)} and published as
+ * an immutable list, so {@link #top(int)} never waits for writers.
+ */
+public class TrendingTags {
+    private final long bucketMillis;
+    private final CountMinSketch[] buckets;
+    private final CountMinSketch window;
+    private final int maxCandidates;
+    private final Map<String, Candidate> candidates = new HashMap<>();
+    private long newestBucket;
+    private Candidate weakest;
+
+    private volatile List<TrendingTag> ranking = List.of();
+
+    public TrendingTags(long windowMillis, long bucketMillis, int depth, int width, int maxCandidates, long nowMillis) {
+        int bucketCount = Math.toIntExact(Math.ceilDiv(windowMillis, bucketMillis));
+        this.bucketMillis = bucketMillis;
+        this.buckets = new CountMinSketch[bucketCount];
+        this.window = new CountMinSketch(depth, width);
+        this.maxCandidates = maxCandidates;
+        this.newestBucket = nowMillis / bucketMillis;
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new CountMinSketch(depth, width);
+        }
+    }
+
+    /**
+     * Counts one use of each tag at {@code timestampMillis}. Uses older than the window are
+     * ignored.
+     */
+    public synchronized void record(Collection<String> tags, long timestampMillis) {
+        long number = timestampMillis / bucketMillis;
+        advance(number);
+        if (number <= newestBucket - buckets.length) {
+            return;
+        }
+        CountMinSketch bucket = buckets[slot(number)];
+        for (String tag : tags) {
+            long hash = CountMinSketch.hash(tag);
+            bucket.add(hash, 1);
+            window.add(hash, 1);
+            offer(tag, hash, window.estimate(hash));
+        }
+    }
+
+    /**
+     * Expires buckets up to {@code nowMillis}, re-estimates the candidates and publishes the new
+     * ranking.
+     */
+    public synchronized void refresh(long nowMillis) {
+        advance(nowMillis / bucketMillis);
+        Iterator<Candidate> iterator = candidates.values().iterator();
+        while (iterator.hasNext()) {
+            Candidate candidate = iterator.next();
+            candidate.estimate = window.estimate(candidate.hash);
+            if (candidate.estimate <= 0) {
+                iterator.remove();
+            }
+        }
+        weakest = null;
+        ranking = candidates.values().stream()
+                .sorted(Comparator.comparingInt((Candidate candidate) -> candidate.estimate).reversed()
+                        .thenComparing(candidate -> candidate.tag))
+                .map(candidate -> new TrendingTag(candidate.tag, candidate.estimate))
+                .toList();
+    }
+
+    /**
+     * The {@code limit} most used tags as of the last refresh.
+     */
+    public List<TrendingTag> top(int limit) {
+        List<TrendingTag> current = ranking;
+        return current.subList(0, Math.min(limit, current.size()));
+    }
+
+    private void offer(String tag, long hash, int estimate) {
+        Candidate candidate = candidates.get(tag);
+        if (candidate != null) {
+            candidate.estimate = estimate;
+            if (candidate == weakest) {
+                weakest = null;
+            }
+            return;
+        }
+        if (candidates.size() < maxCandidates) {
+            candidates.put(tag, new Candidate(tag, hash, estimate));
+            return;
+        }
+        Candidate displaced = weakest();
+        if (estimate > displaced.estimate) {
+            candidates.remove(displaced.tag);
+            candidates.put(tag, new Candidate(tag, hash, estimate));
+            weakest = null;
+        }
+    }
+
+    private Candidate weakest() {
+        if (weakest == null) {
+            for (Candidate candidate : candidates.values()) {
+                if (weakest == null || candidate.estimate < weakest.estimate) {
+                    weakest = candidate;
+                }
+            }
+        }
+        return weakest;
+    }
+
+    private void advance(long number) {
+        if (number <= newestBucket) {
+            return;
+        }
+        // Past a full window every bucket is reused, so there is no need to step through the gap
+        long first = Math.max(newestBucket + 1, number - buckets.length + 1);
+        for (long next = first; next <= number; next++) {
+            CountMinSketch expired = buckets[slot(next)];
+            window.subtract(expired);
+            expired.clear();
+        }
+        newestBucket = number;
+    }
+
+    private int slot(long bucketNumber) {
+        return (int) Math.floorMod(bucketNumber, (long) buckets.length);
+    }
+
+    private static final class Candidate {
+        final String tag;
+        final long hash;
+        int estimate;
+
+        Candidate(String tag, long hash, int estimate) {
+            this.tag = tag;
+            this.hash = hash;
+            this.estimate = estimate;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.daypulse.main_service.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Generates 64-bit pulse ids that sort by creation time: 41 bits of milliseconds since
+ * {@link #EPOCH}, 10 bits of node id and 12 bits of per-millisecond sequence. Timelines can then
+ * store bare longs and page with "id below cursor" instead of comparing timestamps.
+ */
+@Component
+public class PulseIdGenerator {
+    static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long epochMillis = EPOCH.toEpochMilli();
+    private final long node;
+    private long lastMillis = -1;
+    private long sequence;
+
+    public PulseIdGenerator(@Value("${pulse-id.node-id}") long node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("pulse-id.node-id must be between 0 and " + MAX_NODE);
+        }
+        this.node = node;
+    }
+
+    public synchronized long nextId() {
+        // A clock that steps back keeps using the last millisecond until it catches up
+        long millis = Math.max(System.currentTimeMillis(), lastMillis);
+        if (millis == lastMillis) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                millis = ++lastMillis;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = millis;
+        return ((millis - epochMillis) << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+
+    /**
+     * The smallest id generated at or after {@code instant} on any node.
+     */
+    public static long lowestIdAt(Instant instant) {
+        return (instant.toEpochMilli() - EPOCH.toEpochMilli()) << (NODE_BITS + SEQUENCE_BITS);
+    }
+}
@@ -0,0 +1,26 @@
+-- Pulse ids are time ordered (see PulseIdGenerator), so "newest first" is "highest id first".
+create table pulses (
+    id         bigint       not null,
+    author_id  varchar(36)  not null,
+    content    varchar(280) not null,
+    created_at timestamp(6) not null,
+    primary key (id)
+);
+
+create index ix_pulses_author_id on pulses (author_id, id);
+
+create table follows (
+    follower_id varchar(36)  not null,
+    followee_id varchar(36)  not null,
+    created_at  timestamp(6) not null,
+    primary key (follower_id, followee_id)
+);
+
+-- Fan-out reads the followers of an author
+create index ix_follows_followee_id on follows (followee_id, follower_id);
+
+create table author_stats (
+    user_id        varchar(36) not null,
+    follower_count bigint      not null,
+    primary key (user_id)
+);
@@ -0,0 +1,15 @@
+alter table pulses add column like_count bigint not null default 0;
+
+-- Dense numbers for auth-service user ids, so likers fit in bitmaps
+create table user_ordinals (
+    user_id varchar(36) not null,
+    ordinal integer generated by default as identity,
+    primary key (user_id),
+    unique (ordinal)
+);
+
+create table pulse_likes (
+    pulse_id     bigint  not null,
+    user_ordinal integer not null,
+    primary key (pulse_id, user_ordinal)
+);
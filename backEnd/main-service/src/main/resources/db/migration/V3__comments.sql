@@ -0,0 +1,15 @@
+-- comment_seq numbers the comments of a pulse; comment_count excludes deleted ones
+alter table pulses add column comment_seq bigint not null default 0;
+alter table pulses add column comment_count bigint not null default 0;
+
+-- Append-only: comments of a pulse are numbered in order and only ever marked deleted, so every
+-- page is a range of the primary key
+create table comments (
+    pulse_id   bigint       not null,
+    seq        bigint       not null,
+    author_id  varchar(36)  not null,
+    content    varchar(280) not null,
+    created_at timestamp(6) not null,
+    deleted    boolean      not null default false,
+    primary key (pulse_id, seq)
+);
@@ -0,0 +1,23 @@
+-- One row per group of like, comment or follow events coalesced for a recipient. target_id is the
+-- pulse for likes and comments and 0 for follows; event_count counts the events merged into it
+create table notifications (
+    id              bigint       not null,
+    recipient_id    varchar(36)  not null,
+    type            varchar(7)   not null,
+    target_id       bigint       not null,
+    latest_actor_id varchar(36)  not null,
+    event_count     bigint       not null,
+    created_at      timestamp(6) not null,
+    updated_at      timestamp(6) not null,
+    read            boolean      not null default false,
+    primary key (id)
+);
+
+create index ix_notifications_recipient_updated_at on notifications (recipient_id, updated_at, id);
+
+-- Unread notifications per recipient, adjusted with every change instead of counted on read
+create table notification_counters (
+    user_id varchar(36) not null,
+    unread  bigint      not null,
+    primary key (user_id)
+);
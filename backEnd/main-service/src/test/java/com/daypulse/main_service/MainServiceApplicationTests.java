@@ -0,0 +1,13 @@
+package com.daypulse.main_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class MainServiceApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
@@ -0,0 +1,187 @@
+package com.daypulse.main_service.like;
+
+import com.daypulse.main_service.exception.AppException;
+import com.daypulse.main_service.exception.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LikeStoreTest {
+    private static final long PULSE = 1;
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate.execute("create table pulses (id bigint primary key, like_count bigint not null)");
+        jdbcTemplate.execute("create table pulse_likes (pulse_id bigint not null, user_ordinal integer not null, "
+                + "primary key (pulse_id, user_ordinal))");
+        jdbcTemplate.update("insert into pulses (id, like_count) values (?, 0)", PULSE);
+    }
+
+    @Test
+    void likesOncePerUser() {
+        LikeStore store = store(Duration.ofMinutes(10));
+
+        assertThat(store.like(PULSE, 7)).isTrue();
+        assertThat(store.like(PULSE, 7)).isFalse();
+        assertThat(store.unlike(PULSE, 8)).isFalse();
+        assertThat(store.count(PULSE)).isEqualTo(1);
+        assertThat(store.peek(PULSE, 7)).isEqualTo(new LikeSnapshot(1, true));
+        assertThat(store.peek(PULSE, 8)).isEqualTo(new LikeSnapshot(1, false));
+        assertThat(store.peek(2, 7)).isNull();
+    }
+
+    @Test
+    void writesCurrentStateOnFlush() {
+        LikeStore store = store(Duration.ofMinutes(10));
+        store.like(PULSE, 1);
+        store.like(PULSE, 2);
+        store.like(PULSE, 3);
+        store.unlike(PULSE, 3);
+
+        store.flush();
+
+        assertThat(likers()).containsExactlyInAnyOrder(1, 2);
+        assertThat(likeCount()).isEqualTo(2);
+        assertThat(store.findLiked(2, List.of(PULSE, 99L))).containsExactly(PULSE);
+
+        store.unlike(PULSE, 1);
+        store.flush();
+
+        assertThat(likers()).containsExactly(2);
+        assertThat(likeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void loadsLikesFromTheDatabase() {
+        jdbcTemplate.update("insert into pulse_likes (pulse_id, user_ordinal) values (?, 4)", PULSE);
+        jdbcTemplate.update("update pulses set like_count = 1 where id = ?", PULSE);
+        LikeStore store = store(Duration.ofMinutes(10));
+
+        assertThat(store.like(PULSE, 4)).isFalse();
+        assertThat(store.unlike(PULSE, 4)).isTrue();
+        store.flush();
+
+        assertThat(likers()).isEmpty();
+        assertThat(likeCount()).isZero();
+    }
+
+    @Test
+    void rejectsUnknownPulses() {
+        LikeStore store = store(Duration.ofMinutes(10));
+
+        assertThatThrownBy(() -> store.like(2, 1))
+                .isInstanceOfSatisfying(AppException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.PULSE_NOT_FOUND));
+    }
+
+    @Test
+    void deletesLikesOfDiscardedPulses() {
+        LikeStore store = store(Duration.ofMinutes(10));
+        store.like(PULSE, 1);
+        store.flush();
+        store.like(PULSE, 2);
+
+        store.discard(PULSE);
+        store.flush();
+
+        assertThat(likers()).isEmpty();
+        assertThat(store.peek(PULSE, 1)).isNull();
+    }
+
+    @Test
+    void evictsIdleStatesOnceFlushed() {
+        LikeStore store = store(Duration.ZERO);
+        store.like(PULSE, 1);
+
+        store.flush();
+
+        assertThat(store.peek(PULSE, 1)).isNull();
+        assertThat(store.count(PULSE)).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentLikesAreCountedOnce() throws InterruptedException {
+        LikeStore store = store(Duration.ofMinutes(10));
+        int users = 2_000;
+
+        LikerBitmapTest.runConcurrently(8, thread -> {
+            for (int user = 0; user < users; user++) {
+                store.like(PULSE, user);
+            }
+        });
+        store.flush();
+
+        assertThat(store.count(PULSE)).isEqualTo(users);
+        assertThat(likeCount()).isEqualTo(users);
+        assertThat(likers()).hasSize(users);
+    }
+
+    @Test
+    void changesRacingFlushAndEvictionAreNotLost() throws InterruptedException {
+        // Every flush retires the states it finds idle, so writers keep running into retiring states
+        LikeStore store = store(Duration.ZERO);
+        int writers = 4;
+        int users = 500;
+        Set<Integer> liked = ConcurrentHashMap.newKeySet();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread flusher = Thread.ofPlatform().start(() -> {
+            while (writing.get()) {
+                store.flush();
+            }
+        });
+
+        LikerBitmapTest.runConcurrently(writers, writer -> {
+            // Each writer owns its users, so the final state of each is known
+            for (int round = 0; round < 20; round++) {
+                for (int user = writer; user < users; user += writers) {
+                    if ((user + round) % 3 == 0) {
+                        store.unlike(PULSE, user);
+                        liked.remove(user);
+                    } else {
+                        store.like(PULSE, user);
+                        liked.add(user);
+                    }
+                }
+            }
+        });
+        writing.set(false);
+        flusher.join();
+        store.flush();
+
+        assertThat(new HashSet<>(likers())).isEqualTo(liked);
+        assertThat(likeCount()).isEqualTo(liked.size());
+        assertThat(store.count(PULSE)).isEqualTo(liked.size());
+    }
+
+    private LikeStore store(Duration idleExpiry) {
+        return new LikeStore(jdbcTemplate, transactionManager, idleExpiry);
+    }
+
+    private List<Integer> likers() {
+        return jdbcTemplate.queryForList("select user_ordinal from pulse_likes where pulse_id = ?", Integer.class, PULSE);
+    }
+
+    private long likeCount() {
+        return jdbcTemplate.queryForObject("select like_count from pulses where id = ?", Long.class, PULSE);
+    }
+}
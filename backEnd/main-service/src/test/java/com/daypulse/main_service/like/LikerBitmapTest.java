@@ -0,0 +1,161 @@
+package com.daypulse.main_service.like;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LikerBitmapTest {
+
+    @Test
+    void addsAndRemovesOnce() {
+        LikerBitmap bitmap = new LikerBitmap();
+
+        assertThat(bitmap.isEmpty()).isTrue();
+        assertThat(bitmap.add(5)).isTrue();
+        assertThat(bitmap.add(5)).isFalse();
+        assertThat(bitmap.contains(5)).isTrue();
+        assertThat(bitmap.contains(4)).isFalse();
+        assertThat(bitmap.remove(5)).isTrue();
+        assertThat(bitmap.remove(5)).isFalse();
+        assertThat(bitmap.remove(1 << 20)).isFalse();
+        assertThat(bitmap.isEmpty()).isTrue();
+    }
+
+    @Test
+    void keepsOrdinalsInSparseBlocksApart() {
+        LikerBitmap bitmap = new LikerBitmap();
+        int[] ordinals = {0, 63, 64, 1023, 1024, 1 << 20, Integer.MAX_VALUE};
+        for (int ordinal : ordinals) {
+            bitmap.add(ordinal);
+        }
+
+        for (int ordinal : ordinals) {
+            assertThat(bitmap.contains(ordinal)).as("%d", ordinal).isTrue();
+        }
+        assertThat(bitmap.contains(1025)).isFalse();
+        assertThat(drain(bitmap)).containsExactlyInAnyOrder(0, 63, 64, 1023, 1024, 1 << 20, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void drainClearsWhatItPasses() {
+        LikerBitmap bitmap = new LikerBitmap();
+        bitmap.add(3);
+        bitmap.add(70_000);
+
+        assertThat(drain(bitmap)).containsExactlyInAnyOrder(3, 70_000);
+        assertThat(bitmap.isEmpty()).isTrue();
+        assertThat(drain(bitmap)).isEmpty();
+    }
+
+    @Test
+    void concurrentAddsOfTheSameOrdinalSucceedOnce() throws InterruptedException {
+        LikerBitmap bitmap = new LikerBitmap();
+        int threads = 8;
+        int ordinals = 20_000;
+        AtomicInteger added = new AtomicInteger();
+        runConcurrently(threads, thread -> {
+            // Every thread adds every ordinal, in a different order, so words and blocks are shared
+            for (int i = 0; i < ordinals; i++) {
+                if (bitmap.add((i * (thread + 1) * 7919) % ordinals)) {
+                    added.incrementAndGet();
+                }
+            }
+        });
+
+        assertThat(added.get()).isEqualTo(ordinals);
+        assertThat(drain(bitmap)).hasSize(ordinals);
+    }
+
+    @Test
+    void concurrentRemovesOfTheSameOrdinalSucceedOnce() throws InterruptedException {
+        LikerBitmap bitmap = new LikerBitmap();
+        int ordinals = 20_000;
+        for (int i = 0; i < ordinals; i++) {
+            bitmap.add(i);
+        }
+        AtomicInteger removed = new AtomicInteger();
+        runConcurrently(8, thread -> {
+            for (int i = 0; i < ordinals; i++) {
+                if (bitmap.remove(i)) {
+                    removed.incrementAndGet();
+                }
+            }
+        });
+
+        assertThat(removed.get()).isEqualTo(ordinals);
+        assertThat(bitmap.isEmpty()).isTrue();
+    }
+
+    @Test
+    void drainRacingAddsLosesNothing() throws InterruptedException {
+        LikerBitmap bitmap = new LikerBitmap();
+        int writers = 4;
+        int perWriter = 50_000;
+        Set<Integer> drained = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread drainer = Thread.ofPlatform().start(() -> {
+            while (writing.get()) {
+                bitmap.drain(ordinal -> {
+                    if (!drained.add(ordinal)) {
+                        duplicates.incrementAndGet();
+                    }
+                });
+            }
+        });
+        runConcurrently(writers, writer -> {
+            for (int i = 0; i < perWriter; i++) {
+                bitmap.add(writer * perWriter + i);
+            }
+        });
+        writing.set(false);
+        drainer.join();
+        bitmap.drain(drained::add);
+
+        assertThat(duplicates.get()).isZero();
+        assertThat(drained).hasSize(writers * perWriter);
+        assertThat(bitmap.isEmpty()).isTrue();
+    }
+
+    private static List<Integer> drain(LikerBitmap bitmap) {
+        List<Integer> ordinals = new ArrayList<>();
+        bitmap.drain(ordinals::add);
+        return ordinals;
+    }
+
+    static void runConcurrently(int threads, ThreadBody body) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> started = new ArrayList<>();
+        Set<Throwable> failures = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < threads; i++) {
+            int thread = i;
+            started.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    body.run(thread);
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : started) {
+            thread.join();
+        }
+        assertThat(new HashSet<>(failures)).isEmpty();
+    }
+
+    @FunctionalInterface
+    interface ThreadBody {
+        void run(int thread) throws Exception;
+    }
+}
@@ -0,0 +1,118 @@
+package com.daypulse.main_service.trending;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrendingTagsTest {
+    private static final long WINDOW = 60_000;
+    private static final long BUCKET = 10_000;
+    private static final long START = 1_000_000_000L;
+
+    @Test
+    void ranksByUsesThenByTag() {
+        TrendingTags tags = tags(10);
+        record(tags, "java", 3, START);
+        record(tags, "spring", 2, START + 1_000);
+        record(tags, "kotlin", 2, START + 2_000);
+
+        assertThat(tags.top(10)).isEmpty();
+        tags.refresh(START + 2_000);
+
+        assertThat(tags.top(10)).containsExactly(new TrendingTag("java", 3), new TrendingTag("kotlin", 2),
+                new TrendingTag("spring", 2));
+        assertThat(tags.top(1)).containsExactly(new TrendingTag("java", 3));
+    }
+
+    @Test
+    void countsEachTagOfAUseOnce() {
+        TrendingTags tags = tags(10);
+        tags.record(List.of("a", "b"), START);
+        tags.record(List.of("a"), START);
+
+        tags.refresh(START);
+
+        assertThat(tags.top(10)).containsExactly(new TrendingTag("a", 2), new TrendingTag("b", 1));
+    }
+
+    @Test
+    void expiresUsesBucketByBucket() {
+        TrendingTags tags = tags(10);
+        record(tags, "old", 2, START);
+        record(tags, "old", 1, START + 30_000);
+        record(tags, "new", 1, START + 50_000);
+
+        // The first bucket leaves the window
+        tags.refresh(START + WINDOW);
+        assertThat(tags.top(10)).containsExactly(new TrendingTag("new", 1), new TrendingTag("old", 1));
+
+        tags.refresh(START + 30_000 + WINDOW);
+        assertThat(tags.top(10)).containsExactly(new TrendingTag("new", 1));
+
+        tags.refresh(START + 50_000 + WINDOW);
+        assertThat(tags.top(10)).isEmpty();
+    }
+
+    @Test
+    void clearsEverythingAfterAGapLongerThanTheWindow() {
+        TrendingTags tags = tags(10);
+        record(tags, "java", 5, START);
+
+        record(tags, "go", 1, START + 10 * WINDOW);
+        tags.refresh(START + 10 * WINDOW);
+
+        assertThat(tags.top(10)).containsExactly(new TrendingTag("go", 1));
+    }
+
+    @Test
+    void ignoresUsesOlderThanTheWindow() {
+        TrendingTags tags = tags(10);
+        record(tags, "now", 1, START + WINDOW);
+
+        record(tags, "late", 4, START);
+        tags.refresh(START + WINDOW);
+
+        assertThat(tags.top(10)).containsExactly(new TrendingTag("now", 1));
+    }
+
+    @Test
+    void newTagDisplacesTheWeakestCandidateOnlyOnceAhead() {
+        TrendingTags tags = tags(2);
+        record(tags, "a", 3, START);
+        record(tags, "b", 2, START);
+
+        record(tags, "c", 2, START);
+        tags.refresh(START);
+        assertThat(tags.top(10)).extracting(TrendingTag::tag).containsExactly("a", "b");
+
+        record(tags, "c", 1, START);
+        tags.refresh(START);
+        assertThat(tags.top(10)).containsExactly(new TrendingTag("a", 3), new TrendingTag("c", 3));
+    }
+
+    @Test
+    void candidateKeepsItsPlaceAsItGrows() {
+        TrendingTags tags = tags(2);
+        record(tags, "a", 1, START);
+        record(tags, "b", 2, START);
+        // a is the weakest until it is used again
+        record(tags, "a", 3, START);
+
+        record(tags, "c", 3, START);
+        tags.refresh(START);
+
+        assertThat(tags.top(10)).containsExactly(new TrendingTag("a", 4), new TrendingTag("c", 3));
+    }
+
+    private static TrendingTags tags(int maxCandidates) {
+        return new TrendingTags(WINDOW, BUCKET, 4, 1024, maxCandidates, START);
+    }
+
+    private static void record(TrendingTags tags, String tag, int times, long at) {
+        for (int i = 0; i < times; i++) {
+            tags.record(List.of(tag), at);
+        }
+    }
+}